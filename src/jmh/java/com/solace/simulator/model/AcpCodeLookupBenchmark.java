@@ -0,0 +1,102 @@
+package com.solace.simulator.model;
+
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.codec.AcpHeader;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message/reply code lookups as done per received message: the direct-indexed tables of
+ * {@link AcpMessageCode#fromCode} and {@link AcpReplyCode#fromCode} against the former
+ * {@code values()} scan with {@code description.contains("Request")}.
+ * {@code decode*} run the receive-path sequence: peek the code, look it up, classify it, pair it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcpCodeLookupBenchmark {
+
+    // Early, late and unknown codes in declaration order
+    @Param({"2073", "2801", "4321"})
+    public int messageCode;
+
+    private ByteBuffer message;
+    private int replyCode;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = new byte[AcpHeader.STANDARD_SIZE + 1];
+        bytes[0] = (byte) messageCode;
+        bytes[1] = (byte) (messageCode >> 8);
+        bytes[4] = 3; // OLD_TRANSACTION
+        message = AcpFrame.wrap(bytes).buffer();
+        replyCode = 3;
+    }
+
+    @Benchmark
+    public AcpMessageCode messageCodeTable() {
+        return AcpMessageCode.fromCode(messageCode);
+    }
+
+    @Benchmark
+    public AcpMessageCode messageCodeScan() {
+        return scanMessageCode(messageCode);
+    }
+
+    @Benchmark
+    public AcpReplyCode replyCodeTable() {
+        return AcpReplyCode.fromCode(replyCode);
+    }
+
+    @Benchmark
+    public AcpReplyCode replyCodeScan() {
+        for (AcpReplyCode code : AcpReplyCode.values()) {
+            if (code.getCode() == replyCode) {
+                return code;
+            }
+        }
+        return AcpReplyCode.UNKNOWN_ERROR;
+    }
+
+    @Benchmark
+    public int decodeTable() {
+        AcpMessageCode code = AcpMessageCode.fromCode(AcpHeader.peekMessageCode(message));
+        return code.isRequest() ? code.getReplyMessageCode().getCode() : code.isReply() ? 1 : 0;
+    }
+
+    @Benchmark
+    public int decodeScan() {
+        AcpMessageCode code = scanMessageCode(AcpHeader.peekMessageCode(message));
+        if (code.getDescription().contains("Request")) {
+            return scanReplyFor(code).getCode();
+        }
+        return code.getDescription().contains("Reply") ? 1 : 0;
+    }
+
+    private static AcpMessageCode scanMessageCode(int code) {
+        for (AcpMessageCode msgCode : AcpMessageCode.values()) {
+            if (msgCode.getCode() == code) {
+                return msgCode;
+            }
+        }
+        return AcpMessageCode.UNKNOWN;
+    }
+
+    private static AcpMessageCode scanReplyFor(AcpMessageCode request) {
+        if (!request.name().endsWith("_REQUEST")) {
+            return AcpMessageCode.UNKNOWN;
+        }
+        String replyName = request.name().substring(0, request.name().length() - "_REQUEST".length()) + "_REPLY";
+        for (AcpMessageCode msgCode : AcpMessageCode.values()) {
+            if (msgCode.name().equals(replyName)) {
+                return msgCode;
+            }
+        }
+        return AcpMessageCode.UNKNOWN;
+    }
+}
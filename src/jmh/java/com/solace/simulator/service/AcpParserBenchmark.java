@@ -0,0 +1,82 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.model.AcpMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the parsers behind each /api/acp/parse-* endpoint, from the hex string
+ * the endpoints receive to the AcpMessage they return (JSON rendering excluded).
+ * Run with {@code -prof gc} (the Gradle jmh task does) to see bytes allocated per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AcpParserBenchmark {
+
+    @Param({"2803", "2658"})
+    public String message;
+
+    private String hex;
+    private AcpMessageParser parser;
+    private AcpMessageHeaderParser headerParser;
+    private AcpMessageDetailedParser detailedParser;
+    private AcpMessageSpecParser specParser;
+    private AcpMessageEnhancedParser enhancedParser;
+    private AcpFieldProjection.Projection compact;
+
+    @Setup
+    public void setUp() throws Exception {
+        hex = BenchmarkMessages.hex(message);
+        AcpLayoutRegistry layouts = BenchmarkMessages.layoutRegistry();
+
+        parser = new AcpMessageParser();
+        headerParser = new AcpMessageHeaderParser();
+        detailedParser = new AcpMessageDetailedParser();
+        specParser = new AcpMessageSpecParser();
+        enhancedParser = new AcpMessageEnhancedParser();
+        BenchmarkMessages.inject(detailedParser, "layoutRegistry", layouts);
+        BenchmarkMessages.inject(specParser, "layoutRegistry", layouts);
+        BenchmarkMessages.inject(enhancedParser, "layoutRegistry", layouts);
+
+        AcpFieldProjection projection = new AcpFieldProjection();
+        BenchmarkMessages.inject(projection, "layoutRegistry", layouts);
+        compact = projection.compile("Message code,Message transaction ID,A/c number");
+    }
+
+    @Benchmark
+    public AcpMessage parse() {
+        return parser.parseHexToAcpMessage(hex);
+    }
+
+    @Benchmark
+    public AcpMessage parseComplete() {
+        return headerParser.parseCompleteMessage(hex);
+    }
+
+    @Benchmark
+    public AcpMessage parseDetailed() {
+        return detailedParser.parseWithDetails(hex);
+    }
+
+    @Benchmark
+    public AcpMessage parseSpec() {
+        return specParser.parseWithSpec(hex);
+    }
+
+    @Benchmark
+    public AcpMessage parseEnhanced() {
+        return enhancedParser.parseEnhanced(hex);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseCompact() {
+        return compact.apply(AcpFrame.fromHex(hex));
+    }
+}
@@ -0,0 +1,44 @@
+package com.solace.simulator.service;
+
+import java.lang.reflect.Field;
+
+/**
+ * Representative ACP messages and wiring helpers shared by the benchmarks
+ */
+final class BenchmarkMessages {
+
+    // 2803 reply with the 52-byte standard header (67 bytes)
+    static final String MESSAGE_2803 = "F30A291408000101000000000000000000002A5AB300000000001209E8070C0C375E0700000000314730332020202059B301002204000001EBE50400FEFF7F0000000058";
+
+    // 2658 account open request with the 56-byte BCS header (263 bytes, see message_2658_example.md)
+    static final String MESSAGE_2658 = "620A16142400010100000000000000000000BC2E000000000000000000000000004F070000C60041413430303239386CE80E00000000000444440F0033080000014E414D4500000000000000000000000000000000004D454E4100000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000010701030000813F0100010100000000000000000000000000000000000000000002000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000057";
+
+    private BenchmarkMessages() {
+    }
+
+    static String hex(String name) {
+        switch (name) {
+            case "2803": return MESSAGE_2803;
+            case "2658": return MESSAGE_2658;
+            default: throw new IllegalArgumentException("Unknown sample message: " + name);
+        }
+    }
+
+    /**
+     * Set an @Autowired/@Value field of a service created outside Spring
+     */
+    static void inject(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Layout registry loaded the way the application does (spec file, cache or bundled layouts)
+     */
+    static AcpLayoutRegistry layoutRegistry() throws Exception {
+        AcpLayoutRegistry registry = new AcpLayoutRegistry();
+        registry.load();
+        return registry;
+    }
+}
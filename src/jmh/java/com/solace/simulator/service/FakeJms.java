@@ -0,0 +1,167 @@
+package com.solace.simulator.service;
+
+import javax.jms.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process stand-in for the Solace connection factory used by the benchmarks.
+ * Every session serializes sends on itself and waits a fixed time per send,
+ * modelling the single-threaded session and broker round trip of the real client.
+ * Consumers register their listeners by destination name so benchmarks can deliver
+ * messages straight into the receive path.
+ */
+final class FakeJms {
+
+    private FakeJms() {
+    }
+
+    static ConnectionFactory connectionFactory(long sendNanos) {
+        return connectionFactory(sendNanos, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param listeners receives the message listener of every consumer, keyed by topic/queue name
+     */
+    static ConnectionFactory connectionFactory(long sendNanos, Map<String, MessageListener> listeners) {
+        return proxy(ConnectionFactory.class, (p, method, args) -> {
+            if (method.getName().equals("createConnection")) {
+                return connection(sendNanos, listeners);
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Connection connection(long sendNanos, Map<String, MessageListener> listeners) {
+        return proxy(Connection.class, (p, method, args) -> {
+            if (method.getName().equals("createSession")) {
+                return session(sendNanos, listeners);
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Session session(long sendNanos, Map<String, MessageListener> listeners) {
+        Object sessionLock = new Object();
+        return proxy(Session.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "createTopic":
+                    String topicName = (String) args[0];
+                    return proxy(Topic.class, (t, m, a) -> m.getName().equals("getTopicName")
+                            ? topicName : defaultValue(m.getReturnType()));
+                case "createQueue":
+                    String queueName = (String) args[0];
+                    return proxy(Queue.class, (q, m, a) -> m.getName().equals("getQueueName")
+                            ? queueName : defaultValue(m.getReturnType()));
+                case "createProducer":
+                    return producer(sessionLock, sendNanos);
+                case "createConsumer":
+                    return consumer((Destination) args[0], listeners);
+                case "createBytesMessage":
+                    return proxy(BytesMessage.class, (m, mm, a) -> defaultValue(mm.getReturnType()));
+                case "createTextMessage":
+                    return proxy(TextMessage.class, (m, mm, a) -> defaultValue(mm.getReturnType()));
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static MessageProducer producer(Object sessionLock, long sendNanos) {
+        return proxy(MessageProducer.class, (p, method, args) -> {
+            if (method.getName().equals("send")) {
+                synchronized (sessionLock) {
+                    if (sendNanos > 0) {
+                        LockSupport.parkNanos(sendNanos);
+                    }
+                }
+                return null;
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static MessageConsumer consumer(Destination destination, Map<String, MessageListener> listeners)
+            throws JMSException {
+        String name = destination instanceof Topic ? ((Topic) destination).getTopicName()
+                : ((Queue) destination).getQueueName();
+        return proxy(MessageConsumer.class, (p, method, args) -> {
+            if (method.getName().equals("setMessageListener")) {
+                listeners.put(name, (MessageListener) args[0]);
+            } else if (method.getName().equals("close")) {
+                listeners.remove(name);
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Received BytesMessage with the given body and no properties; the body can be read repeatedly
+     */
+    static BytesMessage bytesMessage(byte[] body) {
+        return proxy(BytesMessage.class, (m, method, args) -> {
+            switch (method.getName()) {
+                case "getBodyLength":
+                    return (long) body.length;
+                case "readBytes":
+                    byte[] target = (byte[]) args[0];
+                    int length = Math.min(target.length, body.length);
+                    System.arraycopy(body, 0, target, 0, length);
+                    return length;
+                case "getPropertyNames":
+                    return Collections.emptyEnumeration();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeJms.class.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    case "equals":
+                        return p == args[0];
+                    default:
+                        return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(p));
+                }
+            }
+            return handler.invoke(p, method, args);
+        });
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
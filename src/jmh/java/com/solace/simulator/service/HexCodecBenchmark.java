@@ -0,0 +1,88 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hex/binary string &lt;-&gt; byte conversions used by the REST endpoints, the parsers and the
+ * JMS send/receive path, against the former implementations ({@code legacy*}: String.format
+ * per byte, regex whitespace removal, Integer.toBinaryString padding).
+ * Compare {@code gc.alloc.rate.norm} between each pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HexCodecBenchmark {
+
+    @Param({"2803", "2658"})
+    public String message;
+
+    private String hex;
+    private String spacedHex;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        hex = BenchmarkMessages.hex(message);
+        bytes = AcpFormat.hexToBytes(hex);
+        buffer = ByteBuffer.wrap(bytes);
+        spacedHex = AcpFormat.hex(bytes, 0, bytes.length, ' ');
+    }
+
+    @Benchmark
+    public byte[] decodeSpacedHex() {
+        return AcpFormat.decodeHex(spacedHex);
+    }
+
+    @Benchmark
+    public byte[] legacyDecodeSpacedHex() {
+        String clean = spacedHex.replaceAll("\\s+", "");
+        int len = clean.length();
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            data[i / 2] = (byte) ((Character.digit(clean.charAt(i), 16) << 4)
+                    + Character.digit(clean.charAt(i + 1), 16));
+        }
+        return data;
+    }
+
+    @Benchmark
+    public byte[] hexToBytes() {
+        return AcpFormat.hexToBytes(hex);
+    }
+
+    @Benchmark
+    public String spacedHex() {
+        return AcpFormat.hex(bytes, 0, bytes.length, ' ');
+    }
+
+    @Benchmark
+    public String legacySpacedHex() {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02X ", b));
+        }
+        return sb.toString().trim();
+    }
+
+    @Benchmark
+    public String binary() {
+        return AcpFormat.binary(buffer, 0, bytes.length, (char) 0);
+    }
+
+    @Benchmark
+    public String legacyBinary() {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%8s", Integer.toBinaryString(b & 0xFF)).replace(' ', '0'));
+        }
+        return sb.toString();
+    }
+}
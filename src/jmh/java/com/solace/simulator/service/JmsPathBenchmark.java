@@ -0,0 +1,119 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFormat;
+import com.solace.simulator.model.ConnectionConfig;
+import com.solace.simulator.model.MessageRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import javax.jms.BytesMessage;
+import javax.jms.MessageListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of {@link SolaceJmsService} around the broker: {@code send} turns the
+ * hex request into a BytesMessage, {@code receive} runs a delivered BytesMessage through the
+ * consumer listener into the WebSocket batch queue; batches are serialized to JSON on the
+ * broadcast thread and dropped by the channel.
+ * With {@code pipeline=inline} the receive stages run on the benchmark thread; otherwise the listener
+ * only fills a ring slot and throughput is bounded by the slowest stage once the ring is full
+ * (busy-spin needs a free core per stage thread to be meaningful).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JmsPathBenchmark {
+
+    private static final String TOPIC = "acp/benchmark";
+
+    @Param({"2803", "2658"})
+    public String message;
+
+    @Param({"inline", "park", "busy-spin"})
+    public String pipeline;
+
+    private final Map<String, MessageListener> listeners = new ConcurrentHashMap<>();
+    private MessageBroadcastService broadcaster;
+    private ReceivePipelineService receivePipeline;
+    private SolaceJmsService service;
+    private MessageRequest request;
+    private MessageListener listener;
+    private BytesMessage received;
+
+    @Setup
+    public void setUp() throws Exception {
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((msg, timeout) -> true);
+        // Same Jackson setup as the application's (java.time support, ISO dates)
+        messagingTemplate.setMessageConverter(
+                new MappingJackson2MessageConverter(Jackson2ObjectMapperBuilder.json().build()));
+
+        broadcaster = new MessageBroadcastService();
+        BenchmarkMessages.inject(broadcaster, "messagingTemplate", messagingTemplate);
+        broadcaster.init();
+
+        // One browser on /topic/messages, so every received message is converted and queued
+        MessageRoutingService routing = new MessageRoutingService();
+        routing.addSubscription("benchmark", "sub-0", MessageBroadcastService.MESSAGES_TOPIC, null);
+
+        receivePipeline = new ReceivePipelineService();
+        BenchmarkMessages.inject(receivePipeline, "enabled", !"inline".equals(pipeline));
+        if (!"inline".equals(pipeline)) {
+            BenchmarkMessages.inject(receivePipeline, "waitStrategyName", pipeline);
+        }
+        receivePipeline.init();
+
+        // Journal throughput is measured on its own by JournalBenchmark
+        CaptureJournalService journal = new CaptureJournalService();
+        BenchmarkMessages.inject(journal, "enabled", false);
+        journal.init();
+
+        // The recent-message ring is on the receive path ahead of the WebSocket stage
+        RecentMessageService recent = new RecentMessageService();
+        BenchmarkMessages.inject(recent, "receivePipeline", receivePipeline);
+        recent.init();
+
+        service = new SolaceJmsService();
+        BenchmarkMessages.inject(service, "messageBroadcastService", broadcaster);
+        BenchmarkMessages.inject(service, "messageRoutingService", routing);
+        BenchmarkMessages.inject(service, "receivePipeline", receivePipeline);
+        BenchmarkMessages.inject(service, "captureJournal", journal);
+        BenchmarkMessages.inject(service, "recentMessages", recent);
+        service.init();
+        service.connect(FakeJms.connectionFactory(0, listeners), new ConnectionConfig());
+        service.subscribe(TOPIC, "TOPIC");
+
+        String hex = BenchmarkMessages.hex(message);
+        request = new MessageRequest();
+        request.setDestination(TOPIC);
+        request.setDestinationType("TOPIC");
+        request.setMessageType("BYTE");
+        request.setContent(hex);
+
+        listener = listeners.get(TOPIC);
+        received = FakeJms.bytesMessage(AcpFormat.hexToBytes(hex));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        service.disconnect();
+        receivePipeline.shutdown();
+        broadcaster.shutdown();
+    }
+
+    @Benchmark
+    public void send() throws Exception {
+        service.sendMessage(request);
+    }
+
+    @Benchmark
+    public void receive() {
+        listener.onMessage(received);
+    }
+}
@@ -0,0 +1,70 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFormat;
+import com.solace.simulator.journal.CaptureJournal;
+import com.solace.simulator.journal.FlushPolicy;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.ReceivedMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends to the capture journal on local disk (java.io.tmpdir), per flush policy, with and
+ * without the ACP secondary indexes
+ * The target is at least 100k records/s; small segments make the benchmark include rolls
+ * and retention deletes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"2803", "2658"})
+    public String message;
+
+    @Param({"os", "interval", "records"})
+    public String flushPolicy;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Path directory;
+    private CaptureJournal journal;
+    private String[] properties;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new CaptureJournal(directory, 16 * 1024 * 1024, FlushPolicy.parse(flushPolicy), 100, 10_000,
+                256L * 1024 * 1024, TimeUnit.HOURS.toMillis(1),
+                indexed ? new AcpRecordKeys(BenchmarkMessages.layoutRegistry().getLayouts()) : null);
+        payload = AcpFormat.hexToBytes(BenchmarkMessages.hex(message));
+        properties = ReceivedMessage.properties(FakeJms.bytesMessage(payload));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long append() throws Exception {
+        return journal.append(JournalRecord.RECEIVED, JournalRecord.TYPE_BYTES, System.nanoTime(),
+                "acp/benchmark", properties, payload, payload.length);
+    }
+}
@@ -0,0 +1,70 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.model.ConnectionConfig;
+import com.solace.simulator.model.MessageRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send throughput of {@link SolaceJmsService#sendMessage} as the number of concurrent
+ * senders grows, for different send session pool sizes.
+ * The in-process factory spends {@code sendMicros} per send while holding the session,
+ * so throughput only scales while there are free sessions for the extra threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SessionPoolBenchmark {
+
+    @Param({"1", "4", "8"})
+    public int poolSize;
+
+    @Param({"50"})
+    public long sendMicros;
+
+    private SolaceJmsService service;
+    private MessageRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        CaptureJournalService journal = new CaptureJournalService();
+        BenchmarkMessages.inject(journal, "enabled", false);
+        service = new SolaceJmsService();
+        BenchmarkMessages.inject(service, "captureJournal", journal);
+        service.setSessionPoolSize(poolSize);
+        service.connect(FakeJms.connectionFactory(TimeUnit.MICROSECONDS.toNanos(sendMicros)), new ConnectionConfig());
+
+        request = new MessageRequest();
+        request.setDestination("acp/benchmark");
+        request.setDestinationType("TOPIC");
+        request.setMessageType("BYTE");
+        request.setContent("620A16142400010100000000000000000000BC2E00000000000000000000");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        service.disconnect();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void send_1_thread() throws Exception {
+        service.sendMessage(request);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void send_4_threads() throws Exception {
+        service.sendMessage(request);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void send_8_threads() throws Exception {
+        service.sendMessage(request);
+    }
+}
@@ -0,0 +1,55 @@
+package com.solace.simulator.codec;
+
+/**
+ * One body field of a message layout as given in acp_message.htm
+ * The offset is 0-based in the standard 52-byte header layout (spec byte position minus one).
+ */
+public class AcpFieldSpec {
+
+    private String name;
+    private String dataType;
+    private int offset;
+    private int size;
+
+    public AcpFieldSpec() {
+    }
+
+    public AcpFieldSpec(String name, String dataType, int offset, int size) {
+        this.name = name;
+        this.dataType = dataType;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public void setDataType(String dataType) {
+        this.dataType = dataType;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,175 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter on ACP header fields, evaluated against the raw message bytes
+ * Syntax: conditions separated by ';', all of which must hold, e.g.
+ * {@code code=2600-2699,2801;reply!=0;terminal=1201}.
+ * Each condition is a field, {@code =} or {@code !=}, and a comma-separated list of values or
+ * inclusive ranges. Fields: {@code code} (message code), {@code reply} (reply code),
+ * {@code source} (source system) and {@code terminal} (logical terminal ID).
+ * Only the fields a filter uses are read; payloads too short to be ACP messages never match.
+ */
+public final class AcpFilter {
+
+    private enum Field {
+        CODE, REPLY, SOURCE, TERMINAL
+    }
+
+    private final Condition[] conditions;
+    private final String canonical;
+
+    private AcpFilter(Condition[] conditions) {
+        this.conditions = conditions;
+        StringBuilder text = new StringBuilder();
+        for (Condition condition : conditions) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(condition);
+        }
+        this.canonical = text.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException on syntax errors, unknown fields or empty filters
+     */
+    public static AcpFilter parse(String expression) {
+        List<Condition> conditions = new ArrayList<>();
+        for (String part : expression.split(";")) {
+            String condition = part.trim();
+            if (!condition.isEmpty()) {
+                conditions.add(Condition.parse(condition));
+            }
+        }
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("Empty filter: " + expression);
+        }
+        return new AcpFilter(conditions.toArray(new Condition[0]));
+    }
+
+    /**
+     * @param payload message bytes, may be null (never matches)
+     */
+    public boolean matches(byte[] payload, int length) {
+        if (payload == null || length <= AcpHeader.STANDARD_SIZE) {
+            return false;
+        }
+        ByteBuffer buffer = LittleEndian.order(ByteBuffer.wrap(payload, 0, length));
+        for (Condition condition : conditions) {
+            if (!condition.matches(buffer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalised expression; equal filters have equal strings
+     */
+    @Override
+    public String toString() {
+        return canonical;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AcpFilter && canonical.equals(((AcpFilter) other).canonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return canonical.hashCode();
+    }
+
+    private static final class Condition {
+        final Field field;
+        final boolean negated;
+        // Inclusive ranges as [from0, to0, from1, to1, ...]
+        final long[] ranges;
+
+        Condition(Field field, boolean negated, long[] ranges) {
+            this.field = field;
+            this.negated = negated;
+            this.ranges = ranges;
+        }
+
+        static Condition parse(String text) {
+            int operator = text.indexOf('=');
+            if (operator <= 0) {
+                throw new IllegalArgumentException("Filter condition must be field=values or field!=values: " + text);
+            }
+            boolean negated = text.charAt(operator - 1) == '!';
+            String name = text.substring(0, negated ? operator - 1 : operator).trim().toUpperCase(Locale.ROOT);
+            Field field;
+            try {
+                field = Field.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown filter field '" + name.toLowerCase(Locale.ROOT)
+                        + "' (expected code, reply, source or terminal)");
+            }
+
+            String[] values = text.substring(operator + 1).split(",");
+            long[] ranges = new long[values.length * 2];
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i].trim();
+                int dash = value.indexOf('-', 1);
+                try {
+                    ranges[i * 2] = Long.parseLong((dash > 0 ? value.substring(0, dash) : value).trim());
+                    ranges[i * 2 + 1] = dash > 0 ? Long.parseLong(value.substring(dash + 1).trim()) : ranges[i * 2];
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid filter value '" + value + "' in " + text);
+                }
+                if (ranges[i * 2 + 1] < ranges[i * 2]) {
+                    throw new IllegalArgumentException("Empty filter range '" + value + "' in " + text);
+                }
+            }
+            return new Condition(field, negated, ranges);
+        }
+
+        boolean matches(ByteBuffer buffer) {
+            long value = read(buffer);
+            boolean in = false;
+            for (int i = 0; i < ranges.length && !in; i += 2) {
+                in = value >= ranges[i] && value <= ranges[i + 1];
+            }
+            return in != negated;
+        }
+
+        private long read(ByteBuffer buffer) {
+            switch (field) {
+                case CODE:
+                    return LittleEndian.uint16(buffer, AcpHeader.MESSAGE_CODE);
+                case SOURCE:
+                    return LittleEndian.uint8(buffer, AcpHeader.SOURCE_SYSTEM);
+                case REPLY:
+                    return LittleEndian.uint16OrZero(buffer, AcpHeader.REPLY_CODE + shift(buffer));
+                default:
+                    return LittleEndian.uint32OrZero(buffer, AcpHeader.LOGICAL_TERMINAL_ID + shift(buffer));
+            }
+        }
+
+        private static int shift(ByteBuffer buffer) {
+            return AcpHeader.isBcsSource(LittleEndian.uint8(buffer, AcpHeader.SOURCE_SYSTEM)) ? AcpHeader.BCS_SHIFT : 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(field.name().toLowerCase(Locale.ROOT)).append(negated ? "!=" : "=");
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(ranges[i]);
+                if (ranges[i + 1] != ranges[i]) {
+                    text.append('-').append(ranges[i + 1]);
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Text renderings of ACP message bytes (hex and binary strings) without String.format.
+ * Conversions go through precomputed tables and write into an exactly sized char[]/byte[].
+ */
+public final class AcpFormat {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // Two uppercase hex digits per byte value
+    private static final char[] HEX_PAIRS = new char[256 * 2];
+
+    // Eight binary digits per byte value
+    private static final char[] BINARY_DIGITS = new char[256 * 8];
+
+    // Nibble value per ASCII character, -1 for non-hex characters
+    private static final byte[] NIBBLES = new byte[128];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            HEX_PAIRS[b * 2] = HEX_DIGITS[b >>> 4];
+            HEX_PAIRS[b * 2 + 1] = HEX_DIGITS[b & 0x0F];
+            for (int bit = 0; bit < 8; bit++) {
+                BINARY_DIGITS[b * 8 + bit] = (b & (0x80 >>> bit)) != 0 ? '1' : '0';
+            }
+        }
+        Arrays.fill(NIBBLES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            NIBBLES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            NIBBLES['A' + i] = (byte) (10 + i);
+            NIBBLES['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    private AcpFormat() {
+    }
+
+    /**
+     * Convert a hex string without whitespace to bytes
+     * @throws IllegalArgumentException on odd length or non-hex characters
+     */
+    public static byte[] hexToBytes(CharSequence hexString) {
+        int len = hexString.length();
+        if (len % 2 != 0) {
+            throw new IllegalArgumentException("Hex string must have an even number of characters");
+        }
+
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            int highNibble = nibble(hexString.charAt(i));
+            int lowNibble = nibble(hexString.charAt(i + 1));
+
+            if ((highNibble | lowNibble) < 0) {
+                throw new IllegalArgumentException("Invalid hexadecimal character at position " + i);
+            }
+
+            data[i / 2] = (byte) ((highNibble << 4) | lowNibble);
+        }
+        return data;
+    }
+
+    /**
+     * Convert a hex string to bytes, ignoring whitespace anywhere in it (e.g. "F3 0A 29")
+     * @throws IllegalArgumentException on an odd number of digits or non-hex characters
+     */
+    public static byte[] decodeHex(CharSequence text) {
+        int len = text.length();
+        int digits = 0;
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (nibble(c) >= 0) {
+                digits++;
+            } else if (!Character.isWhitespace(c)) {
+                throw new IllegalArgumentException("Invalid hexadecimal character at position " + i);
+            }
+        }
+        if (digits % 2 != 0) {
+            throw new IllegalArgumentException("Hex string must have an even number of characters");
+        }
+
+        byte[] data = new byte[digits / 2];
+        int pos = 0;
+        int high = -1;
+        for (int i = 0; i < len; i++) {
+            int value = nibble(text.charAt(i));
+            if (value < 0) {
+                continue;
+            }
+            if (high < 0) {
+                high = value;
+            } else {
+                data[pos++] = (byte) ((high << 4) | value);
+                high = -1;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Uppercase hex of bytes [start, end), optionally separated by a character
+     * @param separator separator between bytes, or 0 for none
+     */
+    public static String hex(byte[] bytes, int start, int end, char separator) {
+        if (end <= start) {
+            return "";
+        }
+        char[] out = new char[hexLength(end - start, separator)];
+        hex(bytes, start, end, separator, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Write the uppercase hex of bytes [start, end) into a caller-supplied array
+     * @param out array with at least {@link #hexLength} chars from offset
+     * @return the offset after the last char written
+     */
+    public static int hex(byte[] bytes, int start, int end, char separator, char[] out, int offset) {
+        int pos = offset;
+        for (int i = start; i < end; i++) {
+            if (separator != 0 && i > start) {
+                out[pos++] = separator;
+            }
+            pos = appendHex(bytes[i], out, pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Printable ASCII view of bytes [start, end), one char per byte, with '.' for anything
+     * outside 0x20-0x7E (like the text column of a hex dump)
+     * @return the offset after the last char written
+     */
+    public static int printable(byte[] bytes, int start, int end, char[] out, int offset) {
+        int pos = offset;
+        for (int i = start; i < end; i++) {
+            int b = bytes[i];
+            out[pos++] = b >= 0x20 && b < 0x7F ? (char) b : '.';
+        }
+        return pos;
+    }
+
+    /**
+     * Uppercase hex of bytes [start, end), optionally separated by a character
+     * @param separator separator between bytes, or 0 for none
+     */
+    public static String hex(ByteBuffer buffer, int start, int end, char separator) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return hex(buffer.array(), offset + start, offset + end, separator);
+        }
+        if (end <= start) {
+            return "";
+        }
+        char[] out = new char[hexLength(end - start, separator)];
+        int pos = 0;
+        for (int i = start; i < end; i++) {
+            if (separator != 0 && i > start) {
+                out[pos++] = separator;
+            }
+            pos = appendHex(buffer.get(i), out, pos);
+        }
+        return new String(out);
+    }
+
+    /**
+     * Binary digits of bytes [start, end), 8 per byte, optionally separated by a character
+     * @param separator separator between bytes, or 0 for none
+     */
+    public static String binary(ByteBuffer buffer, int start, int end, char separator) {
+        if (end <= start) {
+            return "";
+        }
+        int count = end - start;
+        char[] out = new char[separator != 0 ? count * 9 - 1 : count * 8];
+        int pos = 0;
+        for (int i = start; i < end; i++) {
+            if (separator != 0 && i > start) {
+                out[pos++] = separator;
+            }
+            System.arraycopy(BINARY_DIGITS, (buffer.get(i) & 0xFF) * 8, out, pos, 8);
+            pos += 8;
+        }
+        return new String(out);
+    }
+
+    /**
+     * "0x"-prefixed uppercase hex literal with a fixed number of digits (like %0nX)
+     */
+    public static String hexLiteral(long value, int digits) {
+        int significant = Math.max(digits, (64 - Long.numberOfLeadingZeros(value) + 3) / 4);
+        char[] out = new char[2 + significant];
+        out[0] = '0';
+        out[1] = 'x';
+        for (int i = out.length - 1; i >= 2; i--) {
+            out[i] = HEX_DIGITS[(int) (value & 0x0F)];
+            value >>>= 4;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Chars taken by the hex of count bytes
+     */
+    public static int hexLength(int count, char separator) {
+        if (count <= 0) {
+            return 0;
+        }
+        return separator != 0 ? count * 3 - 1 : count * 2;
+    }
+
+    private static int appendHex(byte b, char[] out, int pos) {
+        int index = (b & 0xFF) * 2;
+        out[pos] = HEX_PAIRS[index];
+        out[pos + 1] = HEX_PAIRS[index + 1];
+        return pos + 2;
+    }
+
+    private static int nibble(char c) {
+        return c < 128 ? NIBBLES[c] : -1;
+    }
+}
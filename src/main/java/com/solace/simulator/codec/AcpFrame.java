@@ -0,0 +1,121 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single decoded ACP message shared by all parser views
+ * Wraps the message bytes in a little-endian buffer; the header and the hex/binary renderings
+ * are produced on first use and cached, so each view only pays for what it renders.
+ * Not thread-safe.
+ */
+public final class AcpFrame {
+
+    private final ByteBuffer buffer;
+    private AcpHeader header;
+    private AcpHeader standardHeader;
+    private String hex;
+    private String binary;
+
+    private AcpFrame(ByteBuffer buffer) {
+        this.buffer = LittleEndian.order(buffer);
+    }
+
+    /**
+     * Decode a hex string (whitespace allowed, any case)
+     * @throws IllegalArgumentException on odd length or non-hex characters
+     */
+    public static AcpFrame fromHex(String hexString) {
+        return new AcpFrame(ByteBuffer.wrap(AcpFormat.decodeHex(hexString)));
+    }
+
+    public static AcpFrame wrap(byte[] bytes) {
+        return new AcpFrame(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Wrap the remaining bytes of a heap or direct buffer without copying; the caller's buffer
+     * position, limit and byte order are left as they were
+     */
+    public static AcpFrame wrap(ByteBuffer buffer) {
+        return new AcpFrame(buffer.slice());
+    }
+
+    /**
+     * Little-endian buffer holding the message at index 0
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return buffer.limit();
+    }
+
+    /**
+     * Unsigned byte at an index; throws IndexOutOfBoundsException past the end
+     */
+    public int uint8(int index) {
+        return buffer.get(index) & 0xFF;
+    }
+
+    /**
+     * Header decoded with the BCS layout for source systems 22/31
+     */
+    public AcpHeader header() {
+        if (header == null) {
+            header = new AcpHeader().decode(buffer, true);
+        }
+        return header;
+    }
+
+    /**
+     * Header decoded with the 52-byte layout regardless of source system
+     */
+    public AcpHeader standardHeader() {
+        if (standardHeader == null) {
+            standardHeader = new AcpHeader().decode(buffer, false);
+        }
+        return standardHeader;
+    }
+
+    /**
+     * Uppercase hex of the whole message without separators
+     */
+    public String hex() {
+        if (hex == null) {
+            hex = AcpFormat.hex(buffer, 0, length(), (char) 0);
+        }
+        return hex;
+    }
+
+    /**
+     * Hex of bytes startByte..endByte (inclusive), clipped to the message
+     * @param separator separator between bytes, or 0 for none
+     */
+    public String hex(int startByte, int endByte, char separator) {
+        return AcpFormat.hex(buffer, startByte, Math.min(endByte + 1, length()), separator);
+    }
+
+    /**
+     * Binary digits of the whole message without separators
+     */
+    public String binary() {
+        if (binary == null) {
+            binary = AcpFormat.binary(buffer, 0, length(), (char) 0);
+        }
+        return binary;
+    }
+
+    /**
+     * Space-separated binary of bytes startByte..endByte (inclusive), clipped to the message
+     * @throws StringIndexOutOfBoundsException if the range starts past the end of the message
+     */
+    public String binary(int startByte, int endByte) {
+        int end = Math.min(endByte + 1, length());
+        if (startByte > end) {
+            throw new StringIndexOutOfBoundsException("begin " + startByte * 8 + ", end " + end * 8
+                    + ", length " + length() * 8);
+        }
+        return AcpFormat.binary(buffer, startByte, end, ' ');
+    }
+}
@@ -0,0 +1,72 @@
+package com.solace.simulator.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a raw ACP message from a stream, such as an application/octet-stream request body
+ * The bytes go straight into a per-thread buffer that is reused by the next read on the same thread,
+ * so a frame returned here is only valid until then; decode it completely before reading another.
+ */
+public final class AcpFrameReader {
+
+    // Largest message accepted; ACP messages are a few hundred bytes
+    public static final int MAX_MESSAGE_BYTES = 1024 * 1024;
+
+    // Buffers above this are used once instead of being kept for the thread
+    private static final int MAX_POOLED_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[4096]);
+
+    private AcpFrameReader() {
+    }
+
+    /**
+     * Read the whole stream as one message
+     * @param contentLength length if known (e.g. the Content-Length header), otherwise -1
+     * @throws IllegalArgumentException for empty bodies or bodies over {@link #MAX_MESSAGE_BYTES}
+     */
+    public static AcpFrame read(InputStream in, long contentLength) throws IOException {
+        if (contentLength > MAX_MESSAGE_BYTES) {
+            throw new IllegalArgumentException("Message of " + contentLength + " bytes exceeds " + MAX_MESSAGE_BYTES);
+        }
+        byte[] buffer = buffer(contentLength > 0 ? (int) contentLength : 0);
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                if (contentLength >= 0 && length >= contentLength) {
+                    break;
+                }
+                if (length >= MAX_MESSAGE_BYTES) {
+                    throw new IllegalArgumentException("Message exceeds " + MAX_MESSAGE_BYTES + " bytes");
+                }
+                byte[] larger = buffer(Math.min(length * 2, MAX_MESSAGE_BYTES));
+                System.arraycopy(buffer, 0, larger, 0, length);
+                buffer = larger;
+            }
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Message body is empty");
+        }
+        return AcpFrame.wrap(ByteBuffer.wrap(buffer, 0, length));
+    }
+
+    private static byte[] buffer(int length) {
+        byte[] buffer = BUFFER.get();
+        if (buffer.length >= length) {
+            return buffer;
+        }
+        if (length > MAX_POOLED_BYTES) {
+            return new byte[length];
+        }
+        buffer = new byte[Math.max(length, buffer.length * 2)];
+        BUFFER.set(buffer);
+        return buffer;
+    }
+}
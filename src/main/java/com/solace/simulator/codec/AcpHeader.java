@@ -0,0 +1,245 @@
+package com.solace.simulator.codec;
+
+import com.solace.simulator.model.AcpMessageHeader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ACP message header decoded into primitive fields
+ * Instances are mutable and meant to be reused: {@link #decode} does not allocate, so a single
+ * instance per thread can decode every message on the JMS receive path.
+ *
+ * Standard header is 52 bytes. Messages from BCS (source system 22/31) have a 56-byte header with
+ * packet group ID (2), packet sequence (1) and packet total (1) before the reply code.
+ * Fields past the end of a short message decode as 0.
+ */
+public final class AcpHeader {
+
+    public static final int STANDARD_SIZE = 52;
+    public static final int BCS_SIZE = 56;
+    // Bytes inserted before the reply code by the BCS header
+    public static final int BCS_SHIFT = BCS_SIZE - STANDARD_SIZE;
+
+    // Field offsets in the standard header; add BCS_SHIFT from REPLY_CODE onwards for BCS
+    public static final int MESSAGE_CODE = 0;
+    public static final int SOURCE_SYSTEM = 2;
+    public static final int DESTINATION_SYSTEM = 3;
+    public static final int PACKET_GROUP_ID = 4;
+    public static final int PACKET_SEQUENCE = 6;
+    public static final int PACKET_TOTAL = 7;
+    public static final int REPLY_CODE = 4;
+    public static final int LAST_TRANSACTION_ID = 6;
+    public static final int MESSAGE_TRANSACTION_ID = 14;
+    public static final int DATE = 22;
+    public static final int TIME = 26;
+    public static final int LOCATION_ID = 29;
+    public static final int POSITION_NUMBER = 33;
+    public static final int PHYSICAL_TERMINAL_ID = 35;
+    public static final int PHYSICAL_TERMINAL_ID_SIZE = 8;
+    public static final int STAFF_ID = 43;
+    public static final int LOGICAL_TERMINAL_ID = 47;
+    public static final int TERMINAL_TYPE = 51;
+
+    private static final int BCS_SOURCE_SYSTEM_22 = 22;
+    private static final int BCS_SOURCE_SYSTEM_31 = 31;
+
+    private ByteBuffer buffer;
+    private int length;
+    private boolean bcs;
+
+    private int messageCode;
+    private int sourceSystem;
+    private int destinationSystem;
+    private int packetGroupId;
+    private int packetSequence;
+    private int packetTotal;
+    private int replyCode;
+    private long lastTransactionId;
+    private long messageTransactionId;
+    private long date;
+    private int time;
+    private long locationId;
+    private int positionNumber;
+    private long staffId;
+    private long logicalTerminalId;
+    private int terminalType;
+
+    public static boolean isBcsSource(int sourceSystem) {
+        return sourceSystem == BCS_SOURCE_SYSTEM_22 || sourceSystem == BCS_SOURCE_SYSTEM_31;
+    }
+
+    /**
+     * Header size used by messages from the given source system
+     */
+    public static int headerSize(int sourceSystem) {
+        return isBcsSource(sourceSystem) ? BCS_SIZE : STANDARD_SIZE;
+    }
+
+    /**
+     * Message code of the message in the buffer, or -1 if it is shorter than 2 bytes
+     */
+    public static int peekMessageCode(ByteBuffer buffer) {
+        return buffer.limit() >= 2 ? LittleEndian.uint16(buffer, MESSAGE_CODE) : -1;
+    }
+
+    /**
+     * Message transaction ID of the message in the buffer, honouring the BCS header layout
+     */
+    public static long peekMessageTransactionId(ByteBuffer buffer) {
+        int shift = buffer.limit() > SOURCE_SYSTEM && isBcsSource(LittleEndian.uint8(buffer, SOURCE_SYSTEM)) ? BCS_SHIFT : 0;
+        return LittleEndian.uint64OrZero(buffer, MESSAGE_TRANSACTION_ID + shift);
+    }
+
+    /**
+     * Decode the header at the start of a little-endian buffer
+     * @param detectBcs use the 56-byte layout for BCS source systems; false always uses the 52-byte layout
+     * @return this header
+     */
+    public AcpHeader decode(ByteBuffer buffer, boolean detectBcs) {
+        this.buffer = buffer;
+        this.length = buffer.limit();
+
+        messageCode = LittleEndian.uint16OrZero(buffer, MESSAGE_CODE);
+        sourceSystem = length > SOURCE_SYSTEM ? LittleEndian.uint8(buffer, SOURCE_SYSTEM) : 0;
+        destinationSystem = length > DESTINATION_SYSTEM ? LittleEndian.uint8(buffer, DESTINATION_SYSTEM) : 0;
+        bcs = detectBcs && isBcsSource(sourceSystem);
+
+        int shift = 0;
+        if (bcs) {
+            shift = BCS_SHIFT;
+            packetGroupId = LittleEndian.uint16OrZero(buffer, PACKET_GROUP_ID);
+            packetSequence = length > PACKET_SEQUENCE ? LittleEndian.uint8(buffer, PACKET_SEQUENCE) : 0;
+            packetTotal = length > PACKET_TOTAL ? LittleEndian.uint8(buffer, PACKET_TOTAL) : 0;
+        } else {
+            packetGroupId = 0;
+            packetSequence = 0;
+            packetTotal = 0;
+        }
+        replyCode = LittleEndian.uint16OrZero(buffer, REPLY_CODE + shift);
+        lastTransactionId = LittleEndian.uint64OrZero(buffer, LAST_TRANSACTION_ID + shift);
+        messageTransactionId = LittleEndian.uint64OrZero(buffer, MESSAGE_TRANSACTION_ID + shift);
+        date = LittleEndian.uint32OrZero(buffer, DATE + shift);
+        time = LittleEndian.uint24OrZero(buffer, TIME + shift);
+        locationId = LittleEndian.uint32OrZero(buffer, LOCATION_ID + shift);
+        positionNumber = LittleEndian.uint16OrZero(buffer, POSITION_NUMBER + shift);
+        staffId = LittleEndian.uint32OrZero(buffer, STAFF_ID + shift);
+        logicalTerminalId = LittleEndian.uint32OrZero(buffer, LOGICAL_TERMINAL_ID + shift);
+        terminalType = length > TERMINAL_TYPE + shift ? LittleEndian.uint8(buffer, TERMINAL_TYPE + shift) : 0;
+        return this;
+    }
+
+    /**
+     * Offset of a standard-header field in this header's layout
+     */
+    public int offset(int standardOffset) {
+        return bcs && standardOffset >= REPLY_CODE ? standardOffset + BCS_SHIFT : standardOffset;
+    }
+
+    public int size() {
+        return bcs ? BCS_SIZE : STANDARD_SIZE;
+    }
+
+    /**
+     * True if the message holds the complete header
+     */
+    public boolean isComplete() {
+        return length >= size();
+    }
+
+    /**
+     * Physical terminal ID, read from the buffer on demand (allocates the string)
+     */
+    public String physicalTerminalId() {
+        return LittleEndian.stringOrEmpty(buffer, offset(PHYSICAL_TERMINAL_ID), PHYSICAL_TERMINAL_ID_SIZE);
+    }
+
+    /**
+     * Copy the decoded fields into the header model used by the encoder
+     */
+    public AcpMessageHeader toMessageHeader() {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(messageCode);
+        header.setSourceSystemNumber(sourceSystem);
+        header.setDestinationSystemNumber(destinationSystem);
+        header.setReplyCode(replyCode);
+        header.setLastTransactionId(lastTransactionId);
+        header.setMessageTransactionId(messageTransactionId);
+        header.setDate(date);
+        header.setTime(time);
+        header.setLocationId(locationId);
+        header.setPositionNumber(positionNumber);
+        header.setPhysicalTerminalId(physicalTerminalId());
+        header.setStaffId(staffId);
+        header.setLogicalTerminalId(logicalTerminalId);
+        header.setTerminalType(terminalType);
+        return header;
+    }
+
+    public boolean isBcs() {
+        return bcs;
+    }
+
+    public int getMessageCode() {
+        return messageCode;
+    }
+
+    public int getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public int getDestinationSystem() {
+        return destinationSystem;
+    }
+
+    public int getPacketGroupId() {
+        return packetGroupId;
+    }
+
+    public int getPacketSequence() {
+        return packetSequence;
+    }
+
+    public int getPacketTotal() {
+        return packetTotal;
+    }
+
+    public int getReplyCode() {
+        return replyCode;
+    }
+
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public long getMessageTransactionId() {
+        return messageTransactionId;
+    }
+
+    public long getDate() {
+        return date;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public long getLocationId() {
+        return locationId;
+    }
+
+    public int getPositionNumber() {
+        return positionNumber;
+    }
+
+    public long getStaffId() {
+        return staffId;
+    }
+
+    public long getLogicalTerminalId() {
+        return logicalTerminalId;
+    }
+
+    public int getTerminalType() {
+        return terminalType;
+    }
+}
@@ -0,0 +1,204 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled body layout of one message code
+ * Field names, data types, offsets, sizes, reader kinds and byte position strings (for both header
+ * layouts) are precomputed into parallel arrays, so decoding a field is one array lookup and one
+ * absolute read. Offsets are relative to the end of the header; BCS messages use the same layout
+ * shifted by the 4 packet bytes.
+ */
+public final class AcpLayout {
+
+    public static final String UNSIGNED_INTEGER = "Unsigned Integer";
+    public static final String INTEGER = "Integer";
+    public static final String STRING = "String";
+    public static final String BINARY = "Binary";
+    public static final String BITMAP = "Bitmap";
+
+    private static final byte U8 = 0;
+    private static final byte U16 = 1;
+    private static final byte U24 = 2;
+    private static final byte U32 = 3;
+    private static final byte U64 = 4;
+    private static final byte I8 = 5;
+    private static final byte I16 = 6;
+    private static final byte I32 = 7;
+    private static final byte I64 = 8;
+    private static final byte UNSIGNED_N = 9;
+    private static final byte ASCII = 10;
+    private static final byte HEX = 11;
+
+    private final int messageCode;
+    private final boolean variable;
+    private final List<AcpFieldSpec> fields;
+
+    private final String[] names;
+    private final String[] dataTypes;
+    private final String[] sizeTexts;
+    private final int[] offsets;
+    private final int[] sizes;
+    private final int[] ends;
+    private final byte[] readers;
+    private final String[] standardPositions;
+    private final String[] bcsPositions;
+
+    /**
+     * @param variable true when the spec continues with repeated or variable-size data after the fixed fields
+     */
+    public AcpLayout(int messageCode, List<AcpFieldSpec> fields, boolean variable) {
+        this.messageCode = messageCode;
+        this.variable = variable;
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+
+        int count = fields.size();
+        names = new String[count];
+        dataTypes = new String[count];
+        sizeTexts = new String[count];
+        offsets = new int[count];
+        sizes = new int[count];
+        ends = new int[count];
+        readers = new byte[count];
+        standardPositions = new String[count];
+        bcsPositions = new String[count];
+        for (int i = 0; i < count; i++) {
+            AcpFieldSpec field = fields.get(i);
+            names[i] = field.getName();
+            dataTypes[i] = field.getDataType();
+            sizes[i] = field.getSize();
+            sizeTexts[i] = String.valueOf(field.getSize());
+            offsets[i] = field.getOffset() - AcpHeader.STANDARD_SIZE;
+            ends[i] = offsets[i] + sizes[i];
+            readers[i] = reader(field.getDataType(), field.getSize());
+            standardPositions[i] = positionText(AcpHeader.STANDARD_SIZE + offsets[i], sizes[i]);
+            bcsPositions[i] = positionText(AcpHeader.BCS_SIZE + offsets[i], sizes[i]);
+        }
+    }
+
+    private static byte reader(String dataType, int size) {
+        if (STRING.equals(dataType)) {
+            return ASCII;
+        }
+        if (INTEGER.equals(dataType)) {
+            switch (size) {
+                case 1: return I8;
+                case 2: return I16;
+                case 4: return I32;
+                case 8: return I64;
+                default: break;
+            }
+        }
+        if (UNSIGNED_INTEGER.equals(dataType) || INTEGER.equals(dataType) || BITMAP.equals(dataType)) {
+            switch (size) {
+                case 1: return U8;
+                case 2: return U16;
+                case 3: return U24;
+                case 4: return U32;
+                case 8: return U64;
+                default: return size < 8 ? UNSIGNED_N : HEX;
+            }
+        }
+        return HEX;
+    }
+
+    private static String positionText(int startByte, int size) {
+        return size == 1 ? String.valueOf(startByte) : startByte + "-" + (startByte + size - 1);
+    }
+
+    public int getMessageCode() {
+        return messageCode;
+    }
+
+    public boolean isVariable() {
+        return variable;
+    }
+
+    public List<AcpFieldSpec> getFields() {
+        return fields;
+    }
+
+    public int fieldCount() {
+        return names.length;
+    }
+
+    /**
+     * Number of leading fields that fit completely in a body of the given length
+     */
+    public int fieldsWithin(int bodyLength) {
+        int count = 0;
+        while (count < ends.length && ends[count] <= bodyLength) {
+            count++;
+        }
+        return count;
+    }
+
+    public String name(int field) {
+        return names[field];
+    }
+
+    public String dataType(int field) {
+        return dataTypes[field];
+    }
+
+    public int size(int field) {
+        return sizes[field];
+    }
+
+    public String sizeText(int field) {
+        return sizeTexts[field];
+    }
+
+    /**
+     * Absolute index of the field's first byte
+     */
+    public int startByte(int field, int headerSize) {
+        return headerSize + offsets[field];
+    }
+
+    /**
+     * Byte position as "N" or "N-M" (0-based, absolute)
+     */
+    public String position(int field, int headerSize) {
+        if (headerSize == AcpHeader.STANDARD_SIZE) {
+            return standardPositions[field];
+        }
+        if (headerSize == AcpHeader.BCS_SIZE) {
+            return bcsPositions[field];
+        }
+        return positionText(headerSize + offsets[field], sizes[field]);
+    }
+
+    /**
+     * Decode one field: Integer/Long for numeric fields, String for strings (null-terminated, trimmed)
+     * and uppercase hex for binary fields and integers wider than 8 bytes
+     */
+    public Object value(ByteBuffer buffer, int headerSize, int field) {
+        int index = headerSize + offsets[field];
+        switch (readers[field]) {
+            case U8: return LittleEndian.uint8(buffer, index);
+            case U16: return LittleEndian.uint16(buffer, index);
+            case U24: return LittleEndian.uint24(buffer, index);
+            case U32: return LittleEndian.uint32(buffer, index);
+            case U64: return LittleEndian.uint64(buffer, index);
+            case I8: return (int) buffer.get(index);
+            case I16: return (int) buffer.getShort(index);
+            case I32: return buffer.getInt(index);
+            case I64: return buffer.getLong(index);
+            case UNSIGNED_N: return unsigned(buffer, index, sizes[field]);
+            case ASCII: return LittleEndian.stringOrEmpty(buffer, index, sizes[field]);
+            default: return AcpFormat.hex(buffer, index, index + sizes[field], (char) 0);
+        }
+    }
+
+    private static long unsigned(ByteBuffer buffer, int index, int size) {
+        long value = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            value = (value << 8) | (buffer.get(index + i) & 0xFF);
+        }
+        return value;
+    }
+}
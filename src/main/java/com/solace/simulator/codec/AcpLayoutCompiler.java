@@ -0,0 +1,296 @@
+package com.solace.simulator.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the per-message-code body layouts out of the acp_message.htm interface specification
+ * Each "Byte Position | Data Type | Size(bytes) | Data" table is assigned to the closest preceding
+ * "Message code = N" line that has no layout yet (later tables of the same message, such as
+ * per-parameter-type variants, are skipped). Rows without a byte position follow the previous field,
+ * "20 + 1" sizes are summed and "[ 2 name ... ]" groups are unrolled as "field - 1", "field - 2".
+ * A layout stops at the first row whose size or position is not a number (variable data); such
+ * layouts are flagged as variable. Fields the hand-written 2658 parser named or typed differently
+ * from the spec keep that parser's name and type, so its output does not change.
+ */
+public final class AcpLayoutCompiler {
+
+    // Bump when the compile rules change so cached layouts are rebuilt
+    public static final int VERSION = 3;
+
+    // {message code, name in the spec, name and data type used} for fields of the hand-written parsers
+    // the layouts replaced: the "Online_application_ref_no." key, "(empty)" rather than hex for blank
+    // Chinese names, and numbers (not strings or bitmaps) for bank and branch numbers and the flags
+    private static final String[][] COMPATIBLE_FIELDS = {
+            {"2658", "Online application reference no.", "Online application ref no.", AcpLayout.STRING},
+            {"2658", "Customer Chinese surname", "Customer Chinese surname", AcpLayout.STRING},
+            {"2658", "Customer Chinese other name", "Customer Chinese other name", AcpLayout.STRING},
+            {"2658", "Ticket type", "Ticket type", AcpLayout.UNSIGNED_INTEGER},
+            {"2658", "Flag", "Flag", AcpLayout.UNSIGNED_INTEGER},
+            {"2658", "Bank number - 1", "Bank number - 1", AcpLayout.UNSIGNED_INTEGER},
+            {"2658", "Branch number - 1", "Branch number - 1", AcpLayout.UNSIGNED_INTEGER},
+            {"2658", "Bank number - 2", "Bank number - 2", AcpLayout.UNSIGNED_INTEGER},
+            {"2658", "Branch number - 2", "Branch number - 2", AcpLayout.UNSIGNED_INTEGER},
+    };
+
+    private static final Pattern TABLE_OR_CODE = Pattern.compile(
+            "<table.*?</table>|Message\\s+code\\s*=\\s*(\\d+)", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROW = Pattern.compile("<tr.*?</tr>", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    private static final Pattern CELL = Pattern.compile("<td.*?</td>", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+    // Endnote references ("Date[ii]"): links, MsoEndnoteReference spans and bare roman numeral elements
+    private static final Pattern ENDNOTE_LINK = Pattern.compile(
+            "<a\\s[^>]*href=\"#_edn[^\"]*\"[^>]*>.*?</a>", Pattern.DOTALL);
+    private static final Pattern ENDNOTE_SPAN = Pattern.compile(
+            "<span\\s[^>]*class=MsoEndnoteReference[^>]*>(<span[^>]*>)?[^<]*(</span>)?</span>", Pattern.DOTALL);
+    private static final Pattern ENDNOTE_MARK = Pattern.compile("(?<=>)<([a-z]+)[^>]*>\\[?[ivx]{1,6}\\]?</\\1>");
+
+    private static final Pattern LINE_BREAK = Pattern.compile("<p[^>]*>|<br[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern ENTITY = Pattern.compile("&(#\\d+|[a-z]+);");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern GROUP_START = Pattern.compile("\\[\\s*(\\d+)\\b.*");
+    private static final Pattern TRAILING_NOTE = Pattern.compile("\\s*\\([^)]*\\)?\\.?\\s*$");
+
+    private AcpLayoutCompiler() {
+    }
+
+    /**
+     * Compile all layouts found in the specification HTML, keyed by message code
+     */
+    public static Map<Integer, AcpLayout> compile(String html) {
+        int body = html.indexOf("<body");
+        String source = body >= 0 ? html.substring(body) : html;
+        source = ENDNOTE_LINK.matcher(source).replaceAll("");
+        source = ENDNOTE_SPAN.matcher(source).replaceAll("");
+        source = ENDNOTE_MARK.matcher(source).replaceAll("");
+
+        Map<Integer, AcpLayout> layouts = new TreeMap<>();
+        int lastCode = -1;
+        Matcher matcher = TABLE_OR_CODE.matcher(source);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                lastCode = Integer.parseInt(matcher.group(1));
+                continue;
+            }
+            if (lastCode < 0 || layouts.containsKey(lastCode)) {
+                continue;
+            }
+            List<String[]> rows = rows(matcher.group());
+            if (rows.isEmpty() || !isFieldTable(rows.get(0))) {
+                continue;
+            }
+            layouts.put(lastCode, compileRows(lastCode, rows.subList(1, rows.size())));
+        }
+        return layouts;
+    }
+
+    private static boolean isFieldTable(String[] header) {
+        return header.length >= 4
+                && header[header.length - 4].startsWith("Byte Position")
+                && header[header.length - 3].startsWith("Data Type")
+                && header[header.length - 2].startsWith("Size")
+                && header[header.length - 1].startsWith("Data");
+    }
+
+    private static AcpLayout compileRows(int messageCode, List<String[]> rows) {
+        List<AcpFieldSpec> fields = new ArrayList<>();
+        int offset = AcpHeader.STANDARD_SIZE;
+        boolean variable = false;
+
+        int i = 0;
+        while (i < rows.size() && !variable) {
+            String[] row = rows.get(i++);
+            String position = column(row, 4);
+
+            if (position.startsWith("[")) {
+                // Repeated group: rows up to the closing "]"
+                int groupStart = i;
+                while (i < rows.size() && !column(rows.get(i), 4).startsWith("]")) {
+                    i++;
+                }
+                List<String[]> group = rows.subList(groupStart, i);
+                i++;
+                Matcher count = GROUP_START.matcher(position);
+                if (!count.matches()) {
+                    variable = true;
+                    break;
+                }
+                for (int repeat = 1; repeat <= Integer.parseInt(count.group(1)) && !variable; repeat++) {
+                    for (String[] member : group) {
+                        int size = size(column(member, 2));
+                        if (size < 0) {
+                            variable = true;
+                            break;
+                        }
+                        fields.add(new AcpFieldSpec(name(column(member, 1)) + " - " + repeat,
+                                dataType(column(member, 3)), offset, size));
+                        offset += size;
+                    }
+                }
+                continue;
+            }
+
+            String type = column(row, 3);
+            String sizeText = column(row, 2);
+            String data = column(row, 1);
+            if (position.startsWith("]") || (type.isEmpty() && sizeText.isEmpty() && data.isEmpty())) {
+                continue;
+            }
+            int size = size(sizeText);
+            if (size < 0 || (!position.isEmpty() && !isNumber(position))) {
+                variable = true;
+                break;
+            }
+            if (!position.isEmpty()) {
+                offset = Integer.parseInt(position) - 1;
+            }
+            fields.add(new AcpFieldSpec(name(data), dataType(type), offset, size));
+            offset += size;
+        }
+        for (String[] compatible : COMPATIBLE_FIELDS) {
+            if (Integer.parseInt(compatible[0]) != messageCode) {
+                continue;
+            }
+            for (AcpFieldSpec field : fields) {
+                if (field.getName().equals(compatible[1])) {
+                    field.setName(compatible[2]);
+                    field.setDataType(compatible[3]);
+                }
+            }
+        }
+        return new AcpLayout(messageCode, fields, variable);
+    }
+
+    /**
+     * Cell counted from the end of the row (1 = last); rows are right-aligned because
+     * the spec's first table has an extra leading group column
+     */
+    private static String column(String[] row, int fromEnd) {
+        int index = row.length - fromEnd;
+        if (index < 0) {
+            return fromEnd == 4 && row.length > 0 ? row[0] : "";
+        }
+        return row[index];
+    }
+
+    /**
+     * "4" or "20 + 1"; -1 when not a fixed size ("N", "N + 1", "...")
+     */
+    private static int size(String text) {
+        int total = 0;
+        for (String part : text.split("\\+")) {
+            String trimmed = part.trim();
+            if (!isNumber(trimmed)) {
+                return -1;
+            }
+            total += Integer.parseInt(trimmed);
+        }
+        return total;
+    }
+
+    private static boolean isNumber(String text) {
+        if (text.isEmpty() || text.length() > 6) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * First line of the Data cell without value lists and trailing notes in brackets
+     */
+    private static String name(String data) {
+        int newline = data.indexOf('\n');
+        String name = newline >= 0 ? data.substring(0, newline) : data;
+        name = TRAILING_NOTE.matcher(name).replaceAll("").trim();
+        if (name.endsWith(":")) {
+            name = name.substring(0, name.length() - 1).trim();
+        }
+        return name;
+    }
+
+    private static String dataType(String type) {
+        String lower = type.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("unsig")) {
+            return AcpLayout.UNSIGNED_INTEGER; // includes the spec's "Unsigend Integer" typo
+        }
+        if (lower.equals("integer")) {
+            return AcpLayout.INTEGER;
+        }
+        if (lower.equals("string")) {
+            return AcpLayout.STRING;
+        }
+        if (lower.equals("bitmap")) {
+            return AcpLayout.BITMAP;
+        }
+        return AcpLayout.BINARY; // Binary, N/A fillers
+    }
+
+    private static List<String[]> rows(String table) {
+        List<String[]> rows = new ArrayList<>();
+        Matcher row = ROW.matcher(table);
+        while (row.find()) {
+            List<String> cells = new ArrayList<>();
+            Matcher cell = CELL.matcher(row.group());
+            while (cell.find()) {
+                cells.add(text(cell.group()));
+            }
+            rows.add(cells.toArray(new String[0]));
+        }
+        return rows;
+    }
+
+    /**
+     * Cell text with one line per paragraph, whitespace collapsed and empty lines dropped
+     */
+    private static String text(String html) {
+        String text = LINE_BREAK.matcher(html).replaceAll("\n");
+        text = TAG.matcher(text).replaceAll("");
+        text = unescape(text);
+        StringBuilder result = new StringBuilder();
+        for (String line : text.split("\n")) {
+            String collapsed = WHITESPACE.matcher(line).replaceAll(" ").trim();
+            if (!collapsed.isEmpty()) {
+                if (result.length() > 0) {
+                    result.append('\n');
+                }
+                result.append(collapsed);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String unescape(String text) {
+        Matcher entity = ENTITY.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (entity.find()) {
+            String name = entity.group(1);
+            String replacement;
+            if (name.startsWith("#")) {
+                replacement = String.valueOf((char) Integer.parseInt(name.substring(1)));
+            } else {
+                switch (name) {
+                    case "amp": replacement = "&"; break;
+                    case "lt": replacement = "<"; break;
+                    case "gt": replacement = ">"; break;
+                    case "quot": replacement = "\""; break;
+                    case "nbsp": replacement = " "; break;
+                    default: replacement = entity.group(); break;
+                }
+            }
+            entity.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        entity.appendTail(result);
+        return result.toString().replace('\u00A0', ' ');
+    }
+}
@@ -0,0 +1,253 @@
+package com.solace.simulator.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Reads the ACP messages of a capture file one at a time through a fixed-size window
+ * A capture is either hex text, one message per line (blank lines and lines starting with '#'
+ * are skipped), or binary records of a 4-byte little-endian length followed by the message bytes.
+ * Local files are read at an offset into one reused direct buffer and other sources into one reused
+ * heap buffer, so memory use is the window size whatever the size of the capture. Not thread-safe.
+ */
+public final class CaptureFileReader implements Closeable {
+
+    public enum Format {
+        HEX, BINARY;
+
+        /**
+         * @param name hex, binary or auto (null); auto looks at the start of the capture
+         * @throws IllegalArgumentException for other names
+         */
+        public static Format parse(String name) {
+            if (name == null || name.equalsIgnoreCase("auto")) {
+                return null;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown capture format: " + name + " (expected hex, binary or auto)");
+            }
+        }
+    }
+
+    // Bytes looked at to tell hex text from binary records
+    private static final int DETECT_BYTES = 64;
+
+    private final FileChannel file;
+    private final ReadableByteChannel channel;
+    private final long size;
+    private final int windowSize;
+    private Format format;
+    private ByteBuffer window;
+    // Capture offset of window index 0
+    private long windowStart;
+    private int position;
+    private boolean endOfInput;
+    private ByteBuffer record;
+    private long recordOffset = -1;
+
+    private CaptureFileReader(FileChannel file, ReadableByteChannel channel, long size, int windowSize) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Read a local file a window at a time
+     * @param format null to detect it
+     */
+    public static CaptureFileReader open(Path path, Format format, int windowSize) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            CaptureFileReader reader = new CaptureFileReader(file, null, file.size(), windowSize);
+            reader.start(format);
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read a stream, such as an upload, through a reused heap buffer
+     * @param size total bytes if known, otherwise -1
+     * @param format null to detect it
+     */
+    public static CaptureFileReader open(ReadableByteChannel channel, long size, Format format, int windowSize)
+            throws IOException {
+        CaptureFileReader reader = new CaptureFileReader(null, channel, size, windowSize);
+        reader.start(format);
+        return reader;
+    }
+
+    private void start(Format format) throws IOException {
+        // A direct buffer, or FileChannel.read copies through a cached temporary one of the same size
+        window = (file != null ? ByteBuffer.allocateDirect(windowSize) : ByteBuffer.allocate(windowSize)).flip();
+        refill();
+        this.format = format != null ? format : detect();
+    }
+
+    // Hex text if the first bytes outside comment lines are hex digits and whitespace
+    private Format detect() {
+        int checked = 0;
+        boolean lineStart = true;
+        for (int i = 0; i < window.limit() && checked < DETECT_BYTES; i++) {
+            byte b = window.get(i);
+            if (lineStart && b == '#') {
+                while (i < window.limit() && window.get(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (!Character.isWhitespace(b) && Character.digit(b, 16) < 0) {
+                return Format.BINARY;
+            }
+            lineStart = b == '\n' || (lineStart && Character.isWhitespace(b));
+            checked++;
+        }
+        return Format.HEX;
+    }
+
+    /**
+     * Move the window to start at the current position and fill it as far as possible
+     * @return false when no byte past the old window was read
+     */
+    private boolean refill() throws IOException {
+        long start = windowStart + position;
+        int before = window.limit() - position;
+        window.position(position);
+        window.compact();
+        while (window.hasRemaining() && !endOfInput) {
+            int read = file != null ? file.read(window, start + window.position()) : channel.read(window);
+            if (read < 0) {
+                endOfInput = true;
+            }
+        }
+        window.flip();
+        windowStart = start;
+        position = 0;
+        return window.limit() > before;
+    }
+
+    /**
+     * Advance to the next message
+     * @return false at the end of the capture
+     * @throws IOException on read errors, truncated binary records or records larger than the window
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            boolean found = format == Format.HEX ? nextLine() : nextBinary();
+            if (found) {
+                return true;
+            }
+            if (position >= window.limit() && endOfInput) {
+                record = null;
+                return false;
+            }
+            if (endOfInput && format == Format.BINARY) {
+                throw new IOException("Truncated record at byte " + (windowStart + position));
+            }
+            if (!refill() && position == 0 && window.limit() == windowSize) {
+                throw new IOException("Record at byte " + windowStart + " is larger than the "
+                        + windowSize + "-byte read window");
+            }
+        }
+    }
+
+    // A line ends at '\n'; the last one may end at the end of the capture
+    private boolean nextLine() {
+        while (position < window.limit()) {
+            int start = position;
+            int end = start;
+            while (end < window.limit() && window.get(end) != '\n') {
+                end++;
+            }
+            if (end == window.limit() && !endOfInput) {
+                return false;
+            }
+            position = Math.min(end + 1, window.limit());
+            int first = start;
+            while (first < end && Character.isWhitespace(window.get(first))) {
+                first++;
+            }
+            int last = end;
+            while (last > first && Character.isWhitespace(window.get(last - 1))) {
+                last--;
+            }
+            if (first == last || window.get(first) == '#') {
+                continue;
+            }
+            record = window.slice(first, last - first);
+            recordOffset = windowStart + first;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean nextBinary() throws IOException {
+        if (window.limit() - position < 4) {
+            return false;
+        }
+        int length = LittleEndian.order(window.duplicate()).getInt(position);
+        if (length < 0) {
+            throw new IOException("Negative record length at byte " + (windowStart + position));
+        }
+        if (window.limit() - position - 4 < length) {
+            return false;
+        }
+        record = window.slice(position + 4, length);
+        recordOffset = windowStart + position;
+        position += 4 + length;
+        return true;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * The current message: the hex text of a line, without surrounding whitespace, or the bytes
+     * of a binary record; valid until the next call to {@link #next}
+     */
+    public ByteBuffer record() {
+        return record;
+    }
+
+    /**
+     * Capture offset of the current message's line or length prefix
+     */
+    public long recordOffset() {
+        return recordOffset;
+    }
+
+    /**
+     * Bytes of the capture consumed so far
+     */
+    public long getPosition() {
+        return windowStart + position;
+    }
+
+    /**
+     * Size of the capture in bytes, -1 if not known
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            file.close();
+        } else {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Absolute little-endian reads from a {@link ByteBuffer} (heap or direct)
+ * Reads never move the buffer position. Multi-byte reads use the buffer's own getShort/getInt/getLong,
+ * so the buffer must be in little-endian order (see {@link #order(ByteBuffer)}).
+ * The "OrZero" variants return 0 (or an empty string) when the field extends past the limit.
+ */
+public final class LittleEndian {
+
+    private LittleEndian() {
+    }
+
+    /**
+     * Switch a buffer to little-endian order
+     * @return the same buffer
+     */
+    public static ByteBuffer order(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.LITTLE_ENDIAN) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    public static int uint8(ByteBuffer buffer, int index) {
+        return buffer.get(index) & 0xFF;
+    }
+
+    public static int uint16(ByteBuffer buffer, int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+
+    public static int uint24(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xFF) | ((buffer.getShort(index + 1) & 0xFFFF) << 8);
+    }
+
+    public static long uint32(ByteBuffer buffer, int index) {
+        return buffer.getInt(index) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Unsigned 64-bit value; values above Long.MAX_VALUE come back negative, as with the parsers' long fields
+     */
+    public static long uint64(ByteBuffer buffer, int index) {
+        return buffer.getLong(index);
+    }
+
+    public static int uint16OrZero(ByteBuffer buffer, int index) {
+        return index + 1 < buffer.limit() ? uint16(buffer, index) : 0;
+    }
+
+    public static int uint24OrZero(ByteBuffer buffer, int index) {
+        return index + 2 < buffer.limit() ? uint24(buffer, index) : 0;
+    }
+
+    public static long uint32OrZero(ByteBuffer buffer, int index) {
+        return index + 3 < buffer.limit() ? uint32(buffer, index) : 0;
+    }
+
+    public static long uint64OrZero(ByteBuffer buffer, int index) {
+        return index + 7 < buffer.limit() ? uint64(buffer, index) : 0;
+    }
+
+    /**
+     * Read a fixed-size ASCII field, stopping at the first null byte and trimming spaces
+     * @return the string, or "" when the field extends past the limit
+     */
+    public static String stringOrEmpty(ByteBuffer buffer, int index, int length) {
+        if (index + length > buffer.limit()) {
+            return "";
+        }
+        int actualLength = 0;
+        while (actualLength < length && buffer.get(index + actualLength) != 0) {
+            actualLength++;
+        }
+        if (actualLength == 0) {
+            return "";
+        }
+        byte[] chars = new byte[actualLength];
+        buffer.get(index, chars);
+        return new String(chars, StandardCharsets.US_ASCII).trim();
+    }
+}
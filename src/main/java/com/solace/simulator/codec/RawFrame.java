@@ -0,0 +1,54 @@
+package com.solace.simulator.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary WebSocket frame carrying received messages as raw bytes
+ * A frame is a sequence of records, each a fixed 16-byte little-endian header followed by the payload:
+ * destination ID (2), message type (1), reserved (1), receive time in epoch milliseconds (8) and
+ * payload length (4). Destination IDs are assigned by the server and looked up by the browser;
+ * {@link #UNKNOWN_DESTINATION} is used once they run out.
+ */
+public final class RawFrame {
+
+    public static final int HEADER_SIZE = 16;
+
+    // Field offsets in the record header
+    public static final int DESTINATION_ID = 0;
+    public static final int TYPE = 2;
+    public static final int TIMESTAMP = 4;
+    public static final int LENGTH = 12;
+
+    public static final int TYPE_BYTES = 0;
+    public static final int TYPE_TEXT = 1;
+    public static final int TYPE_OTHER = 2;
+
+    public static final int UNKNOWN_DESTINATION = 0xFFFF;
+
+    private RawFrame() {
+    }
+
+    /**
+     * Bytes taken by one record
+     */
+    public static int size(byte[] payload) {
+        return HEADER_SIZE + (payload != null ? payload.length : 0);
+    }
+
+    /**
+     * Append one record at the buffer position
+     * @param buffer little-endian buffer with at least {@link #size(byte[])} bytes remaining
+     * @param payload message bytes, null for none
+     */
+    public static void write(ByteBuffer buffer, int destinationId, int type, long timestampMillis, byte[] payload) {
+        int length = payload != null ? payload.length : 0;
+        buffer.putShort((short) Math.min(destinationId, UNKNOWN_DESTINATION));
+        buffer.put((byte) type);
+        buffer.put((byte) 0);
+        buffer.putLong(timestampMillis);
+        buffer.putInt(length);
+        if (length > 0) {
+            buffer.put(payload);
+        }
+    }
+}
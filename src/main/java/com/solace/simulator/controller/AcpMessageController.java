@@ -1,18 +1,36 @@
 package com.solace.simulator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.codec.AcpFrameReader;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.codec.CaptureFileReader;
 import com.solace.simulator.model.AcpMessage;
 import com.solace.simulator.model.AcpMessageRequest;
+import com.solace.simulator.service.AcpBatchParser;
+import com.solace.simulator.service.AcpDecodeCache;
+import com.solace.simulator.service.AcpFieldProjection;
 import com.solace.simulator.service.AcpMessageParser;
 import com.solace.simulator.service.AcpMessageHeaderParser;
 import com.solace.simulator.service.AcpMessageDetailedParser;
 import com.solace.simulator.service.AcpMessageSpecParser;
 import com.solace.simulator.service.AcpMessageEnhancedParser;
+import com.solace.simulator.service.AcpLayoutRegistry;
+import com.solace.simulator.service.AcpStreamDecodeService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.NoSuchFileException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Controller for ACP message parsing operations
@@ -36,6 +54,25 @@ public class AcpMessageController {
     @Autowired
     private AcpMessageEnhancedParser acpMessageEnhancedParser;
     
+    @Autowired
+    private AcpLayoutRegistry acpLayoutRegistry;
+    
+    @Autowired
+    private AcpBatchParser acpBatchParser;
+    
+    @Autowired
+    private AcpStreamDecodeService acpStreamDecodeService;
+    
+    @Autowired
+    private AcpDecodeCache acpDecodeCache;
+    
+    @Autowired
+    private AcpFieldProjection acpFieldProjection;
+    
+    // Spring's mapper, so cached and streamed JSON is written like every other response
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     /**
      * Parse a hexadecimal string into an ACP message with mapped fields
      * @param request Contains the hexadecimal string to parse
@@ -44,12 +81,12 @@ public class AcpMessageController {
     @PostMapping("/parse")
     public ResponseEntity<?> parseMessage(@RequestBody AcpMessageRequest request) {
         try {
-            if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Hex string is required"));
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
             }
             
-            AcpMessage acpMessage = acpMessageParser.parseHexToAcpMessage(request.getHexString());
-            return ResponseEntity.ok(acpMessage);
+            return decoded(frame, "basic", acpMessageParser::parseHexToAcpMessage);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -57,6 +94,14 @@ public class AcpMessageController {
         }
     }
     
+    /**
+     * Same as /parse, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseMessageBytes(HttpServletRequest request) {
+        return parseBytes(request, "basic", acpMessageParser::parseHexToAcpMessage);
+    }
+    
     /**
      * Parse a complete ACP message with header and message code-based field mapping
      * This endpoint maps fields to their corresponding positions based on the message code
@@ -67,12 +112,12 @@ public class AcpMessageController {
     @PostMapping("/parse-complete")
     public ResponseEntity<?> parseCompleteMessage(@RequestBody AcpMessageRequest request) {
         try {
-            if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Hex string is required"));
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
             }
             
-            AcpMessage acpMessage = acpMessageHeaderParser.parseCompleteMessage(request.getHexString());
-            return ResponseEntity.ok(acpMessage);
+            return decoded(frame, "complete", acpMessageHeaderParser::parseCompleteMessage);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -80,6 +125,14 @@ public class AcpMessageController {
         }
     }
     
+    /**
+     * Same as /parse-complete, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse-complete", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseCompleteMessageBytes(HttpServletRequest request) {
+        return parseBytes(request, "complete", acpMessageHeaderParser::parseCompleteMessage);
+    }
+    
     /**
      * Parse ACP message with detailed field-by-field breakdown
      * Shows binary representation, field names from spec, byte positions, and values
@@ -90,12 +143,12 @@ public class AcpMessageController {
     @PostMapping("/parse-detailed")
     public ResponseEntity<?> parseDetailedMessage(@RequestBody AcpMessageRequest request) {
         try {
-            if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Hex string is required"));
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
             }
             
-            AcpMessage acpMessage = acpMessageDetailedParser.parseWithDetails(request.getHexString());
-            return ResponseEntity.ok(acpMessage);
+            return decoded(frame, "detailed", acpMessageDetailedParser::parseWithDetails);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -103,6 +156,14 @@ public class AcpMessageController {
         }
     }
     
+    /**
+     * Same as /parse-detailed, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse-detailed", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseDetailedMessageBytes(HttpServletRequest request) {
+        return parseBytes(request, "detailed", acpMessageDetailedParser::parseWithDetails);
+    }
+    
     /**
      * Parse ACP message with table format based on acp_message.htm specification
      * Shows: Data, Byte Position, Data Type, Size, Msg Data (binary), Msg Data Value
@@ -113,12 +174,12 @@ public class AcpMessageController {
     @PostMapping("/parse-spec")
     public ResponseEntity<?> parseWithSpec(@RequestBody AcpMessageRequest request) {
         try {
-            if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Hex string is required"));
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
             }
             
-            AcpMessage acpMessage = acpMessageSpecParser.parseWithSpec(request.getHexString());
-            return ResponseEntity.ok(acpMessage);
+            return decoded(frame, "spec", acpMessageSpecParser::parseWithSpec);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -126,6 +187,14 @@ public class AcpMessageController {
         }
     }
     
+    /**
+     * Same as /parse-spec, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse-spec", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseWithSpecBytes(HttpServletRequest request) {
+        return parseBytes(request, "spec", acpMessageSpecParser::parseWithSpec);
+    }
+    
     /**
      * Parse ACP message with enhanced parsing:
      * - Supports BCS-specific header format (56 bytes with packet fields)
@@ -139,12 +208,46 @@ public class AcpMessageController {
     @PostMapping("/parse-enhanced")
     public ResponseEntity<?> parseEnhanced(@RequestBody AcpMessageRequest request) {
         try {
-            if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Hex string is required"));
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
+            }
+            
+            return decoded(frame, "enhanced", acpMessageEnhancedParser::parseEnhanced);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to parse message: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Same as /parse-enhanced, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse-enhanced", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseEnhancedBytes(HttpServletRequest request) {
+        return parseBytes(request, "enhanced", acpMessageEnhancedParser::parseEnhanced);
+    }
+    
+    /**
+     * Compact view: only the requested fields, read straight from their offsets
+     * No other field is decoded and no binary or display text is rendered.
+     * 
+     * @param request Contains the hexadecimal string (or base64) to parse
+     * @param fields Comma-separated enhanced-view field names, e.g. Message code,Message transaction ID,A/c number
+     * @return One flat JSON object of the requested fields present in the message, keyed as requested
+     */
+    @PostMapping("/parse-compact")
+    public ResponseEntity<?> parseCompact(@RequestBody AcpMessageRequest request,
+                                          @RequestParam(required = false) String fields) {
+        try {
+            AcpFieldProjection.Projection projection = acpFieldProjection.compile(fields);
+            AcpFrame frame = requestFrame(request);
+            if (frame == null) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Hex string or base64 is required"));
             }
             
-            AcpMessage acpMessage = acpMessageEnhancedParser.parseEnhanced(request.getHexString());
-            return ResponseEntity.ok(acpMessage);
+            return decoded(frame, "compact:" + fields, projection::apply);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -152,6 +255,164 @@ public class AcpMessageController {
         }
     }
     
+    /**
+     * Same as /parse-compact, from the raw message bytes of an application/octet-stream body
+     */
+    @PostMapping(value = "/parse-compact", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> parseCompactBytes(HttpServletRequest request,
+                                               @RequestParam(required = false) String fields) {
+        try {
+            AcpFieldProjection.Projection projection = acpFieldProjection.compile(fields);
+            return parseBytes(request, "compact:" + fields, projection::apply);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Parse many ACP messages in one call, decoded in parallel
+     * Body: a JSON array of hex strings, NDJSON (application/x-ndjson, one hex string per line) or
+     * application/octet-stream records of a 4-byte little-endian length and the message bytes.
+     * 
+     * @param view Parser view: enhanced (default), spec, detailed, complete, basic or compact
+     * @param fields Field names for the compact view, as for /parse-compact
+     * @return Results in input order, each with the parsed message or its error, plus throughput and pool size
+     */
+    @PostMapping("/parse-batch")
+    public ResponseEntity<?> parseBatch(@RequestBody byte[] body,
+                                        @RequestHeader(value = "Content-Type", required = false) String contentType,
+                                        @RequestParam(defaultValue = "enhanced") String view,
+                                        @RequestParam(required = false) String fields) {
+        try {
+            AcpBatchParser.InputFormat format = AcpBatchParser.detectFormat(contentType, body);
+            return ResponseEntity.ok(acpBatchParser.parse(body, format, view, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to parse batch: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Decode a capture file of any size, streaming the results back as they are decoded
+     * The capture is a local file (path), an uploaded file (multipart part "file") or the request body
+     * itself (send it as application/octet-stream), holding hex lines or length-prefixed binary records.
+     * 
+     * @param format hex, binary or auto
+     * @param output ndjson (the parser view of each message) or csv (header fields)
+     * @param view Parser view for ndjson output: enhanced (default), spec, detailed, complete or basic
+     * @return NDJSON or CSV in input order; the X-Decode-Job header names the job in /decode-stream/jobs
+     */
+    @PostMapping("/decode-stream")
+    public ResponseEntity<StreamingResponseBody> decodeStream(@RequestParam(required = false) String path,
+                                                              @RequestParam(required = false) MultipartFile file,
+                                                              @RequestParam(defaultValue = "auto") String format,
+                                                              @RequestParam(defaultValue = "ndjson") String output,
+                                                              @RequestParam(defaultValue = "enhanced") String view,
+                                                              HttpServletRequest request) {
+        AcpStreamDecodeService.Job job = null;
+        try {
+            CaptureFileReader.Format captureFormat = CaptureFileReader.Format.parse(format);
+            AcpStreamDecodeService.Output resultOutput = AcpStreamDecodeService.Output.parse(output);
+            int window = acpStreamDecodeService.getWindowSize();
+            String source = path != null ? path : file != null ? "upload:" + file.getOriginalFilename() : "request body";
+            job = acpStreamDecodeService.createJob(source, view, resultOutput);
+            CaptureFileReader reader;
+            if (path != null) {
+                reader = CaptureFileReader.open(acpStreamDecodeService.resolveCapture(path), captureFormat, window);
+            } else if (file != null) {
+                reader = CaptureFileReader.open(Channels.newChannel(file.getInputStream()), file.getSize(), captureFormat, window);
+            } else {
+                reader = CaptureFileReader.open(Channels.newChannel(request.getInputStream()),
+                        request.getContentLengthLong(), captureFormat, window);
+            }
+            AcpStreamDecodeService.Job decodeJob = job;
+            MediaType type = resultOutput == AcpStreamDecodeService.Output.CSV
+                    ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson");
+            return ResponseEntity.ok()
+                    .contentType(type)
+                    .header("X-Decode-Job", job.getId())
+                    .body(out -> acpStreamDecodeService.decode(reader, decodeJob, out));
+        } catch (IllegalArgumentException | NoSuchFileException e) {
+            failJob(job, e);
+            String message = e instanceof NoSuchFileException ? "No such file: " + e.getMessage() : e.getMessage();
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorBody(message));
+        } catch (IOException e) {
+            failJob(job, e);
+            return ResponseEntity.status(500).contentType(MediaType.APPLICATION_JSON)
+                    .body(errorBody("Failed to read capture: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Progress of running and recent capture decodes: bytes read, records, errors and records/s
+     */
+    @GetMapping("/decode-stream/jobs")
+    public ResponseEntity<Map<String, Object>> getDecodeJobs() {
+        return ResponseEntity.ok(acpStreamDecodeService.getJobs());
+    }
+    
+    private static void failJob(AcpStreamDecodeService.Job job, Exception e) {
+        if (job != null) {
+            job.fail(e.getMessage());
+        }
+    }
+    
+    private StreamingResponseBody errorBody(String message) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(createErrorResponse(message));
+        } catch (IOException e) {
+            body = new byte[0];
+        }
+        byte[] json = body;
+        return out -> out.write(json);
+    }
+    
+    /**
+     * Get the status of the body layouts compiled from acp_message.htm
+     * @return Layout source (compiled/cache), spec hash and the message codes with a layout
+     */
+    @GetMapping("/layouts")
+    public ResponseEntity<Map<String, Object>> getLayouts() {
+        return ResponseEntity.ok(acpLayoutRegistry.getStats());
+    }
+    
+    /**
+     * Get the compiled body layout of one message code
+     * @param messageCode Message code
+     * @return Field names, data types, offsets and sizes
+     */
+    @GetMapping("/layouts/{messageCode}")
+    public ResponseEntity<?> getLayout(@PathVariable int messageCode) {
+        AcpLayout layout = acpLayoutRegistry.getLayout(messageCode);
+        if (layout == null) {
+            return ResponseEntity.status(404).body(createErrorResponse("No layout for message code " + messageCode));
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("messageCode", layout.getMessageCode());
+        result.put("variable", layout.isVariable());
+        result.put("fields", layout.getFields());
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Decode cache size and hit/miss/eviction counters for the single-message parse endpoints
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getDecodeCache() {
+        return ResponseEntity.ok(acpDecodeCache.getStats());
+    }
+    
+    /**
+     * Drop all cached decode results
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Map<String, Object>> clearDecodeCache() {
+        acpDecodeCache.clear();
+        return ResponseEntity.ok(acpDecodeCache.getStats());
+    }
+    
     /**
      * Get information about ACP message structure and parsing rules
      * @return Information about the ACP message format
@@ -161,7 +422,7 @@ public class AcpMessageController {
         Map<String, Object> info = new HashMap<>();
         info.put("description", "ACP Message Parser - Converts hexadecimal byte strings to parsed message fields");
         info.put("byteOrder", "Little-Endian");
-        info.put("inputFormat", "Hexadecimal string (with or without spaces)");
+        info.put("inputFormat", "JSON {\"hexString\": ...} (with or without spaces) or {\"base64\": ...}, or the raw bytes as application/octet-stream");
         info.put("example", "F30A291408000101...");
         info.put("exampleParsing", "F30A (hex) = 0x0AF3 = 2803 (decimal, little-endian)");
         
@@ -171,6 +432,12 @@ public class AcpMessageController {
         endpoints.put("POST /api/acp/parse-detailed", "Detailed parser - shows binary, field names, byte positions, and values");
         endpoints.put("POST /api/acp/parse-spec", "Spec-based parser - table format with Data, Byte Position, Data Type, Size, Msg Data, Msg Data Value");
         endpoints.put("POST /api/acp/parse-enhanced", "Enhanced parser - BCS/ACP header support + message-specific body parsing");
+        endpoints.put("POST /api/acp/parse-compact", "Compact view - only the fields named in fields=, as one flat JSON object");
+        endpoints.put("POST /api/acp/parse-batch", "Batch parser - many messages per call (JSON array, NDJSON or length-prefixed binary), decoded in parallel");
+        endpoints.put("POST /api/acp/decode-stream", "Streaming decoder - capture files of any size (local path, upload or body) to NDJSON or CSV");
+        endpoints.put("GET /api/acp/layouts", "Status of the body layouts compiled from acp_message.htm");
+        endpoints.put("GET /api/acp/layouts/{messageCode}", "Compiled body layout of one message code");
+        endpoints.put("GET /api/acp/cache", "Decode cache size, hit rate and evictions (DELETE to clear)");
         endpoints.put("GET /api/acp/info", "Get API information");
         info.put("endpoints", endpoints);
         
@@ -182,6 +449,47 @@ public class AcpMessageController {
         return ResponseEntity.ok(info);
     }
     
+    /**
+     * The message of a JSON request: base64 bytes if given, otherwise the hex string; null if neither
+     */
+    private static AcpFrame requestFrame(AcpMessageRequest request) {
+        if (request.getBase64() != null) {
+            return request.getBase64().length > 0 ? AcpFrame.wrap(request.getBase64()) : null;
+        }
+        if (request.getHexString() == null || request.getHexString().trim().isEmpty()) {
+            return null;
+        }
+        return AcpFrame.fromHex(request.getHexString());
+    }
+    
+    /**
+     * Parse the body bytes as they arrive, without a hex round trip
+     */
+    private ResponseEntity<?> parseBytes(HttpServletRequest request, String view, Function<AcpFrame, ?> parser) {
+        try {
+            AcpFrame frame = AcpFrameReader.read(request.getInputStream(), request.getContentLengthLong());
+            return decoded(frame, view, parser);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to parse message: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * JSON of a decoded message, from the decode cache when the same bytes were decoded with this view before
+     */
+    private ResponseEntity<byte[]> decoded(AcpFrame frame, String view, Function<AcpFrame, ?> parser)
+            throws IOException {
+        AcpDecodeCache.Key key = acpDecodeCache.key(frame.buffer(), view);
+        byte[] json = acpDecodeCache.get(key);
+        if (json == null) {
+            json = objectMapper.writeValueAsBytes(parser.apply(frame));
+            acpDecodeCache.put(key, json);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+    
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("status", "error");
@@ -0,0 +1,74 @@
+package com.solace.simulator.controller;
+
+import com.solace.simulator.model.ResponderRule;
+import com.solace.simulator.service.AcpResponderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for the automatic ACP responder
+ */
+@RestController
+@RequestMapping("/api/responder")
+public class AcpResponderController {
+
+    @Autowired
+    private AcpResponderService acpResponderService;
+
+    @PostMapping("/enable")
+    public ResponseEntity<Map<String, Object>> enable() {
+        acpResponderService.setEnabled(true);
+        return ResponseEntity.ok(acpResponderService.getStats());
+    }
+
+    @PostMapping("/disable")
+    public ResponseEntity<Map<String, Object>> disable() {
+        acpResponderService.setEnabled(false);
+        return ResponseEntity.ok(acpResponderService.getStats());
+    }
+
+    /**
+     * Request, reply, delayed, ignored and error counters
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(acpResponderService.getStats());
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<ResponderRule>> getRules() {
+        return ResponseEntity.ok(acpResponderService.getRules());
+    }
+
+    /**
+     * Add or replace the rule for a request message code (0 = default rule)
+     * @param rule Reply code, body, latency and jitter for the message code
+     */
+    @PutMapping("/rules")
+    public ResponseEntity<?> putRule(@RequestBody ResponderRule rule) {
+        try {
+            acpResponderService.putRule(rule);
+            return ResponseEntity.ok(acpResponderService.getRules());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/rules/{messageCode}")
+    public ResponseEntity<List<ResponderRule>> deleteRule(@PathVariable int messageCode) {
+        acpResponderService.removeRule(messageCode);
+        return ResponseEntity.ok(acpResponderService.getRules());
+    }
+
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        return error;
+    }
+}
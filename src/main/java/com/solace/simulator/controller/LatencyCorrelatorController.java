@@ -0,0 +1,34 @@
+package com.solace.simulator.controller;
+
+import com.solace.simulator.service.LatencyCorrelatorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller for request/reply latency statistics
+ * The same statistics are pushed to /topic/latency while replies are being matched.
+ */
+@RestController
+@RequestMapping("/api/latency")
+public class LatencyCorrelatorController {
+
+    @Autowired
+    private LatencyCorrelatorService latencyCorrelatorService;
+
+    /**
+     * Per-message-code latency percentiles (µs) with timeout, orphan and pending counts
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(latencyCorrelatorService.getStats());
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<Map<String, Object>> reset() {
+        latencyCorrelatorService.reset();
+        return ResponseEntity.ok(latencyCorrelatorService.getStats());
+    }
+}
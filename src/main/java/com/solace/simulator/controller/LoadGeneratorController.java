@@ -0,0 +1,63 @@
+package com.solace.simulator.controller;
+
+import com.solace.simulator.model.LoadGeneratorRequest;
+import com.solace.simulator.service.LoadGeneratorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for the ACP load generator
+ */
+@RestController
+@RequestMapping("/api/load")
+public class LoadGeneratorController {
+
+    @Autowired
+    private LoadGeneratorService loadGeneratorService;
+
+    /**
+     * Start publishing templated ACP messages
+     * @param request Destination, rate, thread count and message mix
+     * @return Status of the started run
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestBody LoadGeneratorRequest request) {
+        try {
+            loadGeneratorService.start(request);
+            return ResponseEntity.ok(loadGeneratorService.getStatus());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to start load generator: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the running load generator
+     * @return Final status of the run
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        loadGeneratorService.stop();
+        return ResponseEntity.ok(loadGeneratorService.getStatus());
+    }
+
+    /**
+     * Achieved rate, send latency percentiles and error counts of the current or last run
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(loadGeneratorService.getStatus());
+    }
+
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        return error;
+    }
+}
@@ -0,0 +1,63 @@
+package com.solace.simulator.controller;
+
+import com.solace.simulator.model.ReplayRequest;
+import com.solace.simulator.service.ReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for replaying captured traffic
+ */
+@RestController
+@RequestMapping("/api/replay")
+public class ReplayController {
+
+    @Autowired
+    private ReplayService replayService;
+
+    /**
+     * Start replaying a capture journal
+     * @param request Capture directory, speed, lanes and header rewrites
+     * @return Status of the started run
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestBody ReplayRequest request) {
+        try {
+            replayService.start(request);
+            return ResponseEntity.ok(replayService.getStatus());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to start replay: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the running replay
+     * @return Final status of the run
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        replayService.stop();
+        return ResponseEntity.ok(replayService.getStatus());
+    }
+
+    /**
+     * Achieved rate, per-lane counts and errors of the current or last replay
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(replayService.getStatus());
+    }
+
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        return error;
+    }
+}
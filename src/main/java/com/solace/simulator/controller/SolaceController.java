@@ -3,12 +3,20 @@ package com.solace.simulator.controller;
 import com.solace.simulator.model.ConnectionConfig;
 import com.solace.simulator.model.MessageRequest;
 import com.solace.simulator.model.SubscriptionRequest;
+import com.solace.simulator.service.CaptureJournalService;
+import com.solace.simulator.service.MessageBroadcastService;
+import com.solace.simulator.service.MessageRoutingService;
+import com.solace.simulator.service.ReceivePipelineService;
+import com.solace.simulator.service.RecentMessageService;
 import com.solace.simulator.service.SolaceJmsService;
+import com.solace.simulator.service.WebSocketBackpressureService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +26,24 @@ public class SolaceController {
     @Autowired
     private SolaceJmsService solaceJmsService;
 
+    @Autowired
+    private MessageBroadcastService messageBroadcastService;
+
+    @Autowired
+    private WebSocketBackpressureService webSocketBackpressureService;
+
+    @Autowired
+    private MessageRoutingService messageRoutingService;
+
+    @Autowired
+    private ReceivePipelineService receivePipelineService;
+
+    @Autowired
+    private CaptureJournalService captureJournalService;
+
+    @Autowired
+    private RecentMessageService recentMessageService;
+
     @PostMapping("/connect")
     public ResponseEntity<Map<String, String>> connect(@RequestBody ConnectionConfig config) {
         try {
@@ -63,6 +89,127 @@ public class SolaceController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/producer-cache")
+    public ResponseEntity<Map<String, Object>> getProducerCacheStats() {
+        return ResponseEntity.ok(solaceJmsService.getProducerCacheStats());
+    }
+
+    @GetMapping("/session-pool")
+    public ResponseEntity<Map<String, Object>> getSessionPoolStats() {
+        return ResponseEntity.ok(solaceJmsService.getSessionPoolStats());
+    }
+
+    /**
+     * Receive pipeline ring usage and per-stage lag
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(receivePipelineService.getStats());
+    }
+
+    /**
+     * Capture journal segments, sequences and counters
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<Map<String, Object>> getJournalStats() {
+        return ResponseEntity.ok(captureJournalService.getStats());
+    }
+
+    /**
+     * Captured messages by indexed field, e.g. ?field=account&value=10000042
+     * @param field messageCode, messageTransactionId, lastTransactionId, physicalTerminalId,
+     *              logicalTerminalId, locationId or account
+     * @param after only messages after this journal sequence, for paging
+     */
+    @GetMapping("/journal/query")
+    public ResponseEntity<?> queryJournal(@RequestParam String field, @RequestParam String value,
+                                          @RequestParam(defaultValue = "-1") long after,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        try {
+            Map<String, Object> response = new LinkedHashMap<>();
+            List<Map<String, Object>> records = captureJournalService.query(field, value, after, limit);
+            response.put("field", field);
+            response.put("value", value);
+            response.put("count", records.size());
+            response.put("records", records);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Recently received messages after a pipeline sequence, for catching up before following /topic/messages
+     * @param after sequence of the last message the client has; page on with the response's next
+     * @param filter optional ACP filter, as on the /topic/messages subscription
+     */
+    @GetMapping("/messages")
+    public ResponseEntity<?> getRecentMessages(@RequestParam(defaultValue = "-1") long after,
+                                               @RequestParam(defaultValue = "500") int limit,
+                                               @RequestParam(required = false) String filter) {
+        try {
+            return ResponseEntity.ok(recentMessageService.page(after, limit, filter));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/messages/stats")
+    public ResponseEntity<Map<String, Object>> getRecentMessageStats() {
+        return ResponseEntity.ok(recentMessageService.getStats());
+    }
+
+    @GetMapping("/websocket-batches")
+    public ResponseEntity<Map<String, Object>> getWebSocketBatchStats() {
+        return ResponseEntity.ok(messageBroadcastService.getStats());
+    }
+
+    /**
+     * JMS destination names behind the destination IDs of binary message frames
+     */
+    @GetMapping("/websocket-destinations")
+    public ResponseEntity<Map<Integer, String>> getWebSocketDestinations() {
+        return ResponseEntity.ok(messageBroadcastService.getDestinationIds());
+    }
+
+    /**
+     * Subscribed UI destinations and filters with their matched message counts
+     */
+    @GetMapping("/websocket-routes")
+    public ResponseEntity<Map<String, Object>> getWebSocketRoutes() {
+        return ResponseEntity.ok(messageRoutingService.getStats());
+    }
+
+    /**
+     * Overflow policy and per-session queued/delivered/dropped frame counters
+     */
+    @GetMapping("/websocket-clients")
+    public ResponseEntity<Map<String, Object>> getWebSocketClientStats() {
+        return ResponseEntity.ok(webSocketBackpressureService.getStats());
+    }
+
+    /**
+     * @param policy drop-oldest, drop-newest, sample or summary-only
+     */
+    @PutMapping("/websocket-clients/overflow-policy/{policy}")
+    public ResponseEntity<?> setOverflowPolicy(@PathVariable String policy) {
+        try {
+            webSocketBackpressureService.setOverflowPolicy(WebSocketBackpressureService.OverflowPolicy.parse(policy));
+            return ResponseEntity.ok(webSocketBackpressureService.getStats());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @PostMapping("/send")
     public ResponseEntity<Map<String, String>> sendMessage(@RequestBody MessageRequest request) {
         try {
@@ -71,6 +218,11 @@ public class SolaceController {
             response.put("status", "success");
             response.put("message", "Message sent successfully");
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
             response.put("status", "error");
@@ -0,0 +1,462 @@
+package com.solace.simulator.journal;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of sent and received messages in a directory of {@link JournalSegment}s
+ * Records get consecutive sequence numbers. When the active segment is full a new one is started,
+ * and the oldest segments are deleted once the journal exceeds its size or age limit. Appends only
+ * copy into the mapped segment; forcing pages to disk happens on the "journal-flush" thread as
+ * the {@link FlushPolicy} asks. Reopening a directory continues after its last sequence.
+ * With {@link RecordKeys}, every segment also gets a {@link JournalIndex} for {@link #query}; indexes of
+ * full segments are sealed into files on the flush thread, and rebuilt on open when missing.
+ */
+public class CaptureJournal implements AutoCloseable {
+
+    // Metadata above this is encoded into a one-off buffer instead of growing the shared one
+    private static final int MAX_SCRATCH_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN));
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FlushPolicy flushPolicy;
+    private final int flushRecords;
+    private final long maxBytes;
+    private final long maxAgeNanos;
+    private final RecordKeys recordKeys;
+    private final String[] fieldNames;
+    private final ThreadLocal<long[]> keyScratch;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    // Guarded by this; oldest first, the last one is the active segment
+    private final Deque<JournalSegment> segments = new ArrayDeque<>();
+    private JournalSegment active;
+    private long nextSequence;
+    private int unflushedRecords;
+    private volatile boolean closed;
+
+    private volatile long appended;
+    private volatile long rolls;
+    private volatile long deletedSegments;
+    private volatile long flushes;
+    private volatile long sealedIndexes;
+
+    /**
+     * Open the journal in a directory, creating it if needed, and start a new active segment
+     * @param flushInterval milliseconds between forces of the active segment, for {@link FlushPolicy#INTERVAL}
+     * @param flushRecords records between forces of the active segment, for {@link FlushPolicy#RECORDS}
+     * @param maxBytes total size above which the oldest segments are deleted
+     * @param maxAgeMillis age above which segments are deleted
+     */
+    public CaptureJournal(Path directory, int segmentSize, FlushPolicy flushPolicy, long flushInterval,
+                          int flushRecords, long maxBytes, long maxAgeMillis) throws IOException {
+        this(directory, segmentSize, flushPolicy, flushInterval, flushRecords, maxBytes, maxAgeMillis, null);
+    }
+
+    /**
+     * Open the journal with secondary indexes
+     * @param recordKeys fields to index (at most 32), null for none
+     */
+    public CaptureJournal(Path directory, int segmentSize, FlushPolicy flushPolicy, long flushInterval,
+                          int flushRecords, long maxBytes, long maxAgeMillis, RecordKeys recordKeys) throws IOException {
+        this.directory = directory;
+        this.recordKeys = recordKeys;
+        this.fieldNames = recordKeys != null ? recordKeys.fieldNames().clone() : new String[0];
+        if (fieldNames.length > 32) {
+            throw new IllegalArgumentException("At most 32 indexed fields: " + fieldNames.length);
+        }
+        this.keyScratch = ThreadLocal.withInitial(() -> new long[fieldNames.length]);
+        this.segmentSize = segmentSize;
+        this.flushPolicy = flushPolicy;
+        this.flushRecords = Math.max(1, flushRecords);
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+
+        Files.createDirectories(directory);
+        for (Path path : segmentFiles(directory)) {
+            JournalSegment segment = JournalSegment.open(path);
+            if (segment.getRecords() == 0) {
+                segment.retire(); // Left behind by a crash before its first record
+                continue;
+            }
+            if (recordKeys != null) {
+                loadIndex(segment);
+            }
+            segments.addLast(segment);
+            nextSequence = segment.getLastSequence() + 1;
+        }
+        active = newSegment();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (flushPolicy == FlushPolicy.INTERVAL) {
+            flusher.scheduleWithFixedDelay(this::flushActive, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+        // Age limits also apply while nothing is written
+        long retentionCheck = Math.max(1000, Math.min(maxAgeMillis, 60_000));
+        flusher.scheduleWithFixedDelay(this::applyRetention, retentionCheck, retentionCheck, TimeUnit.MILLISECONDS);
+        applyRetention();
+    }
+
+    /**
+     * Segment files of a journal directory, oldest first
+     */
+    public static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + JournalSegment.SUFFIX)) {
+            files.forEach(paths::add);
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    /**
+     * Append a message
+     * @param direction {@link JournalRecord#RECEIVED} or {@link JournalRecord#SENT}
+     * @param type {@link JournalRecord#TYPE_BYTES}, TYPE_TEXT or TYPE_OTHER
+     * @param properties string property name/value pairs to record, may be null
+     * @param payload raw body, null for none
+     * @param length bytes of payload to record
+     * @return the record's sequence number
+     * @throws IllegalArgumentException if the record cannot fit in a segment
+     * @throws IllegalStateException once the journal is closed
+     */
+    public long append(int direction, int type, long timestampNanos, String destination, String[] properties,
+                       byte[] payload, int length) throws IOException {
+        // Encode and extract index keys outside the lock; only the copy into the segment is serialized
+        ByteBuffer metadata = encodeMetadata(destination, properties);
+        long[] keys = keyScratch.get();
+        int keyMask = recordKeys != null && payload != null ? recordKeys.extract(type, payload, length, keys) : 0;
+        int payloadLength = payload != null ? length : 0;
+        int recordLength = JournalRecord.recordLength(metadata.remaining(), payloadLength);
+        if (JournalSegment.HEADER_SIZE + recordLength + 4 > segmentSize) {
+            throw new IllegalArgumentException("Message too large for the journal: " + recordLength
+                    + " bytes (segment size " + segmentSize + ")");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal closed");
+            }
+            long sequence = nextSequence;
+            int offset = active.append(sequence, direction, type, timestampNanos, metadata, payload, payloadLength);
+            if (offset < 0) {
+                roll();
+                offset = active.append(sequence, direction, type, timestampNanos, metadata, payload, payloadLength);
+            }
+            if (keyMask != 0) {
+                active.getIndex().add(keys, keyMask, offset);
+            }
+            nextSequence++;
+            appended++;
+            if (flushPolicy == FlushPolicy.RECORDS && ++unflushedRecords >= flushRecords) {
+                unflushedRecords = 0;
+                if (flushQueued.compareAndSet(false, true)) {
+                    flusher.execute(this::flushActive);
+                }
+            }
+            return sequence;
+        }
+    }
+
+    private static ByteBuffer encodeMetadata(String destination, String[] properties) {
+        byte[] name = destination != null ? destination.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer scratch = SCRATCH.get();
+        while (true) {
+            scratch.clear();
+            try {
+                JournalRecord.writeMetadata(scratch, name, properties);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                int size = scratch.capacity() * 2;
+                scratch = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+                if (size <= MAX_SCRATCH_BYTES) {
+                    SCRATCH.set(scratch);
+                }
+            }
+        }
+    }
+
+    // Called with the lock held
+    private void roll() throws IOException {
+        JournalSegment full = active;
+        active = newSegment();
+        rolls++;
+        // A full segment is never written again; get it onto the disk whatever the policy
+        flusher.execute(() -> force(full));
+        if (recordKeys != null) {
+            flusher.execute(() -> sealIndex(full));
+        }
+        flusher.execute(this::applyRetention);
+    }
+
+    private JournalSegment newSegment() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, nextSequence, epochNanos(), segmentSize);
+        if (recordKeys != null) {
+            segment.setIndex(new JournalIndex(fieldNames.length));
+        }
+        segments.addLast(segment);
+        return segment;
+    }
+
+    // Map the index file of a reopened segment, or rebuild it from the records
+    private void loadIndex(JournalSegment segment) throws IOException {
+        JournalIndex index = JournalIndex.open(JournalIndex.indexPath(segment.getPath()), fieldNames);
+        if (index == null) {
+            JournalIndex building = new JournalIndex(fieldNames.length);
+            long[] keys = new long[fieldNames.length];
+            byte[][] payload = {new byte[1024]};
+            segment.forEach(record -> {
+                int length = record.payloadLength();
+                if (payload[0].length < length) {
+                    payload[0] = new byte[length];
+                }
+                record.payload(payload[0]);
+                int mask = recordKeys.extract(record.type(), payload[0], length, keys);
+                if (mask != 0) {
+                    building.add(keys, mask, record.offset());
+                }
+            });
+            index = building.seal(JournalIndex.indexPath(segment.getPath()), fieldNames);
+        }
+        segment.setIndex(index);
+    }
+
+    private void sealIndex(JournalSegment segment) {
+        if (!segment.retain()) {
+            return; // Deleted by retention in the meantime
+        }
+        try {
+            JournalIndex index = segment.getIndex();
+            if (index != null && !index.isSealed()) {
+                segment.setIndex(index.seal(JournalIndex.indexPath(segment.getPath()), fieldNames));
+                sealedIndexes++;
+            }
+        } catch (IOException e) {
+            // The building index stays in use
+            e.printStackTrace();
+        } finally {
+            segment.release();
+        }
+    }
+
+    private void flushActive() {
+        flushQueued.set(false);
+        JournalSegment segment;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            segment = active;
+        }
+        force(segment);
+    }
+
+    private void force(JournalSegment segment) {
+        if (!segment.retain()) {
+            return; // Deleted by retention in the meantime
+        }
+        try {
+            segment.force();
+            flushes++;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            segment.release();
+        }
+    }
+
+    /**
+     * Delete the oldest segments over the size or age limit; the active segment is always kept
+     * A segment still being read is unmapped and deleted when its last reader is done.
+     */
+    synchronized void applyRetention() {
+        if (closed) {
+            return;
+        }
+        long now = epochNanos();
+        long total = 0;
+        for (JournalSegment segment : segments) {
+            total += segment.getCapacity();
+        }
+        while (segments.size() > 1) {
+            JournalSegment oldest = segments.peekFirst();
+            if (total <= maxBytes && now - oldest.getCreatedNanos() <= maxAgeNanos) {
+                break;
+            }
+            segments.removeFirst();
+            total -= oldest.getCapacity();
+            oldest.retire();
+            deletedSegments++;
+        }
+    }
+
+    /**
+     * Force all segments and wait for pending flushes
+     */
+    public void flush() throws InterruptedException {
+        List<JournalSegment> current;
+        synchronized (this) {
+            current = new ArrayList<>(segments);
+        }
+        try {
+            flusher.submit(() -> current.forEach(this::force)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal flush failed", e.getCause());
+        }
+    }
+
+    /**
+     * Visit every retained record in sequence order; the record view is reused between calls
+     */
+    public void forEach(Consumer<JournalRecord> visitor) {
+        List<JournalSegment> current;
+        synchronized (this) {
+            current = new ArrayList<>(segments);
+        }
+        for (JournalSegment segment : current) {
+            if (segment.retain()) {
+                try {
+                    segment.forEach(visitor);
+                } finally {
+                    segment.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Names of the indexed fields, empty without {@link RecordKeys}
+     */
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    /**
+     * Visit the retained records with a key in an indexed field, in sequence order
+     * @param afterSequence only records after this sequence (-1 for all)
+     * @param limit maximum number of records visited
+     * @return number of records visited
+     * @throws IllegalArgumentException for fields that are not indexed
+     */
+    public int query(String field, long key, long afterSequence, int limit, Consumer<JournalRecord> visitor) {
+        int fieldIndex = Arrays.asList(fieldNames).indexOf(field);
+        if (fieldIndex < 0) {
+            throw new IllegalArgumentException("Not an indexed field: " + field + " (expected one of "
+                    + String.join(", ", fieldNames) + ")");
+        }
+        List<JournalSegment> current;
+        synchronized (this) {
+            current = new ArrayList<>(segments);
+        }
+        JournalRecord record = new JournalRecord();
+        int visited = 0;
+        for (JournalSegment segment : current) {
+            if (visited >= limit) {
+                break;
+            }
+            if (segment.getLastSequence() <= afterSequence || !segment.retain()) {
+                continue;
+            }
+            try {
+                int[] offsets;
+                // The active segment's index is still being added to
+                synchronized (this) {
+                    JournalIndex index = segment.getIndex();
+                    offsets = index != null ? index.find(fieldIndex, key) : new int[0];
+                }
+                for (int i = 0; i < offsets.length && visited < limit; i++) {
+                    if (segment.read(offsets[i], record) && record.sequence() > afterSequence) {
+                        visitor.accept(record);
+                        visited++;
+                    }
+                }
+            } finally {
+                segment.release();
+            }
+        }
+        return visited;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("flushPolicy", flushPolicy.name());
+        stats.put("segmentSize", segmentSize);
+        stats.put("segments", segments.size());
+        long bytes = 0;
+        for (JournalSegment segment : segments) {
+            bytes += segment.getPosition();
+        }
+        stats.put("bytes", bytes);
+        stats.put("firstSequence", segments.peekFirst().getFirstSequence());
+        stats.put("nextSequence", nextSequence);
+        stats.put("appended", appended);
+        stats.put("rolls", rolls);
+        stats.put("deletedSegments", deletedSegments);
+        stats.put("flushes", flushes);
+        stats.put("indexedFields", Arrays.asList(fieldNames));
+        stats.put("sealedIndexes", sealedIndexes);
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (JournalSegment segment : segments) {
+                segment.force();
+                if (recordKeys != null && segment.getRecords() > 0) {
+                    sealIndex(segment);
+                }
+                segment.close();
+            }
+        }
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
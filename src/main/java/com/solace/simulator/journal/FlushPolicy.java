@@ -0,0 +1,28 @@
+package com.solace.simulator.journal;
+
+import java.util.Locale;
+
+/**
+ * When the journal forces mapped pages to disk
+ * Appends never wait for a flush; every policy flushes on the journal's own thread.
+ */
+public enum FlushPolicy {
+    /** Leave writeback of the active segment to the OS; force segments once they roll */
+    OS,
+    /** Also force the active segment every flush interval */
+    INTERVAL,
+    /** Also force the active segment after every N records */
+    RECORDS;
+
+    /**
+     * Parse "os", "INTERVAL" etc.
+     * @throws IllegalArgumentException for unknown policies
+     */
+    public static FlushPolicy parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown flush policy: " + name + " (expected os, interval or records)");
+        }
+    }
+}
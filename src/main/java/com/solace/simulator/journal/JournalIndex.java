@@ -0,0 +1,280 @@
+package com.solace.simulator.journal;
+
+import com.solace.simulator.codec.LittleEndian;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Secondary indexes of one journal segment: per field, record offsets by key
+ * While its segment is active an index is built in growable primitive arrays in append order and
+ * searched linearly. Once the segment is full, {@link #seal} sorts every field by (key, offset) into an
+ * index file next to the segment, which is mapped and binary searched from then on.
+ *
+ * File layout (little-endian): magic (4), version (4), field count (4), field names hash (4), then per
+ * field entry count (4), reserved (4) and data offset (8); each field's data is its sorted keys
+ * (8 bytes each) followed by the matching record offsets (4 bytes each), 8-byte aligned.
+ */
+public final class JournalIndex {
+
+    public static final int MAGIC = 0x49504341; // "ACPI" in little-endian
+    public static final int VERSION = 1;
+    public static final String SUFFIX = ".index";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int FIELD_ENTRY_SIZE = 16;
+
+    private final int fieldCount;
+
+    // Building: keys and offsets per field in append order
+    private long[][] keys;
+    private int[][] offsets;
+    private int[] sizes;
+
+    // Sealed: the mapped file
+    private ByteBuffer sealed;
+    private int[] sealedCounts;
+    private long[] sealedData;
+
+    /**
+     * New, empty index for an active segment
+     */
+    public JournalIndex(int fieldCount) {
+        this.fieldCount = fieldCount;
+        keys = new long[fieldCount][64];
+        offsets = new int[fieldCount][64];
+        sizes = new int[fieldCount];
+    }
+
+    private JournalIndex(int fieldCount, ByteBuffer sealed) {
+        this.fieldCount = fieldCount;
+        this.sealed = sealed;
+        sealedCounts = new int[fieldCount];
+        sealedData = new long[fieldCount];
+        for (int field = 0; field < fieldCount; field++) {
+            int entry = HEADER_SIZE + field * FIELD_ENTRY_SIZE;
+            sealedCounts[field] = sealed.getInt(entry);
+            sealedData[field] = sealed.getLong(entry + 8);
+        }
+    }
+
+    /**
+     * File name of the index of a segment file
+     */
+    public static Path indexPath(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return segmentPath.resolveSibling(name.substring(0, name.length() - JournalSegment.SUFFIX.length()) + SUFFIX);
+    }
+
+    /**
+     * Hash of the field names, stored in index files so a changed field set is rebuilt
+     */
+    public static int fieldsHash(String[] fieldNames) {
+        return Arrays.hashCode(fieldNames);
+    }
+
+    /**
+     * Map an index file
+     * @return null if it is missing or was built for other fields
+     */
+    public static JournalIndex open(Path path, String[] fieldNames) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            LittleEndian.order(buffer);
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != fieldNames.length || buffer.getInt(12) != fieldsHash(fieldNames)) {
+                MappedBuffers.unmap(buffer);
+                return null;
+            }
+            return new JournalIndex(fieldNames.length, buffer);
+        }
+    }
+
+    /**
+     * Add the keys of one record; building indexes only, callers serialize adds
+     * @param mask bit mask of the fields present in keys
+     */
+    public void add(long[] recordKeys, int mask, int offset) {
+        for (int field = 0; field < fieldCount; field++) {
+            if ((mask & (1 << field)) == 0) {
+                continue;
+            }
+            int size = sizes[field];
+            if (size == keys[field].length) {
+                keys[field] = Arrays.copyOf(keys[field], size * 2);
+                offsets[field] = Arrays.copyOf(offsets[field], size * 2);
+            }
+            keys[field][size] = recordKeys[field];
+            offsets[field][size] = offset;
+            sizes[field] = size + 1;
+        }
+    }
+
+    /**
+     * Offsets of the records with a key, ascending
+     */
+    public int[] find(int field, long key) {
+        if (sealed == null) {
+            return findUnsorted(field, key);
+        }
+        int count = sealedCounts[field];
+        int keysAt = (int) sealedData[field];
+        int offsetsAt = keysAt + count * 8;
+        // Lower bound of the key
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sealed.getLong(keysAt + mid * 8) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < count && sealed.getLong(keysAt + end * 8) == key) {
+            end++;
+        }
+        int[] result = new int[end - low];
+        for (int i = low; i < end; i++) {
+            result[i - low] = sealed.getInt(offsetsAt + i * 4);
+        }
+        return result;
+    }
+
+    private int[] findUnsorted(int field, long key) {
+        long[] fieldKeys = keys[field];
+        int size = sizes[field];
+        int[] result = new int[8];
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            if (fieldKeys[i] == key) {
+                if (found == result.length) {
+                    result = Arrays.copyOf(result, found * 2);
+                }
+                result[found++] = offsets[field][i];
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Entries per field
+     */
+    public int size(int field) {
+        return sealed != null ? sealedCounts[field] : sizes[field];
+    }
+
+    public boolean isSealed() {
+        return sealed != null;
+    }
+
+    /**
+     * Release the mapping of a sealed index; called by its segment once no reader is left
+     */
+    void unmap() {
+        MappedBuffers.unmap(sealed);
+    }
+
+    /**
+     * Sort the entries and write them to an index file; this building index is left unchanged
+     * @return the mapped, sealed index
+     */
+    public JournalIndex seal(Path path, String[] fieldNames) throws IOException {
+        long dataStart = HEADER_SIZE + (long) fieldCount * FIELD_ENTRY_SIZE;
+        long[] dataOffsets = new long[fieldCount];
+        long fileSize = dataStart;
+        for (int field = 0; field < fieldCount; field++) {
+            dataOffsets[field] = fileSize;
+            fileSize += ((long) sizes[field] * 12 + 7) & ~7L;
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Index too large: " + fileSize + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(4, VERSION);
+        out.putInt(8, fieldCount);
+        out.putInt(12, fieldsHash(fieldNames));
+        for (int field = 0; field < fieldCount; field++) {
+            int size = sizes[field];
+            long[] sortedKeys = Arrays.copyOf(keys[field], size);
+            int[] sortedOffsets = Arrays.copyOf(offsets[field], size);
+            sort(sortedKeys, sortedOffsets, 0, size - 1);
+
+            int entry = HEADER_SIZE + field * FIELD_ENTRY_SIZE;
+            out.putInt(entry, size);
+            out.putLong(entry + 8, dataOffsets[field]);
+            int at = (int) dataOffsets[field];
+            for (int i = 0; i < size; i++) {
+                out.putLong(at + i * 8, sortedKeys[i]);
+                out.putInt(at + size * 8 + i * 4, sortedOffsets[i]);
+            }
+        }
+        out.putInt(0, MAGIC);
+
+        // Written under a temporary name and moved, so a crash never leaves a partial index
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path, fieldNames);
+    }
+
+    // Quicksort of (key, offset) pairs; offsets are unique, so the order is total
+    private static void sort(long[] keys, int[] offsets, int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long pivotKey = keys[mid];
+            int pivotOffset = offsets[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (less(keys[i], offsets[i], pivotKey, pivotOffset)) {
+                    i++;
+                }
+                while (less(pivotKey, pivotOffset, keys[j], offsets[j])) {
+                    j--;
+                }
+                if (i <= j) {
+                    long key = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = key;
+                    int offset = offsets[i];
+                    offsets[i] = offsets[j];
+                    offsets[j] = offset;
+                    i++;
+                    j--;
+                }
+            }
+            // Recurse into the smaller part, loop on the larger
+            if (j - low < high - i) {
+                sort(keys, offsets, low, j);
+                low = i;
+            } else {
+                sort(keys, offsets, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static boolean less(long key, int offset, long otherKey, int otherOffset) {
+        return key < otherKey || (key == otherKey && offset < otherOffset);
+    }
+}
@@ -0,0 +1,103 @@
+package com.solace.simulator.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequential reader over the segments of a journal directory, mapped read-only
+ * Only the segments present when the reader is opened are read, up to the last record they held
+ * at that point, so a live journal can be read while it is being appended to (replaying it, for
+ * instance, does not read back its own sends).
+ */
+public final class JournalReader implements AutoCloseable {
+
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final long lastSequence;
+    private final long firstTimestampNanos;
+    private final long lastTimestampNanos;
+    private final JournalRecord record = new JournalRecord();
+    private int segmentIndex;
+    private int offset = JournalSegment.HEADER_SIZE;
+
+    /**
+     * @throws IOException if a segment file cannot be mapped
+     */
+    public JournalReader(Path directory) throws IOException {
+        long last = -1;
+        long firstTimestamp = -1;
+        long lastTimestamp = -1;
+        try {
+            for (Path path : CaptureJournal.segmentFiles(directory)) {
+                JournalSegment segment = JournalSegment.open(path);
+                segments.add(segment);
+                if (segment.getRecords() > 0) {
+                    last = Math.max(last, segment.getLastSequence());
+                    if (firstTimestamp < 0) {
+                        firstTimestamp = segment.getFirstTimestampNanos();
+                    }
+                    lastTimestamp = segment.getLastTimestampNanos();
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        this.lastSequence = last;
+        this.firstTimestampNanos = firstTimestamp;
+        this.lastTimestampNanos = lastTimestamp;
+    }
+
+    /**
+     * Move to the next record
+     * @return false at the end of the journal
+     */
+    public boolean next() {
+        while (segmentIndex < segments.size()) {
+            JournalSegment segment = segments.get(segmentIndex);
+            if (segment.read(offset, record) && record.sequence() <= lastSequence) {
+                offset += record.length();
+                return true;
+            }
+            segmentIndex++;
+            offset = JournalSegment.HEADER_SIZE;
+        }
+        return false;
+    }
+
+    /**
+     * The current record; the view is reused by {@link #next()}
+     */
+    public JournalRecord record() {
+        return record;
+    }
+
+    /**
+     * Sequence of the last record this reader returns, -1 for an empty journal
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Capture time of the first record, from the head of the first segment; -1 for an empty journal
+     */
+    public long getFirstTimestampNanos() {
+        return firstTimestampNanos;
+    }
+
+    /**
+     * Capture time of the last record, from the tail of the last segment; -1 for an empty journal
+     */
+    public long getLastTimestampNanos() {
+        return lastTimestampNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (JournalSegment segment : segments) {
+            segment.close();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.solace.simulator.journal;
+
+import com.solace.simulator.codec.LittleEndian;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Layout of a capture journal record, and a reusable view over one
+ * Records are little-endian and 8-byte aligned. The 40-byte header holds the record length (written
+ * last, so a non-zero length marks a complete record), direction (1), message type (1), reserved (2),
+ * sequence (8), timestamp in epoch nanoseconds (8), metadata length (4), payload length (4), CRC32C
+ * of the whole record but the checksum field, padding included (4), and reserved (4). Metadata is the destination followed by the JMS string
+ * properties, each string as a 2-byte length and UTF-8 bytes (length 0xFFFF for null values).
+ */
+public final class JournalRecord {
+
+    public static final int HEADER_SIZE = 40;
+
+    // Field offsets in the record header
+    public static final int LENGTH = 0;
+    public static final int DIRECTION = 4;
+    public static final int TYPE = 5;
+    public static final int SEQUENCE = 8;
+    public static final int TIMESTAMP = 16;
+    public static final int METADATA_LENGTH = 24;
+    public static final int PAYLOAD_LENGTH = 28;
+    public static final int CHECKSUM = 32;
+
+    public static final int RECEIVED = 0;
+    public static final int SENT = 1;
+
+    // Same codes as the binary WebSocket frames
+    public static final int TYPE_BYTES = 0;
+    public static final int TYPE_TEXT = 1;
+    public static final int TYPE_OTHER = 2;
+
+    private static final int NULL_STRING = 0xFFFF;
+
+    private ByteBuffer buffer;
+    private int offset;
+    // For checksum verification: a view of buffer whose position and limit can be moved, created on first use
+    private CRC32C crc;
+    private ByteBuffer crcSource;
+    private ByteBuffer crcView;
+
+    /**
+     * Point this view at the record starting at offset
+     */
+    public JournalRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = LittleEndian.order(buffer);
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Offset of the record in its segment
+     */
+    public int offset() {
+        return offset;
+    }
+
+    public int length() {
+        return buffer.getInt(offset + LENGTH);
+    }
+
+    public int direction() {
+        return LittleEndian.uint8(buffer, offset + DIRECTION);
+    }
+
+    public int type() {
+        return LittleEndian.uint8(buffer, offset + TYPE);
+    }
+
+    public long sequence() {
+        return buffer.getLong(offset + SEQUENCE);
+    }
+
+    public long timestampNanos() {
+        return buffer.getLong(offset + TIMESTAMP);
+    }
+
+    public int payloadLength() {
+        return buffer.getInt(offset + PAYLOAD_LENGTH);
+    }
+
+    public int checksum() {
+        return buffer.getInt(offset + CHECKSUM);
+    }
+
+    /**
+     * Whether the stored checksum matches the record's bytes
+     */
+    public boolean isIntact() {
+        if (crc == null) {
+            crc = new CRC32C();
+        }
+        if (crcSource != buffer) {
+            crcSource = buffer;
+            crcView = buffer.duplicate();
+        }
+        return checksum(crcView, offset, length(), crc) == checksum();
+    }
+
+    /**
+     * CRC32C of a record: its length, then every byte from the direction to the end of the padding
+     * except the checksum field
+     * @param view buffer holding the record; its position and limit are changed
+     */
+    static int checksum(ByteBuffer view, int offset, int length, CRC32C crc) {
+        crc.reset();
+        for (int shift = 0; shift < 32; shift += 8) {
+            crc.update(length >>> shift);
+        }
+        view.clear().position(offset + DIRECTION).limit(offset + CHECKSUM);
+        crc.update(view);
+        view.clear().position(offset + CHECKSUM + 4).limit(offset + length);
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    public String destination() {
+        return readString(offset + HEADER_SIZE);
+    }
+
+    public Map<String, String> properties() {
+        int position = offset + HEADER_SIZE;
+        position += 2 + stringLength(position);
+        int count = LittleEndian.uint16(buffer, position);
+        position += 2;
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(position);
+            position += 2 + stringLength(position);
+            String value = readString(position);
+            position += 2 + stringLength(position);
+            properties.put(name, value);
+        }
+        return properties;
+    }
+
+    /**
+     * Copy of the payload bytes
+     */
+    public byte[] payload() {
+        byte[] payload = new byte[payloadLength()];
+        buffer.get(payloadOffset(), payload);
+        return payload;
+    }
+
+    /**
+     * Copy the payload into a caller-supplied array
+     * @return payload length
+     * @throws IndexOutOfBoundsException if the array is too small
+     */
+    public int payload(byte[] target) {
+        int length = payloadLength();
+        buffer.get(payloadOffset(), target, 0, length);
+        return length;
+    }
+
+    /**
+     * Hash of the destination's UTF-8 bytes, read without decoding the name
+     */
+    public int destinationHash() {
+        int position = offset + HEADER_SIZE;
+        int length = stringLength(position);
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(position + 2 + i);
+        }
+        return hash;
+    }
+
+    /**
+     * Offset of the payload in the underlying buffer
+     */
+    public int payloadOffset() {
+        return offset + HEADER_SIZE + buffer.getInt(offset + METADATA_LENGTH);
+    }
+
+    /**
+     * Bytes taken by a record, padding included
+     */
+    public static int recordLength(int metadataLength, int payloadLength) {
+        return (HEADER_SIZE + metadataLength + payloadLength + 7) & ~7;
+    }
+
+    /**
+     * Write the metadata of a record: the destination and the message's string properties
+     * @param out little-endian buffer, written from its position
+     * @param properties property name/value pairs, may be null
+     * @throws java.nio.BufferOverflowException if out is too small
+     */
+    public static void writeMetadata(ByteBuffer out, byte[] destination, String[] properties) {
+        putString(out, destination);
+        int count = properties != null ? properties.length / 2 : 0;
+        out.putShort((short) count);
+        for (int i = 0; i < count * 2; i += 2) {
+            String value = properties[i + 1];
+            putString(out, properties[i].getBytes(StandardCharsets.UTF_8));
+            putString(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+        }
+    }
+
+    private static void putString(ByteBuffer out, byte[] utf8) {
+        if (utf8 == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        if (utf8.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String too long for the journal: " + utf8.length + " bytes");
+        }
+        out.putShort((short) utf8.length);
+        out.put(utf8);
+    }
+
+    private int stringLength(int position) {
+        int length = LittleEndian.uint16(buffer, position);
+        return length == NULL_STRING ? 0 : length;
+    }
+
+    private String readString(int position) {
+        int length = LittleEndian.uint16(buffer, position);
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(position + 2, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
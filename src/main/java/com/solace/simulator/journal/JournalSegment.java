@@ -0,0 +1,323 @@
+package com.solace.simulator.journal;
+
+import com.solace.simulator.codec.LittleEndian;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file
+ * The file starts with a 64-byte header: magic (4), version (4), first sequence (8), creation time in
+ * epoch nanoseconds (8) and segment size (8). Records follow back to back; a zero length word, or the
+ * first record whose checksum does not match (torn by a crash), ends the written part. Appends go through the mapping only, so they never wait for the disk; {@link #force()}
+ * writes the dirty pages back and is called from the journal's flusher thread.
+ * The owner holds one reference; code reading the segment outside the owner's lock takes another with
+ * {@link #retain}. The mapping is released, and a retired segment's files deleted, when the last
+ * reference is dropped, so a segment is never unmapped under a reader.
+ */
+public final class JournalSegment implements AutoCloseable {
+
+    public static final int MAGIC = 0x4A504341; // "ACPJ" in little-endian
+    // Version 2: the record checksum covers the whole record, not only the payload
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 64;
+    public static final String SUFFIX = ".journal";
+
+    private static final int FIRST_SEQUENCE = 8;
+    private static final int CREATED = 16;
+    private static final int SEGMENT_SIZE = 24;
+
+    // Publishes the length word after the rest of the record, for readers of the same mapping
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long firstSequence;
+    private final long createdNanos;
+    private final CRC32C crc = new CRC32C();
+    // Appending thread's view for the checksum, so the shared buffer's position is never moved
+    private final ByteBuffer crcView;
+    // Written by the appending thread, read by the flusher
+    private volatile int position = HEADER_SIZE;
+    private long lastSequence = -1;
+    private long lastTimestampNanos = -1;
+    private int records;
+    // Secondary indexes, when the journal has any; replaced by the sealed index once full
+    private volatile JournalIndex index;
+    // The owner's reference plus one per reader in progress
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean ownerReleased = new AtomicBoolean();
+    private volatile boolean deleteWhenReleased;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        LittleEndian.order(buffer);
+        this.firstSequence = buffer.getLong(FIRST_SEQUENCE);
+        this.createdNanos = buffer.getLong(CREATED);
+        this.crcView = buffer.duplicate();
+    }
+
+    /**
+     * File name of the segment starting at a sequence, so names sort in journal order
+     */
+    public static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    /**
+     * Create and map a new segment file
+     * @throws IOException if the file exists or cannot be mapped
+     */
+    public static JournalSegment create(Path directory, long firstSequence, long createdNanos, int size) throws IOException {
+        if (size < HEADER_SIZE + JournalRecord.HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal segment size too small: " + size);
+        }
+        Path path = directory.resolve(fileName(firstSequence));
+        try (RandomAccessFile file = new RandomAccessFile(Files.createFile(path).toFile(), "rw")) {
+            file.setLength(size);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        LittleEndian.order(buffer);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(FIRST_SEQUENCE, firstSequence);
+        buffer.putLong(CREATED, createdNanos);
+        buffer.putLong(SEGMENT_SIZE, size);
+        buffer.putInt(0, MAGIC);
+        return new JournalSegment(path, channel, buffer);
+    }
+
+    /**
+     * Map an existing segment read-only and find the end of its records
+     * @throws IOException if the file is not a journal segment
+     */
+    public static JournalSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        LittleEndian.order(buffer);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            MappedBuffers.unmap(buffer);
+            throw new IOException("Not a journal segment: " + path);
+        }
+        JournalSegment segment = new JournalSegment(path, channel, buffer);
+        segment.position = segment.scan(record -> {
+            segment.lastSequence = record.sequence();
+            segment.lastTimestampNanos = record.timestampNanos();
+            segment.records++;
+        });
+        return segment;
+    }
+
+    /**
+     * Append one record unless it does not fit; callers serialize appends
+     * @param metadata encoded destination and properties, read from position to limit
+     * @param payload raw message bytes, null for none
+     * @param payloadLength bytes of payload to record
+     * @return offset of the record, -1 if the segment is full
+     */
+    public int append(long sequence, int direction, int type, long timestampNanos, ByteBuffer metadata,
+                          byte[] payload, int payloadLength) {
+        int metadataLength = metadata.remaining();
+        int length = JournalRecord.recordLength(metadataLength, payloadLength);
+        // Keep room for the zero length word that ends the records
+        if (position + length + 4 > buffer.capacity()) {
+            return -1;
+        }
+        int start = position;
+        buffer.put(start + JournalRecord.DIRECTION, (byte) direction);
+        buffer.put(start + JournalRecord.TYPE, (byte) type);
+        buffer.putLong(start + JournalRecord.SEQUENCE, sequence);
+        buffer.putLong(start + JournalRecord.TIMESTAMP, timestampNanos);
+        buffer.putInt(start + JournalRecord.METADATA_LENGTH, metadataLength);
+        buffer.putInt(start + JournalRecord.PAYLOAD_LENGTH, payloadLength);
+        buffer.put(start + JournalRecord.HEADER_SIZE, metadata, metadata.position(), metadataLength);
+        if (payloadLength > 0) {
+            buffer.put(start + JournalRecord.HEADER_SIZE + metadataLength, payload, 0, payloadLength);
+        }
+        buffer.putInt(start + JournalRecord.CHECKSUM, JournalRecord.checksum(crcView, start, length, crc));
+        INT.setRelease(buffer, start + JournalRecord.LENGTH, length);
+        position += length;
+        lastSequence = sequence;
+        lastTimestampNanos = timestampNanos;
+        records++;
+        return start;
+    }
+
+    /**
+     * Point a record view at the complete record starting at offset
+     * @return false if no complete, intact record starts there (end of the written part)
+     */
+    public boolean read(int offset, JournalRecord record) {
+        if (offset + JournalRecord.HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+        int length = (int) INT.getAcquire(buffer, offset + JournalRecord.LENGTH);
+        if (length < JournalRecord.HEADER_SIZE || offset + length > buffer.capacity()) {
+            return false;
+        }
+        record.wrap(buffer, offset);
+        return record.isIntact();
+    }
+
+    /**
+     * Visit the complete records in order; the record view is reused between calls
+     */
+    public void forEach(Consumer<JournalRecord> visitor) {
+        scan(visitor);
+    }
+
+    // Returns the offset after the last complete record
+    private int scan(Consumer<JournalRecord> visitor) {
+        JournalRecord record = new JournalRecord();
+        int offset = HEADER_SIZE;
+        while (read(offset, record)) {
+            visitor.accept(record);
+            offset += record.length();
+        }
+        return offset;
+    }
+
+    /**
+     * Write the mapped pages back to the file
+     */
+    public void force() {
+        buffer.force(0, position);
+    }
+
+    JournalIndex getIndex() {
+        return index;
+    }
+
+    void setIndex(JournalIndex index) {
+        this.index = index;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Sequence of the last record, -1 when empty
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Capture time of the first record, -1 when empty
+     */
+    public long getFirstTimestampNanos() {
+        return records > 0 ? buffer.getLong(HEADER_SIZE + JournalRecord.TIMESTAMP) : -1;
+    }
+
+    /**
+     * Capture time of the last record, -1 when empty
+     */
+    public long getLastTimestampNanos() {
+        return lastTimestampNanos;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Bytes used by the header and records
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Take a reference for reading outside the owner's lock; pair with {@link #release}
+     * @return false if the segment is already released and must not be read
+     */
+    public boolean retain() {
+        while (true) {
+            int count = references.get();
+            if (count == 0) {
+                return false;
+            }
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop a reference taken with {@link #retain}
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            free();
+        }
+    }
+
+    /**
+     * Drop the owner's reference and delete the segment and index files once no reader is left
+     */
+    public void retire() {
+        deleteWhenReleased = true;
+        close();
+    }
+
+    private void free() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        MappedBuffers.unmap(buffer);
+        JournalIndex current = index;
+        if (current != null) {
+            current.unmap();
+        }
+        if (deleteWhenReleased) {
+            try {
+                Files.deleteIfExists(path);
+                Files.deleteIfExists(JournalIndex.indexPath(path));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Drop the owner's reference; the mapping is released once no reader is left
+     */
+    @Override
+    public void close() {
+        if (ownerReleased.compareAndSet(false, true)) {
+            release();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.solace.simulator.journal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases file mappings right away instead of when the garbage collector gets to the buffer
+ * Until a mapping is released the file's disk space is not freed, and on Windows the file cannot
+ * be deleted. Uses sun.misc.Unsafe.invokeCleaner (module jdk.unsupported); without it mappings are
+ * left to the garbage collector. The buffer, and every view of it, must not be touched afterwards.
+ */
+final class MappedBuffers {
+
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private MappedBuffers() {
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Unmap a buffer returned by FileChannel.map (not a duplicate or slice of one)
+     */
+    static void unmap(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            // Left to the garbage collector
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.solace.simulator.journal;
+
+/**
+ * Extracts the secondary index keys of a journal record from its payload
+ * Called on the appending thread for every record, so implementations must not allocate.
+ */
+public interface RecordKeys {
+
+    /**
+     * Names of the indexed fields; a key's position in {@link #extract} is its field's index here
+     */
+    String[] fieldNames();
+
+    /**
+     * Write the keys of a record
+     * @param type {@link JournalRecord#TYPE_BYTES}, TYPE_TEXT or TYPE_OTHER
+     * @param keys one slot per field
+     * @return bit mask of the fields that have a key in this record
+     */
+    int extract(int type, byte[] payload, int length, long[] keys);
+}
@@ -0,0 +1,207 @@
+package com.solace.simulator.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-memory ring of records in the journal's {@link JournalRecord} layout
+ * Records are packed into one byte array of fixed capacity; appending a record evicts the oldest
+ * ones until it fits, so memory use is set in bytes whatever the message sizes. Sequences must be
+ * consecutive, which makes finding a record by sequence one array lookup. A record larger than the
+ * whole ring is kept without its payload. Not thread-safe: callers serialize access.
+ */
+public final class RecordRing {
+
+    // Length word marking that the records continue at the start of the array
+    private static final int WRAP = -1;
+
+    private final ByteBuffer buffer;
+    // Offset of each record by sequence modulo length; every record takes at least MIN_RECORD bytes
+    private final int[] offsets;
+    private int head;
+    private int tail;
+    private int count;
+    private long firstSequence;
+    private long lastSequence = -1;
+    private long evicted;
+    private long truncated;
+
+    /**
+     * @param capacity bytes of record storage
+     */
+    public RecordRing(int capacity) {
+        if (capacity < JournalRecord.recordLength(4, 0)) {
+            throw new IllegalArgumentException("Ring capacity too small: " + capacity);
+        }
+        buffer = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        offsets = new int[capacity / JournalRecord.recordLength(4, 0) + 1];
+    }
+
+    /**
+     * Append a record, evicting the oldest ones as needed
+     * @param sequence the last sequence + 1; any other value first empties the ring
+     * @param metadata encoded destination and properties ({@link JournalRecord#writeMetadata}), position to limit
+     * @param payload body bytes, null for none
+     */
+    public void append(long sequence, int type, long timestampNanos, ByteBuffer metadata, byte[] payload, int length) {
+        if (count > 0 && sequence != lastSequence + 1) {
+            clear();
+        }
+        int metadataLength = metadata.remaining();
+        int payloadLength = payload != null ? length : 0;
+        int recordLength = JournalRecord.recordLength(metadataLength, payloadLength);
+        if (recordLength > buffer.capacity()) {
+            payloadLength = 0;
+            recordLength = JournalRecord.recordLength(metadataLength, 0);
+            truncated++;
+            if (recordLength > buffer.capacity()) {
+                metadata = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0).flip();
+                metadataLength = 4;
+                recordLength = JournalRecord.recordLength(metadataLength, 0);
+            }
+        }
+
+        int position = tail;
+        if (position + recordLength > buffer.capacity()) {
+            // Records between here and the end are older than those at the start; they go first
+            while (count > 0 && head >= position) {
+                evictOldest();
+                if (head == position) {
+                    head = 0;
+                }
+            }
+            if (position + 4 <= buffer.capacity()) {
+                buffer.putInt(position, WRAP);
+            }
+            position = 0;
+        }
+        // Evict the records starting inside the space about to be written
+        while (count > 0 && head >= position && head < position + recordLength) {
+            evictOldest();
+        }
+        if (count == 0) {
+            head = position;
+            firstSequence = sequence;
+        }
+
+        buffer.put(position + JournalRecord.DIRECTION, (byte) JournalRecord.RECEIVED);
+        buffer.put(position + JournalRecord.TYPE, (byte) type);
+        buffer.putLong(position + JournalRecord.SEQUENCE, sequence);
+        buffer.putLong(position + JournalRecord.TIMESTAMP, timestampNanos);
+        buffer.putInt(position + JournalRecord.METADATA_LENGTH, metadataLength);
+        buffer.putInt(position + JournalRecord.PAYLOAD_LENGTH, payloadLength);
+        buffer.putInt(position + JournalRecord.CHECKSUM, 0);
+        buffer.put(position + JournalRecord.HEADER_SIZE, metadata, metadata.position(), metadataLength);
+        if (payloadLength > 0) {
+            buffer.put(position + JournalRecord.HEADER_SIZE + metadataLength, payload, 0, payloadLength);
+        }
+        buffer.putInt(position + JournalRecord.LENGTH, recordLength);
+
+        offsets[(int) (sequence % offsets.length)] = position;
+        tail = position + recordLength;
+        lastSequence = sequence;
+        count++;
+    }
+
+    private void evictOldest() {
+        head += buffer.getInt(head);
+        count--;
+        firstSequence++;
+        evicted++;
+        if (head + 4 > buffer.capacity() || buffer.getInt(head) == WRAP) {
+            head = 0;
+        }
+    }
+
+    /**
+     * Visit the records after a sequence, oldest first; the record view is reused between calls
+     * @param afterSequence -1 for all
+     * @return number of records visited
+     */
+    public int read(long afterSequence, int limit, Consumer<JournalRecord> visitor) {
+        if (count == 0) {
+            return 0;
+        }
+        JournalRecord record = new JournalRecord();
+        long sequence = Math.max(afterSequence + 1, firstSequence);
+        int visited = 0;
+        for (; sequence <= lastSequence && visited < limit; sequence++, visited++) {
+            visitor.accept(record.wrap(buffer, offsets[(int) (sequence % offsets.length)]));
+        }
+        return visited;
+    }
+
+    /**
+     * Copy the records after a sequence, oldest first, packed back to back into a new buffer
+     * The copy can be read with {@link JournalRecord#wrap} at successive record lengths after the
+     * caller's lock is released.
+     * @param afterSequence -1 for all
+     */
+    public ByteBuffer copy(long afterSequence, int limit) {
+        long from = Math.max(afterSequence + 1, firstSequence);
+        long to = count == 0 ? from - 1 : Math.min(lastSequence, from + limit - 1);
+        int size = 0;
+        for (long sequence = from; sequence <= to; sequence++) {
+            size += buffer.getInt(offsets[(int) (sequence % offsets.length)]);
+        }
+        ByteBuffer copy = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (long sequence = from; sequence <= to; sequence++) {
+            int offset = offsets[(int) (sequence % offsets.length)];
+            copy.put(buffer.slice(offset, buffer.getInt(offset)));
+        }
+        return copy.flip();
+    }
+
+    public void clear() {
+        head = 0;
+        tail = 0;
+        count = 0;
+    }
+
+    /**
+     * Sequence of the oldest record held, or the next one expected when empty
+     */
+    public long getFirstSequence() {
+        return count > 0 ? firstSequence : lastSequence + 1;
+    }
+
+    /**
+     * Sequence of the newest record appended, -1 before the first
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Bytes between the oldest and the newest record, wasted wrap space included
+     */
+    public int getUsedBytes() {
+        if (count == 0) {
+            return 0;
+        }
+        return tail > head ? tail - head : buffer.capacity() - head + tail;
+    }
+
+    /**
+     * Records evicted to make room for newer ones
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Records kept without their payload because it was larger than the ring
+     */
+    public long getTruncated() {
+        return truncated;
+    }
+}
@@ -1,5 +1,9 @@
 package com.solace.simulator.model;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Enumeration of ACP Message Codes
  * Defines all known message types and their codes
@@ -79,12 +83,52 @@ public enum AcpMessageCode {
     
     UNKNOWN(0, "Unknown Message Code");
     
+    // Direct-indexed by message code; codes outside the table are UNKNOWN
+    private static final AcpMessageCode[] BY_CODE;
+
+    static {
+        AcpMessageCode[] all = values();
+        int maxCode = 0;
+        for (AcpMessageCode msgCode : all) {
+            maxCode = Math.max(maxCode, msgCode.code);
+        }
+        BY_CODE = new AcpMessageCode[maxCode + 1];
+        Arrays.fill(BY_CODE, UNKNOWN);
+        for (AcpMessageCode msgCode : all) {
+            if (BY_CODE[msgCode.code] == UNKNOWN) {
+                BY_CODE[msgCode.code] = msgCode; // first declaration wins, as with the former linear scan
+            }
+        }
+
+        // Pair X_REQUEST with X_REPLY by name
+        Map<String, AcpMessageCode> byName = new HashMap<>();
+        for (AcpMessageCode msgCode : all) {
+            byName.put(msgCode.name(), msgCode);
+        }
+        for (AcpMessageCode msgCode : all) {
+            if (msgCode.name().endsWith("_REQUEST")) {
+                String base = msgCode.name().substring(0, msgCode.name().length() - "_REQUEST".length());
+                AcpMessageCode reply = byName.get(base + "_REPLY");
+                if (reply != null) {
+                    msgCode.replyMessageCode = reply;
+                    reply.requestMessageCode = msgCode;
+                }
+            }
+        }
+    }
+
     private final int code;
     private final String description;
+    private final boolean request;
+    private final boolean reply;
+    private AcpMessageCode replyMessageCode;
+    private AcpMessageCode requestMessageCode;
     
     AcpMessageCode(int code, String description) {
         this.code = code;
         this.description = description;
+        this.request = description.contains("Request");
+        this.reply = description.contains("Reply");
     }
     
     public int getCode() {
@@ -101,12 +145,7 @@ public enum AcpMessageCode {
      * @return the corresponding enum, or UNKNOWN if not found
      */
     public static AcpMessageCode fromCode(int code) {
-        for (AcpMessageCode msgCode : values()) {
-            if (msgCode.code == code) {
-                return msgCode;
-            }
-        }
-        return UNKNOWN;
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN;
     }
     
     /**
@@ -114,7 +153,7 @@ public enum AcpMessageCode {
      * @return true if this is a request message
      */
     public boolean isRequest() {
-        return description.contains("Request");
+        return request;
     }
     
     /**
@@ -122,9 +161,25 @@ public enum AcpMessageCode {
      * @return true if this is a reply message
      */
     public boolean isReply() {
-        return description.contains("Reply");
+        return reply;
     }
-    
+
+    /**
+     * Get the reply message code paired with this request (e.g. ACCOUNT_OPEN_REQUEST -> ACCOUNT_OPEN_REPLY)
+     * @return the reply enum, or UNKNOWN if this is not a request or has no reply
+     */
+    public AcpMessageCode getReplyMessageCode() {
+        return replyMessageCode != null ? replyMessageCode : UNKNOWN;
+    }
+
+    /**
+     * Get the request message code paired with this reply (e.g. ACCOUNT_OPEN_REPLY -> ACCOUNT_OPEN_REQUEST)
+     * @return the request enum, or UNKNOWN if this is not a reply or has no request
+     */
+    public AcpMessageCode getRequestMessageCode() {
+        return requestMessageCode != null ? requestMessageCode : UNKNOWN;
+    }
+
     @Override
     public String toString() {
         return code + " - " + description;
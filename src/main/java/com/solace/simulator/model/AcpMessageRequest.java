@@ -1,10 +1,12 @@
 package com.solace.simulator.model;
 
 /**
- * Request model for parsing ACP messages from hexadecimal input
+ * Request model for parsing ACP messages from hexadecimal or base64 input
  */
 public class AcpMessageRequest {
     private String hexString;
+    // Message bytes, given in JSON as a base64 string; used instead of hexString when present
+    private byte[] base64;
     
     public AcpMessageRequest() {
     }
@@ -20,4 +22,12 @@ public class AcpMessageRequest {
     public void setHexString(String hexString) {
         this.hexString = hexString;
     }
+    
+    public byte[] getBase64() {
+        return base64;
+    }
+    
+    public void setBase64(byte[] base64) {
+        this.base64 = base64;
+    }
 }
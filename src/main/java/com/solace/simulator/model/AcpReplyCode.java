@@ -1,5 +1,7 @@
 package com.solace.simulator.model;
 
+import java.util.Arrays;
+
 /**
  * Enumeration of ACP Reply Codes
  * Used in the reply code field of message headers
@@ -15,6 +17,22 @@ public enum AcpReplyCode {
     // Additional error codes can be added here as needed
     UNKNOWN_ERROR(9999, "Unknown error");
     
+    // Direct-indexed by reply code; codes outside the table are UNKNOWN_ERROR
+    private static final AcpReplyCode[] BY_CODE;
+
+    static {
+        AcpReplyCode[] all = values();
+        int maxCode = 0;
+        for (AcpReplyCode replyCode : all) {
+            maxCode = Math.max(maxCode, replyCode.code);
+        }
+        BY_CODE = new AcpReplyCode[maxCode + 1];
+        Arrays.fill(BY_CODE, UNKNOWN_ERROR);
+        for (AcpReplyCode replyCode : all) {
+            BY_CODE[replyCode.code] = replyCode;
+        }
+    }
+
     private final int code;
     private final String description;
     
@@ -37,12 +55,7 @@ public enum AcpReplyCode {
      * @return the corresponding enum, or UNKNOWN_ERROR if not found
      */
     public static AcpReplyCode fromCode(int code) {
-        for (AcpReplyCode replyCode : values()) {
-            if (replyCode.code == code) {
-                return replyCode;
-            }
-        }
-        return UNKNOWN_ERROR;
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN_ERROR;
     }
     
     /**
@@ -0,0 +1,161 @@
+package com.solace.simulator.model;
+
+import java.util.Map;
+
+/**
+ * Request model for starting the ACP load generator
+ */
+public class LoadGeneratorRequest {
+    private String destination;
+    private String destinationType = "TOPIC";   // "TOPIC" or "QUEUE"
+    private String replyTo;                      // Optional JMSReplyTo (queue with "#Q/" prefix)
+    private Map<String, String> headers;         // Optional custom properties on every message
+
+    // Message mix: AcpMessageCode name or numeric code -> relative weight
+    // Empty means every request code in AcpMessageCode with equal weight
+    private Map<String, Integer> messageMix;
+
+    private double targetRate;                   // Total msgs/s across all threads, 0 = open-loop max rate
+    private int threads = 1;
+    private long durationSeconds;                // 0 = run until stopped
+    private long maxMessages;                    // 0 = unlimited
+
+    private int sourceSystem = 22;               // 22/31 produce the 56-byte BCS header
+    private int destinationSystem = 20;
+    private long startTransactionId = 1;
+    private int terminalCount = 100;             // Physical/logical terminal IDs cycle through this many
+    private long accountBase = 10000000;
+    private int accountCount = 100000;           // Account numbers drawn from [accountBase, accountBase + accountCount)
+    private int bodySize = 32;                   // Body bytes after the header (A/c number first), excluding checksum
+
+    public LoadGeneratorRequest() {
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getDestinationType() {
+        return destinationType;
+    }
+
+    public void setDestinationType(String destinationType) {
+        this.destinationType = destinationType;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    public void setReplyTo(String replyTo) {
+        this.replyTo = replyTo;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public Map<String, Integer> getMessageMix() {
+        return messageMix;
+    }
+
+    public void setMessageMix(Map<String, Integer> messageMix) {
+        this.messageMix = messageMix;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getMaxMessages() {
+        return maxMessages;
+    }
+
+    public void setMaxMessages(long maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    public int getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(int sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public int getDestinationSystem() {
+        return destinationSystem;
+    }
+
+    public void setDestinationSystem(int destinationSystem) {
+        this.destinationSystem = destinationSystem;
+    }
+
+    public long getStartTransactionId() {
+        return startTransactionId;
+    }
+
+    public void setStartTransactionId(long startTransactionId) {
+        this.startTransactionId = startTransactionId;
+    }
+
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    public void setTerminalCount(int terminalCount) {
+        this.terminalCount = terminalCount;
+    }
+
+    public long getAccountBase() {
+        return accountBase;
+    }
+
+    public void setAccountBase(long accountBase) {
+        this.accountBase = accountBase;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public void setAccountCount(int accountCount) {
+        this.accountCount = accountCount;
+    }
+
+    public int getBodySize() {
+        return bodySize;
+    }
+
+    public void setBodySize(int bodySize) {
+        this.bodySize = bodySize;
+    }
+}
@@ -1,18 +1,77 @@
 package com.solace.simulator.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.solace.simulator.codec.AcpFormat;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * A received message as pushed to the UI, kept in its compact form: the raw body, the arrival time
+ * in epoch nanoseconds and the string properties copied off the JMS message
+ * The text, hex and header views are derived on demand; {@link ReceivedMessageSerializer} writes
+ * them straight into the JSON without building them as Strings or maps first.
+ */
+@JsonSerialize(using = ReceivedMessageSerializer.class)
 public class ReceivedMessage {
+
+    // Age after which the clock base is read again, so timestamps follow wall clock adjustments
+    // (NTP slewing or steps) instead of drifting away with System.nanoTime()
+    private static final long RESAMPLE_NANOS = 1_000_000_000L;
+
+    private static volatile ClockBase clockBase = ClockBase.sample();
+
     private String destination;
     private String messageType; // "TEXT" or "BYTE"
-    private String content;
-    private String hexContent;
+    private byte[] payload;
+    private String text;
+    private String[] properties; // Name/value pairs
     private Map<String, String> headers;
-    private LocalDateTime timestamp;
+    private long timestampNanos;
+    private long sequence = -1;
 
     public ReceivedMessage() {
-        this.timestamp = LocalDateTime.now();
+        this.timestampNanos = epochNanos(System.nanoTime());
+    }
+
+    /**
+     * Epoch nanoseconds of a System.nanoTime() reading
+     * The clock base is read again by the first call more than a second after it was last read.
+     */
+    public static long epochNanos(long nanoTime) {
+        ClockBase base = clockBase;
+        if (nanoTime - base.nanoTime > RESAMPLE_NANOS) {
+            base = ClockBase.sample();
+            clockBase = base;
+        }
+        return base.epochNanos + (nanoTime - base.nanoTime);
+    }
+
+    /**
+     * Wall clock and System.nanoTime() read together, so nanoTime readings taken on the receive path
+     * convert to epoch nanoseconds without a clock call per message
+     */
+    static final class ClockBase {
+        final long nanoTime;
+        final long epochNanos;
+
+        ClockBase(long nanoTime, long epochNanos) {
+            this.nanoTime = nanoTime;
+            this.epochNanos = epochNanos;
+        }
+
+        static ClockBase sample() {
+            Instant now = Instant.now();
+            return new ClockBase(System.nanoTime(), now.getEpochSecond() * 1_000_000_000L + now.getNano());
+        }
     }
 
     public String getDestination() {
@@ -31,35 +90,127 @@ public class ReceivedMessage {
         this.messageType = messageType;
     }
 
-    public String getContent() {
-        return content;
+    /**
+     * Body bytes; the UTF-8 encoding of the text for text messages
+     */
+    public byte[] getPayload() {
+        if (payload == null && text != null) {
+            payload = text.getBytes(StandardCharsets.UTF_8);
+        }
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Text of a text message, null for other types
+     */
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
     }
 
-    public void setContent(String content) {
-        this.content = content;
+    /**
+     * The text of a text message, otherwise the printable ASCII view of the body
+     */
+    public String getContent() {
+        if (text != null || payload == null) {
+            return text;
+        }
+        char[] chars = new char[payload.length];
+        AcpFormat.printable(payload, 0, payload.length, chars, 0);
+        return new String(chars);
     }
 
+    /**
+     * Space-separated uppercase hex of the body
+     */
     public String getHexContent() {
-        return hexContent;
+        byte[] bytes = getPayload();
+        return bytes != null ? AcpFormat.hex(bytes, 0, bytes.length, ' ') : null;
+    }
+
+    /**
+     * String properties of a JMS message as name/value pairs, in enumeration order
+     */
+    public static String[] properties(Message message) throws JMSException {
+        String[] pairs = new String[8];
+        int count = 0;
+        Enumeration<?> names = message.getPropertyNames();
+        while (names.hasMoreElements()) {
+            String name = (String) names.nextElement();
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, count * 2);
+            }
+            pairs[count++] = name;
+            pairs[count++] = message.getStringProperty(name);
+        }
+        return count == pairs.length ? pairs : Arrays.copyOf(pairs, count);
+    }
+
+    /**
+     * Property name/value pairs the header view is built from, unless headers are set explicitly
+     */
+    public String[] getProperties() {
+        return properties;
     }
 
-    public void setHexContent(String hexContent) {
-        this.hexContent = hexContent;
+    public void setProperties(String[] properties) {
+        this.properties = properties;
     }
 
+    /**
+     * Explicitly set headers, or the map of the property pairs
+     */
     public Map<String, String> getHeaders() {
-        return headers;
+        if (headers != null || properties == null) {
+            return headers;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < properties.length; i += 2) {
+            map.put(properties[i], properties[i + 1]);
+        }
+        return map;
     }
 
     public void setHeaders(Map<String, String> headers) {
         this.headers = headers;
     }
 
+    Map<String, String> explicitHeaders() {
+        return headers;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Receive pipeline sequence, -1 when not known
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, timestampNanos), ZoneId.systemDefault());
     }
 
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        Instant instant = timestamp.atZone(ZoneId.systemDefault()).toInstant();
+        this.timestampNanos = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
     }
 }
@@ -0,0 +1,93 @@
+package com.solace.simulator.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.solace.simulator.codec.AcpFormat;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes a {@link ReceivedMessage} as {destination, messageType, content, hexContent, headers, timestamp, sequence}
+ * Content and hex are rendered into a per-thread char buffer and handed to the generator, and
+ * headers are written from the copied property pairs, so nothing but the output itself is allocated.
+ * The timestamp is the ISO local date-time Jackson writes for a LocalDateTime; the sequence is left
+ * out when not known.
+ */
+public class ReceivedMessageSerializer extends StdSerializer<ReceivedMessage> {
+
+    // Bodies above this are rendered into a one-off array instead of growing the shared buffer
+    private static final int MAX_BUFFER_CHARS = 64 * 1024;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[1024]);
+
+    public ReceivedMessageSerializer() {
+        super(ReceivedMessage.class);
+    }
+
+    @Override
+    public void serialize(ReceivedMessage message, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("destination", message.getDestination());
+        gen.writeStringField("messageType", message.getMessageType());
+
+        byte[] payload = message.getPayload();
+        gen.writeFieldName("content");
+        if (message.getText() != null || payload == null) {
+            gen.writeString(message.getText());
+        } else {
+            char[] chars = buffer(payload.length);
+            gen.writeString(chars, 0, AcpFormat.printable(payload, 0, payload.length, chars, 0));
+        }
+        gen.writeFieldName("hexContent");
+        if (payload == null) {
+            gen.writeNull();
+        } else {
+            char[] chars = buffer(AcpFormat.hexLength(payload.length, ' '));
+            gen.writeString(chars, 0, AcpFormat.hex(payload, 0, payload.length, ' ', chars, 0));
+        }
+
+        gen.writeFieldName("headers");
+        writeHeaders(message, gen);
+        gen.writeStringField("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(message.getTimestamp()));
+        if (message.getSequence() >= 0) {
+            gen.writeNumberField("sequence", message.getSequence());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeHeaders(ReceivedMessage message, JsonGenerator gen) throws IOException {
+        Map<String, String> headers = message.explicitHeaders();
+        String[] properties = message.getProperties();
+        if (headers == null && properties == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                gen.writeStringField(header.getKey(), header.getValue());
+            }
+        } else {
+            for (int i = 0; i + 1 < properties.length; i += 2) {
+                gen.writeStringField(properties[i], properties[i + 1]);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static char[] buffer(int length) {
+        char[] buffer = BUFFER.get();
+        if (buffer.length >= length) {
+            return buffer;
+        }
+        if (length > MAX_BUFFER_CHARS) {
+            return new char[length];
+        }
+        buffer = new char[Math.max(length, buffer.length * 2)];
+        BUFFER.set(buffer);
+        return buffer;
+    }
+}
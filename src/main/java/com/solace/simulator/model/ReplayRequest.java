@@ -0,0 +1,136 @@
+package com.solace.simulator.model;
+
+/**
+ * Request model for replaying a capture journal through the JMS service
+ */
+public class ReplayRequest {
+    private String directory;                  // Journal directory to replay; empty = the capture journal's own
+    private String direction = "SENT";         // "SENT", "RECEIVED" or "ALL" records
+    private long fromSequence;                 // First journal sequence to replay
+    private long toSequence = -1;              // Last journal sequence to replay, -1 = up to the end of the capture
+    private String destination;                // Optional: send everything here instead of the recorded destinations
+    private String destinationType = "TOPIC";  // Type of recorded or overridden destinations without a "#Q/" prefix
+    private String replyTo;                    // Optional JMSReplyTo (queue with "#Q/" prefix)
+    private boolean recordedProperties = true; // Send the recorded JMS properties as message properties
+    private double speed = 1;                  // 1 = recorded timing, 2 = twice as fast, ..., 0 = max rate
+    private int lanes = 1;                     // Parallel senders; each destination is replayed in order by one lane
+    private long maxMessages;                  // 0 = unlimited
+    private boolean rewriteTransactionIds;     // Give each ACP message a new message transaction ID
+    private long startTransactionId = 1;
+    private boolean rewriteDates;              // Set ACP header date and time to the time of sending
+
+    public ReplayRequest() {
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public long getFromSequence() {
+        return fromSequence;
+    }
+
+    public void setFromSequence(long fromSequence) {
+        this.fromSequence = fromSequence;
+    }
+
+    public long getToSequence() {
+        return toSequence;
+    }
+
+    public void setToSequence(long toSequence) {
+        this.toSequence = toSequence;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getDestinationType() {
+        return destinationType;
+    }
+
+    public void setDestinationType(String destinationType) {
+        this.destinationType = destinationType;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    public void setReplyTo(String replyTo) {
+        this.replyTo = replyTo;
+    }
+
+    public boolean isRecordedProperties() {
+        return recordedProperties;
+    }
+
+    public void setRecordedProperties(boolean recordedProperties) {
+        this.recordedProperties = recordedProperties;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(int lanes) {
+        this.lanes = lanes;
+    }
+
+    public long getMaxMessages() {
+        return maxMessages;
+    }
+
+    public void setMaxMessages(long maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    public boolean isRewriteTransactionIds() {
+        return rewriteTransactionIds;
+    }
+
+    public void setRewriteTransactionIds(boolean rewriteTransactionIds) {
+        this.rewriteTransactionIds = rewriteTransactionIds;
+    }
+
+    public long getStartTransactionId() {
+        return startTransactionId;
+    }
+
+    public void setStartTransactionId(long startTransactionId) {
+        this.startTransactionId = startTransactionId;
+    }
+
+    public boolean isRewriteDates() {
+        return rewriteDates;
+    }
+
+    public void setRewriteDates(boolean rewriteDates) {
+        this.rewriteDates = rewriteDates;
+    }
+}
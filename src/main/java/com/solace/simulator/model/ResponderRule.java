@@ -0,0 +1,87 @@
+package com.solace.simulator.model;
+
+/**
+ * Response rule for the ACP responder, keyed by request message code
+ * Message code 0 is the default rule used for request codes without their own rule.
+ */
+public class ResponderRule {
+    private int messageCode;
+    private boolean enabled = true;
+    private int replyCode;              // AcpReplyCode value written into the reply header
+    private Integer replyMessageCode;   // Overrides the paired reply code from AcpMessageCode
+    private long latencyMs;             // Fixed delay before the reply is sent
+    private long jitterMs;              // Additional random delay in [0, jitterMs]
+    private boolean echoBody;           // Copy the request body into the reply
+    private String bodyHex;             // Reply body (hex), used when echoBody is false
+
+    public ResponderRule() {
+    }
+
+    public ResponderRule(int messageCode) {
+        this.messageCode = messageCode;
+    }
+
+    public int getMessageCode() {
+        return messageCode;
+    }
+
+    public void setMessageCode(int messageCode) {
+        this.messageCode = messageCode;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getReplyCode() {
+        return replyCode;
+    }
+
+    public void setReplyCode(int replyCode) {
+        this.replyCode = replyCode;
+    }
+
+    public Integer getReplyMessageCode() {
+        return replyMessageCode;
+    }
+
+    public void setReplyMessageCode(Integer replyMessageCode) {
+        this.replyMessageCode = replyMessageCode;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public void setJitterMs(long jitterMs) {
+        this.jitterMs = jitterMs;
+    }
+
+    public boolean isEchoBody() {
+        return echoBody;
+    }
+
+    public void setEchoBody(boolean echoBody) {
+        this.echoBody = echoBody;
+    }
+
+    public String getBodyHex() {
+        return bodyHex;
+    }
+
+    public void setBodyHex(String bodyHex) {
+        this.bodyHex = bodyHex;
+    }
+}
@@ -0,0 +1,15 @@
+package com.solace.simulator.pipeline;
+
+/**
+ * Work done by one pipeline stage on each slot
+ * Called on the stage's own thread, in sequence order. The slot is reused once every stage has
+ * moved past it, so anything kept beyond the call must be copied out.
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * @param endOfBatch whether this is the last slot currently available, i.e. a good point to flush
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,115 @@
+package com.solace.simulator.pipeline;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated ring of slots with a single producer, in the style of the LMAX Disruptor
+ * The producer claims a sequence with {@link #next()}, fills the slot from {@link #get(long)} and
+ * makes it visible with {@link #publish(long)}. Stages read slots up to the cursor and report their
+ * progress through gating sequences; the producer never overtakes the slowest of them, waiting with
+ * the ring's {@link WaitStrategy} while the ring is full. Without gating sequences nothing is held back.
+ * {@link #next()} and {@link #publish(long)} must only be called by one thread at a time.
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    // Producer state, only touched by the producing thread
+    private long nextSequence = -1;
+    private long cachedGatingSequence = -1;
+    // Claims that had to wait for a stage; written by the producer only
+    private volatile long fullWaits;
+
+    /**
+     * @param size number of slots, a power of two
+     * @param factory creates each slot once, up front
+     */
+    public RingBuffer(int size, Supplier<E> factory, WaitStrategy waitStrategy) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Claim the next slot, waiting while it is still in use by a stage
+     */
+    public long next() {
+        long next = nextSequence + 1;
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > cachedGatingSequence) {
+            long minimum;
+            int attempt = 0;
+            while (wrapPoint > (minimum = minimumGatingSequence(nextSequence))) {
+                if (attempt == 0) {
+                    fullWaits++;
+                }
+                waitStrategy.idle(attempt++);
+            }
+            cachedGatingSequence = minimum;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Make a claimed slot, and everything written to it, visible to the stages
+     */
+    public void publish(long sequence) {
+        cursor.set(sequence);
+    }
+
+    public Sequence getCursor() {
+        return cursor;
+    }
+
+    public int getSize() {
+        return slots.length;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public long getFullWaits() {
+        return fullWaits;
+    }
+
+    /**
+     * Hold the producer back from slots the given sequence has not yet passed
+     * A stage added while messages flow should start at the current cursor.
+     */
+    public synchronized void addGatingSequence(Sequence sequence) {
+        Sequence[] current = gatingSequences;
+        Sequence[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        gatingSequences = updated;
+    }
+
+    public synchronized void removeGatingSequence(Sequence sequence) {
+        gatingSequences = Arrays.stream(gatingSequences).filter(gating -> gating != sequence).toArray(Sequence[]::new);
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,54 @@
+package com.solace.simulator.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Position in a {@link RingBuffer}, written by one thread and read by others
+ * The value is padded to a cache line on each side (through the class hierarchy, which the JVM
+ * lays out in order) so the producer cursor and the stage sequences do not share a line.
+ */
+public final class Sequence extends SequenceValue {
+
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setVolatile(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Publish a new value; writes made before it are visible to threads that read it
+     */
+    public void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequencePadding {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequencePadding {
+    protected long value;
+}
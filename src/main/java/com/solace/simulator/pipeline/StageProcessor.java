@@ -0,0 +1,125 @@
+package com.solace.simulator.pipeline;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pipeline stage: a thread running an {@link EventHandler} over the ring's slots in order
+ * The stage processes everything published (or, with dependencies, everything its upstream stages
+ * have finished) in one batch and then advances its own sequence, which releases those slots to the
+ * producer. Handler exceptions are counted and the slot is skipped.
+ */
+public final class StageProcessor<E> implements Runnable {
+
+    private final String name;
+    private final RingBuffer<E> ring;
+    private final EventHandler<E> handler;
+    private final List<StageProcessor<E>> upstream;
+    private final Sequence sequence;
+
+    private volatile boolean running = true;
+    private volatile long processed;
+    private volatile long errors;
+    private Thread thread;
+
+    /**
+     * @param upstream stages whose slots this one may only read after they are done with them;
+     *                 empty to read straight off the producer cursor
+     */
+    public StageProcessor(String name, RingBuffer<E> ring, EventHandler<E> handler, List<StageProcessor<E>> upstream) {
+        this.name = name;
+        this.ring = ring;
+        this.handler = handler;
+        this.upstream = List.copyOf(upstream);
+        this.sequence = new Sequence(ring.getCursor().get());
+    }
+
+    /**
+     * Register with the ring and start the stage thread
+     */
+    public synchronized void start() {
+        ring.addGatingSequence(sequence);
+        thread = new Thread(this, "pipeline-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the stage thread, abandoning slots it has not processed, and release the producer
+     */
+    public synchronized void halt() {
+        running = false;
+        ring.removeGatingSequence(sequence);
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        WaitStrategy waitStrategy = ring.getWaitStrategy();
+        long next = sequence.get() + 1;
+        int attempt = 0;
+        while (running) {
+            long available = availableSequence();
+            if (available < next) {
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            for (long current = next; current <= available; current++) {
+                try {
+                    handler.onEvent(ring.get(current), current, current == available);
+                } catch (Exception e) {
+                    errors++;
+                    e.printStackTrace();
+                }
+            }
+            processed += available - next + 1;
+            sequence.set(available);
+            next = available + 1;
+        }
+    }
+
+    private long availableSequence() {
+        if (upstream.isEmpty()) {
+            return ring.getCursor().get();
+        }
+        long minimum = Long.MAX_VALUE;
+        for (StageProcessor<E> stage : upstream) {
+            minimum = Math.min(minimum, stage.sequence.get());
+        }
+        return minimum;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Slots published but not yet processed by this stage
+     */
+    public long getLag() {
+        return Math.max(0, ring.getCursor().get() - sequence.get());
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public String[] getUpstreamNames() {
+        return upstream.stream().map(StageProcessor::getName).toArray(String[]::new);
+    }
+}
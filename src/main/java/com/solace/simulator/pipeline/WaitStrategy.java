@@ -0,0 +1,49 @@
+package com.solace.simulator.pipeline;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for a sequence to advance: a stage waiting for new slots, or the producer
+ * waiting for the slowest stage when the ring is full
+ * Waits are polled, so no strategy needs the other side to signal.
+ */
+public enum WaitStrategy {
+    /** Spin continuously: lowest latency, keeps a core busy per waiting thread */
+    BUSY_SPIN,
+    /** Spin briefly, then yield the core to other runnable threads */
+    YIELD,
+    /** Spin and yield briefly, then park for {@link #PARK_NANOS}: near-zero CPU when idle */
+    PARK;
+
+    public static final long PARK_NANOS = 50_000;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    /**
+     * Wait once
+     * @param attempt consecutive waits so far without progress, starting at 0
+     */
+    public void idle(int attempt) {
+        if (this == BUSY_SPIN || attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (this == YIELD || attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Parse "busy-spin", "BUSY_SPIN" etc.
+     * @throws IllegalArgumentException for unknown strategies
+     */
+    public static WaitStrategy parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown wait strategy: " + name + " (expected busy-spin, yield or park)");
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.solace.simulator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.model.AcpMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Service decoding many ACP messages per call on a fork-join pool
+ * Input is a JSON array of hex strings, NDJSON (one hex string per line, bare or JSON-quoted) or
+ * binary records of a 4-byte little-endian length followed by the message bytes. Each message is
+ * decoded with one of the single-message parser views; a message that cannot be decoded gets an
+ * error in its slot instead of failing the batch, and results keep the input order.
+ */
+@Service
+public class AcpBatchParser {
+
+    public enum InputFormat {
+        JSON, NDJSON, BINARY
+    }
+
+    // Messages decoded per fork-join leaf task
+    private static final int LEAF_SIZE = 64;
+
+    // Spring's mapper, so request bodies are read like every other request
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AcpMessageParser acpMessageParser;
+
+    @Autowired
+    private AcpMessageHeaderParser acpMessageHeaderParser;
+
+    @Autowired
+    private AcpMessageDetailedParser acpMessageDetailedParser;
+
+    @Autowired
+    private AcpMessageSpecParser acpMessageSpecParser;
+
+    @Autowired
+    private AcpMessageEnhancedParser acpMessageEnhancedParser;
+
+    @Autowired
+    private AcpFieldProjection acpFieldProjection;
+
+    @Value("${simulator.acp.batch.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${simulator.acp.batch.max-messages:100000}")
+    private int maxMessages = 100_000;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Input format from the request's content type, or from the body when the type says nothing
+     */
+    public static InputFormat detectFormat(String contentType, byte[] body) {
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (type.contains("octet-stream")) {
+            return InputFormat.BINARY;
+        }
+        if (type.contains("ndjson") || type.contains("jsonl")) {
+            return InputFormat.NDJSON;
+        }
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '[' ? InputFormat.JSON : InputFormat.NDJSON;
+            }
+        }
+        return InputFormat.NDJSON;
+    }
+
+    /**
+     * Decode a batch
+     * @param view enhanced, spec, detailed, complete or basic, as the /api/acp/parse-* endpoints
+     * @return view, inputFormat, count, succeeded, failed, parallelism, elapsedMillis, messagesPerSecond
+     *         and results of {index, result} or {index, error} in input order
+     * @throws IllegalArgumentException for unknown views, malformed input or too many messages
+     */
+    public Map<String, Object> parse(byte[] body, InputFormat format, String view) {
+        return parse(body, format, view, null);
+    }
+
+    /**
+     * Decode a batch, with the compact view of the named fields when view is "compact"
+     * @param fields comma-separated field names for the compact view, see {@link AcpFieldProjection}
+     */
+    public Map<String, Object> parse(byte[] body, InputFormat format, String view, String fields) {
+        Function<AcpFrame, ?> parser = "compact".equals(view) ? acpFieldProjection.compile(fields)::apply : parser(view);
+        List<Object> items = split(body, format);
+        if (items.size() > maxMessages) {
+            throw new IllegalArgumentException("Batch of " + items.size() + " messages exceeds the limit of " + maxMessages);
+        }
+
+        Object[] results = new Object[items.size()];
+        long start = System.nanoTime();
+        pool.invoke(new DecodeTask(items, results, parser, 0, items.size()));
+        long elapsedNanos = System.nanoTime() - start;
+
+        int failed = 0;
+        for (Object result : results) {
+            if (((Map<?, ?>) result).containsKey("error")) {
+                failed++;
+            }
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("view", view);
+        response.put("inputFormat", format.name());
+        response.put("count", results.length);
+        response.put("succeeded", results.length - failed);
+        response.put("failed", failed);
+        response.put("parallelism", pool.getParallelism());
+        response.put("elapsedMillis", elapsedNanos / 1_000_000.0);
+        response.put("messagesPerSecond", elapsedNanos > 0 ? Math.round(results.length * 1e9 / elapsedNanos) : 0);
+        response.put("results", results);
+        return response;
+    }
+
+    /**
+     * The single-message parser behind a view name
+     * @throws IllegalArgumentException for unknown views
+     */
+    Function<AcpFrame, AcpMessage> parser(String view) {
+        switch (view == null ? "enhanced" : view) {
+            case "enhanced":
+                return acpMessageEnhancedParser::parseEnhanced;
+            case "spec":
+                return acpMessageSpecParser::parseWithSpec;
+            case "detailed":
+                return acpMessageDetailedParser::parseWithDetails;
+            case "complete":
+                return acpMessageHeaderParser::parseCompleteMessage;
+            case "basic":
+                return acpMessageParser::parseHexToAcpMessage;
+            default:
+                throw new IllegalArgumentException("Unknown view: " + view
+                        + " (expected enhanced, spec, detailed, complete or basic)");
+        }
+    }
+
+    /**
+     * The messages of a batch body: hex Strings, or byte arrays for binary input
+     */
+    private List<Object> split(byte[] body, InputFormat format) {
+        List<Object> items = new ArrayList<>();
+        switch (format) {
+            case JSON:
+                try {
+                    for (String hex : objectMapper.readValue(body, String[].class)) {
+                        items.add(hex);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Expected a JSON array of hex strings: " + e.getMessage());
+                }
+                break;
+            case NDJSON:
+                for (String line : new String(body, StandardCharsets.UTF_8).split("\r?\n")) {
+                    String hex = line.trim();
+                    if (hex.isEmpty()) {
+                        continue;
+                    }
+                    if (hex.startsWith("\"")) {
+                        try {
+                            hex = objectMapper.readValue(hex, String.class);
+                        } catch (IOException e) {
+                            throw new IllegalArgumentException("Malformed NDJSON line " + (items.size() + 1) + ": " + line);
+                        }
+                    }
+                    items.add(hex);
+                }
+                break;
+            case BINARY:
+                ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+                while (buffer.hasRemaining()) {
+                    if (buffer.remaining() < 4) {
+                        throw new IllegalArgumentException("Truncated length prefix at byte " + buffer.position());
+                    }
+                    int length = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining()) {
+                        throw new IllegalArgumentException("Message " + items.size() + " of " + length
+                                + " bytes runs past the end of the batch");
+                    }
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    items.add(bytes);
+                }
+                break;
+        }
+        return items;
+    }
+
+    private static Map<String, Object> decode(int index, Object item, Function<AcpFrame, ?> parser) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        try {
+            AcpFrame frame;
+            if (item instanceof byte[]) {
+                frame = AcpFrame.wrap((byte[]) item);
+            } else if (item == null || ((String) item).isBlank()) {
+                throw new IllegalArgumentException("Hex string is required");
+            } else {
+                frame = AcpFrame.fromHex((String) item);
+            }
+            result.put("result", parser.apply(frame));
+        } catch (Exception e) {
+            result.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        return result;
+    }
+
+    private static final class DecodeTask extends RecursiveAction {
+
+        private final List<Object> items;
+        private final Object[] results;
+        private final Function<AcpFrame, ?> parser;
+        private final int from;
+        private final int to;
+
+        DecodeTask(List<Object> items, Object[] results, Function<AcpFrame, ?> parser, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.parser = parser;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = decode(i, items.get(i), parser);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeTask(items, results, parser, from, middle),
+                    new DecodeTask(items, results, parser, middle, to));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.solace.simulator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of decode results (serialized JSON) keyed by message content plus parser view.
+ * Keys are looked up by a 64-bit hash of the payload bytes and confirmed by comparing the bytes,
+ * so two different messages never share a result.
+ *
+ * Eviction is segmented LRU within a byte budget: new entries start in a probation segment and
+ * move to a protected segment (80% of the budget) when hit, so a one-off scan through
+ * many distinct messages only displaces other one-off entries.
+ */
+@Service
+public class AcpDecodeCache {
+
+    // Approximate heap cost of an entry besides its payload and JSON (key, map node, arrays)
+    static final int ENTRY_OVERHEAD = 128;
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    @Value("${simulator.acp.cache.max-bytes:33554432}")
+    private long maxBytes = 32L * 1024 * 1024;
+
+    // Least recently used first; protected entries move to the end when hit again
+    private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long probationBytes;
+    private long protectedBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejected;
+
+    /**
+     * Lookup key for a message; holds the payload by reference until the result is stored
+     */
+    public static final class Key {
+        private final long hash;
+        private final String view;
+        private final ByteBuffer payload;
+
+        private Key(long hash, String view, ByteBuffer payload) {
+            this.hash = hash;
+            this.view = view;
+            this.payload = payload;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32)) * 31 + view.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash && view.equals(key.view) && payload.equals(key.payload);
+        }
+    }
+
+    // The stored key (with its own copy of the payload) and the JSON
+    private static final class Entry {
+        final Key key;
+        final byte[] json;
+        final int weight;
+
+        Entry(Key key, byte[] json) {
+            this.key = key;
+            this.json = json;
+            this.weight = key.payload.remaining() + json.length + ENTRY_OVERHEAD;
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Key for the bytes of a message (index 0 to limit) decoded with a parser view
+     */
+    public Key key(ByteBuffer payload, String view) {
+        ByteBuffer bytes = payload.duplicate().position(0);
+        return new Key(hash(bytes), view, bytes);
+    }
+
+    /**
+     * @return the cached JSON, or null on a miss or when the cache is disabled
+     */
+    public synchronized byte[] get(Key key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = protectedSegment.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.json;
+        }
+        entry = probation.remove(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        probationBytes -= entry.weight;
+        protectedSegment.put(entry.key, entry);
+        protectedBytes += entry.weight;
+        while (protectedBytes > protectedMax()) {
+            Entry demoted = removeEldest(protectedSegment);
+            probation.put(demoted.key, demoted);
+            probationBytes += demoted.weight;
+        }
+        return entry.json;
+    }
+
+    /**
+     * Store the JSON for a key returned by {@link #key}; the payload is copied
+     */
+    public synchronized void put(Key key, byte[] json) {
+        if (!isEnabled() || protectedSegment.containsKey(key) || probation.containsKey(key)) {
+            return;
+        }
+        ByteBuffer payload = key.payload.duplicate();
+        byte[] copy = new byte[payload.remaining()];
+        payload.get(copy);
+        Entry entry = new Entry(new Key(key.hash, key.view, ByteBuffer.wrap(copy)), json);
+        // An entry must fit in the part of the budget not reserved for protected entries
+        if (entry.weight > maxBytes - protectedMax()) {
+            rejected++;
+            return;
+        }
+        probation.put(entry.key, entry);
+        probationBytes += entry.weight;
+        // Protected entries stay within their share, so the oldest probation entries always make room
+        while (probationBytes + protectedBytes > maxBytes) {
+            removeEldest(probation);
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        probation.clear();
+        protectedSegment.clear();
+        probationBytes = 0;
+        protectedBytes = 0;
+    }
+
+    private long protectedMax() {
+        return maxBytes * 4 / 5;
+    }
+
+    // Remove the least recently used entry of a segment and take its weight off the segment
+    private Entry removeEldest(LinkedHashMap<Key, Entry> segment) {
+        Iterator<Entry> iterator = segment.values().iterator();
+        Entry eldest = iterator.next();
+        iterator.remove();
+        if (segment == probation) {
+            probationBytes -= eldest.weight;
+        } else {
+            protectedBytes -= eldest.weight;
+        }
+        return eldest;
+    }
+
+    /**
+     * 64-bit hash of the bytes from index 0 to the limit (xxHash64 for short inputs)
+     */
+    static long hash(ByteBuffer bytes) {
+        ByteBuffer buffer = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int length = buffer.limit();
+        long hash = PRIME_5 + length;
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            long k = buffer.getLong(i) * PRIME_2;
+            hash ^= Long.rotateLeft(k, 31) * PRIME_1;
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (i + 4 <= length) {
+            hash ^= (buffer.getInt(i) & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            i += 4;
+        }
+        for (; i < length; i++) {
+            hash ^= (buffer.get(i) & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("maxBytes", maxBytes);
+        stats.put("bytes", probationBytes + protectedBytes);
+        stats.put("protectedBytes", protectedBytes);
+        stats.put("entries", probation.size() + protectedSegment.size());
+        stats.put("protectedEntries", protectedSegment.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        long lookups = hits + misses;
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+}
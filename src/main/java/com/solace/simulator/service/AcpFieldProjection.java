@@ -0,0 +1,280 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.codec.LittleEndian;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact view: only the requested fields of a message, by name
+ * Names are those of the enhanced view (header fields, body layout fields, Checksum), matched ignoring
+ * case, spaces and underscores, so "A/c number", "a/c_number" and "messageTransactionId" all work.
+ * Each field is read from its offset in the buffer; nothing else is decoded and no binary or
+ * display text is rendered. Numeric fields are numbers, strings and wide binary fields are strings.
+ */
+@Service
+public class AcpFieldProjection {
+
+    // Projections kept compiled; callers normally use a handful of field lists
+    private static final int MAX_PROJECTIONS = 1024;
+
+    private static final int CHECKSUM = -1;
+    private static final int TERMINAL_ID = -2;
+
+    // Header fields by normalized name: standard-layout offset and size, offset >= REPLY_CODE shifted for BCS
+    private static final Map<String, int[]> HEADER_FIELDS = new LinkedHashMap<>();
+
+    static {
+        header("Message code", AcpHeader.MESSAGE_CODE, 2);
+        header("Source system number", AcpHeader.SOURCE_SYSTEM, 1);
+        header("Destination system number", AcpHeader.DESTINATION_SYSTEM, 1);
+        header("Reply code", AcpHeader.REPLY_CODE, 2);
+        header("Last transaction ID", AcpHeader.LAST_TRANSACTION_ID, 8);
+        header("Message transaction ID", AcpHeader.MESSAGE_TRANSACTION_ID, 8);
+        header("Date", AcpHeader.DATE, 4);
+        header("Time", AcpHeader.TIME, 3);
+        header("Location ID", AcpHeader.LOCATION_ID, 4);
+        header("Position no", AcpHeader.POSITION_NUMBER, 2);
+        header("Physical terminal ID", AcpHeader.PHYSICAL_TERMINAL_ID, TERMINAL_ID);
+        header("Staff ID", AcpHeader.STAFF_ID, 4);
+        header("Logical terminal ID", AcpHeader.LOGICAL_TERMINAL_ID, 4);
+        header("Terminal type", AcpHeader.TERMINAL_TYPE, 1);
+        header("Checksum", 0, CHECKSUM);
+    }
+
+    // Packet fields exist only in the BCS header
+    private static final Map<String, int[]> BCS_FIELDS = Map.of(
+            normalize("Packet group ID"), new int[]{AcpHeader.PACKET_GROUP_ID, 2},
+            normalize("Packet sequence"), new int[]{AcpHeader.PACKET_SEQUENCE, 1},
+            normalize("Packet total"), new int[]{AcpHeader.PACKET_TOTAL, 1});
+
+    @Autowired
+    private AcpLayoutRegistry layoutRegistry;
+
+    private final Map<String, Projection> projections = new ConcurrentHashMap<>();
+    private volatile Set<String> bodyFieldNames;
+    // Registry layouts the projections and field names were built from; replaced layouts drop both
+    private volatile Map<Integer, AcpLayout> compiledLayouts;
+
+    private static void header(String name, int offset, int size) {
+        HEADER_FIELDS.put(normalize(name), new int[]{offset, size});
+    }
+
+    /**
+     * Field name without case, spaces or underscores
+     */
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isWhitespace(c) && c != '_') {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Compile a comma-separated field list
+     * @throws IllegalArgumentException if the list is empty or names a field no message has
+     */
+    public Projection compile(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("fields is required, e.g. fields=Message code,Message transaction ID");
+        }
+        checkLayouts();
+        Projection projection = projections.get(fields);
+        if (projection == null) {
+            projection = new Projection(fields);
+            if (projections.size() >= MAX_PROJECTIONS) {
+                projections.clear();
+            }
+            projections.put(fields, projection);
+        }
+        return projection;
+    }
+
+    // Drop everything built from layouts the registry has since replaced
+    private void checkLayouts() {
+        Map<Integer, AcpLayout> layouts = layoutRegistry != null ? layoutRegistry.getLayouts() : null;
+        if (layouts != compiledLayouts) {
+            synchronized (this) {
+                if (layouts != compiledLayouts) {
+                    projections.clear();
+                    bodyFieldNames = null;
+                    compiledLayouts = layouts;
+                }
+            }
+        }
+    }
+
+    private Set<String> bodyFieldNames() {
+        Set<String> names = bodyFieldNames;
+        if (names == null) {
+            names = new HashSet<>();
+            if (layoutRegistry != null) {
+                for (AcpLayout layout : layoutRegistry.getLayouts().values()) {
+                    for (int field = 0; field < layout.fieldCount(); field++) {
+                        names.add(normalize(layout.name(field)));
+                    }
+                }
+            }
+            bodyFieldNames = names;
+        }
+        return names;
+    }
+
+    /**
+     * A compiled field list; thread-safe
+     */
+    public final class Projection {
+
+        private final String[] keys;
+        private final String[] names;
+        // Per requested field: {offset, size} of a header or BCS packet field, null for body fields
+        private final int[][] headerFields;
+        private final int[][] bcsFields;
+        private final boolean anyBody;
+        // Per message code: layout field index of each requested field, -1 if the layout has none,
+        // for the layout instance they were looked up in
+        private final Map<Integer, BodyIndexes> bodyIndexes = new ConcurrentHashMap<>();
+
+        private Projection(String fields) {
+            String[] parts = fields.split(",");
+            Map<String, String> requested = new LinkedHashMap<>();
+            for (String part : parts) {
+                String key = part.trim();
+                if (!key.isEmpty()) {
+                    requested.putIfAbsent(normalize(key), key);
+                }
+            }
+            if (requested.isEmpty()) {
+                throw new IllegalArgumentException("fields is required, e.g. fields=Message code,Message transaction ID");
+            }
+            int count = requested.size();
+            keys = new String[count];
+            names = new String[count];
+            headerFields = new int[count][];
+            bcsFields = new int[count][];
+            boolean body = false;
+            int i = 0;
+            for (Map.Entry<String, String> field : requested.entrySet()) {
+                names[i] = field.getKey();
+                keys[i] = field.getValue();
+                headerFields[i] = HEADER_FIELDS.get(names[i]);
+                bcsFields[i] = BCS_FIELDS.get(names[i]);
+                if (headerFields[i] == null && bcsFields[i] == null) {
+                    if (!bodyFieldNames().contains(names[i])) {
+                        throw new IllegalArgumentException("Unknown field: " + keys[i]);
+                    }
+                    body = true;
+                }
+                i++;
+            }
+            anyBody = body;
+        }
+
+        /**
+         * The requested fields present in the message, keyed by the names as requested
+         * @throws IndexOutOfBoundsException if the message is shorter than its header
+         */
+        public Map<String, Object> apply(AcpFrame frame) {
+            ByteBuffer buffer = frame.buffer();
+            int length = frame.length();
+            int headerSize = AcpHeader.headerSize(length > AcpHeader.SOURCE_SYSTEM
+                    ? LittleEndian.uint8(buffer, AcpHeader.SOURCE_SYSTEM) : 0);
+            if (length < headerSize) {
+                throw new IndexOutOfBoundsException("Index " + (headerSize - 1) + " out of bounds for length " + length);
+            }
+            boolean bcs = headerSize == AcpHeader.BCS_SIZE;
+            int bodyEnd = length - 1; // Exclude checksum
+            AcpLayout layout = null;
+            int[] indexes = null;
+            if (anyBody && layoutRegistry != null) {
+                int messageCode = LittleEndian.uint16(buffer, AcpHeader.MESSAGE_CODE);
+                layout = layoutRegistry.getLayout(messageCode);
+                if (layout != null) {
+                    BodyIndexes cached = bodyIndexes.get(messageCode);
+                    if (cached == null || cached.layout != layout) {
+                        cached = new BodyIndexes(layout, indexes(layout));
+                        bodyIndexes.put(messageCode, cached);
+                    }
+                    indexes = cached.indexes;
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                int[] field = headerFields[i];
+                if (field != null) {
+                    int offset = bcs && field[0] >= AcpHeader.REPLY_CODE ? field[0] + AcpHeader.BCS_SHIFT : field[0];
+                    if (field[1] == CHECKSUM) {
+                        if (length > headerSize) {
+                            result.put(keys[i], LittleEndian.uint8(buffer, length - 1));
+                        }
+                    } else if (field[1] == TERMINAL_ID) {
+                        result.put(keys[i], LittleEndian.stringOrEmpty(buffer, offset,
+                                AcpHeader.PHYSICAL_TERMINAL_ID_SIZE));
+                    } else {
+                        result.put(keys[i], unsigned(buffer, offset, field[1]));
+                    }
+                } else if (bcsFields[i] != null) {
+                    if (bcs) {
+                        result.put(keys[i], unsigned(buffer, bcsFields[i][0], bcsFields[i][1]));
+                    }
+                } else if (indexes != null && indexes[i] >= 0
+                        && layout.startByte(indexes[i], headerSize) + layout.size(indexes[i]) <= bodyEnd) {
+                    result.put(keys[i], layout.value(buffer, headerSize, indexes[i]));
+                }
+            }
+            return result;
+        }
+
+        private int[] indexes(AcpLayout layout) {
+            int[] indexes = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                indexes[i] = -1;
+                if (headerFields[i] != null || bcsFields[i] != null) {
+                    continue;
+                }
+                for (int field = 0; field < layout.fieldCount(); field++) {
+                    if (names[i].equals(normalize(layout.name(field)))) {
+                        indexes[i] = field;
+                        break;
+                    }
+                }
+            }
+            return indexes;
+        }
+    }
+
+    private static final class BodyIndexes {
+        final AcpLayout layout;
+        final int[] indexes;
+
+        BodyIndexes(AcpLayout layout, int[] indexes) {
+            this.layout = layout;
+            this.indexes = indexes;
+        }
+    }
+
+    // Header fields are at most 8 bytes; 1-4 byte fields are returned as int or long like AcpHeader's getters
+    private static Object unsigned(ByteBuffer buffer, int index, int size) {
+        switch (size) {
+            case 1: return LittleEndian.uint8(buffer, index);
+            case 2: return LittleEndian.uint16(buffer, index);
+            case 3: return LittleEndian.uint24(buffer, index);
+            case 4: return LittleEndian.uint32(buffer, index);
+            default: return LittleEndian.uint64(buffer, index);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.solace.simulator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.codec.AcpFieldSpec;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.codec.AcpLayoutCompiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service holding the message body layouts compiled from acp_message.htm
+ * Layouts are compiled at startup and cached as JSON keyed by the SHA-256 of the spec file
+ * (and the compiler version), so later startups only reload the cache.
+ * Without the spec file the layouts bundled on the classpath (regenerated with
+ * {@code ./gradlew generateAcpLayouts}) are used; the cache, a shared file that may be stale or written
+ * for another spec, is only a fallback when nothing is bundled, and only if this compiler wrote it.
+ */
+@Service
+public class AcpLayoutRegistry {
+
+    @Value("${simulator.spec.html:acp_message.htm}")
+    private String specPath = "acp_message.htm";
+
+    @Value("${simulator.spec.layout-cache:${java.io.tmpdir}/acp-layouts.json}")
+    private String cachePath = System.getProperty("java.io.tmpdir") + "/acp-layouts.json";
+
+    private static final String BUNDLED_LAYOUTS = "/acp-layouts.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Decode results depend on the layouts, so they are dropped whenever new layouts are installed
+    @Autowired(required = false)
+    private AcpDecodeCache decodeCache;
+
+    private volatile Map<Integer, AcpLayout> layouts = Collections.emptyMap();
+    private volatile String specHash;
+    private volatile String source = "none";
+
+    @PostConstruct
+    public void init() {
+        try {
+            load();
+        } catch (Exception e) {
+            // Parsers fall back to generic body fields without layouts
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * (Re)load the layouts from the cache or by compiling the spec file
+     */
+    public synchronized void load() throws IOException {
+        Path spec = Paths.get(specPath);
+        Path cache = Paths.get(cachePath);
+
+        if (!Files.isRegularFile(spec)) {
+            try (InputStream bundled = AcpLayoutRegistry.class.getResourceAsStream(BUNDLED_LAYOUTS)) {
+                if (bundled != null) {
+                    LayoutCache cached = objectMapper.readValue(bundled, LayoutCache.class);
+                    install(toLayouts(cached), cached.getSpecSha256(), "bundled");
+                    return;
+                }
+            }
+            LayoutCache cached = readCache(cache);
+            if (cached != null) {
+                install(toLayouts(cached), cached.getSpecSha256(), "cache");
+            }
+            return;
+        }
+
+        byte[] html = Files.readAllBytes(spec);
+        String hash = sha256(html);
+        LayoutCache cached = readCache(cache);
+        if (cached != null && hash.equals(cached.getSpecSha256())) {
+            install(toLayouts(cached), hash, "cache");
+            return;
+        }
+
+        Map<Integer, AcpLayout> compiled = AcpLayoutCompiler.compile(new String(html, specCharset()));
+        install(compiled, hash, "compiled");
+        try {
+            objectMapper.writeValue(cache.toFile(), toCache(compiled, hash));
+        } catch (IOException e) {
+            // Cache is an optimisation only
+        }
+    }
+
+    // The cache file if it exists, is readable and was written by this compiler version, otherwise null
+    private LayoutCache readCache(Path cache) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try {
+            LayoutCache cached = objectMapper.readValue(cache.toFile(), LayoutCache.class);
+            return cached.getCompilerVersion() == AcpLayoutCompiler.VERSION ? cached : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compile a spec file into a layout file at build time
+     * Usage: AcpLayoutRegistry &lt;acp_message.htm&gt; &lt;acp-layouts.json&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AcpLayoutRegistry <spec.htm> <layouts.json>");
+        }
+        byte[] html = Files.readAllBytes(Paths.get(args[0]));
+        Map<Integer, AcpLayout> compiled = AcpLayoutCompiler.compile(new String(html, specCharset()));
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(Paths.get(args[1]).toFile(), toCache(compiled, sha256(html)));
+        System.out.println("Compiled " + compiled.size() + " layouts into " + args[1]);
+    }
+
+    private void install(Map<Integer, AcpLayout> layouts, String hash, String source) {
+        this.layouts = Collections.unmodifiableMap(layouts);
+        this.specHash = hash;
+        this.source = source;
+        if (decodeCache != null) {
+            decodeCache.clear();
+        }
+    }
+
+    /**
+     * Layout for a message code, or null if the spec has none
+     */
+    public AcpLayout getLayout(int messageCode) {
+        return layouts.get(messageCode);
+    }
+
+    public Map<Integer, AcpLayout> getLayouts() {
+        return layouts;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", source);
+        stats.put("specPath", specPath);
+        stats.put("cachePath", cachePath);
+        stats.put("specSha256", specHash);
+        stats.put("layouts", layouts.size());
+        stats.put("messageCodes", new ArrayList<>(layouts.keySet()));
+        return stats;
+    }
+
+    private static Charset specCharset() {
+        // acp_message.htm is a Word export declared as big5
+        return Charset.isSupported("Big5") ? Charset.forName("Big5") : StandardCharsets.ISO_8859_1;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<Integer, AcpLayout> toLayouts(LayoutCache cache) {
+        Map<Integer, AcpLayout> result = new TreeMap<>();
+        for (CachedLayout layout : cache.getLayouts()) {
+            result.put(layout.getMessageCode(),
+                    new AcpLayout(layout.getMessageCode(), layout.getFields(), layout.isVariable()));
+        }
+        return result;
+    }
+
+    private static LayoutCache toCache(Map<Integer, AcpLayout> layouts, String hash) {
+        LayoutCache cache = new LayoutCache();
+        cache.setSpecSha256(hash);
+        cache.setCompilerVersion(AcpLayoutCompiler.VERSION);
+        for (AcpLayout layout : layouts.values()) {
+            CachedLayout cached = new CachedLayout();
+            cached.setMessageCode(layout.getMessageCode());
+            cached.setVariable(layout.isVariable());
+            cached.setFields(new ArrayList<>(layout.getFields()));
+            cache.getLayouts().add(cached);
+        }
+        return cache;
+    }
+
+    /**
+     * JSON cache file contents
+     */
+    public static class LayoutCache {
+        private String specSha256;
+        private int compilerVersion;
+        private List<CachedLayout> layouts = new ArrayList<>();
+
+        public String getSpecSha256() {
+            return specSha256;
+        }
+
+        public void setSpecSha256(String specSha256) {
+            this.specSha256 = specSha256;
+        }
+
+        public int getCompilerVersion() {
+            return compilerVersion;
+        }
+
+        public void setCompilerVersion(int compilerVersion) {
+            this.compilerVersion = compilerVersion;
+        }
+
+        public List<CachedLayout> getLayouts() {
+            return layouts;
+        }
+
+        public void setLayouts(List<CachedLayout> layouts) {
+            this.layouts = layouts;
+        }
+    }
+
+    public static class CachedLayout {
+        private int messageCode;
+        private boolean variable;
+        private List<AcpFieldSpec> fields = new ArrayList<>();
+
+        public int getMessageCode() {
+            return messageCode;
+        }
+
+        public void setMessageCode(int messageCode) {
+            this.messageCode = messageCode;
+        }
+
+        public boolean isVariable() {
+            return variable;
+        }
+
+        public void setVariable(boolean variable) {
+            this.variable = variable;
+        }
+
+        public List<AcpFieldSpec> getFields() {
+            return fields;
+        }
+
+        public void setFields(List<AcpFieldSpec> fields) {
+            this.fields = fields;
+        }
+    }
+}
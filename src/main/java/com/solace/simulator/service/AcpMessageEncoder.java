@@ -0,0 +1,163 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.model.AcpMessageHeader;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Service for building binary ACP messages (header + body + checksum)
+ * Writes the standard 52-byte header, or the 56-byte BCS header for source systems 22/31,
+ * using little-endian byte order. The trailing checksum byte is the XOR of all preceding bytes.
+ */
+@Service
+public class AcpMessageEncoder {
+
+    public static final int STANDARD_HEADER_SIZE = AcpHeader.STANDARD_SIZE;
+    public static final int BCS_HEADER_SIZE = AcpHeader.BCS_SIZE;
+
+    /**
+     * Header size used by messages from the given source system
+     */
+    public static int headerSize(int sourceSystem) {
+        return AcpHeader.headerSize(sourceSystem);
+    }
+
+    public static boolean isBcsSource(int sourceSystem) {
+        return AcpHeader.isBcsSource(sourceSystem);
+    }
+
+    /**
+     * Encoded length of a message with the given header and body size
+     */
+    public int encodedLength(AcpMessageHeader header, int bodyLength) {
+        return headerSize(header.getSourceSystemNumber()) + bodyLength + 1;
+    }
+
+    /**
+     * Encode header, body and checksum into a new byte array
+     */
+    public byte[] encode(AcpMessageHeader header, byte[] body) {
+        int bodyLength = body != null ? body.length : 0;
+        byte[] out = new byte[encodedLength(header, bodyLength)];
+        encode(header, body, bodyLength, out);
+        return out;
+    }
+
+    /**
+     * Encode header, body and checksum into a caller-supplied buffer
+     * @return number of bytes written
+     */
+    public int encode(AcpMessageHeader header, byte[] body, int bodyLength, byte[] out) {
+        int length = encodedLength(header, bodyLength);
+        if (out.length < length) {
+            throw new IllegalArgumentException("Output buffer too small - " + length + " bytes required");
+        }
+        int headerSize = writeHeader(header, out);
+        if (bodyLength > 0) {
+            System.arraycopy(body, 0, out, headerSize, bodyLength);
+        }
+        out[length - 1] = checksum(out, length - 1);
+        return length;
+    }
+
+    /**
+     * Write the header fields at the start of the buffer
+     * @return header size in bytes
+     */
+    public int writeHeader(AcpMessageHeader header, byte[] out) {
+        boolean bcs = isBcsSource(header.getSourceSystemNumber());
+        // BCS headers carry packet group ID (2), packet sequence (1) and packet total (1) before the reply code
+        int shift = bcs ? 4 : 0;
+
+        writeUInt16LE(out, 0, header.getMessageCode());
+        out[2] = (byte) header.getSourceSystemNumber();
+        out[3] = (byte) header.getDestinationSystemNumber();
+        if (bcs) {
+            writeUInt16LE(out, 4, 0);
+            out[6] = 1;
+            out[7] = 1;
+        }
+        writeUInt16LE(out, 4 + shift, header.getReplyCode());
+        writeUInt64LE(out, 6 + shift, header.getLastTransactionId());
+        writeUInt64LE(out, 14 + shift, header.getMessageTransactionId());
+        writeUInt32LE(out, 22 + shift, header.getDate());
+        writeUInt24LE(out, 26 + shift, header.getTime());
+        writeUInt32LE(out, 29 + shift, header.getLocationId());
+        writeUInt16LE(out, 33 + shift, header.getPositionNumber());
+        writeString(out, 35 + shift, 8, header.getPhysicalTerminalId());
+        writeUInt32LE(out, 43 + shift, header.getStaffId());
+        writeUInt32LE(out, 47 + shift, header.getLogicalTerminalId());
+        out[51 + shift] = (byte) header.getTerminalType();
+        return STANDARD_HEADER_SIZE + shift;
+    }
+
+    /**
+     * Pack a date as stored in the header: year (2 bytes), month (1 byte), day (1 byte)
+     */
+    public static long packDate(LocalDate date) {
+        return (date.getYear() & 0xFFFFL) | ((long) date.getMonthValue() << 16) | ((long) date.getDayOfMonth() << 24);
+    }
+
+    /**
+     * Pack a time as stored in the header: hour, minute, second (1 byte each)
+     */
+    public static int packTime(LocalTime time) {
+        return time.getHour() | (time.getMinute() << 8) | (time.getSecond() << 16);
+    }
+
+    /**
+     * XOR checksum over the first {@code length} bytes
+     */
+    public static byte checksum(byte[] bytes, int length) {
+        int checksum = 0;
+        for (int i = 0; i < length; i++) {
+            checksum ^= bytes[i];
+        }
+        return (byte) checksum;
+    }
+
+    // Utility methods for writing different data types in little-endian format
+
+    static void writeUInt16LE(byte[] out, int offset, int value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+    }
+
+    static void writeUInt24LE(byte[] out, int offset, int value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+        out[offset + 2] = (byte) (value >>> 16);
+    }
+
+    static void writeUInt32LE(byte[] out, int offset, long value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+        out[offset + 2] = (byte) (value >>> 16);
+        out[offset + 3] = (byte) (value >>> 24);
+    }
+
+    static void writeUInt64LE(byte[] out, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * Write an ASCII string into a fixed-size field, padded with spaces
+     */
+    static void writeString(byte[] out, int offset, int length, String value) {
+        int written = 0;
+        if (value != null) {
+            int n = Math.min(length, value.length());
+            for (; written < n; written++) {
+                out[offset + written] = (byte) value.charAt(written);
+            }
+        }
+        for (; written < length; written++) {
+            out[offset + written] = ' ';
+        }
+    }
+}
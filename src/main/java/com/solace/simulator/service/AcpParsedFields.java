@@ -0,0 +1,146 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.model.AcpParsedField;
+
+import java.util.List;
+
+/**
+ * Table-format field rendering shared by the spec and enhanced parsers
+ * Values come from the frame's single header decode; binary is rendered per field from the buffer.
+ */
+final class AcpParsedFields {
+
+    static final String UNSIGNED_INTEGER = "Unsigned Integer";
+    static final String INTEGER = "Integer";
+    static final String STRING = "String";
+    static final String BINARY = "Binary";
+
+    private AcpParsedFields() {
+    }
+
+    /**
+     * Add the header fields in the header's layout (52-byte standard or 56-byte BCS)
+     * @throws IndexOutOfBoundsException if the message is shorter than the header
+     */
+    static void addHeaderFields(List<AcpParsedField> fields, AcpFrame frame, AcpHeader header) {
+        if (frame.length() < header.size()) {
+            throw new IndexOutOfBoundsException("Index " + (header.size() - 1)
+                    + " out of bounds for length " + frame.length());
+        }
+
+        add(fields, frame, "Message code", UNSIGNED_INTEGER, 2, AcpHeader.MESSAGE_CODE, header.getMessageCode());
+        add(fields, frame, "Source system number", INTEGER, 1, AcpHeader.SOURCE_SYSTEM, header.getSourceSystem());
+        add(fields, frame, "Destination system number", INTEGER, 1, AcpHeader.DESTINATION_SYSTEM,
+                header.getDestinationSystem());
+        if (header.isBcs()) {
+            add(fields, frame, "Packet group ID", UNSIGNED_INTEGER, 2, AcpHeader.PACKET_GROUP_ID,
+                    header.getPacketGroupId());
+            add(fields, frame, "Packet sequence", UNSIGNED_INTEGER, 1, AcpHeader.PACKET_SEQUENCE,
+                    header.getPacketSequence());
+            add(fields, frame, "Packet total", UNSIGNED_INTEGER, 1, AcpHeader.PACKET_TOTAL, header.getPacketTotal());
+        }
+        add(fields, frame, "Reply code", UNSIGNED_INTEGER, 2, header.offset(AcpHeader.REPLY_CODE),
+                header.getReplyCode());
+        add(fields, frame, "Last transaction ID", UNSIGNED_INTEGER, 8, header.offset(AcpHeader.LAST_TRANSACTION_ID),
+                header.getLastTransactionId());
+        add(fields, frame, "Message transaction ID", UNSIGNED_INTEGER, 8,
+                header.offset(AcpHeader.MESSAGE_TRANSACTION_ID), header.getMessageTransactionId());
+        add(fields, frame, "Date", UNSIGNED_INTEGER, 4, header.offset(AcpHeader.DATE), header.getDate());
+        add(fields, frame, "Time", UNSIGNED_INTEGER, 3, header.offset(AcpHeader.TIME), header.getTime());
+        add(fields, frame, "Location ID", UNSIGNED_INTEGER, 4, header.offset(AcpHeader.LOCATION_ID),
+                header.getLocationId());
+        add(fields, frame, "Position no", UNSIGNED_INTEGER, 2, header.offset(AcpHeader.POSITION_NUMBER),
+                header.getPositionNumber());
+        String terminalId = header.physicalTerminalId();
+        add(fields, frame, "Physical terminal ID", STRING, AcpHeader.PHYSICAL_TERMINAL_ID_SIZE,
+                header.offset(AcpHeader.PHYSICAL_TERMINAL_ID), terminalId.isEmpty() ? "(empty)" : terminalId);
+        add(fields, frame, "Staff ID", UNSIGNED_INTEGER, 4, header.offset(AcpHeader.STAFF_ID), header.getStaffId());
+        add(fields, frame, "Logical terminal ID", UNSIGNED_INTEGER, 4, header.offset(AcpHeader.LOGICAL_TERMINAL_ID),
+                header.getLogicalTerminalId());
+        add(fields, frame, "Terminal type", UNSIGNED_INTEGER, 1, header.offset(AcpHeader.TERMINAL_TYPE),
+                header.getTerminalType());
+    }
+
+    /**
+     * Add the fields of a compiled body layout that fit completely before {@code bodyEnd}
+     * @return index of the first byte after the added fields
+     */
+    static int addLayoutFields(List<AcpParsedField> fields, AcpFrame frame, AcpLayout layout, int headerSize,
+                               int bodyEnd) {
+        int count = layout.fieldsWithin(bodyEnd - headerSize);
+        int next = headerSize;
+        for (int i = 0; i < count; i++) {
+            int startByte = layout.startByte(i, headerSize);
+            int endByte = startByte + layout.size(i) - 1;
+            add(fields, frame, layout.name(i), layout.position(i, headerSize), layout.dataType(i),
+                    layout.sizeText(i), startByte, endByte, displayValue(layout.value(frame.buffer(), headerSize, i)));
+            next = Math.max(next, endByte + 1);
+        }
+        return next;
+    }
+
+    /**
+     * Add bytes startByte..bodyEnd-1 as one binary field (value as hex), if there are any
+     */
+    static void addBinaryField(List<AcpParsedField> fields, AcpFrame frame, String name, int startByte,
+                               int bodyEnd) {
+        if (startByte < bodyEnd) {
+            add(fields, frame, name, startByte + "-" + (bodyEnd - 1), BINARY, String.valueOf(bodyEnd - startByte),
+                    startByte, bodyEnd - 1, frame.hex(startByte, bodyEnd - 1, (char) 0));
+        }
+    }
+
+    /**
+     * Empty strings are shown as "(empty)"
+     */
+    static Object displayValue(Object value) {
+        return "".equals(value) ? "(empty)" : value;
+    }
+
+    /**
+     * Add a field of {@code size} bytes starting at {@code startByte}
+     * Byte position is shown as "N" for single bytes and "N-M" otherwise.
+     */
+    static void add(List<AcpParsedField> fields, AcpFrame frame, String name, String dataType, int size,
+                    int startByte, Object value) {
+        int endByte = startByte + size - 1;
+        String position = size == 1 ? String.valueOf(startByte) : startByte + "-" + endByte;
+        add(fields, frame, name, position, dataType, String.valueOf(size), startByte, endByte, value);
+    }
+
+    static void add(List<AcpParsedField> fields, AcpFrame frame, String name, String bytePosition, String dataType,
+                    String size, int startByte, int endByte, Object value) {
+        fields.add(new AcpParsedField(
+            name,                                   // Data
+            bytePosition,                           // Byte Position
+            dataType,                               // Data Type
+            size,                                   // Size
+            frame.binary(startByte, endByte),       // Msg Data (binary)
+            String.valueOf(value)                   // Msg Data Value
+        ));
+    }
+
+    /**
+     * Field name as a map key: whitespace runs become underscores
+     */
+    static String key(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean inWhitespace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!inWhitespace) {
+                    key.append('_');
+                }
+                inWhitespace = true;
+            } else {
+                key.append(c);
+                inWhitespace = false;
+            }
+        }
+        return key.toString();
+    }
+}
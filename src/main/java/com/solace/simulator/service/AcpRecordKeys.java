@@ -0,0 +1,130 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.journal.RecordKeys;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Capture journal index keys of ACP messages: header fields, plus the account number for
+ * message codes whose body layout has one
+ * Keys are read straight from the payload bytes. The physical terminal ID (8 ASCII characters)
+ * is packed into a long, see {@link #packTerminalId(String)}.
+ */
+public class AcpRecordKeys implements RecordKeys {
+
+    public static final String MESSAGE_CODE = "messageCode";
+    public static final String MESSAGE_TRANSACTION_ID = "messageTransactionId";
+    public static final String LAST_TRANSACTION_ID = "lastTransactionId";
+    public static final String PHYSICAL_TERMINAL_ID = "physicalTerminalId";
+    public static final String LOGICAL_TERMINAL_ID = "logicalTerminalId";
+    public static final String LOCATION_ID = "locationId";
+    public static final String ACCOUNT = "account";
+
+    private static final String[] FIELDS = {MESSAGE_CODE, MESSAGE_TRANSACTION_ID, LAST_TRANSACTION_ID,
+            PHYSICAL_TERMINAL_ID, LOGICAL_TERMINAL_ID, LOCATION_ID, ACCOUNT};
+
+    // Body layout field names of account numbers
+    private static final String[] ACCOUNT_FIELD_NAMES = {"A/c number", "Current a/c number"};
+
+    // Per message code: offset of the account number after the header, -1 for none, and its size
+    private final short[] accountOffsets = new short[65536];
+    private final byte[] accountSizes = new byte[65536];
+
+    /**
+     * @param layouts body layouts by message code, for the account number positions
+     */
+    public AcpRecordKeys(Map<Integer, AcpLayout> layouts) {
+        Arrays.fill(accountOffsets, (short) -1);
+        for (AcpLayout layout : layouts.values()) {
+            int code = layout.getMessageCode();
+            if (code < 0 || code >= accountOffsets.length) {
+                continue;
+            }
+            for (int field = 0; field < layout.fieldCount(); field++) {
+                if (isAccountField(layout, field)) {
+                    accountOffsets[code] = (short) layout.startByte(field, 0);
+                    accountSizes[code] = (byte) layout.size(field);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean isAccountField(AcpLayout layout, int field) {
+        if (!AcpLayout.UNSIGNED_INTEGER.equals(layout.dataType(field)) || layout.size(field) > 8) {
+            return false;
+        }
+        for (String name : ACCOUNT_FIELD_NAMES) {
+            if (name.equalsIgnoreCase(layout.name(field))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String[] fieldNames() {
+        return FIELDS.clone();
+    }
+
+    @Override
+    public int extract(int type, byte[] payload, int length, long[] keys) {
+        if (type != JournalRecord.TYPE_BYTES || length < AcpHeader.STANDARD_SIZE) {
+            return 0;
+        }
+        int headerSize = AcpHeader.headerSize(payload[AcpHeader.SOURCE_SYSTEM] & 0xFF);
+        if (length < headerSize) {
+            return 0;
+        }
+        int shift = headerSize - AcpHeader.STANDARD_SIZE;
+        int code = (int) read(payload, AcpHeader.MESSAGE_CODE, 2);
+        keys[0] = code;
+        keys[1] = read(payload, AcpHeader.MESSAGE_TRANSACTION_ID + shift, 8);
+        keys[2] = read(payload, AcpHeader.LAST_TRANSACTION_ID + shift, 8);
+        keys[3] = packTerminalId(payload, AcpHeader.PHYSICAL_TERMINAL_ID + shift);
+        keys[4] = read(payload, AcpHeader.LOGICAL_TERMINAL_ID + shift, 4);
+        keys[5] = read(payload, AcpHeader.LOCATION_ID + shift, 4);
+        int mask = 0b111111;
+
+        int accountOffset = accountOffsets[code];
+        if (accountOffset >= 0 && headerSize + accountOffset + accountSizes[code] <= length) {
+            keys[6] = read(payload, headerSize + accountOffset, accountSizes[code]);
+            mask |= 1 << 6;
+        }
+        return mask;
+    }
+
+    /**
+     * Index key of a physical terminal ID as entered by a user: up to 8 characters, space padded
+     */
+    public static long packTerminalId(String terminalId) {
+        byte[] bytes = new byte[AcpHeader.PHYSICAL_TERMINAL_ID_SIZE];
+        Arrays.fill(bytes, (byte) ' ');
+        for (int i = 0; i < Math.min(bytes.length, terminalId.length()); i++) {
+            bytes[i] = (byte) terminalId.charAt(i);
+        }
+        return packTerminalId(bytes, 0);
+    }
+
+    // Trailing NULs and spaces are equivalent padding
+    private static long packTerminalId(byte[] bytes, int offset) {
+        long key = 0;
+        for (int i = AcpHeader.PHYSICAL_TERMINAL_ID_SIZE - 1; i >= 0; i--) {
+            byte b = bytes[offset + i];
+            key = (key << 8) | ((b == 0 ? ' ' : b) & 0xFF);
+        }
+        return key;
+    }
+
+    private static long read(byte[] bytes, int offset, int size) {
+        long value = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,263 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFormat;
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.model.AcpMessageCode;
+import com.solace.simulator.model.AcpMessageHeader;
+import com.solace.simulator.model.ResponderRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import javax.jms.Destination;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for answering ACP request messages automatically
+ * For every received request with a JMSReplyTo, the header is decoded directly from the payload,
+ * a reply header is built (paired reply message code, source/destination systems swapped,
+ * configured AcpReplyCode, transaction IDs echoed) and the reply is sent to JMSReplyTo.
+ * Rules per message code control the reply code, body and injected latency.
+ * The reply path never touches the WebSocket or the debug parsers.
+ */
+@Service
+public class AcpResponderService implements JmsReceiveListener {
+
+    // Rule applied to request codes without a rule of their own
+    public static final int DEFAULT_RULE_CODE = 0;
+
+    @Autowired
+    private SolaceJmsService solaceJmsService;
+
+    @Autowired
+    private AcpMessageEncoder acpMessageEncoder;
+
+    @Value("${simulator.responder.enabled:false}")
+    private volatile boolean enabled;
+
+    @Value("${simulator.responder.scheduler-threads:2}")
+    private int schedulerThreads = 2;
+
+    private final Map<Integer, CompiledRule> rules = new ConcurrentHashMap<>();
+    private ScheduledThreadPoolExecutor scheduler;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong replies = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong noReplyTo = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile String lastError;
+
+    public AcpResponderService() {
+        rules.put(DEFAULT_RULE_CODE, new CompiledRule(new ResponderRule(DEFAULT_RULE_CODE)));
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler = new ScheduledThreadPoolExecutor(schedulerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "acp-responder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        solaceJmsService.addReceiveListener(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        solaceJmsService.removeReceiveListener(this);
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void onMessage(ReceiveEvent event) {
+        byte[] payload = event.getPayload();
+        if (!enabled || payload == null || payload.length <= AcpMessageEncoder.STANDARD_HEADER_SIZE) {
+            return;
+        }
+        int code = AcpHeader.peekMessageCode(ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN));
+        AcpMessageCode messageCode = AcpMessageCode.fromCode(code);
+        if (!messageCode.isRequest()) {
+            return; // Only requests are answered; replies and unknown codes pass through
+        }
+        requests.incrementAndGet();
+
+        CompiledRule rule = rules.get(code);
+        if (rule == null) {
+            rule = rules.get(DEFAULT_RULE_CODE);
+        }
+        int replyMessageCode = rule.rule.getReplyMessageCode() != null
+                ? rule.rule.getReplyMessageCode()
+                : messageCode.getReplyMessageCode().getCode();
+        if (!rule.rule.isEnabled() || replyMessageCode == 0) {
+            ignored.incrementAndGet();
+            return;
+        }
+
+        try {
+            Destination replyTo = event.getReplyTo();
+            if (replyTo == null) {
+                noReplyTo.incrementAndGet();
+                return;
+            }
+            String correlationId = event.getCorrelationId() != null
+                    ? event.getCorrelationId()
+                    : event.getMessageId();
+            byte[] reply = buildReply(payload, replyMessageCode, rule);
+
+            long delayMillis = rule.delayMillis();
+            if (delayMillis > 0) {
+                delayed.incrementAndGet();
+                scheduler.schedule(() -> send(replyTo, reply, correlationId), delayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                send(replyTo, reply, correlationId);
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            lastError = e.getMessage();
+        }
+    }
+
+    private void send(Destination replyTo, byte[] reply, String correlationId) {
+        try {
+            solaceJmsService.sendReply(replyTo, reply, reply.length, correlationId);
+            replies.incrementAndGet();
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            lastError = e.getMessage();
+        }
+    }
+
+    /**
+     * Build the reply message for a request payload
+     * The reply header uses the layout of its own source system (the request's destination).
+     */
+    byte[] buildReply(byte[] request, int replyMessageCode, CompiledRule rule) {
+        AcpHeader requestHeader = new AcpHeader().decode(ByteBuffer.wrap(request).order(ByteOrder.LITTLE_ENDIAN), true);
+        if (!requestHeader.isComplete()) {
+            throw new IllegalArgumentException("Message too short for header: " + request.length + " bytes");
+        }
+        int requestHeaderSize = requestHeader.size();
+
+        AcpMessageHeader header = requestHeader.toMessageHeader();
+        header.setSourceSystemNumber(requestHeader.getDestinationSystem());
+        header.setDestinationSystemNumber(requestHeader.getSourceSystem());
+        header.setMessageCode(replyMessageCode);
+        header.setReplyCode(rule.rule.getReplyCode());
+
+        byte[] body;
+        int bodyLength;
+        if (rule.rule.isEchoBody()) {
+            body = request;
+            bodyLength = Math.max(0, request.length - 1 - requestHeaderSize);
+        } else {
+            body = rule.body;
+            bodyLength = body.length;
+        }
+
+        byte[] out = new byte[acpMessageEncoder.encodedLength(header, bodyLength)];
+        int headerSize = acpMessageEncoder.writeHeader(header, out);
+        if (bodyLength > 0) {
+            System.arraycopy(body, body == request ? requestHeaderSize : 0, out, headerSize, bodyLength);
+        }
+        out[out.length - 1] = AcpMessageEncoder.checksum(out, out.length - 1);
+        return out;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Add or replace the rule for the rule's message code
+     */
+    public void putRule(ResponderRule rule) {
+        if (rule.getMessageCode() != DEFAULT_RULE_CODE
+                && !AcpMessageCode.fromCode(rule.getMessageCode()).isRequest()) {
+            throw new IllegalArgumentException("Not a request message code: " + rule.getMessageCode());
+        }
+        if (rule.getLatencyMs() < 0 || rule.getJitterMs() < 0) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative");
+        }
+        rules.put(rule.getMessageCode(), new CompiledRule(rule));
+    }
+
+    /**
+     * Remove the rule for a message code; the default rule is reset instead of removed
+     */
+    public void removeRule(int messageCode) {
+        if (messageCode == DEFAULT_RULE_CODE) {
+            rules.put(DEFAULT_RULE_CODE, new CompiledRule(new ResponderRule(DEFAULT_RULE_CODE)));
+        } else {
+            rules.remove(messageCode);
+        }
+    }
+
+    public List<ResponderRule> getRules() {
+        List<ResponderRule> result = new ArrayList<>();
+        for (CompiledRule rule : rules.values()) {
+            result.add(rule.rule);
+        }
+        result.sort((a, b) -> Integer.compare(a.getMessageCode(), b.getMessageCode()));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("requests", requests.get());
+        stats.put("replies", replies.get());
+        stats.put("delayed", delayed.get());
+        stats.put("pendingDelayed", scheduler != null ? scheduler.getQueue().size() : 0);
+        stats.put("ignored", ignored.get());
+        stats.put("noReplyTo", noReplyTo.get());
+        stats.put("errors", errors.get());
+        if (lastError != null) {
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    /**
+     * Rule with its reply body decoded once up front
+     */
+    static final class CompiledRule {
+        final ResponderRule rule;
+        final byte[] body;
+
+        CompiledRule(ResponderRule rule) {
+            this.rule = rule;
+            this.body = decodeHex(rule.getBodyHex());
+        }
+
+        long delayMillis() {
+            long jitter = rule.getJitterMs() > 0 ? ThreadLocalRandom.current().nextLong(rule.getJitterMs() + 1) : 0;
+            return rule.getLatencyMs() + jitter;
+        }
+
+        private static byte[] decodeHex(String hex) {
+            if (hex == null) {
+                return new byte[0];
+            }
+            return AcpFormat.decodeHex(hex);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.solace.simulator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.CaptureFileReader;
+import com.solace.simulator.model.AcpMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Service decoding capture files of any size as a stream
+ * The capture is read a window at a time ({@link CaptureFileReader}); each message is copied out and
+ * decoded on a fixed pool while the calling thread writes finished results in input order. At most
+ * {@code simulator.acp.stream.max-in-flight} messages are between the reader and the writer, so heap
+ * use does not grow with the capture. Results are NDJSON (the parser view of each message) or CSV
+ * (one row of header fields per message). Progress of running and recent decodes is kept as jobs.
+ */
+@Service
+public class AcpStreamDecodeService {
+
+    public enum Output {
+        NDJSON, CSV;
+
+        /**
+         * @throws IllegalArgumentException for names other than ndjson and csv
+         */
+        public static Output parse(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown output: " + name + " (expected ndjson or csv)");
+            }
+        }
+    }
+
+    static final String CSV_HEADER = "index,offset,length,messageCode,sourceSystem,replyCode,messageTransactionId,"
+            + "lastTransactionId,locationId,logicalTerminalId,physicalTerminalId,error\n";
+
+    // Finished and failed decodes kept for the jobs endpoint
+    private static final int MAX_JOBS = 20;
+
+    private final AtomicInteger jobIds = new AtomicInteger();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    // Spring's mapper, so decode results are written like every other response
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AcpBatchParser acpBatchParser;
+
+    @Value("${simulator.acp.stream.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${simulator.acp.stream.max-in-flight:1024}")
+    private int maxInFlight = 1024;
+
+    @Value("${simulator.acp.stream.window-size:8388608}")
+    private int windowSize = 8 * 1024 * 1024;
+
+    // Local capture files are only read from under this directory
+    @Value("${simulator.acp.stream.capture-dir:captures}")
+    private String captureDir = "captures";
+
+    private ExecutorService decoders;
+    private int threads;
+
+    @PostConstruct
+    public void init() {
+        threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        decoders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "acp-stream-decode-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (decoders != null) {
+            decoders.shutdownNow();
+        }
+    }
+
+    /**
+     * Bytes of capture held in memory per decode; also the largest message a capture may hold
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * A local capture file, named relative to the capture directory
+     * @throws IllegalArgumentException if the path, or a symbolic link on it, leads outside the capture directory
+     * @throws java.nio.file.NoSuchFileException if the file does not exist
+     */
+    public Path resolveCapture(String path) throws IOException {
+        Path root = Path.of(captureDir).toAbsolutePath().normalize();
+        Path resolved = root.resolve(path).normalize();
+        if (!resolved.startsWith(root) || !resolved.toRealPath().startsWith(root.toRealPath())) {
+            throw new IllegalArgumentException("Path is outside the capture directory: " + path);
+        }
+        return resolved;
+    }
+
+    /**
+     * Register a decode; its progress is reported by {@link #getJobs} from now on
+     * @param view parser view for NDJSON output, checked now; not used for CSV
+     * @throws IllegalArgumentException for unknown views
+     */
+    public Job createJob(String source, String view, Output output) {
+        if (output == Output.NDJSON) {
+            acpBatchParser.parser(view);
+        }
+        Job job = new Job("decode-" + jobIds.incrementAndGet(), source, view, output);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            if (jobs.size() > MAX_JOBS) {
+                jobs.values().removeIf(old -> old.state != State.RUNNING && jobs.size() > MAX_JOBS);
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Decode a capture and write the results to a stream; closes the reader
+     * A failure after the first result has been written ends NDJSON output with an
+     * {"status":"error","message":...} line and CSV output with a "# error:" line.
+     */
+    public void decode(CaptureFileReader reader, Job job, OutputStream outputStream) throws IOException {
+        Function<AcpFrame, AcpMessage> parser = job.output == Output.NDJSON ? acpBatchParser.parser(job.view) : null;
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        job.start(reader.getFormat(), reader.getSize());
+        try (reader) {
+            if (job.output == Output.CSV) {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.US_ASCII));
+            }
+            long index = 0;
+            boolean hex = reader.getFormat() == CaptureFileReader.Format.HEX;
+            while (reader.next()) {
+                ByteBuffer record = reader.record();
+                byte[] bytes = new byte[record.remaining()];
+                record.get(bytes);
+                long recordIndex = index++;
+                long offset = reader.recordOffset();
+                inFlight.add(decoders.submit(() -> decode(recordIndex, offset, bytes, hex, parser, job)));
+                job.bytesRead = reader.getPosition();
+                if (inFlight.size() >= maxInFlight) {
+                    out.write(inFlight.poll().get());
+                }
+                // Results are written as soon as the oldest is done, not only when the window is full
+                while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                    out.write(inFlight.poll().get());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                out.write(inFlight.poll().get());
+            }
+            job.bytesRead = reader.getPosition();
+            out.flush();
+            job.finish(null);
+        } catch (IOException | RuntimeException | ExecutionException | InterruptedException e) {
+            for (Future<byte[]> future : inFlight) {
+                future.cancel(true);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            writeError(out, job);
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+        }
+    }
+
+    private void writeError(OutputStream out, Job job) {
+        try {
+            if (job.output == Output.NDJSON) {
+                Map<String, String> error = new LinkedHashMap<>();
+                error.put("status", "error");
+                error.put("message", job.error);
+                out.write(objectMapper.writeValueAsBytes(error));
+                out.write('\n');
+            } else {
+                out.write(("# error: " + job.error.replace('\n', ' ') + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The client has gone; the job keeps the error
+        }
+    }
+
+    private byte[] decode(long index, long offset, byte[] bytes, boolean hex, Function<AcpFrame, AcpMessage> parser,
+                          Job job) throws IOException {
+        AcpFrame frame = null;
+        String error = null;
+        try {
+            frame = hex ? AcpFrame.fromHex(new String(bytes, StandardCharsets.ISO_8859_1)) : AcpFrame.wrap(bytes);
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+        byte[] line;
+        if (parser != null) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", index);
+            result.put("offset", offset);
+            if (frame != null) {
+                try {
+                    result.put("result", parser.apply(frame));
+                } catch (RuntimeException e) {
+                    error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+            }
+            if (error != null) {
+                result.put("error", error);
+            }
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+        } else {
+            line = csvRow(index, offset, frame, error).getBytes(StandardCharsets.UTF_8);
+        }
+        job.recordDone(error != null);
+        return line;
+    }
+
+    static String csvRow(long index, long offset, AcpFrame frame, String error) {
+        StringBuilder row = new StringBuilder(128).append(index).append(',').append(offset).append(',');
+        if (frame != null) {
+            AcpHeader header = frame.header();
+            row.append(frame.length()).append(',')
+                    .append(header.getMessageCode()).append(',')
+                    .append(header.getSourceSystem()).append(',')
+                    .append(header.getReplyCode()).append(',')
+                    .append(header.getMessageTransactionId()).append(',')
+                    .append(header.getLastTransactionId()).append(',')
+                    .append(header.getLocationId()).append(',')
+                    .append(header.getLogicalTerminalId()).append(',');
+            appendCsv(row, header.isComplete() ? header.physicalTerminalId().trim() : "");
+        } else {
+            row.append(",,,,,,,,");
+        }
+        row.append(',');
+        if (error != null) {
+            appendCsv(row, error);
+        }
+        return row.append('\n').toString();
+    }
+
+    private static void appendCsv(StringBuilder row, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            row.append(value);
+            return;
+        }
+        row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Running and recent decodes, newest last
+     */
+    public Map<String, Object> getJobs() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        synchronized (jobs) {
+            for (Job job : jobs.values()) {
+                list.add(job.status());
+            }
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("parallelism", threads);
+        response.put("maxInFlight", maxInFlight);
+        response.put("windowSize", windowSize);
+        response.put("jobs", list);
+        return response;
+    }
+
+    public enum State {
+        RUNNING, DONE, FAILED
+    }
+
+    /**
+     * Progress of one decode
+     */
+    public static final class Job {
+
+        private final String id;
+        private final String source;
+        private final String view;
+        private final Output output;
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private volatile State state = State.RUNNING;
+        private volatile CaptureFileReader.Format format;
+        private volatile long size = -1;
+        private volatile long bytesRead;
+        private volatile long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private volatile String error;
+
+        private Job(String id, String source, String view, Output output) {
+            this.id = id;
+            this.source = source;
+            this.view = view;
+            this.output = output;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Output getOutput() {
+            return output;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getRecords() {
+            return records.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        private void start(CaptureFileReader.Format format, long size) {
+            this.format = format;
+            this.size = size;
+            this.startNanos = System.nanoTime();
+        }
+
+        private void recordDone(boolean failed) {
+            records.incrementAndGet();
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private void finish(String error) {
+            this.error = error;
+            this.endNanos = System.nanoTime();
+            this.state = error == null ? State.DONE : State.FAILED;
+        }
+
+        /**
+         * Fail a decode that could not be started
+         */
+        public void fail(String error) {
+            finish(error);
+        }
+
+        Map<String, Object> status() {
+            long elapsedNanos = (state == State.RUNNING ? System.nanoTime() : endNanos) - startNanos;
+            long done = records.get();
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("id", id);
+            status.put("source", source);
+            status.put("state", state.name());
+            status.put("format", format != null ? format.name() : null);
+            status.put("output", output.name());
+            if (output == Output.NDJSON) {
+                status.put("view", view);
+            }
+            status.put("sizeBytes", size);
+            status.put("bytesRead", bytesRead);
+            if (size > 0) {
+                status.put("percent", Math.round(bytesRead * 1000.0 / size) / 10.0);
+            }
+            status.put("records", done);
+            status.put("errors", errors.get());
+            status.put("elapsedMillis", elapsedNanos / 1_000_000);
+            status.put("recordsPerSecond", elapsedNanos > 0 ? Math.round(done * 1e9 / elapsedNanos) : 0);
+            status.put("megabytesPerSecond", elapsedNanos > 0
+                    ? Math.round(bytesRead * 1e9 / elapsedNanos / (1024 * 1024) * 10) / 10.0 : 0);
+            if (error != null) {
+                status.put("error", error);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFormat;
+import com.solace.simulator.journal.CaptureJournal;
+import com.solace.simulator.journal.FlushPolicy;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.ReceivedMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service recording every sent and received message in the capture journal ({@link CaptureJournal})
+ * Sends are recorded by the sending thread right after the send; received messages by the "journal"
+ * stage of the receive pipeline. Neither waits for the disk: pages are forced per
+ * {@code simulator.journal.flush-policy}. A journal that cannot be opened is reported and left off.
+ * ACP messages are indexed by header fields and account number ({@link AcpRecordKeys}) for {@link #query}.
+ */
+@Service
+public class CaptureJournalService {
+
+    private static final int MAX_QUERY_LIMIT = 10_000;
+
+    @Autowired
+    private ReceivePipelineService receivePipeline;
+
+    @Autowired
+    private AcpLayoutRegistry layoutRegistry;
+
+    @Value("${simulator.journal.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${simulator.journal.directory:${java.io.tmpdir}/acp-journal}")
+    private String directory = System.getProperty("java.io.tmpdir") + "/acp-journal";
+
+    @Value("${simulator.journal.segment-size:67108864}")
+    private int segmentSize = 64 * 1024 * 1024;
+
+    @Value("${simulator.journal.flush-policy:os}")
+    private String flushPolicyName = "os";
+
+    @Value("${simulator.journal.flush-interval-ms:1000}")
+    private long flushIntervalMillis = 1000;
+
+    @Value("${simulator.journal.flush-records:10000}")
+    private int flushRecords = 10000;
+
+    @Value("${simulator.journal.retention.max-bytes:1073741824}")
+    private long retentionMaxBytes = 1024L * 1024 * 1024;
+
+    @Value("${simulator.journal.retention.max-age-ms:86400000}")
+    private long retentionMaxAgeMillis = 86_400_000;
+
+    @Value("${simulator.journal.index.enabled:true}")
+    private boolean indexEnabled = true;
+
+    private volatile CaptureJournal journal;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        FlushPolicy flushPolicy = FlushPolicy.parse(flushPolicyName);
+        try {
+            journal = new CaptureJournal(Path.of(directory), segmentSize, flushPolicy, flushIntervalMillis,
+                    flushRecords, retentionMaxBytes, retentionMaxAgeMillis,
+                    indexEnabled ? new AcpRecordKeys(layoutRegistry.getLayouts()) : null);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        // Independent of the other stages: a slow disk only holds back the broker once the ring is full
+        receivePipeline.addStage("journal", (event, sequence, endOfBatch) -> recordReceived(event));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        CaptureJournal current = journal;
+        journal = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Record a message that was just sent
+     * @param destination topic name, or queue name prefixed with "#Q/"
+     * @param payload body bytes, null for text messages (the text is recorded as UTF-8)
+     */
+    public void recordSent(String destination, Message message, byte[] payload, int length) {
+        CaptureJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            int type = JournalRecord.TYPE_BYTES;
+            if (message instanceof TextMessage) {
+                type = JournalRecord.TYPE_TEXT;
+                String text = ((TextMessage) message).getText();
+                payload = text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+                length = payload != null ? payload.length : 0;
+            }
+            current.append(JournalRecord.SENT, type, ReceivedMessage.epochNanos(System.nanoTime()),
+                    destination, message != null ? ReceivedMessage.properties(message) : null, payload, length);
+            sent.incrementAndGet();
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            e.printStackTrace();
+        }
+    }
+
+    private void recordReceived(ReceiveEvent event) throws Exception {
+        CaptureJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        int type = event.getType();
+        byte[] payload = event.getPayload();
+        if (type == JournalRecord.TYPE_TEXT) {
+            payload = event.getText() != null ? event.getText().getBytes(StandardCharsets.UTF_8) : null;
+        }
+        try {
+            current.append(JournalRecord.RECEIVED, type, ReceivedMessage.epochNanos(event.getReceivedNanos()),
+                    event.getDestination(), event.getProperties(), payload, payload != null ? payload.length : 0);
+            received.incrementAndGet();
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Captured messages with a value in an indexed field, oldest first
+     * @param field one of the {@link AcpRecordKeys} field names
+     * @param value number, or the terminal ID for {@link AcpRecordKeys#PHYSICAL_TERMINAL_ID}
+     * @param afterSequence only messages after this journal sequence, -1 for all
+     * @throws IllegalArgumentException for unknown fields or malformed values
+     * @throws IllegalStateException when the journal is disabled
+     */
+    public List<Map<String, Object>> query(String field, String value, long afterSequence, int limit) {
+        CaptureJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Capture journal is disabled");
+        }
+        if (limit < 1 || limit > MAX_QUERY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+        long key;
+        if (AcpRecordKeys.PHYSICAL_TERMINAL_ID.equals(field)) {
+            key = AcpRecordKeys.packTerminalId(value);
+        } else {
+            try {
+                key = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + value);
+            }
+        }
+        List<Map<String, Object>> records = new ArrayList<>();
+        current.query(field, key, afterSequence, limit, record -> records.add(toMap(record)));
+        return records;
+    }
+
+    private static Map<String, Object> toMap(JournalRecord record) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sequence", record.sequence());
+        map.put("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(0, record.timestampNanos()), ZoneId.systemDefault())));
+        map.put("direction", record.direction() == JournalRecord.SENT ? "SENT" : "RECEIVED");
+        map.put("messageType", record.type() == JournalRecord.TYPE_TEXT ? "TEXT"
+                : record.type() == JournalRecord.TYPE_BYTES ? "BYTE" : "OTHER");
+        map.put("destination", record.destination());
+        map.put("headers", record.properties());
+        byte[] payload = record.payload();
+        if (record.type() == JournalRecord.TYPE_TEXT) {
+            map.put("content", new String(payload, StandardCharsets.UTF_8));
+        }
+        map.put("hexContent", AcpFormat.hex(payload, 0, payload.length, ' '));
+        return map;
+    }
+
+    /**
+     * The open journal, null when disabled
+     */
+    public CaptureJournal getJournal() {
+        return journal;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        CaptureJournal current = journal;
+        stats.put("enabled", current != null);
+        stats.put("sent", sent.get());
+        stats.put("received", received.get());
+        stats.put("errors", errors.get());
+        if (current != null) {
+            stats.putAll(current.getStats());
+        }
+        return stats;
+    }
+}
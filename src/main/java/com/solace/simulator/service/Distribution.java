@@ -0,0 +1,46 @@
+package com.solace.simulator.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HDR histogram of a measured value, reported in units of a divisor
+ * Values are recorded from any thread without locking; each snapshot folds the values recorded
+ * since the previous one into a cumulative histogram and reports it.
+ */
+final class Distribution {
+
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram cumulative = new Histogram(3);
+    private final double divisor;
+
+    /**
+     * @param divisor unit of the reported values, e.g. 1000 to report nanoseconds as microseconds
+     */
+    Distribution(double divisor) {
+        this.divisor = divisor;
+    }
+
+    void record(long value) {
+        recorder.recordValue(value);
+    }
+
+    /**
+     * Count, mean, percentiles and max of every value recorded so far
+     */
+    synchronized Map<String, Object> snapshot() {
+        cumulative.add(recorder.getIntervalHistogram());
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("count", cumulative.getTotalCount());
+        distribution.put("mean", cumulative.getMean() / divisor);
+        distribution.put("p50", cumulative.getValueAtPercentile(50) / divisor);
+        distribution.put("p90", cumulative.getValueAtPercentile(90) / divisor);
+        distribution.put("p99", cumulative.getValueAtPercentile(99) / divisor);
+        distribution.put("p999", cumulative.getValueAtPercentile(99.9) / divisor);
+        distribution.put("max", cumulative.getMaxValue() / divisor);
+        return distribution;
+    }
+}
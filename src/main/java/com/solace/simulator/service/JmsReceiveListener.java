@@ -0,0 +1,15 @@
+package com.solace.simulator.service;
+
+/**
+ * Callback for messages received on subscribed destinations
+ * Listeners are invoked in receive order on the receive pipeline's "listeners" stage thread
+ * (see {@link ReceivePipelineService}), shared by all listeners, so they must not block.
+ */
+public interface JmsReceiveListener {
+
+    /**
+     * @param event what was copied off the received message; the slot is reused once the call
+     *              returns, so keep its values rather than the event
+     */
+    void onMessage(ReceiveEvent event);
+}
@@ -0,0 +1,19 @@
+package com.solace.simulator.service;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Callback for messages about to be sent through the session pool
+ * Invoked on the sending thread after JMSReplyTo and headers are applied and just before the send,
+ * so a listener may still set message properties (e.g. JMSCorrelationID).
+ */
+public interface JmsSendListener {
+
+    /**
+     * @param message the message about to be sent
+     * @param payload body bytes of a BytesMessage, or null for text messages
+     * @param length number of valid bytes in payload
+     */
+    void onSend(Message message, byte[] payload, int length) throws JMSException;
+}
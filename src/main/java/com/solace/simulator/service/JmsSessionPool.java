@@ -0,0 +1,193 @@
+package com.solace.simulator.service;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size pool of JMS sessions used for sending.
+ * JMS sessions are single-threaded, so each send borrows a session exclusively,
+ * uses that session's own producer cache, and returns it to the pool afterwards.
+ * Concurrent senders therefore scale up to the pool size instead of sharing one session.
+ * Closing the pool stops new borrows and waits for borrowed sessions to come back before closing them.
+ */
+public class JmsSessionPool {
+
+    /**
+     * Work executed against a borrowed session
+     */
+    @FunctionalInterface
+    public interface SessionCallback<T> {
+        T doInSession(Session session, ProducerCache producers) throws JMSException;
+    }
+
+    /**
+     * A pooled session together with the producers created on it
+     */
+    public static class PooledSession {
+        private final Session session;
+        private final ProducerCache producers;
+
+        PooledSession(Session session, ProducerCache producers) {
+            this.session = session;
+            this.producers = producers;
+        }
+
+        public Session getSession() {
+            return session;
+        }
+
+        public ProducerCache getProducers() {
+            return producers;
+        }
+    }
+
+    private final List<PooledSession> sessions;
+    private final BlockingQueue<PooledSession> idle;
+    private final long borrowTimeoutMillis;
+    private volatile boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public JmsSessionPool(Connection connection, int size, int producerCacheSize,
+                          boolean anonymousProducer, long borrowTimeoutMillis) throws JMSException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Session pool size must be at least 1");
+        }
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        List<PooledSession> created = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                created.add(new PooledSession(session, new ProducerCache(session, producerCacheSize, anonymousProducer)));
+            }
+        } catch (JMSException e) {
+            closeAll(created);
+            throw e;
+        }
+        this.sessions = Collections.unmodifiableList(created);
+        this.idle = new ArrayBlockingQueue<>(size, false, created);
+    }
+
+    /**
+     * Run the callback on an exclusively borrowed session
+     */
+    public <T> T execute(SessionCallback<T> callback) throws JMSException {
+        PooledSession pooled = borrow();
+        try {
+            return callback.doInSession(pooled.getSession(), pooled.getProducers());
+        } finally {
+            idle.offer(pooled);
+        }
+    }
+
+    private PooledSession borrow() throws JMSException {
+        requireOpen();
+        borrows.incrementAndGet();
+        PooledSession pooled = idle.poll();
+        if (pooled != null) {
+            return checkedOut(pooled);
+        }
+        waits.incrementAndGet();
+        try {
+            pooled = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while waiting for a pooled session");
+        }
+        if (pooled == null) {
+            timeouts.incrementAndGet();
+            throw new JMSException("No pooled session available within " + borrowTimeoutMillis + " ms");
+        }
+        return checkedOut(pooled);
+    }
+
+    // A session taken while the pool was closing goes back for close() to collect
+    private PooledSession checkedOut(PooledSession pooled) {
+        if (closed) {
+            idle.offer(pooled);
+            requireOpen();
+        }
+        return pooled;
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new IllegalStateException("Session pool is closed");
+        }
+    }
+
+    /**
+     * Stop lending sessions, wait up to the borrow timeout for borrowed ones to be returned,
+     * then close every session and its cached producers (sessions still in use are closed under their callers)
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        int returned = 0;
+        try {
+            while (returned < sessions.size()) {
+                long remaining = deadline - System.nanoTime();
+                if (idle.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS) == null) {
+                    break;
+                }
+                returned++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeAll(sessions);
+        idle.clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getSize() {
+        return sessions.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getBorrows() {
+        return borrows.get();
+    }
+
+    public long getWaits() {
+        return waits.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public List<PooledSession> getSessions() {
+        return sessions;
+    }
+
+    private static void closeAll(List<PooledSession> sessions) {
+        for (PooledSession pooled : sessions) {
+            pooled.getProducers().close();
+            try {
+                pooled.getSession().close();
+            } catch (JMSException e) {
+                // Session is being discarded; nothing more to do
+            }
+        }
+    }
+}
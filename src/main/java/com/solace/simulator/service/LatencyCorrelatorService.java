@@ -0,0 +1,292 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.LittleEndian;
+import com.solace.simulator.model.AcpMessageCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for measuring request/reply latency
+ * Requests sent with a JMSReplyTo are recorded with their send time, keyed by the ACP message
+ * transaction ID (bytes 14-21, or 18-25 for the BCS header) or, for non-ACP payloads, by a
+ * JMSCorrelationID (generated when the sender did not set one). Replies on subscribed destinations
+ * are matched by transaction ID first and JMSCorrelationID second.
+ * Latency is kept in HDR histograms per request message code. Pending entries are bounded in number
+ * and expire after the reply timeout, so long soak runs do not grow memory.
+ */
+@Service
+public class LatencyCorrelatorService implements JmsSendListener, JmsReceiveListener {
+
+    public static final String LATENCY_TOPIC = "/topic/latency";
+
+    // Histogram key for requests that are not ACP messages
+    private static final int NON_ACP_CODE = 0;
+    private static final String CORRELATION_PREFIX = "SIM-";
+
+    @Autowired
+    private SolaceJmsService solaceJmsService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${simulator.correlator.enabled:true}")
+    private volatile boolean enabled = true;
+
+    @Value("${simulator.correlator.max-pending:100000}")
+    private int maxPending = 100000;
+
+    @Value("${simulator.correlator.timeout-ms:30000}")
+    private long timeoutMillis = 30000;
+
+    @Value("${simulator.correlator.publish-interval-ms:1000}")
+    private long publishIntervalMillis = 1000;
+
+    private final Map<Long, Pending> pendingByTransactionId = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pendingByCorrelationId = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<Integer, CodeLatency> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong correlationSequence = new AtomicLong();
+
+    private final AtomicLong tracked = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong overflow = new AtomicLong();
+    private final AtomicLong orphans = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private volatile long lastPublishedMatched = -1;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        solaceJmsService.addSendListener(this);
+        solaceJmsService.addReceiveListener(this);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-correlator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(100, Math.min(1000, timeoutMillis / 4));
+        scheduler.scheduleWithFixedDelay(this::expirePending, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        if (publishIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::publish, publishIntervalMillis, publishIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        solaceJmsService.removeSendListener(this);
+        solaceJmsService.removeReceiveListener(this);
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void onSend(Message message, byte[] payload, int length) throws JMSException {
+        if (!enabled || message.getJMSReplyTo() == null) {
+            return;
+        }
+        if (pendingCount.get() >= maxPending) {
+            overflow.incrementAndGet();
+            return;
+        }
+
+        // A request reusing an outstanding ID is not tracked; the reply is matched to the first one
+        Pending previous;
+        ByteBuffer buffer = acpBuffer(payload, length);
+        if (buffer != null) {
+            Pending pending = new Pending(AcpHeader.peekMessageCode(buffer), System.nanoTime());
+            previous = pendingByTransactionId.putIfAbsent(AcpHeader.peekMessageTransactionId(buffer), pending);
+        } else {
+            String correlationId = message.getJMSCorrelationID();
+            if (correlationId == null) {
+                correlationId = CORRELATION_PREFIX + correlationSequence.incrementAndGet();
+                message.setJMSCorrelationID(correlationId);
+            }
+            previous = pendingByCorrelationId.putIfAbsent(correlationId, new Pending(NON_ACP_CODE, System.nanoTime()));
+        }
+        if (previous != null) {
+            duplicates.incrementAndGet();
+            return;
+        }
+        pendingCount.incrementAndGet();
+        tracked.incrementAndGet();
+    }
+
+    @Override
+    public void onMessage(ReceiveEvent event) {
+        if (!enabled) {
+            return;
+        }
+        byte[] payload = event.getPayload();
+
+        Pending pending = null;
+        boolean acpReply = false;
+        ByteBuffer buffer = acpBuffer(payload, payload != null ? payload.length : 0);
+        if (buffer != null) {
+            AcpMessageCode code = AcpMessageCode.fromCode(AcpHeader.peekMessageCode(buffer));
+            if (code.isRequest()) {
+                return; // Requests (including our own looped back) are never replies
+            }
+            acpReply = code.isReply();
+            pending = pendingByTransactionId.remove(AcpHeader.peekMessageTransactionId(buffer));
+        }
+        String correlationId = null;
+        if (pending == null) {
+            correlationId = event.getCorrelationId();
+            if (correlationId != null) {
+                pending = pendingByCorrelationId.remove(correlationId);
+            }
+        }
+
+        if (pending == null) {
+            if (acpReply || correlationId != null) {
+                orphans.incrementAndGet();
+            }
+            return;
+        }
+        pendingCount.decrementAndGet();
+        matched.incrementAndGet();
+        latency(pending.messageCode).latency.record(event.getReceivedNanos() - pending.sendNanos);
+    }
+
+    /**
+     * Drop pending requests older than the reply timeout and count them as timeouts
+     */
+    void expirePending() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        expire(pendingByTransactionId, cutoff);
+        expire(pendingByCorrelationId, cutoff);
+    }
+
+    private <K> void expire(Map<K, Pending> pendingMap, long cutoff) {
+        for (Map.Entry<K, Pending> entry : pendingMap.entrySet()) {
+            Pending pending = entry.getValue();
+            // Conditional remove so a concurrently matched entry is not counted
+            if (pending.sendNanos - cutoff < 0 && pendingMap.remove(entry.getKey(), pending)) {
+                pendingCount.decrementAndGet();
+                latency(pending.messageCode).timeouts.incrementAndGet();
+            }
+        }
+    }
+
+    private void publish() {
+        try {
+            long current = matched.get();
+            if (current == lastPublishedMatched) {
+                return; // Nothing new since the last push
+            }
+            lastPublishedMatched = current;
+            messagingTemplate.convertAndSend(LATENCY_TOPIC, getStats());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("tracked", tracked.get());
+        stats.put("matched", matched.get());
+        stats.put("pending", pendingCount.get());
+        stats.put("maxPending", maxPending);
+        stats.put("overflow", overflow.get());
+        stats.put("orphans", orphans.get());
+        stats.put("duplicates", duplicates.get());
+        stats.put("timeoutMs", timeoutMillis);
+
+        Map<String, Object> byCode = new TreeMap<>();
+        long timeouts = 0;
+        for (Map.Entry<Integer, CodeLatency> entry : latencies.entrySet()) {
+            CodeLatency latency = entry.getValue();
+            timeouts += latency.timeouts.get();
+            String key = entry.getKey() == NON_ACP_CODE ? "NON_ACP" : String.valueOf(entry.getKey());
+            byCode.put(key, latency.snapshot());
+        }
+        stats.put("timeouts", timeouts);
+        stats.put("latencyMicrosByMessageCode", byCode);
+        return stats;
+    }
+
+    /**
+     * Clear histograms and counters; pending requests are kept
+     */
+    public void reset() {
+        latencies.clear();
+        tracked.set(0);
+        matched.set(0);
+        overflow.set(0);
+        orphans.set(0);
+        duplicates.set(0);
+        lastPublishedMatched = -1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private CodeLatency latency(int messageCode) {
+        return latencies.computeIfAbsent(messageCode, code -> new CodeLatency());
+    }
+
+    /**
+     * Little-endian view of the payload if it is an ACP message with a known code, otherwise null
+     */
+    private static ByteBuffer acpBuffer(byte[] payload, int length) {
+        if (payload == null || length <= AcpHeader.STANDARD_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = LittleEndian.order(ByteBuffer.wrap(payload, 0, length).slice());
+        if (length <= AcpHeader.headerSize(LittleEndian.uint8(buffer, AcpHeader.SOURCE_SYSTEM))
+                || AcpMessageCode.fromCode(AcpHeader.peekMessageCode(buffer)) == AcpMessageCode.UNKNOWN) {
+            return null;
+        }
+        return buffer;
+    }
+
+    private static final class Pending {
+        final int messageCode;
+        final long sendNanos;
+
+        Pending(int messageCode, long sendNanos) {
+            this.messageCode = messageCode;
+            this.sendNanos = sendNanos;
+        }
+    }
+
+    /**
+     * Latency recorder and timeout count for one request message code
+     */
+    private static final class CodeLatency {
+        final Distribution latency = new Distribution(1000d);
+        final AtomicLong timeouts = new AtomicLong();
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = latency.snapshot();
+            snapshot.put("timeouts", timeouts.get());
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.model.AcpMessageCode;
+import com.solace.simulator.model.AcpMessageHeader;
+import com.solace.simulator.model.LoadGeneratorRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service for publishing templated ACP request messages at high rate
+ * Each message gets its own message transaction ID, a terminal from a rotating set and
+ * an account number from a configured range; message codes are drawn from a weighted mix.
+ * Runs either paced to a target rate or open-loop at maximum rate on N publisher threads.
+ */
+@Service
+public class LoadGeneratorService {
+
+    private static final int MAX_THREADS = 64;
+
+    // Pause after a failed send, doubled per consecutive failure
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private SolaceJmsService solaceJmsService;
+
+    @Autowired
+    private AcpMessageEncoder acpMessageEncoder;
+
+    private volatile LoadRun currentRun;
+
+    /**
+     * Start a new load run; fails if one is already running
+     */
+    public synchronized void start(LoadGeneratorRequest request) {
+        if (currentRun != null && currentRun.isRunning()) {
+            throw new IllegalStateException("Load generator is already running");
+        }
+        if (!solaceJmsService.isConnected()) {
+            throw new IllegalStateException("Not connected to Solace broker");
+        }
+        validate(request);
+
+        LoadRun run = new LoadRun(request, resolveMix(request.getMessageMix()));
+        currentRun = run;
+        run.start();
+    }
+
+    /**
+     * Stop the current run and wait briefly for publisher threads to finish
+     */
+    public synchronized void stop() {
+        LoadRun run = currentRun;
+        if (run != null) {
+            run.stop();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        LoadRun run = currentRun;
+        if (run == null) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", "IDLE");
+            return status;
+        }
+        return run.status();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    private void validate(LoadGeneratorRequest request) {
+        if (request.getDestination() == null || request.getDestination().trim().isEmpty()) {
+            throw new IllegalArgumentException("Destination is required");
+        }
+        if (request.getThreads() < 1 || request.getThreads() > MAX_THREADS) {
+            throw new IllegalArgumentException("Threads must be between 1 and " + MAX_THREADS);
+        }
+        if (request.getTargetRate() < 0) {
+            throw new IllegalArgumentException("Target rate must not be negative");
+        }
+        if (request.getTerminalCount() < 1) {
+            throw new IllegalArgumentException("Terminal count must be at least 1");
+        }
+        if (request.getAccountCount() < 1) {
+            throw new IllegalArgumentException("Account count must be at least 1");
+        }
+        if (request.getBodySize() < 0) {
+            throw new IllegalArgumentException("Body size must not be negative");
+        }
+    }
+
+    /**
+     * Resolve the message mix into parallel arrays of codes and cumulative weights
+     */
+    private int[][] resolveMix(Map<String, Integer> mix) {
+        List<Integer> codes = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        if (mix == null || mix.isEmpty()) {
+            for (AcpMessageCode code : AcpMessageCode.values()) {
+                if (code.isRequest()) {
+                    codes.add(code.getCode());
+                    weights.add(1);
+                }
+            }
+        } else {
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                int weight = entry.getValue() != null ? entry.getValue() : 1;
+                if (weight <= 0) {
+                    continue;
+                }
+                codes.add(resolveCode(entry.getKey()));
+                weights.add(weight);
+            }
+            if (codes.isEmpty()) {
+                throw new IllegalArgumentException("Message mix must contain at least one positive weight");
+            }
+        }
+
+        int[] codeArray = new int[codes.size()];
+        int[] cumulative = new int[codes.size()];
+        int total = 0;
+        for (int i = 0; i < codeArray.length; i++) {
+            codeArray[i] = codes.get(i);
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        return new int[][]{codeArray, cumulative};
+    }
+
+    private int resolveCode(String key) {
+        String trimmed = key.trim();
+        AcpMessageCode code;
+        try {
+            code = AcpMessageCode.fromCode(Integer.parseInt(trimmed));
+        } catch (NumberFormatException e) {
+            try {
+                code = AcpMessageCode.valueOf(trimmed.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException unknown) {
+                throw new IllegalArgumentException("Unknown message code in mix: " + key);
+            }
+        }
+        if (code == AcpMessageCode.UNKNOWN) {
+            throw new IllegalArgumentException("Unknown message code in mix: " + key);
+        }
+        return code.getCode();
+    }
+
+    /**
+     * A single load generator run with its publisher threads and counters
+     */
+    private class LoadRun {
+        private final LoadGeneratorRequest request;
+        private final int[] mixCodes;
+        private final int[] mixCumulativeWeights;
+        private final String[] terminalIds;
+
+        private final AtomicLong transactionIds;
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Distribution latency = new Distribution(1000d);
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger activePublishers = new AtomicInteger();
+
+        private volatile boolean running;
+        private volatile String lastError;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile String state = "STARTING";
+
+        LoadRun(LoadGeneratorRequest request, int[][] mix) {
+            this.request = request;
+            this.mixCodes = mix[0];
+            this.mixCumulativeWeights = mix[1];
+            this.transactionIds = new AtomicLong(request.getStartTransactionId());
+            this.terminalIds = new String[request.getTerminalCount()];
+            for (int i = 0; i < terminalIds.length; i++) {
+                String number = Integer.toString(i + 1);
+                terminalIds[i] = "LG" + "000000".substring(Math.min(6, number.length())) + number;
+            }
+        }
+
+        void start() {
+            running = true;
+            startNanos = System.nanoTime();
+            state = "RUNNING";
+            activePublishers.set(request.getThreads());
+            for (int i = 0; i < request.getThreads(); i++) {
+                Thread thread = new Thread(this::publishLoop, "acp-load-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        boolean isRunning() {
+            return running;
+        }
+
+        void stop() {
+            if (running) {
+                running = false;
+                finish("STOPPED");
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private synchronized void finish(String finalState) {
+            if (endNanos == 0) {
+                endNanos = System.nanoTime();
+                state = finalState;
+            }
+        }
+
+        private void publishLoop() {
+            int threadCount = request.getThreads();
+            long intervalNanos = request.getTargetRate() > 0
+                    ? (long) (threadCount * 1_000_000_000d / request.getTargetRate())
+                    : 0;
+            long deadline = request.getDurationSeconds() > 0
+                    ? startNanos + TimeUnit.SECONDS.toNanos(request.getDurationSeconds())
+                    : Long.MAX_VALUE;
+
+            AcpMessageHeader header = new AcpMessageHeader();
+            header.setSourceSystemNumber(request.getSourceSystem());
+            header.setDestinationSystemNumber(request.getDestinationSystem());
+            header.setTerminalType(1);
+
+            int bodySize = request.getBodySize();
+            byte[] body = new byte[bodySize];
+            byte[] buffer = new byte[acpMessageEncoder.encodedLength(header, bodySize)];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            long currentSecond = -1;
+            long nextSendNanos = System.nanoTime();
+            long backoffNanos = 0;
+
+            while (running) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                if (request.getMaxMessages() > 0 && issued.getAndIncrement() >= request.getMaxMessages()) {
+                    break;
+                }
+                // Paced latency runs from the scheduled send time, so a stall also counts against
+                // the sends queued up behind it instead of hiding them (coordinated omission)
+                long scheduledNanos = 0;
+                if (intervalNanos > 0) {
+                    scheduledNanos = nextSendNanos;
+                    if (now < nextSendNanos) {
+                        LockSupport.parkNanos(nextSendNanos - now);
+                    }
+                    nextSendNanos += intervalNanos;
+                }
+
+                long second = System.currentTimeMillis() / 1000;
+                if (second != currentSecond) {
+                    currentSecond = second;
+                    header.setDate(AcpMessageEncoder.packDate(LocalDate.now()));
+                    header.setTime(AcpMessageEncoder.packTime(LocalTime.now()));
+                }
+
+                long transactionId = transactionIds.getAndIncrement();
+                int terminal = (int) (transactionId % terminalIds.length);
+                header.setMessageCode(pickCode(random));
+                header.setMessageTransactionId(transactionId);
+                header.setPhysicalTerminalId(terminalIds[terminal]);
+                header.setLogicalTerminalId(100000 + terminal);
+                header.setPositionNumber(terminal % 1000);
+                if (bodySize >= 4) {
+                    long account = request.getAccountBase() + random.nextInt(request.getAccountCount());
+                    AcpMessageEncoder.writeUInt32LE(body, 0, account);
+                }
+                int length = acpMessageEncoder.encode(header, body, bodySize, buffer);
+
+                long sendStart = System.nanoTime();
+                try {
+                    solaceJmsService.sendBytes(request.getDestinationType(), request.getDestination(),
+                            buffer, length, request.getReplyTo(), request.getHeaders());
+                    latency.record(System.nanoTime() - (intervalNanos > 0 ? scheduledNanos : sendStart));
+                    sent.incrementAndGet();
+                    backoffNanos = 0;
+                } catch (IllegalStateException e) {
+                    // Disconnected: no send can succeed until the run is restarted
+                    errors.incrementAndGet();
+                    lastError = e.getMessage();
+                    running = false;
+                    finish("FAILED");
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    lastError = e.getMessage();
+                    backoffNanos = Math.min(Math.max(backoffNanos * 2, MIN_BACKOFF_NANOS), MAX_BACKOFF_NANOS);
+                    LockSupport.parkNanos(backoffNanos);
+                }
+            }
+
+            if (activePublishers.decrementAndGet() == 0) {
+                running = false;
+                finish("COMPLETED");
+            }
+        }
+
+        private int pickCode(ThreadLocalRandom random) {
+            if (mixCodes.length == 1) {
+                return mixCodes[0];
+            }
+            int r = random.nextInt(mixCumulativeWeights[mixCumulativeWeights.length - 1]);
+            for (int i = 0; i < mixCumulativeWeights.length; i++) {
+                if (r < mixCumulativeWeights[i]) {
+                    return mixCodes[i];
+                }
+            }
+            return mixCodes[mixCodes.length - 1];
+        }
+
+        Map<String, Object> status() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            double elapsedSeconds = (end - startNanos) / 1_000_000_000d;
+            long sentCount = sent.get();
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", state);
+            status.put("destination", request.getDestination());
+            status.put("destinationType", request.getDestinationType());
+            status.put("threads", request.getThreads());
+            status.put("targetRate", request.getTargetRate() > 0 ? request.getTargetRate() : "max");
+            status.put("elapsedSeconds", elapsedSeconds);
+            status.put("sent", sentCount);
+            status.put("errors", errors.get());
+            status.put("achievedRate", elapsedSeconds > 0 ? sentCount / elapsedSeconds : 0);
+            status.put("sendLatencyMicros", latency.snapshot());
+            status.put("latencyFrom", request.getTargetRate() > 0 ? "scheduled" : "send");
+            if (lastError != null) {
+                status.put("lastError", lastError);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.LittleEndian;
+import com.solace.simulator.codec.RawFrame;
+import com.solace.simulator.model.ReceivedMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for pushing received messages to the UI in batches
+ * Messages are queued by the JMS listener with the STOMP destinations that want them (see
+ * {@link MessageRoutingService}) and sent as a JSON array, one STOMP frame per destination and batch,
+ * every flush interval or as soon as a full batch is queued, whichever comes first.
+ * Binary destinations get the batch as one application/octet-stream frame of {@link RawFrame} records;
+ * the JMS destination names behind their destination IDs are listed by {@link #getDestinationIds()}.
+ * The queue is bounded; messages arriving while it is full are dropped from the UI only.
+ */
+@Service
+public class MessageBroadcastService {
+
+    public static final String MESSAGES_TOPIC = "/topic/messages";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${simulator.websocket.batch.max-size:200}")
+    private int maxBatchSize = 200;
+
+    @Value("${simulator.websocket.batch.flush-interval-ms:50}")
+    private long flushIntervalMillis = 50;
+
+    @Value("${simulator.websocket.batch.max-pending:10000}")
+    private int maxPending = 10000;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Set while a size-triggered flush is queued on the scheduler, so bursts submit it once
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong binaryBatches = new AtomicLong();
+    private final AtomicLong binaryBytes = new AtomicLong();
+    private final Distribution batchSizes = new Distribution(1);
+    private final Distribution latencyNanos = new Distribution(1000);
+
+    // Binary frame destination IDs, assigned on first use and never reused
+    private final Map<String, Integer> destinationIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextDestinationId = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Queue a received message for the next /topic/messages batch
+     */
+    public void publish(ReceivedMessage message) {
+        publish(message, List.of(MESSAGES_TOPIC));
+    }
+
+    /**
+     * Queue a received message for the next batch of each of the given STOMP destinations
+     */
+    public void publish(ReceivedMessage message, List<String> destinations) {
+        published.incrementAndGet();
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.add(new Pending(message, destinations, System.nanoTime()));
+        if (pendingCount.get() >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Send everything queued, per destination in batches of at most the maximum batch size
+     * (runs on the scheduler thread)
+     */
+    void flush() {
+        flushRequested.set(false);
+        try {
+            Map<String, Batch> byDestination = new LinkedHashMap<>();
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                pendingCount.decrementAndGet();
+                for (String destination : pending.destinations) {
+                    Batch batch = byDestination.computeIfAbsent(destination, Batch::new);
+                    batch.add(pending);
+                    if (batch.messages.size() == maxBatchSize) {
+                        send(byDestination.remove(destination));
+                    }
+                }
+            }
+            for (Batch batch : byDestination.values()) {
+                send(batch);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void send(Batch batch) {
+        try {
+            if (MessageRoutingService.isBinary(batch.destination)) {
+                byte[] frame = encode(batch.messages);
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+                accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+                accessor.setLeaveMutable(true);
+                messagingTemplate.send(batch.destination, MessageBuilder.createMessage(frame, accessor.getMessageHeaders()));
+                binaryBatches.incrementAndGet();
+                binaryBytes.addAndGet(frame.length);
+            } else {
+                messagingTemplate.convertAndSend(batch.destination, batch.messages);
+            }
+            sent.addAndGet(batch.messages.size());
+            batches.incrementAndGet();
+            batchSizes.record(batch.messages.size());
+            latencyNanos.record(System.nanoTime() - batch.oldestNanos);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Binary frame of the given messages, one {@link RawFrame} record each
+     */
+    byte[] encode(List<ReceivedMessage> messages) {
+        int size = 0;
+        for (ReceivedMessage message : messages) {
+            size += RawFrame.size(message.getPayload());
+        }
+        ByteBuffer frame = LittleEndian.order(ByteBuffer.allocate(size));
+        for (ReceivedMessage message : messages) {
+            RawFrame.write(frame, destinationId(message.getDestination()), type(message.getMessageType()),
+                    message.getTimestampNanos() / 1_000_000, message.getPayload());
+        }
+        return frame.array();
+    }
+
+    private int destinationId(String destination) {
+        if (destination == null) {
+            return RawFrame.UNKNOWN_DESTINATION;
+        }
+        Integer id = destinationIds.get(destination);
+        return id != null ? id : destinationIds.computeIfAbsent(destination, key -> nextDestinationId.getAndIncrement());
+    }
+
+    private static int type(String messageType) {
+        if ("BYTE".equals(messageType)) {
+            return RawFrame.TYPE_BYTES;
+        }
+        return "TEXT".equals(messageType) ? RawFrame.TYPE_TEXT : RawFrame.TYPE_OTHER;
+    }
+
+    /**
+     * JMS destination per binary frame destination ID
+     */
+    public Map<Integer, String> getDestinationIds() {
+        Map<Integer, String> names = new TreeMap<>();
+        destinationIds.forEach((name, id) -> names.put(id, name));
+        return names;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("published", published.get());
+        stats.put("sent", sent.get());
+        stats.put("batches", batches.get());
+        stats.put("pending", pendingCount.get());
+        stats.put("dropped", dropped.get());
+        stats.put("errors", errors.get());
+        stats.put("binaryBatches", binaryBatches.get());
+        stats.put("binaryBytes", binaryBytes.get());
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("flushIntervalMs", flushIntervalMillis);
+        stats.put("maxPending", maxPending);
+        stats.put("batchSize", batchSizes.snapshot());
+        // Time the oldest message of each batch spent queued
+        stats.put("latencyMicros", latencyNanos.snapshot());
+        return stats;
+    }
+
+    private static final class Pending {
+        final ReceivedMessage message;
+        final List<String> destinations;
+        final long queuedNanos;
+
+        Pending(ReceivedMessage message, List<String> destinations, long queuedNanos) {
+            this.message = message;
+            this.destinations = destinations;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+
+    /**
+     * Messages for one STOMP destination, sent as one frame
+     */
+    private static final class Batch {
+        final String destination;
+        final List<ReceivedMessage> messages = new ArrayList<>();
+        long oldestNanos;
+
+        Batch(String destination) {
+            this.destination = destination;
+        }
+
+        void add(Pending pending) {
+            if (messages.isEmpty()) {
+                oldestNanos = pending.queuedNanos;
+            }
+            messages.add(pending.message);
+        }
+    }
+}
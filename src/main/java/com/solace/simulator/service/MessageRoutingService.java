@@ -0,0 +1,286 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFilter;
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.LittleEndian;
+import com.solace.simulator.codec.RawFrame;
+import com.solace.simulator.model.AcpMessageCode;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service deciding which STOMP destinations a received JMS message is pushed to
+ * Browsers subscribe to /topic/messages (everything), /topic/messages/{destination} (one JMS
+ * subscription), /topic/acp (ACP messages) or /topic/acp/{messageCode}, optionally with a
+ * {@code filter} header such as {@code code=2600-2699;reply!=0} (see {@link AcpFilter}).
+ * A filtered subscription is moved to its own broker destination ("{destination}#{filter}") so the
+ * broker only delivers messages that passed the filter. Routes are evaluated against the raw bytes;
+ * a message no route wants is never converted for the UI.
+ * A {@code format: binary} header asks for raw bytes in binary frames (see {@link RawFrame}) instead of
+ * JSON; such subscriptions get their own broker destination ending in {@value #BINARY_SUFFIX}. Binary
+ * frames need a plain WebSocket connection (/ws/websocket), as SockJS transports only carry text.
+ */
+@Service
+public class MessageRoutingService implements ChannelInterceptor {
+
+    public static final String FILTER_HEADER = "filter";
+    public static final String FORMAT_HEADER = "format";
+    public static final String BINARY_SUFFIX = "#binary";
+
+    private static final String MESSAGES_TOPIC = MessageBroadcastService.MESSAGES_TOPIC;
+    private static final String ACP_TOPIC = "/topic/acp";
+
+    // Route per broker destination, with its subscriber count; guarded by this
+    private final Map<String, Route> routes = new HashMap<>();
+    // Broker destination per session and subscription ID; guarded by this
+    private final Map<String, Map<String, String>> subscriptions = new HashMap<>();
+    private volatile Route[] activeRoutes = new Route[0];
+
+    private final AtomicLong routed = new AtomicLong();
+    private final AtomicLong unrouted = new AtomicLong();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.SUBSCRIBE) {
+            String brokerDestination = addSubscription(accessor.getSessionId(), accessor.getSubscriptionId(),
+                    accessor.getDestination(), accessor.getFirstNativeHeader(FILTER_HEADER),
+                    isBinaryFormat(accessor.getFirstNativeHeader(FORMAT_HEADER)));
+            if (brokerDestination != null && !brokerDestination.equals(accessor.getDestination())) {
+                accessor.setDestination(brokerDestination);
+                return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+            }
+        } else if (command == StompCommand.UNSUBSCRIBE) {
+            removeSubscription(accessor.getSessionId(), accessor.getSubscriptionId());
+        } else if (command == StompCommand.DISCONNECT) {
+            removeSession(accessor.getSessionId());
+        }
+        return message;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    /**
+     * Whether a broker destination returned by {@link #route} wants binary frames
+     */
+    public static boolean isBinary(String brokerDestination) {
+        return brokerDestination.endsWith(BINARY_SUFFIX);
+    }
+
+    /**
+     * @throws IllegalArgumentException for formats other than json and binary
+     */
+    static boolean isBinaryFormat(String format) {
+        if (format == null || format.isBlank() || format.trim().equalsIgnoreCase("json")) {
+            return false;
+        }
+        if (format.trim().equalsIgnoreCase("binary")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown format '" + format.trim().toLowerCase(Locale.ROOT)
+                + "' (expected json or binary)");
+    }
+
+    String addSubscription(String sessionId, String subscriptionId, String destination, String filterExpression) {
+        return addSubscription(sessionId, subscriptionId, destination, filterExpression, false);
+    }
+
+    /**
+     * Register a subscription to a routed destination
+     * @param filterExpression AcpFilter expression, null or blank for none
+     * @param binary whether the subscriber wants raw bytes in binary frames rather than JSON
+     * @return the broker destination to subscribe to, or null if the destination is not routed here
+     * @throws IllegalArgumentException if the filter expression is invalid
+     */
+    synchronized String addSubscription(String sessionId, String subscriptionId, String destination,
+                                        String filterExpression, boolean binary) {
+        if (destination == null || sessionId == null || subscriptionId == null) {
+            return null;
+        }
+        AcpFilter filter = filterExpression == null || filterExpression.isBlank() ? null : AcpFilter.parse(filterExpression);
+        Route template = Route.forDestination(destination, filter, binary);
+        if (template == null) {
+            return null;
+        }
+        removeSubscription(sessionId, subscriptionId);
+        Route route = routes.computeIfAbsent(template.brokerDestination, key -> template);
+        route.subscribers++;
+        subscriptions.computeIfAbsent(sessionId, key -> new HashMap<>()).put(subscriptionId, route.brokerDestination);
+        publishRoutes();
+        return route.brokerDestination;
+    }
+
+    synchronized void removeSubscription(String sessionId, String subscriptionId) {
+        Map<String, String> session = subscriptions.get(sessionId);
+        String brokerDestination = session != null ? session.remove(subscriptionId) : null;
+        if (brokerDestination != null) {
+            release(brokerDestination);
+            if (session.isEmpty()) {
+                subscriptions.remove(sessionId);
+            }
+            publishRoutes();
+        }
+    }
+
+    synchronized void removeSession(String sessionId) {
+        Map<String, String> session = sessionId != null ? subscriptions.remove(sessionId) : null;
+        if (session != null) {
+            session.values().forEach(this::release);
+            publishRoutes();
+        }
+    }
+
+    private void release(String brokerDestination) {
+        Route route = routes.get(brokerDestination);
+        if (route != null && --route.subscribers <= 0) {
+            routes.remove(brokerDestination);
+        }
+    }
+
+    private void publishRoutes() {
+        activeRoutes = routes.values().toArray(new Route[0]);
+    }
+
+    /**
+     * Broker destinations that want a message received on a JMS subscription
+     * @param payload message bytes, null for text messages
+     * @return destinations to push the message to, empty if nobody wants it
+     */
+    public List<String> route(String jmsDestination, byte[] payload) {
+        Route[] current = activeRoutes;
+        List<String> destinations = null;
+        int messageCode = -2; // Not read yet
+        for (Route route : current) {
+            boolean wanted;
+            switch (route.kind) {
+                case ALL:
+                    wanted = true;
+                    break;
+                case DESTINATION:
+                    wanted = route.value.equals(jmsDestination);
+                    break;
+                default:
+                    if (messageCode == -2) {
+                        messageCode = acpMessageCode(payload);
+                    }
+                    wanted = messageCode >= 0 && (route.kind == Kind.ACP || route.code == messageCode);
+                    break;
+            }
+            if (wanted && (route.filter == null || route.filter.matches(payload, payload != null ? payload.length : 0))) {
+                if (destinations == null) {
+                    destinations = new ArrayList<>(current.length);
+                }
+                destinations.add(route.brokerDestination);
+                route.matched.incrementAndGet();
+            }
+        }
+        if (destinations == null) {
+            unrouted.incrementAndGet();
+            return Collections.emptyList();
+        }
+        routed.incrementAndGet();
+        return destinations;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("routed", routed.get());
+        stats.put("unrouted", unrouted.get());
+        List<Map<String, Object>> routeStats = new ArrayList<>();
+        synchronized (this) {
+            for (Route route : routes.values()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("destination", route.brokerDestination);
+                entry.put("filter", route.filter != null ? route.filter.toString() : null);
+                entry.put("binary", route.binary);
+                entry.put("subscribers", route.subscribers);
+                entry.put("matched", route.matched.get());
+                routeStats.add(entry);
+            }
+        }
+        stats.put("routes", routeStats);
+        return stats;
+    }
+
+    /**
+     * Message code of a known ACP message, or -1
+     */
+    private static int acpMessageCode(byte[] payload) {
+        if (payload == null || payload.length <= AcpHeader.STANDARD_SIZE) {
+            return -1;
+        }
+        int code = AcpHeader.peekMessageCode(LittleEndian.order(ByteBuffer.wrap(payload)));
+        return AcpMessageCode.fromCode(code) != AcpMessageCode.UNKNOWN ? code : -1;
+    }
+
+    private enum Kind {
+        ALL, DESTINATION, ACP, ACP_CODE
+    }
+
+    private static final class Route {
+        final Kind kind;
+        final String value;
+        final int code;
+        final AcpFilter filter;
+        final boolean binary;
+        final String brokerDestination;
+        final AtomicLong matched = new AtomicLong();
+        int subscribers;
+
+        private Route(Kind kind, String value, int code, AcpFilter filter, boolean binary, String destination) {
+            this.kind = kind;
+            this.value = value;
+            this.code = code;
+            this.filter = filter;
+            this.binary = binary;
+            this.brokerDestination = (filter == null ? destination : destination + "#" + filter)
+                    + (binary ? BINARY_SUFFIX : "");
+        }
+
+        /**
+         * Route for a subscribed STOMP destination, or null if it is not one of the routed topics
+         */
+        static Route forDestination(String destination, AcpFilter filter, boolean binary) {
+            if (destination.equals(MESSAGES_TOPIC)) {
+                return new Route(Kind.ALL, null, -1, filter, binary, destination);
+            }
+            if (destination.startsWith(MESSAGES_TOPIC + "/") && destination.length() > MESSAGES_TOPIC.length() + 1) {
+                return new Route(Kind.DESTINATION, destination.substring(MESSAGES_TOPIC.length() + 1), -1,
+                        filter, binary, destination);
+            }
+            if (destination.equals(ACP_TOPIC)) {
+                return new Route(Kind.ACP, null, -1, filter, binary, destination);
+            }
+            if (destination.startsWith(ACP_TOPIC + "/")) {
+                try {
+                    int code = Integer.parseInt(destination.substring(ACP_TOPIC.length() + 1));
+                    return new Route(Kind.ACP_CODE, null, code, filter, binary, destination);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.solace.simulator.service;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of JMS destinations and message producers for one session.
+ * Entries are keyed by destination type plus name (e.g. "TOPIC:acp/request", "QUEUE:reply.q").
+ *
+ * In the default mode one producer is bound per destination and closed when evicted.
+ * In anonymous mode a single unbound producer is shared and only destinations are cached;
+ * messages are then sent with {@code send(destination, message)}.
+ */
+public class ProducerCache {
+
+    private final Session session;
+    private final int maxSize;
+    private final boolean anonymous;
+
+    private final Map<String, Destination> destinations;
+    private final Map<String, MessageProducer> producers;
+    private MessageProducer anonymousProducer;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProducerCache(Session session, int maxSize, boolean anonymous) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Producer cache size must be at least 1");
+        }
+        this.session = session;
+        this.maxSize = maxSize;
+        this.anonymous = anonymous;
+        this.destinations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Destination> eldest) {
+                if (size() > ProducerCache.this.maxSize) {
+                    if (ProducerCache.this.anonymous) {
+                        evictions.incrementAndGet();
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.producers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MessageProducer> eldest) {
+                if (size() > ProducerCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Send a message to the destination identified by type and name,
+     * reusing a cached producer (or the anonymous producer) where possible
+     */
+    public synchronized void send(String destinationType, String destinationName, Message message) throws JMSException {
+        if (anonymous) {
+            Destination destination = lookupDestination(destinationType, destinationName, true);
+            if (anonymousProducer == null) {
+                anonymousProducer = session.createProducer(null);
+            }
+            anonymousProducer.send(destination, message);
+            return;
+        }
+
+        String key = key(destinationType, destinationName);
+        MessageProducer producer = producers.get(key);
+        if (producer != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            producer = session.createProducer(lookupDestination(destinationType, destinationName, false));
+            producers.put(key, producer);
+        }
+        producer.send(message);
+    }
+
+    /**
+     * Send a message to a destination object received from the broker (e.g. a JMSReplyTo,
+     * possibly a temporary queue) through the shared unbound producer
+     */
+    public synchronized void send(Destination destination, Message message) throws JMSException {
+        if (anonymousProducer == null) {
+            anonymousProducer = session.createProducer(null);
+        }
+        anonymousProducer.send(destination, message);
+    }
+
+    /**
+     * Resolve a destination through the cache without creating a producer for it
+     * (used for JMSReplyTo destinations)
+     */
+    public synchronized Destination getDestination(String destinationType, String destinationName) throws JMSException {
+        return lookupDestination(destinationType, destinationName, anonymous);
+    }
+
+    private Destination lookupDestination(String destinationType, String destinationName, boolean count) throws JMSException {
+        String key = key(destinationType, destinationName);
+        Destination destination = destinations.get(key);
+        if (destination != null) {
+            if (count) {
+                hits.incrementAndGet();
+            }
+            return destination;
+        }
+        if (count) {
+            misses.incrementAndGet();
+        }
+        if ("QUEUE".equalsIgnoreCase(destinationType)) {
+            destination = session.createQueue(destinationName);
+        } else {
+            destination = session.createTopic(destinationName);
+        }
+        destinations.put(key, destination);
+        return destination;
+    }
+
+    /**
+     * Close all cached producers and drop cached destinations
+     */
+    public synchronized void close() {
+        for (MessageProducer producer : producers.values()) {
+            closeQuietly(producer);
+        }
+        producers.clear();
+        destinations.clear();
+        if (anonymousProducer != null) {
+            closeQuietly(anonymousProducer);
+            anonymousProducer = null;
+        }
+    }
+
+    public synchronized int size() {
+        return anonymous ? destinations.size() : producers.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isAnonymous() {
+        return anonymous;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static String key(String destinationType, String destinationName) {
+        return ("QUEUE".equalsIgnoreCase(destinationType) ? "QUEUE:" : "TOPIC:") + destinationName;
+    }
+
+    private static void closeQuietly(MessageProducer producer) {
+        try {
+            producer.close();
+        } catch (JMSException e) {
+            // Producer is being discarded; nothing more to do
+        }
+    }
+}
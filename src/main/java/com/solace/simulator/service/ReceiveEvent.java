@@ -0,0 +1,90 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.journal.JournalRecord;
+
+import javax.jms.Destination;
+
+/**
+ * Ring slot for a received JMS message: what the JMS listener copied before handing it over
+ * The JMS message itself is never stored, so stages on other threads do not read it concurrently
+ * and slots do not keep messages alive. Slots are reused; stages must not keep a reference to the slot itself.
+ */
+public class ReceiveEvent {
+
+    private String destination;
+    private int type;
+    private String text;
+    private String[] properties;
+    private Destination replyTo;
+    private String correlationId;
+    private String messageId;
+    private byte[] payload;
+    private long receivedNanos;
+
+    void set(String destination, int type, String text, String[] properties, Destination replyTo,
+             String correlationId, String messageId, byte[] payload, long receivedNanos) {
+        this.destination = destination;
+        this.type = type;
+        this.text = text;
+        this.properties = properties;
+        this.replyTo = replyTo;
+        this.correlationId = correlationId;
+        this.messageId = messageId;
+        this.payload = payload;
+        this.receivedNanos = receivedNanos;
+    }
+
+    /**
+     * The subscribed destination name
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * {@link JournalRecord#TYPE_BYTES}, TYPE_TEXT or TYPE_OTHER
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Text of a TextMessage, null for other message types
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * String properties as name/value pairs, null when there are none
+     */
+    public String[] getProperties() {
+        return properties;
+    }
+
+    public Destination getReplyTo() {
+        return replyTo;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Body bytes of a BytesMessage, or null for other message types
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * System.nanoTime() when the JMS listener was called
+     */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+}
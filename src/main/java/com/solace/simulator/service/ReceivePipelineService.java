@@ -0,0 +1,159 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.ReceivedMessage;
+import com.solace.simulator.pipeline.EventHandler;
+import com.solace.simulator.pipeline.RingBuffer;
+import com.solace.simulator.pipeline.StageProcessor;
+import com.solace.simulator.pipeline.WaitStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.jms.BytesMessage;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service decoupling the JMS dispatcher thread from the processing of received messages
+ * The consumer listener only copies the body and metadata into a slot of a pre-allocated ring
+ * ({@link RingBuffer}); stages registered with {@link #addStage} (internal listeners, WebSocket
+ * fan-out, ...) each run on their own thread. A slow stage only holds back the broker once the ring
+ * is full. With {@code simulator.pipeline.enabled=false} stages run inline on the dispatcher thread.
+ */
+@Service
+public class ReceivePipelineService {
+
+    @Value("${simulator.pipeline.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${simulator.pipeline.ring-size:8192}")
+    private int ringSize = 8192;
+
+    @Value("${simulator.pipeline.wait-strategy:park}")
+    private String waitStrategyName = "park";
+
+    private RingBuffer<ReceiveEvent> ring;
+    // Guarded by this
+    private final Map<String, StageProcessor<ReceiveEvent>> stages = new LinkedHashMap<>();
+    // Handlers in registration order, for inline mode
+    private volatile List<EventHandler<ReceiveEvent>> handlers = List.of();
+    private volatile long inlineProcessed;
+
+    @PostConstruct
+    public void init() {
+        ring = new RingBuffer<>(ringSize, ReceiveEvent::new, WaitStrategy.parse(waitStrategyName));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        stages.values().forEach(StageProcessor::halt);
+    }
+
+    /**
+     * Register a stage; it sees every message received from now on
+     * @param after names of stages that must be done with a message before this one gets it
+     * @throws IllegalArgumentException for duplicate names or unknown upstream stages
+     */
+    public synchronized void addStage(String name, EventHandler<ReceiveEvent> handler, String... after) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate pipeline stage: " + name);
+        }
+        List<StageProcessor<ReceiveEvent>> upstream = new ArrayList<>(after.length);
+        for (String upstreamName : after) {
+            StageProcessor<ReceiveEvent> stage = stages.get(upstreamName);
+            if (stage == null) {
+                throw new IllegalArgumentException("Unknown pipeline stage: " + upstreamName);
+            }
+            upstream.add(stage);
+        }
+        StageProcessor<ReceiveEvent> stage = new StageProcessor<>(name, ring, handler, upstream);
+        stages.put(name, stage);
+        List<EventHandler<ReceiveEvent>> updated = new ArrayList<>(handlers);
+        updated.add(handler);
+        handlers = List.copyOf(updated);
+        if (enabled) {
+            stage.start();
+        }
+    }
+
+    /**
+     * Hand a received message to the stages
+     * Called by the consumers' session dispatcher thread only (single producer). The text, string
+     * properties, JMSReplyTo, JMSCorrelationID and JMSMessageID are copied here, on the dispatcher
+     * thread; the message itself is not handed on.
+     * @param message the received message, may be null
+     * @param payload body bytes of a BytesMessage, or null; owned by the pipeline from now on
+     */
+    public void publish(String destination, Message message, byte[] payload, long receivedNanos) throws JMSException {
+        int type = JournalRecord.TYPE_OTHER;
+        String text = null;
+        String[] properties = null;
+        Destination replyTo = null;
+        String correlationId = null;
+        String messageId = null;
+        if (message instanceof TextMessage) {
+            type = JournalRecord.TYPE_TEXT;
+            text = ((TextMessage) message).getText();
+        } else if (message instanceof BytesMessage || payload != null) {
+            type = JournalRecord.TYPE_BYTES;
+        }
+        if (message != null) {
+            properties = ReceivedMessage.properties(message);
+            replyTo = message.getJMSReplyTo();
+            correlationId = message.getJMSCorrelationID();
+            messageId = message.getJMSMessageID();
+        }
+
+        if (!enabled) {
+            ReceiveEvent event = new ReceiveEvent();
+            event.set(destination, type, text, properties, replyTo, correlationId, messageId, payload, receivedNanos);
+            for (EventHandler<ReceiveEvent> handler : handlers) {
+                try {
+                    handler.onEvent(event, inlineProcessed, true);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            inlineProcessed++;
+            return;
+        }
+        long sequence = ring.next();
+        ring.get(sequence).set(destination, type, text, properties, replyTo, correlationId, messageId,
+                payload, receivedNanos);
+        ring.publish(sequence);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ringSize", ring.getSize());
+        stats.put("waitStrategy", ring.getWaitStrategy().name());
+        stats.put("published", enabled ? ring.getCursor().get() + 1 : inlineProcessed);
+        // Times the listener had to wait for the slowest stage
+        stats.put("fullWaits", ring.getFullWaits());
+        List<Map<String, Object>> stageStats = new ArrayList<>();
+        synchronized (this) {
+            for (StageProcessor<ReceiveEvent> stage : stages.values()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", stage.getName());
+                entry.put("after", stage.getUpstreamNames());
+                entry.put("sequence", stage.getSequence().get());
+                entry.put("lag", stage.getLag());
+                entry.put("processed", stage.getProcessed());
+                entry.put("errors", stage.getErrors());
+                stageStats.add(entry);
+            }
+        }
+        stats.put("stages", stageStats);
+        return stats;
+    }
+}
@@ -0,0 +1,185 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFilter;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.journal.RecordRing;
+import com.solace.simulator.model.ReceivedMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service keeping the most recently received messages in memory so browsers can catch up over REST
+ * Messages are held as raw records in a {@link RecordRing} bounded by {@code simulator.recent.max-bytes},
+ * keyed by their receive pipeline sequence. The "recent" pipeline stage runs before the WebSocket
+ * stage, so every message a browser gets live is already here: a client that pages with
+ * {@link #page} from its last sequence and then continues with the live stream sees no gaps or duplicates.
+ */
+@Service
+public class RecentMessageService {
+
+    private static final int MAX_PAGE_LIMIT = 5000;
+    // Records looked at per page when a filter skips most of them; the page's next cursor resumes the scan
+    private static final int MAX_SCAN = 100_000;
+
+    @Autowired
+    private ReceivePipelineService receivePipeline;
+
+    @Value("${simulator.recent.max-bytes:16777216}")
+    private int maxBytes = 16 * 1024 * 1024;
+
+    private RecordRing ring;
+    // Only touched by the pipeline stage thread
+    private ByteBuffer scratch = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    private long errors;
+
+    @PostConstruct
+    public void init() {
+        if (maxBytes <= 0) {
+            return;
+        }
+        ring = new RecordRing(maxBytes);
+        receivePipeline.addStage("recent", (event, sequence, endOfBatch) -> record(event, sequence));
+    }
+
+    private void record(ReceiveEvent event, long sequence) {
+        int type = event.getType();
+        byte[] payload = event.getPayload();
+        if (type == JournalRecord.TYPE_TEXT) {
+            payload = event.getText() != null ? event.getText().getBytes(StandardCharsets.UTF_8) : null;
+        }
+        try {
+            ByteBuffer metadata = encodeMetadata(event.getDestination(), event.getProperties());
+            synchronized (this) {
+                ring.append(sequence, type, ReceivedMessage.epochNanos(event.getReceivedNanos()),
+                        metadata, payload, payload != null ? payload.length : 0);
+            }
+        } catch (Exception e) {
+            // The sequence is still taken, so the ring restarts at the next message rather than leaving a hole
+            synchronized (this) {
+                errors++;
+                ring.clear();
+            }
+            e.printStackTrace();
+        }
+    }
+
+    private ByteBuffer encodeMetadata(String destination, String[] properties) {
+        byte[] name = destination != null ? destination.getBytes(StandardCharsets.UTF_8) : null;
+        while (true) {
+            scratch.clear();
+            try {
+                JournalRecord.writeMetadata(scratch, name, properties);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+    /**
+     * Received messages after a sequence, oldest first
+     * @param afterSequence sequence of the last message the client has, -1 for everything held
+     * @param filterExpression {@link AcpFilter} expression, null or blank for none
+     * @return messages, next (the sequence to page from), oldest and latest held, and missed when
+     *         messages after afterSequence have already been evicted
+     * @throws IllegalArgumentException for a bad limit or filter
+     */
+    public Map<String, Object> page(long afterSequence, int limit, String filterExpression) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        AcpFilter filter = filterExpression == null || filterExpression.isBlank() ? null : AcpFilter.parse(filterExpression);
+        List<ReceivedMessage> messages = new ArrayList<>();
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (ring == null) {
+            response.put("messages", messages);
+            response.put("next", afterSequence);
+            return response;
+        }
+        // Records are copied out under the lock and decoded and filtered after it is released,
+        // so a page never holds up the pipeline stage appending to the ring
+        long cursor = afterSequence;
+        long first = 0;
+        long latest = 0;
+        int scanned = 0;
+        JournalRecord record = new JournalRecord();
+        while (messages.size() < limit && scanned < MAX_SCAN) {
+            ByteBuffer records;
+            synchronized (this) {
+                if (scanned == 0) {
+                    first = ring.getFirstSequence();
+                    latest = ring.getLastSequence();
+                }
+                records = ring.copy(cursor, Math.min(limit - messages.size(), MAX_SCAN - scanned));
+            }
+            if (!records.hasRemaining()) {
+                break;
+            }
+            for (int offset = 0; offset < records.limit(); offset += record.length()) {
+                record.wrap(records, offset);
+                scanned++;
+                cursor = record.sequence();
+                ReceivedMessage message = toMessage(record);
+                byte[] payload = message.getPayload();
+                if (filter == null || filter.matches(payload, payload != null ? payload.length : 0)) {
+                    messages.add(message);
+                }
+            }
+        }
+        response.put("messages", messages);
+        response.put("next", Math.max(cursor, afterSequence));
+        response.put("oldest", first);
+        response.put("latest", latest);
+        if (afterSequence + 1 < first) {
+            response.put("missed", first - afterSequence - 1);
+        }
+        return response;
+    }
+
+    private static ReceivedMessage toMessage(JournalRecord record) {
+        ReceivedMessage message = new ReceivedMessage();
+        message.setSequence(record.sequence());
+        message.setDestination(record.destination());
+        message.setTimestampNanos(record.timestampNanos());
+        message.setHeaders(record.properties());
+        if (record.type() == JournalRecord.TYPE_TEXT) {
+            message.setMessageType("TEXT");
+            message.setText(new String(record.payload(), StandardCharsets.UTF_8));
+        } else if (record.type() == JournalRecord.TYPE_BYTES) {
+            message.setMessageType("BYTE");
+            message.setPayload(record.payload());
+        }
+        return message;
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", ring != null);
+        if (ring != null) {
+            stats.put("capacityBytes", ring.getCapacity());
+            stats.put("usedBytes", ring.getUsedBytes());
+            stats.put("messages", ring.getCount());
+            stats.put("oldest", ring.getFirstSequence());
+            stats.put("latest", ring.getLastSequence());
+            stats.put("evicted", ring.getEvicted());
+            stats.put("truncated", ring.getTruncated());
+            stats.put("errors", errors);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,472 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.journal.CaptureJournal;
+import com.solace.simulator.journal.JournalReader;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.MessageRequest;
+import com.solace.simulator.model.ReplayRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service for replaying captured traffic (a capture journal directory) through {@link SolaceJmsService}
+ * Records are streamed from the memory-mapped segments and sent with their recorded spacing, scaled
+ * by a speed factor, or back to back at maximum rate. One reader thread reads the capture once and
+ * partitions destinations over N lane threads, so every destination keeps its recorded order. ACP message
+ * transaction IDs and header dates can be rewritten on the way out.
+ */
+@Service
+public class ReplayService {
+
+    private static final int MAX_LANES = 64;
+    // Records read ahead per lane
+    private static final int LANE_QUEUE_SIZE = 1024;
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private SolaceJmsService solaceJmsService;
+
+    @Autowired
+    private CaptureJournalService captureJournalService;
+
+    private volatile ReplayRun currentRun;
+
+    /**
+     * Start a new replay; fails if one is already running
+     * The capture is read on the replay's own threads; a run with no records to replay ends as FAILED.
+     */
+    public synchronized void start(ReplayRequest request) {
+        if (currentRun != null && currentRun.isRunning()) {
+            throw new IllegalStateException("Replay is already running");
+        }
+        if (!solaceJmsService.isConnected()) {
+            throw new IllegalStateException("Not connected to Solace broker");
+        }
+        int direction = validate(request);
+        Path directory = resolveDirectory(request.getDirectory());
+
+        ReplayRun run = new ReplayRun(request, directory, direction);
+        currentRun = run;
+        run.start();
+    }
+
+    /**
+     * Stop the current replay and wait briefly for its lanes to finish
+     */
+    public synchronized void stop() {
+        ReplayRun run = currentRun;
+        if (run != null) {
+            run.stop();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        ReplayRun run = currentRun;
+        if (run == null) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", "IDLE");
+            return status;
+        }
+        return run.status();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    /**
+     * @return the journal direction to replay, -1 for all
+     */
+    private int validate(ReplayRequest request) {
+        if (request.getLanes() < 1 || request.getLanes() > MAX_LANES) {
+            throw new IllegalArgumentException("Lanes must be between 1 and " + MAX_LANES);
+        }
+        if (request.getSpeed() < 0) {
+            throw new IllegalArgumentException("Speed must not be negative");
+        }
+        if (request.getFromSequence() < 0) {
+            throw new IllegalArgumentException("From sequence must not be negative");
+        }
+        String direction = request.getDirection() != null ? request.getDirection().trim().toUpperCase(Locale.ROOT) : "SENT";
+        switch (direction) {
+            case "SENT":
+                return JournalRecord.SENT;
+            case "RECEIVED":
+                return JournalRecord.RECEIVED;
+            case "ALL":
+                return -1;
+            default:
+                throw new IllegalArgumentException("Unknown direction: " + request.getDirection()
+                        + " (expected SENT, RECEIVED or ALL)");
+        }
+    }
+
+    private Path resolveDirectory(String directory) {
+        if (directory == null || directory.trim().isEmpty()) {
+            CaptureJournal journal = captureJournalService.getJournal();
+            if (journal == null) {
+                throw new IllegalArgumentException("Capture journal is disabled; a directory is required");
+            }
+            return journal.getDirectory();
+        }
+        Path path = Path.of(directory.trim());
+        if (!Files.isDirectory(path)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        return path;
+    }
+
+    /**
+     * Overwrite the message transaction ID and/or date and time of an ACP message and fix its checksum
+     * Messages shorter than their header are left alone.
+     */
+    static void rewriteHeader(byte[] message, int length, long transactionId, long packedDate, int packedTime) {
+        if (length <= AcpHeader.SOURCE_SYSTEM) {
+            return;
+        }
+        int sourceSystem = message[AcpHeader.SOURCE_SYSTEM] & 0xFF;
+        int headerSize = AcpHeader.headerSize(sourceSystem);
+        if (length < headerSize) {
+            return;
+        }
+        int shift = headerSize - AcpHeader.STANDARD_SIZE;
+        if (transactionId >= 0) {
+            AcpMessageEncoder.writeUInt64LE(message, AcpHeader.MESSAGE_TRANSACTION_ID + shift, transactionId);
+        }
+        if (packedDate >= 0) {
+            AcpMessageEncoder.writeUInt32LE(message, AcpHeader.DATE + shift, packedDate);
+            AcpMessageEncoder.writeUInt24LE(message, AcpHeader.TIME + shift, packedTime);
+        }
+        // Trailing XOR checksum, when there is a byte after the header to hold it
+        if (length > headerSize) {
+            message[length - 1] = AcpMessageEncoder.checksum(message, length - 1);
+        }
+    }
+
+    /**
+     * One record on its way from the reader to a lane; the payload is a copy the lane may rewrite
+     */
+    private static final class Replayed {
+        final long timestampNanos;
+        final int type;
+        final String destination;
+        final Map<String, String> properties;
+        final byte[] payload;
+
+        Replayed(long timestampNanos, int type, String destination, Map<String, String> properties, byte[] payload) {
+            this.timestampNanos = timestampNanos;
+            this.type = type;
+            this.destination = destination;
+            this.properties = properties;
+            this.payload = payload;
+        }
+    }
+
+    // Queued after a lane's last record
+    private static final Replayed END = new Replayed(0, JournalRecord.TYPE_OTHER, null, null, null);
+
+    /**
+     * A single replay with its reader, lanes and counters
+     */
+    private class ReplayRun {
+        private final ReplayRequest request;
+        private final Path directory;
+        private final int direction;
+
+        private final AtomicLong transactionIds;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong[] laneSent;
+        private final List<BlockingQueue<Replayed>> queues = new ArrayList<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger activeLanes = new AtomicInteger();
+
+        // Set by the reader before it queues the first record: capture time of the first record
+        // replayed and the time it was dispatched, the zero of the schedule
+        private volatile long firstTimestampNanos;
+        private volatile long scheduleStartNanos;
+        private volatile long toSequence = -1;
+        private volatile long capturedNanos;
+        private volatile boolean running;
+        private volatile String lastError;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile long behindNanos;
+        private volatile String state = "STARTING";
+
+        ReplayRun(ReplayRequest request, Path directory, int direction) {
+            this.request = request;
+            this.directory = directory;
+            this.direction = direction;
+            this.transactionIds = new AtomicLong(request.getStartTransactionId());
+            this.laneSent = new AtomicLong[request.getLanes()];
+            for (int i = 0; i < laneSent.length; i++) {
+                laneSent[i] = new AtomicLong();
+                queues.add(new ArrayBlockingQueue<>(LANE_QUEUE_SIZE));
+            }
+        }
+
+        void start() {
+            running = true;
+            startNanos = System.nanoTime();
+            state = "RUNNING";
+            activeLanes.set(request.getLanes());
+            for (int i = 0; i < request.getLanes(); i++) {
+                int lane = i;
+                startThread(() -> replayLane(lane), "acp-replay-" + i);
+            }
+            startThread(this::readJournal, "acp-replay-reader");
+        }
+
+        private void startThread(Runnable task, String name) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean isRunning() {
+            return running;
+        }
+
+        void stop() {
+            if (running) {
+                running = false;
+                finish("STOPPED");
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private synchronized void finish(String finalState) {
+            if (endNanos == 0) {
+                endNanos = System.nanoTime();
+                state = finalState;
+            }
+        }
+
+        /**
+         * Read the capture once and hand each selected record to the lane of its destination,
+         * so every destination keeps its recorded order
+         */
+        private void readJournal() {
+            int lanes = request.getLanes();
+            try (JournalReader reader = new JournalReader(directory)) {
+                long last = request.getToSequence() >= 0
+                        ? Math.min(request.getToSequence(), reader.getLastSequence())
+                        : reader.getLastSequence();
+                toSequence = last;
+                capturedNanos = reader.getLastTimestampNanos() - reader.getFirstTimestampNanos();
+                long dispatched = 0;
+                while (running && reader.next()) {
+                    JournalRecord record = reader.record();
+                    if (record.sequence() > last) {
+                        break;
+                    }
+                    if (record.sequence() < request.getFromSequence()
+                            || (direction >= 0 && record.direction() != direction)) {
+                        continue;
+                    }
+                    if (request.getMaxMessages() > 0 && dispatched >= request.getMaxMessages()) {
+                        break;
+                    }
+                    if (dispatched++ == 0) {
+                        firstTimestampNanos = record.timestampNanos();
+                        scheduleStartNanos = System.nanoTime();
+                    }
+                    dispatch(Math.floorMod(record.destinationHash(), lanes), replayed(record));
+                }
+                if (dispatched == 0 && running) {
+                    lastError = "No " + request.getDirection() + " records to replay in " + directory;
+                    fail();
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                lastError = e.getMessage();
+                fail();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (int lane = 0; lane < lanes; lane++) {
+                try {
+                    dispatch(lane, END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        // Ends the run and lets the lanes exit without waiting for their queues
+        private void fail() {
+            running = false;
+            finish("FAILED");
+        }
+
+        private Replayed replayed(JournalRecord record) {
+            boolean other = record.type() == JournalRecord.TYPE_OTHER;
+            return new Replayed(record.timestampNanos(), record.type(), record.destination(),
+                    request.isRecordedProperties() && !other ? record.properties() : null,
+                    other ? null : record.payload());
+        }
+
+        // Waits while the lane is full; lanes stop taking records once the run is stopped
+        private void dispatch(int lane, Replayed item) throws InterruptedException {
+            BlockingQueue<Replayed> queue = queues.get(lane);
+            while (running && !queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                // Lane is behind; keep waiting
+            }
+        }
+
+        private void replayLane(int lane) {
+            BlockingQueue<Replayed> queue = queues.get(lane);
+            double speed = request.getSpeed();
+            String overrideDestination = request.getDestination() != null && !request.getDestination().trim().isEmpty()
+                    ? request.getDestination().trim() : null;
+            long currentSecond = -1;
+            long packedDate = -1;
+            int packedTime = 0;
+
+            try {
+                while (true) {
+                    Replayed item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (!running || item == END) {
+                        break;
+                    }
+                    if (item == null) {
+                        continue;
+                    }
+                    if (speed > 0) {
+                        long due = scheduleStartNanos + (long) ((item.timestampNanos - firstTimestampNanos) / speed);
+                        long now = System.nanoTime();
+                        if (now < due) {
+                            behindNanos = 0;
+                            LockSupport.parkNanos(due - now);
+                        } else {
+                            behindNanos = now - due;
+                        }
+                    }
+                    if (item.type == JournalRecord.TYPE_OTHER) {
+                        skipped.incrementAndGet();
+                        continue;
+                    }
+
+                    byte[] payload = item.payload;
+                    if (item.type == JournalRecord.TYPE_BYTES
+                            && (request.isRewriteTransactionIds() || request.isRewriteDates())) {
+                        if (request.isRewriteDates()) {
+                            long second = System.currentTimeMillis() / 1000;
+                            if (second != currentSecond) {
+                                currentSecond = second;
+                                packedDate = AcpMessageEncoder.packDate(LocalDate.now());
+                                packedTime = AcpMessageEncoder.packTime(LocalTime.now());
+                            }
+                        }
+                        rewriteHeader(payload, payload.length,
+                                request.isRewriteTransactionIds() ? transactionIds.getAndIncrement() : -1,
+                                packedDate, packedTime);
+                    }
+
+                    try {
+                        send(item, overrideDestination);
+                        sent.incrementAndGet();
+                        laneSent[lane].incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        lastError = e.getMessage();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (activeLanes.decrementAndGet() == 0) {
+                running = false;
+                finish("COMPLETED");
+            }
+        }
+
+        private void send(Replayed item, String overrideDestination) throws Exception {
+            String destination = overrideDestination != null ? overrideDestination : item.destination;
+            String destinationType = request.getDestinationType();
+            if (destination.startsWith("#Q/")) {
+                destination = destination.substring(3);
+                destinationType = "QUEUE";
+            }
+            Map<String, String> headers = item.properties;
+            byte[] payload = item.payload;
+
+            if (item.type == JournalRecord.TYPE_TEXT) {
+                MessageRequest message = new MessageRequest();
+                message.setDestination(destination);
+                message.setDestinationType(destinationType);
+                message.setMessageType("TEXT");
+                message.setContent(new String(payload, StandardCharsets.UTF_8));
+                message.setReplyTo(request.getReplyTo());
+                message.setHeaders(headers);
+                solaceJmsService.sendMessage(message);
+            } else {
+                solaceJmsService.sendBytes(destinationType, destination, payload, payload.length, request.getReplyTo(), headers);
+            }
+        }
+
+        Map<String, Object> status() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            double elapsedSeconds = (end - startNanos) / 1_000_000_000d;
+            long sentCount = sent.get();
+            List<Long> perLane = new ArrayList<>();
+            for (AtomicLong count : laneSent) {
+                perLane.add(count.get());
+            }
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", state);
+            status.put("directory", directory.toString());
+            status.put("direction", request.getDirection());
+            status.put("toSequence", toSequence);
+            status.put("speed", request.getSpeed() > 0 ? request.getSpeed() : "max");
+            status.put("lanes", request.getLanes());
+            status.put("capturedSeconds", capturedNanos / 1_000_000_000d);
+            status.put("elapsedSeconds", elapsedSeconds);
+            status.put("sent", sentCount);
+            status.put("sentPerLane", perLane);
+            status.put("skipped", skipped.get());
+            status.put("errors", errors.get());
+            status.put("achievedRate", elapsedSeconds > 0 ? sentCount / elapsedSeconds : 0);
+            // How late the last message was against the scaled capture schedule
+            status.put("behindMillis", behindNanos / 1_000_000d);
+            if (lastError != null) {
+                status.put("lastError", lastError);
+            }
+            return status;
+        }
+    }
+}
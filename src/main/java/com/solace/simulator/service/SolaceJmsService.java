@@ -1,31 +1,72 @@
 package com.solace.simulator.service;
 
+import com.solace.simulator.codec.AcpFormat;
+import com.solace.simulator.journal.JournalRecord;
 import com.solace.simulator.model.ConnectionConfig;
 import com.solace.simulator.model.MessageRequest;
 import com.solace.simulator.model.ReceivedMessage;
 import com.solacesystems.jms.SolConnectionFactory;
 import com.solacesystems.jms.SolJmsUtility;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import javax.jms.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Service
 public class SolaceJmsService {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private MessageBroadcastService messageBroadcastService;
+
+    @Autowired
+    private MessageRoutingService messageRoutingService;
+
+    @Autowired
+    private ReceivePipelineService receivePipeline;
+
+    @Autowired
+    private CaptureJournalService captureJournal;
+
+    // Registers the "recent" stage the WebSocket stage runs after
+    @Autowired
+    private RecentMessageService recentMessages;
+
+    @Value("${simulator.jms.producer-cache.max-size:64}")
+    private int producerCacheMaxSize = 64;
+
+    @Value("${simulator.jms.producer-cache.anonymous:false}")
+    private boolean anonymousProducer;
+
+    @Value("${simulator.jms.session-pool.size:4}")
+    private int sessionPoolSize = 4;
+
+    @Value("${simulator.jms.session-pool.borrow-timeout-ms:5000}")
+    private long sessionBorrowTimeoutMillis = 5000;
 
     private Connection connection;
+    // Session owning the consumers; its listeners run on the session's dispatcher thread
     private Session session;
+    // Sessions used for sending, borrowed exclusively per send
+    private volatile JmsSessionPool sessionPool;
     private Map<String, MessageConsumer> consumers = new HashMap<>();
     private ConnectionConfig currentConfig;
+    // Internal consumers of received messages (responder etc.), run by the pipeline's listener stage
+    private final List<JmsReceiveListener> receiveListeners = new CopyOnWriteArrayList<>();
+    private final List<JmsSendListener> sendListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        receivePipeline.addStage("listeners", (event, sequence, endOfBatch) -> notifyReceiveListeners(event));
+        // After "recent": a browser catching up over REST has everything it was sent live
+        receivePipeline.addStage("websocket", (event, sequence, endOfBatch) -> pushToWebSocket(event, sequence),
+                recentMessages.isEnabled() ? new String[] {"recent"} : new String[0]);
+    }
 
     public void connect(ConnectionConfig config) throws Exception {
-        disconnect();
-
         SolConnectionFactory connectionFactory = SolJmsUtility.createConnectionFactory();
         connectionFactory.setHost(config.getHost());
         connectionFactory.setVPN(config.getVpnName());
@@ -35,8 +76,20 @@ public class SolaceJmsService {
         connectionFactory.setSSLValidateCertificate(false);
         // Note: setSSLHostnameVerificationEnabled is not available in this version of Solace JMS
 
+        connect(connectionFactory, config);
+    }
+
+    /**
+     * Connect using an already configured connection factory
+     * (also used with in-process factories by the benchmarks)
+     */
+    public void connect(ConnectionFactory connectionFactory, ConnectionConfig config) throws Exception {
+        disconnect();
+
         connection = connectionFactory.createConnection();
         session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        sessionPool = new JmsSessionPool(connection, sessionPoolSize, producerCacheMaxSize,
+                anonymousProducer, sessionBorrowTimeoutMillis);
         connection.start();
         
         currentConfig = config;
@@ -48,6 +101,11 @@ public class SolaceJmsService {
         }
         consumers.clear();
 
+        if (sessionPool != null) {
+            sessionPool.close();
+            sessionPool = null;
+        }
+
         if (session != null) {
             session.close();
             session = null;
@@ -69,51 +127,183 @@ public class SolaceJmsService {
         return currentConfig;
     }
 
-    public void sendMessage(MessageRequest request) throws Exception {
-        if (!isConnected()) {
-            throw new java.lang.IllegalStateException("Not connected to Solace broker");
+    /**
+     * Snapshot of the producer/destination cache counters summed over all pooled sessions,
+     * used to size the cache
+     */
+    public Map<String, Object> getProducerCacheStats() {
+        int size = 0;
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        JmsSessionPool pool = sessionPool;
+        if (pool != null) {
+            for (JmsSessionPool.PooledSession pooled : pool.getSessions()) {
+                ProducerCache cache = pooled.getProducers();
+                size += cache.size();
+                hits += cache.getHits();
+                misses += cache.getMisses();
+                evictions += cache.getEvictions();
+            }
         }
 
-        Destination destination;
-        if ("QUEUE".equalsIgnoreCase(request.getDestinationType())) {
-            destination = session.createQueue(request.getDestination());
-        } else {
-            destination = session.createTopic(request.getDestination());
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSizePerSession", producerCacheMaxSize);
+        stats.put("anonymous", anonymousProducer);
+        stats.put("size", size);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    /**
+     * Snapshot of the send session pool usage
+     */
+    public Map<String, Object> getSessionPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        JmsSessionPool pool = sessionPool;
+        stats.put("configuredSize", sessionPoolSize);
+        stats.put("size", pool != null ? pool.getSize() : 0);
+        stats.put("idle", pool != null ? pool.getIdleCount() : 0);
+        stats.put("borrows", pool != null ? pool.getBorrows() : 0);
+        stats.put("waits", pool != null ? pool.getWaits() : 0);
+        stats.put("timeouts", pool != null ? pool.getTimeouts() : 0);
+        return stats;
+    }
+
+    // Overridden by benchmarks that construct the service outside Spring
+    void setSessionPoolSize(int sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    public void sendMessage(MessageRequest request) throws Exception {
+        JmsSessionPool pool = requireSessionPool();
+
+        pool.execute((sendSession, producers) -> {
+            Message message;
+            byte[] bytes = null;
+            if ("BYTE".equalsIgnoreCase(request.getMessageType())) {
+                BytesMessage bytesMessage = sendSession.createBytesMessage();
+                bytes = AcpFormat.decodeHex(request.getContent());
+                bytesMessage.writeBytes(bytes);
+                message = bytesMessage;
+            } else {
+                TextMessage textMessage = sendSession.createTextMessage(request.getContent());
+                message = textMessage;
+            }
+
+            applyReplyToAndHeaders(message, producers, request.getReplyTo(), request.getHeaders());
+            notifySendListeners(message, bytes, bytes != null ? bytes.length : 0);
+            producers.send(request.getDestinationType(), request.getDestination(), message);
+            captureJournal.recordSent(journalDestination(request.getDestinationType(), request.getDestination()), message,
+                    bytes, bytes != null ? bytes.length : 0);
+            return null;
+        });
+    }
+
+    /**
+     * Send raw bytes as a BytesMessage without going through the hex representation
+     * (used by the load generator and other internal senders)
+     */
+    public void sendBytes(String destinationType, String destination, byte[] payload, int length,
+                          String replyTo, Map<String, String> headers) throws Exception {
+        JmsSessionPool pool = requireSessionPool();
+
+        pool.execute((sendSession, producers) -> {
+            BytesMessage bytesMessage = sendSession.createBytesMessage();
+            bytesMessage.writeBytes(payload, 0, length);
+            applyReplyToAndHeaders(bytesMessage, producers, replyTo, headers);
+            notifySendListeners(bytesMessage, payload, length);
+            producers.send(destinationType, destination, bytesMessage);
+            captureJournal.recordSent(journalDestination(destinationType, destination), bytesMessage, payload, length);
+            return null;
+        });
+    }
+
+    /**
+     * Send raw bytes to a destination taken from a received message (JMSReplyTo)
+     * @param correlationId JMSCorrelationID for the reply, may be null
+     */
+    public void sendReply(Destination replyTo, byte[] payload, int length, String correlationId) throws Exception {
+        JmsSessionPool pool = requireSessionPool();
+
+        pool.execute((sendSession, producers) -> {
+            BytesMessage bytesMessage = sendSession.createBytesMessage();
+            bytesMessage.writeBytes(payload, 0, length);
+            if (correlationId != null) {
+                bytesMessage.setJMSCorrelationID(correlationId);
+            }
+            producers.send(replyTo, bytesMessage);
+            captureJournal.recordSent(destinationName(replyTo), bytesMessage, payload, length);
+            return null;
+        });
+    }
+
+    public void addReceiveListener(JmsReceiveListener listener) {
+        receiveListeners.add(listener);
+    }
+
+    public void removeReceiveListener(JmsReceiveListener listener) {
+        receiveListeners.remove(listener);
+    }
+
+    public void addSendListener(JmsSendListener listener) {
+        sendListeners.add(listener);
+    }
+
+    public void removeSendListener(JmsSendListener listener) {
+        sendListeners.remove(listener);
+    }
+
+    private void notifySendListeners(Message message, byte[] payload, int length) throws JMSException {
+        for (JmsSendListener listener : sendListeners) {
+            listener.onSend(message, payload, length);
         }
+    }
 
-        MessageProducer producer = session.createProducer(destination);
+    // Journal name of a destination: queues carry the "#Q/" prefix also used for replyTo, topics are bare
+    private static String journalDestination(String destinationType, String destination) {
+        return "QUEUE".equalsIgnoreCase(destinationType) ? "#Q/" + destination : destination;
+    }
 
-        Message message;
-        if ("BYTE".equalsIgnoreCase(request.getMessageType())) {
-            BytesMessage bytesMessage = session.createBytesMessage();
-            byte[] bytes = hexStringToByteArray(request.getContent());
-            bytesMessage.writeBytes(bytes);
-            message = bytesMessage;
-        } else {
-            TextMessage textMessage = session.createTextMessage(request.getContent());
-            message = textMessage;
+    private static String destinationName(Destination destination) throws JMSException {
+        if (destination instanceof javax.jms.Queue) {
+            return "#Q/" + ((javax.jms.Queue) destination).getQueueName();
+        }
+        if (destination instanceof Topic) {
+            return ((Topic) destination).getTopicName();
         }
+        return String.valueOf(destination);
+    }
+
+    private JmsSessionPool requireSessionPool() {
+        JmsSessionPool pool = sessionPool;
+        if (!isConnected() || pool == null) {
+            throw new java.lang.IllegalStateException("Not connected to Solace broker");
+        }
+        return pool;
+    }
 
+    private void applyReplyToAndHeaders(Message message, ProducerCache producers, String replyTo,
+                                        Map<String, String> headers) throws JMSException {
         // Set JMSReplyTo if provided
-        if (request.getReplyTo() != null && !request.getReplyTo().isEmpty()) {
-            Destination replyTo;
-            if (request.getReplyTo().startsWith("#Q/")) {
-                replyTo = session.createQueue(request.getReplyTo().substring(3));
+        if (replyTo != null && !replyTo.isEmpty()) {
+            Destination replyDestination;
+            if (replyTo.startsWith("#Q/")) {
+                replyDestination = producers.getDestination("QUEUE", replyTo.substring(3));
             } else {
-                replyTo = session.createTopic(request.getReplyTo());
+                replyDestination = producers.getDestination("TOPIC", replyTo);
             }
-            message.setJMSReplyTo(replyTo);
+            message.setJMSReplyTo(replyDestination);
         }
 
         // Set custom headers
-        if (request.getHeaders() != null) {
-            for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+        if (headers != null) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
                 message.setStringProperty(entry.getKey(), entry.getValue());
             }
         }
-
-        producer.send(message);
-        producer.close();
     }
 
     public void subscribe(String destination, String destinationType) throws Exception {
@@ -135,35 +325,16 @@ public class SolaceJmsService {
 
         MessageConsumer consumer = session.createConsumer(dest);
         consumer.setMessageListener(message -> {
+            // Only copy what the stages need; everything else runs on the pipeline threads
+            long receivedNanos = System.nanoTime();
             try {
-                ReceivedMessage receivedMsg = new ReceivedMessage();
-                receivedMsg.setDestination(destination);
-
-                if (message instanceof TextMessage) {
-                    TextMessage textMessage = (TextMessage) message;
-                    receivedMsg.setMessageType("TEXT");
-                    receivedMsg.setContent(textMessage.getText());
-                    receivedMsg.setHexContent(stringToHex(textMessage.getText()));
-                } else if (message instanceof BytesMessage) {
+                byte[] bytes = null;
+                if (message instanceof BytesMessage) {
                     BytesMessage bytesMessage = (BytesMessage) message;
-                    byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+                    bytes = new byte[(int) bytesMessage.getBodyLength()];
                     bytesMessage.readBytes(bytes);
-                    receivedMsg.setMessageType("BYTE");
-                    receivedMsg.setHexContent(bytesToHex(bytes));
-                    receivedMsg.setContent(new String(bytes));
-                }
-
-                // Extract headers
-                Map<String, String> headers = new HashMap<>();
-                Enumeration<?> propertyNames = message.getPropertyNames();
-                while (propertyNames.hasMoreElements()) {
-                    String name = (String) propertyNames.nextElement();
-                    headers.put(name, message.getStringProperty(name));
                 }
-                receivedMsg.setHeaders(headers);
-
-                // Send to WebSocket
-                messagingTemplate.convertAndSend("/topic/messages", receivedMsg);
+                receivePipeline.publish(destination, message, bytes, receivedNanos);
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -172,35 +343,52 @@ public class SolaceJmsService {
         consumers.put(key, consumer);
     }
 
-    public void unsubscribe(String destination, String destinationType) throws Exception {
-        String key = destinationType + ":" + destination;
-        MessageConsumer consumer = consumers.remove(key);
-        if (consumer != null) {
-            consumer.close();
+    private void notifyReceiveListeners(ReceiveEvent event) {
+        for (JmsReceiveListener listener : receiveListeners) {
+            try {
+                listener.onMessage(event);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
     }
 
-    private byte[] hexStringToByteArray(String hexString) {
-        // Remove spaces and convert to bytes
-        hexString = hexString.replaceAll("\\s+", "");
-        int len = hexString.length();
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(hexString.charAt(i), 16) << 4)
-                    + Character.digit(hexString.charAt(i + 1), 16));
+    /**
+     * Convert a received message for the browsers that want it and queue it for their next batch
+     */
+    private void pushToWebSocket(ReceiveEvent event, long sequence) {
+        String destination = event.getDestination();
+        byte[] bytes = event.getPayload();
+
+        // Decide on the raw bytes whether any browser wants it before converting anything
+        List<String> uiDestinations = messageRoutingService.route(destination, bytes);
+        if (uiDestinations.isEmpty()) {
+            return;
         }
-        return data;
-    }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
+        // Only the raw body and the copied properties are kept; text, hex and headers are rendered at serialization
+        ReceivedMessage receivedMsg = new ReceivedMessage();
+        receivedMsg.setDestination(destination);
+        receivedMsg.setTimestampNanos(ReceivedMessage.epochNanos(event.getReceivedNanos()));
+        receivedMsg.setSequence(sequence);
+        receivedMsg.setProperties(event.getProperties());
+        if (event.getType() == JournalRecord.TYPE_TEXT) {
+            receivedMsg.setMessageType("TEXT");
+            receivedMsg.setText(event.getText());
+        } else if (bytes != null) {
+            receivedMsg.setMessageType("BYTE");
+            receivedMsg.setPayload(bytes);
         }
-        return sb.toString().trim();
+
+        // Queue for the next WebSocket batch of each destination
+        messageBroadcastService.publish(receivedMsg, uiDestinations);
     }
 
-    private String stringToHex(String str) {
-        return bytesToHex(str.getBytes());
+    public void unsubscribe(String destination, String destinationType) throws Exception {
+        String key = destinationType + ":" + destination;
+        MessageConsumer consumer = consumers.remove(key);
+        if (consumer != null) {
+            consumer.close();
+        }
     }
 }
@@ -0,0 +1,277 @@
+package com.solace.simulator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import jakarta.annotation.PostConstruct;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service bounding the frames queued for each WebSocket client
+ * Installed as an interceptor on the client outbound channel: every broker MESSAGE frame for a session
+ * goes into that session's bounded buffer and only one frame per session is handed to the channel's
+ * executor at a time, the next one after the previous was written. A slow or backgrounded browser tab
+ * therefore holds at most buffer-size frames, and never more than one outbound thread.
+ * When a buffer is full the overflow policy decides what is lost.
+ */
+@Service
+public class WebSocketBackpressureService implements ExecutorChannelInterceptor {
+
+    // Marks summary frames so a newer summary can replace an undelivered one
+    private static final String SUMMARY_HEADER = "simulatorSummary";
+
+    /**
+     * What happens to a frame published to a client whose buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Discard the oldest buffered frame to make room */
+        DROP_OLDEST,
+        /** Discard the new frame */
+        DROP_NEWEST,
+        /** Keep 1 in sample-rate of the new frames (replacing the oldest), discard the rest */
+        SAMPLE,
+        /** Discard everything buffered and send a {"dropped": n} summary frame instead */
+        SUMMARY_ONLY;
+
+        /**
+         * Parse "drop-oldest", "DROP_OLDEST" etc.
+         * @throws IllegalArgumentException for unknown policies
+         */
+        public static OverflowPolicy parse(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown overflow policy: " + name
+                        + " (expected drop-oldest, drop-newest, sample or summary-only)");
+            }
+        }
+    }
+
+    @Value("${simulator.websocket.client.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${simulator.websocket.client.overflow-policy:drop-oldest}")
+    private String overflowPolicyName = "drop-oldest";
+
+    @Value("${simulator.websocket.client.sample-rate:10}")
+    private int sampleRate = 10;
+
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+    // Totals including sessions that have disconnected
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        overflowPolicy = OverflowPolicy.parse(overflowPolicyName);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = clientSessionId(message);
+        if (sessionId == null) {
+            return message; // Connect acks, receipts, errors and heartbeats are never held back
+        }
+        return outboxes.computeIfAbsent(sessionId, id -> new Outbox()).offer(message);
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        String sessionId = clientSessionId(message);
+        Outbox outbox = sessionId != null ? outboxes.get(sessionId) : null;
+        if (outbox == null) {
+            return;
+        }
+        Message<?> next = outbox.next(message);
+        if (next != null) {
+            channel.send(next);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Outbox outbox = outboxes.remove(event.getSessionId());
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("bufferSize", bufferSize);
+        stats.put("sampleRate", sampleRate);
+        stats.put("delivered", delivered.get());
+        stats.put("dropped", dropped.get());
+
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        for (Map.Entry<String, Outbox> entry : outboxes.entrySet()) {
+            Map<String, Object> session = entry.getValue().snapshot();
+            session.put("sessionId", entry.getKey());
+            sessions.add(session);
+        }
+        stats.put("sessions", sessions);
+        return stats;
+    }
+
+    /**
+     * Session ID of a broker MESSAGE frame, null for any other frame
+     */
+    private static String clientSessionId(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    /**
+     * Bounded frame buffer of one client session
+     * At most one frame (inFlight) is in the channel at a time; the rest wait here.
+     */
+    private final class Outbox {
+        private final ArrayDeque<Message<?>> buffer = new ArrayDeque<>();
+        private Message<?> inFlight;
+        private long sessionDelivered;
+        private long sessionDropped;
+        private long maxQueued;
+        private long overflowCount;
+        // Frames dropped since the last summary frame was queued (SUMMARY_ONLY)
+        private long unsummarized;
+        private boolean closed;
+
+        /**
+         * @return the message to hand to the channel now, or null if it was buffered or dropped
+         */
+        synchronized Message<?> offer(Message<?> message) {
+            if (message == inFlight) {
+                return message; // Released by next(), already accounted for
+            }
+            if (closed) {
+                return null;
+            }
+            if (inFlight == null) {
+                inFlight = message;
+                return message;
+            }
+            if (buffer.size() < bufferSize) {
+                buffer.addLast(message);
+            } else {
+                overflow(message);
+            }
+            maxQueued = Math.max(maxQueued, buffer.size());
+            return null;
+        }
+
+        private void overflow(Message<?> message) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    buffer.pollFirst();
+                    buffer.addLast(message);
+                    drop(1);
+                    break;
+                case DROP_NEWEST:
+                    drop(1);
+                    break;
+                case SAMPLE:
+                    if (++overflowCount % Math.max(1, sampleRate) == 0) {
+                        buffer.pollFirst();
+                        buffer.addLast(message);
+                    }
+                    drop(1);
+                    break;
+                case SUMMARY_ONLY:
+                    // An undelivered earlier summary is folded into the new one
+                    int discarded = buffer.size() + 1 - (isSummary(buffer.peekFirst()) ? 1 : 0);
+                    buffer.clear();
+                    drop(discarded);
+                    unsummarized += discarded;
+                    buffer.addLast(summary(message, unsummarized));
+                    break;
+            }
+        }
+
+        private void drop(long count) {
+            sessionDropped += count;
+            dropped.addAndGet(count);
+        }
+
+        /**
+         * Called after the in-flight frame was written
+         * @return the next frame to hand to the channel, or null if the buffer is empty
+         */
+        synchronized Message<?> next(Message<?> handled) {
+            if (handled != inFlight) {
+                return null;
+            }
+            sessionDelivered++;
+            delivered.incrementAndGet();
+            inFlight = closed ? null : buffer.pollFirst();
+            if (isSummary(inFlight)) {
+                unsummarized = 0; // Later drops go into a new summary
+            }
+            return inFlight;
+        }
+
+        synchronized void close() {
+            closed = true;
+            buffer.clear();
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> session = new LinkedHashMap<>();
+            session.put("queued", buffer.size() + (inFlight != null ? 1 : 0));
+            session.put("maxQueued", maxQueued);
+            session.put("delivered", sessionDelivered);
+            session.put("dropped", sessionDropped);
+            return session;
+        }
+    }
+
+    private static boolean isSummary(Message<?> message) {
+        return message != null && message.getHeaders().containsKey(SUMMARY_HEADER);
+    }
+
+    /**
+     * JSON frame {"dropped": n} for the same session, subscription and destination as the given frame
+     */
+    private static Message<byte[]> summary(Message<?> template, long droppedCount) {
+        byte[] payload = ("{\"dropped\":" + droppedCount + "}").getBytes(StandardCharsets.UTF_8);
+        return MessageBuilder.withPayload(payload)
+                .copyHeaders(template.getHeaders())
+                // Text even when it replaces binary frames
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .setHeader(SUMMARY_HEADER, Boolean.TRUE)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.solace.simulator.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reading raw ACP messages from request bodies
+ */
+class AcpFrameReaderTest {
+
+    // Hands out at most 7 bytes per read, like a body arriving in small chunks
+    private static InputStream chunked(byte[] bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+    }
+
+    private static byte[] message(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    @Test
+    void testReadWithAndWithoutContentLength() throws Exception {
+        byte[] small = message(56);
+        AcpFrame frame = AcpFrameReader.read(chunked(small), small.length);
+        assertEquals(56, frame.length());
+        assertEquals(small[55] & 0xFF, frame.uint8(55));
+
+        // Unknown length larger than the pooled buffer grows it
+        byte[] large = message(100_000);
+        frame = AcpFrameReader.read(chunked(large), -1);
+        assertEquals(large.length, frame.length());
+        assertEquals(large[99_999] & 0xFF, frame.uint8(99_999));
+
+        frame = AcpFrameReader.read(chunked(small), -1);
+        assertEquals(56, frame.length());
+        assertEquals(small[0] & 0xFF, frame.uint8(0));
+    }
+
+    @Test
+    void testEmptyAndOversizedBodiesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AcpFrameReader.read(new ByteArrayInputStream(new byte[0]), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> AcpFrameReader.read(new ByteArrayInputStream(new byte[0]), AcpFrameReader.MAX_MESSAGE_BYTES + 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> AcpFrameReader.read(chunked(message(AcpFrameReader.MAX_MESSAGE_BYTES + 1)), -1));
+    }
+}
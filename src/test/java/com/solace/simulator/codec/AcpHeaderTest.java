@@ -0,0 +1,116 @@
+package com.solace.simulator.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ACP header codec
+ */
+class AcpHeaderTest {
+
+    // Example 2658 message with the 56-byte BCS header (source system 22)
+    private static final String MESSAGE_2658 = "620A16142400010100000000000000000000BC2E000000000000000000000000004F070000C60041413430303239386CE80E00000000000444440F0033080000014E414D45000000";
+
+    @Test
+    void testDecodeBcsHeader() {
+        AcpHeader header = AcpFrame.fromHex(MESSAGE_2658).header();
+
+        assertTrue(header.isBcs());
+        assertEquals(56, header.size());
+        assertEquals(2658, header.getMessageCode());
+        assertEquals(22, header.getSourceSystem());
+        assertEquals(20, header.getDestinationSystem());
+        assertEquals(36, header.getPacketGroupId());
+        assertEquals(1, header.getPacketTotal());
+        assertEquals(11964, header.getMessageTransactionId());
+        assertEquals(1871, header.getLocationId());
+        assertEquals("AA400298", header.physicalTerminalId());
+        assertEquals(18, header.offset(AcpHeader.MESSAGE_TRANSACTION_ID));
+    }
+
+    @Test
+    void testStandardLayoutIgnoresBcsSource() {
+        AcpHeader header = AcpFrame.fromHex(MESSAGE_2658).standardHeader();
+
+        assertFalse(header.isBcs());
+        assertEquals(52, header.size());
+        assertEquals(22, header.getSourceSystem());
+        assertEquals(0x24, header.getReplyCode());
+        assertEquals(14, header.offset(AcpHeader.MESSAGE_TRANSACTION_ID));
+    }
+
+    @Test
+    void testDecodeFromDirectBufferWithOffset() {
+        byte[] bytes = AcpFormat.hexToBytes(MESSAGE_2658);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 3);
+        direct.position(3);
+        direct.put(bytes);
+        direct.position(3);
+
+        AcpFrame frame = AcpFrame.wrap(direct);
+
+        assertEquals(2658, frame.header().getMessageCode());
+        assertEquals(11964, frame.header().getMessageTransactionId());
+        assertEquals(MESSAGE_2658, frame.hex());
+        assertEquals(11964, AcpHeader.peekMessageTransactionId(frame.buffer()));
+    }
+
+    @Test
+    void testWrapLeavesCallerBufferUnchanged() {
+        ByteBuffer buffer = ByteBuffer.wrap(AcpFormat.hexToBytes(MESSAGE_2658));
+
+        AcpFrame frame = AcpFrame.wrap(buffer);
+
+        assertEquals(11964, frame.header().getMessageTransactionId());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        assertEquals(0, buffer.position());
+        assertNotSame(buffer, frame.buffer());
+    }
+
+    @Test
+    void testReusedHeaderDecodesShortMessageAsZero() {
+        AcpHeader header = new AcpHeader();
+        header.decode(AcpFrame.fromHex(MESSAGE_2658).buffer(), true);
+
+        header.decode(AcpFrame.fromHex("F30A2914").buffer(), true);
+
+        assertEquals(2803, header.getMessageCode());
+        assertEquals(0, header.getMessageTransactionId());
+        assertEquals(0, header.getLocationId());
+        assertFalse(header.isComplete());
+    }
+
+    @Test
+    void testFormatting() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{(byte) 0xF3, 0x0A, 0x01});
+
+        assertEquals("F3 0A 01", AcpFormat.hex(buffer, 0, 3, ' '));
+        assertEquals("11110011 00001010", AcpFormat.binary(buffer, 0, 2, ' '));
+        assertEquals("0x0AF3", AcpFormat.hexLiteral(2803, 4));
+        assertEquals("0xFFFFFFFFFFFFFFFF", AcpFormat.hexLiteral(-1L, 16));
+
+        // Heap buffers with an offset and direct buffers render the same bytes
+        ByteBuffer slice = ByteBuffer.wrap(new byte[]{0x00, (byte) 0xF3, 0x0A, 0x01}, 1, 3).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(3).put(new byte[]{(byte) 0xF3, 0x0A, 0x01});
+        assertEquals("F30A01", AcpFormat.hex(slice, 0, 3, (char) 0));
+        assertEquals("F3 0A 01", AcpFormat.hex(direct, 0, 3, ' '));
+        assertEquals("0A01", AcpFormat.hex(new byte[]{(byte) 0xF3, 0x0A, 0x01}, 1, 3, (char) 0));
+    }
+
+    @Test
+    void testHexDecoding() {
+        assertArrayEquals(new byte[]{(byte) 0xF3, 0x0A, 0x01}, AcpFormat.hexToBytes("f30A01"));
+        assertArrayEquals(new byte[]{(byte) 0xF3, 0x0A, 0x01}, AcpFormat.decodeHex(" F3 0a\n0 1 "));
+        assertArrayEquals(new byte[0], AcpFormat.decodeHex(""));
+
+        assertThrows(IllegalArgumentException.class, () -> AcpFormat.hexToBytes("F3 0A"));
+        assertThrows(IllegalArgumentException.class, () -> AcpFormat.decodeHex("F3 0"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> AcpFormat.decodeHex("F3 0G"));
+        assertEquals("Invalid hexadecimal character at position 4", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> AcpFormat.decodeHex("F3\u00E90A"));
+    }
+}
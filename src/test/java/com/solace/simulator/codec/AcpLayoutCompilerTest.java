@@ -0,0 +1,114 @@
+package com.solace.simulator.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for compiling message layouts from the interface spec HTML
+ */
+class AcpLayoutCompilerTest {
+
+    private static final String HEADER_ROW =
+            "<tr><td><p>Byte Position</p></td><td><p>Data Type</p></td><td><p>Size(bytes)</p></td><td><p>Data</p></td></tr>";
+
+    private static String row(String position, String type, String size, String data) {
+        return "<tr><td><p>" + position + "</p></td><td><p>" + type + "</p></td><td><p>" + size
+                + "</p></td><td>" + data + "</td></tr>";
+    }
+
+    private static final String SPEC = "<html><body>"
+            + "<p><i>Message code = 2900</i></p><p><i>Message code = 2901</i></p>"
+            + "<table>" + HEADER_ROW
+            + row("53", "Unsigned Integer", "4", "<p>A/c number</p>")
+            + row("&nbsp;", "String", "3 + 1", "<p>Bank number (ASCII)</p>")
+            + row("[ 2 NBA sequence", "", "", "")
+            + row("&nbsp;", "Unsigned Integer", "1", "<p><i>Bank sequence</i><i>ii</i></p>")
+            + row("&nbsp;", "Integer", "2", "<p>Balance</p><p>1 = in cents</p>")
+            + row("]", "", "", "")
+            + row("65", "Unsigend Integer", "8", "<p>Amount</p>")
+            + row("&nbsp;", "Unsigned Integer", "N", "<p>Records</p>")
+            + row("&nbsp;", "Unsigned Integer", "4", "<p>Not reached</p>")
+            + "</table>"
+            + "<table>" + HEADER_ROW + row("53", "Unsigned Integer", "2", "<p>Variant table</p>") + "</table>"
+            + "<p><i>Message code = 2902</i></p>"
+            + "</body></html>";
+
+    @Test
+    void testCompileTableForLastMessageCode() {
+        Map<Integer, AcpLayout> layouts = AcpLayoutCompiler.compile(SPEC);
+
+        assertEquals(1, layouts.size());
+        AcpLayout layout = layouts.get(2901);
+        assertTrue(layout.isVariable());
+        assertEquals(7, layout.fieldCount());
+
+        assertEquals("A/c number", layout.name(0));
+        assertEquals("52-55", layout.position(0, AcpHeader.STANDARD_SIZE));
+        assertEquals("56-59", layout.position(0, AcpHeader.BCS_SIZE));
+        assertEquals("Bank number", layout.name(1));
+        assertEquals(AcpLayout.STRING, layout.dataType(1));
+        assertEquals(4, layout.size(1));
+        assertEquals("Bank sequence - 1", layout.name(2));
+        assertEquals("Balance - 1", layout.name(3));
+        assertEquals(AcpLayout.INTEGER, layout.dataType(3));
+        assertEquals("Bank sequence - 2", layout.name(4));
+        assertEquals("63", layout.position(4, AcpHeader.STANDARD_SIZE));
+        assertEquals("Amount", layout.name(6));
+        assertEquals(AcpLayout.UNSIGNED_INTEGER, layout.dataType(6));
+        assertEquals("64-71", layout.position(6, AcpHeader.STANDARD_SIZE));
+    }
+
+    @Test
+    void testDecodeValues() {
+        AcpLayout layout = AcpLayoutCompiler.compile(SPEC).get(2901);
+        byte[] message = new byte[AcpHeader.STANDARD_SIZE + 20];
+        message[52] = 0x39;
+        message[53] = 0x30; // 12345
+        message[56] = '0';
+        message[57] = '0';
+        message[58] = '4';
+        message[60] = 1;
+        message[61] = (byte) 0xFE;
+        message[62] = (byte) 0xFF; // -2
+        AcpFrame frame = AcpFrame.wrap(message);
+
+        assertEquals(12345L, layout.value(frame.buffer(), AcpHeader.STANDARD_SIZE, 0));
+        assertEquals("004", layout.value(frame.buffer(), AcpHeader.STANDARD_SIZE, 1));
+        assertEquals(1, layout.value(frame.buffer(), AcpHeader.STANDARD_SIZE, 2));
+        assertEquals(-2, layout.value(frame.buffer(), AcpHeader.STANDARD_SIZE, 3));
+        assertEquals(6, layout.fieldsWithin(19));
+        assertEquals(7, layout.fieldsWithin(20));
+    }
+
+    @Test
+    void testCompileInterfaceSpec() throws Exception {
+        Path spec = Paths.get("acp_message.htm");
+        assumeTrue(Files.isRegularFile(spec), "acp_message.htm not in working directory");
+
+        Map<Integer, AcpLayout> layouts = AcpLayoutCompiler.compile(
+                new String(Files.readAllBytes(spec), Charset.forName("Big5")));
+
+        assertTrue(layouts.size() >= 70, "layouts: " + layouts.size());
+        AcpLayout layout = layouts.get(2658);
+        assertFalse(layout.isVariable());
+        assertEquals("Customer surname", layout.name(3));
+        assertEquals("Bank account number - 2", layout.name(22));
+        // Named and typed as the hand-written 2658 parser did
+        assertEquals("Online application ref no.", layout.name(24));
+        assertEquals(AcpLayout.STRING, layout.dataType(5));
+        for (int field : new int[] {8, 14, 16, 17, 20, 21}) {
+            assertEquals(AcpLayout.UNSIGNED_INTEGER, layout.dataType(field), layout.name(field));
+        }
+        assertEquals("Branch number - 2", layout.name(21));
+        assertEquals("221-261", layout.position(layout.fieldCount() - 1, AcpHeader.BCS_SIZE));
+        assertEquals("Date", layouts.get(2622).name(2));
+    }
+}
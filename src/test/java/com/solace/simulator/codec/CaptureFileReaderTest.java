@@ -0,0 +1,109 @@
+package com.solace.simulator.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reading capture files through a small window
+ */
+class CaptureFileReaderTest {
+
+    private static final int WINDOW = 64;
+
+    @TempDir
+    Path directory;
+
+    private static List<String> readAll(CaptureFileReader reader, List<Long> offsets) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (reader) {
+            while (reader.next()) {
+                ByteBuffer record = reader.record();
+                byte[] bytes = new byte[record.remaining()];
+                record.get(bytes);
+                records.add(reader.getFormat() == CaptureFileReader.Format.HEX
+                        ? new String(bytes, StandardCharsets.US_ASCII) : AcpFormat.hex(bytes, 0, bytes.length, (char) 0));
+                offsets.add(reader.recordOffset());
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void testHexLinesAcrossWindowsFromFileAndStream() throws Exception {
+        StringBuilder text = new StringBuilder("# capture of 2024-01-01\r\n\r\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String line = String.format("F30A %02X14 %04X", i, i * 7);
+            expected.add(line);
+            text.append("  ").append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        text.append("620A1614"); // last line without a newline
+        expected.add("620A1614");
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        Path file = Files.write(directory.resolve("capture.txt"), bytes);
+
+        List<Long> offsets = new ArrayList<>();
+        CaptureFileReader local = CaptureFileReader.open(file, null, WINDOW);
+        assertEquals(CaptureFileReader.Format.HEX, local.getFormat());
+        assertEquals(expected, readAll(local, offsets));
+        assertEquals(text.indexOf("F30A 0014"), offsets.get(0));
+        assertEquals(text.indexOf("620A1614"), offsets.get(50));
+
+        CaptureFileReader streamed = CaptureFileReader.open(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), -1, null, WINDOW);
+        assertEquals(expected, readAll(streamed, new ArrayList<>()));
+    }
+
+    @Test
+    void testBinaryRecordsAcrossWindows() throws Exception {
+        ByteArrayOutputStream capture = new ByteArrayOutputStream();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            byte[] message = new byte[i % 50];
+            for (int j = 0; j < message.length; j++) {
+                message[j] = (byte) (i + j);
+            }
+            capture.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(message.length).array());
+            capture.write(message);
+            expected.add(AcpFormat.hex(message, 0, message.length, (char) 0));
+        }
+        Path file = Files.write(directory.resolve("capture.bin"), capture.toByteArray());
+
+        CaptureFileReader local = CaptureFileReader.open(file, null, WINDOW);
+        assertEquals(CaptureFileReader.Format.BINARY, local.getFormat());
+        assertEquals(expected, readAll(local, new ArrayList<>()));
+        CaptureFileReader streamed = CaptureFileReader.open(
+                Channels.newChannel(new ByteArrayInputStream(capture.toByteArray())), capture.size(),
+                CaptureFileReader.Format.BINARY, WINDOW);
+        assertEquals(expected, readAll(streamed, new ArrayList<>()));
+    }
+
+    @Test
+    void testTruncatedAndOversizedRecordsFail() throws Exception {
+        byte[] truncated = {10, 0, 0, 0, 1, 2, 3};
+        CaptureFileReader reader = CaptureFileReader.open(Files.write(directory.resolve("truncated.bin"), truncated),
+                CaptureFileReader.Format.BINARY, WINDOW);
+        assertThrows(IOException.class, reader::next);
+        reader.close();
+
+        byte[] longLine = "0A".repeat(WINDOW).getBytes(StandardCharsets.US_ASCII);
+        reader = CaptureFileReader.open(Files.write(directory.resolve("long.txt"), longLine), null, WINDOW);
+        assertThrows(IOException.class, reader::next);
+        reader.close();
+        assertThrows(IllegalArgumentException.class, () -> CaptureFileReader.Format.parse("pcap"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.solace.simulator.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the segmented capture journal
+ */
+class CaptureJournalTest {
+
+    // Room for the segment header and five 128-byte records
+    private static final int SEGMENT_SIZE = JournalSegment.HEADER_SIZE + 5 * 128 + 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsRollAcrossSegmentsAndReopenContinuesSequence() throws Exception {
+        String[] properties = {"terminal", "1201", "empty", null};
+
+        try (CaptureJournal journal = journal(Long.MAX_VALUE)) {
+            for (int i = 0; i < 12; i++) {
+                journal.append(i % 2 == 0 ? JournalRecord.SENT : JournalRecord.RECEIVED, JournalRecord.TYPE_BYTES,
+                        1_000L + i, "acp/request", properties, payload(i), 60);
+            }
+            assertEquals(3, journal.getStats().get("segments"));
+            assertEquals(2L, journal.getStats().get("rolls"));
+        }
+        assertEquals(3, CaptureJournal.segmentFiles(directory).size());
+
+        // Reopening starts a new segment after the last record
+        try (CaptureJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(12L, journal.append(JournalRecord.RECEIVED, JournalRecord.TYPE_TEXT, 2_000L, "acp/reply",
+                    null, null, 0));
+            List<Long> sequences = new ArrayList<>();
+            journal.forEach(record -> {
+                sequences.add(record.sequence());
+                if (record.sequence() == 3) {
+                    assertEquals(JournalRecord.RECEIVED, record.direction());
+                    assertEquals(1_003L, record.timestampNanos());
+                    assertEquals("acp/request", record.destination());
+                    assertEquals("1201", record.properties().get("terminal"));
+                    assertTrue(record.properties().containsKey("empty"));
+                    assertNull(record.properties().get("empty"));
+                    assertArrayEquals(payload(3), record.payload());
+                }
+            });
+            assertEquals(13, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testRetentionDeletesOldestSegmentsButKeepsActive() throws Exception {
+        try (CaptureJournal journal = journal(2L * SEGMENT_SIZE)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i, "acp/request", null, payload(i), 60);
+            }
+            journal.applyRetention();
+            assertEquals(2, journal.getStats().get("segments"));
+            assertEquals(2, CaptureJournal.segmentFiles(directory).size());
+            List<Long> sequences = new ArrayList<>();
+            journal.forEach(record -> sequences.add(record.sequence()));
+            assertEquals(19L, sequences.get(sequences.size() - 1));
+            assertEquals(10L, sequences.get(0));
+
+            byte[] tooLarge = new byte[SEGMENT_SIZE];
+            assertThrows(IllegalArgumentException.class, () -> journal.append(JournalRecord.SENT,
+                    JournalRecord.TYPE_BYTES, 0, "acp/request", null, tooLarge, tooLarge.length));
+        }
+        assertThrows(IllegalArgumentException.class, () -> FlushPolicy.parse("fsync"));
+    }
+
+    @Test
+    void testRetentionUnmapsAndDeletesASegmentOnlyAfterItsReaders() throws Exception {
+        try (CaptureJournal journal = journal(2L * SEGMENT_SIZE)) {
+            for (int i = 0; i < 8; i++) {
+                journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i, "acp/request", null, payload(i), 60);
+            }
+            Path oldest = CaptureJournal.segmentFiles(directory).get(0);
+            List<Long> sequences = new ArrayList<>();
+            journal.forEach(record -> {
+                if (record.sequence() == 0) {
+                    // Fill a third segment, so the one being read goes over the size limit
+                    for (int i = 8; i < 15; i++) {
+                        try {
+                            journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i, "acp/request", null,
+                                    payload(i), 60);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    journal.applyRetention();
+                    assertEquals(2, journal.getStats().get("segments"));
+                    assertTrue(Files.exists(oldest));
+                }
+                // Still mapped for this reader
+                assertArrayEquals(payload((int) record.sequence()), record.payload());
+                sequences.add(record.sequence());
+            });
+            assertEquals(10, sequences.size());
+            assertEquals(9L, sequences.get(9));
+            assertFalse(Files.exists(oldest));
+            assertEquals(1L, journal.getStats().get("deletedSegments"));
+        }
+    }
+
+    @Test
+    void testTornRecordEndsTheSegment() throws Exception {
+        try (CaptureJournal journal = journal(Long.MAX_VALUE)) {
+            for (int i = 0; i < 4; i++) {
+                journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i, "acp/request", null, payload(i), 60);
+            }
+        }
+        // A crash that wrote the length of the third record but not all of its metadata
+        Path segment = CaptureJournal.segmentFiles(directory).get(0);
+        int third = JournalSegment.HEADER_SIZE + 2 * JournalRecord.recordLength(2 + "acp/request".length() + 2, 60);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0}), third + JournalRecord.HEADER_SIZE + 2);
+        }
+
+        try (JournalSegment reopened = JournalSegment.open(segment)) {
+            assertEquals(2, reopened.getRecords());
+            assertEquals(1L, reopened.getLastSequence());
+            assertEquals(third, reopened.getPosition());
+            assertFalse(reopened.read(third, new JournalRecord()));
+        }
+        try (CaptureJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(2L, journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, 4, "acp/request", null,
+                    payload(4), 60));
+        }
+    }
+
+    @Test
+    void testIndexesAreSealedOnRollAndRebuiltWhenMissing() throws Exception {
+        // Two fields: the first payload byte, and the second one for odd first bytes only
+        RecordKeys keys = new RecordKeys() {
+            @Override
+            public String[] fieldNames() {
+                return new String[] {"first", "second"};
+            }
+
+            @Override
+            public int extract(int type, byte[] payload, int length, long[] keys) {
+                keys[0] = payload[0];
+                keys[1] = payload[1];
+                return payload[0] % 2 != 0 ? 0b11 : 0b01;
+            }
+        };
+        try (CaptureJournal journal = journal(Long.MAX_VALUE, keys)) {
+            for (int i = 0; i < 12; i++) {
+                journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i, "acp/request", null,
+                        new byte[] {(byte) (i % 3), (byte) (i % 2), 0, 0}, 4);
+            }
+            journal.flush();
+            assertEquals(List.of(0L, 3L, 6L, 9L), sequences(journal, "first", 0, -1, 100));
+            assertEquals(List.of(6L, 9L), sequences(journal, "first", 0, 3, 2));
+            assertEquals(List.of(1L, 7L), sequences(journal, "second", 1, -1, 100));
+            assertThrows(IllegalArgumentException.class, () -> journal.query("third", 0, -1, 1, record -> { }));
+        }
+        List<Path> indexes;
+        try (var files = Files.list(directory)) {
+            indexes = files.filter(path -> path.toString().endsWith(JournalIndex.SUFFIX)).sorted().toList();
+        }
+        // The full segment's index was sealed on roll, the active one's on close
+        assertEquals(2, indexes.size());
+
+        // Sealed indexes are mapped on reopen; a missing one is rebuilt from the records
+        Files.delete(indexes.get(0));
+        try (CaptureJournal journal = journal(Long.MAX_VALUE, keys)) {
+            assertEquals(List.of(2L, 5L, 8L, 11L), sequences(journal, "first", 2, -1, 100));
+        }
+        assertTrue(Files.exists(indexes.get(0)));
+    }
+
+    private static List<Long> sequences(CaptureJournal journal, String field, long key, long after, int limit) {
+        List<Long> sequences = new ArrayList<>();
+        journal.query(field, key, after, limit, record -> sequences.add(record.sequence()));
+        return sequences;
+    }
+
+    private CaptureJournal journal(long maxBytes, RecordKeys keys) throws Exception {
+        return new CaptureJournal(directory, SEGMENT_SIZE, FlushPolicy.RECORDS, 1000, 4, maxBytes, 60_000, keys);
+    }
+
+    private CaptureJournal journal(long maxBytes) throws Exception {
+        return new CaptureJournal(directory, SEGMENT_SIZE, FlushPolicy.RECORDS, 1000, 4, maxBytes, 60_000);
+    }
+
+    private static byte[] payload(int seed) {
+        byte[] payload = new byte[60];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (seed + i);
+        }
+        return payload;
+    }
+}
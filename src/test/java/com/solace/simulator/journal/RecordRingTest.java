@@ -0,0 +1,130 @@
+package com.solace.simulator.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the in-memory ring of recently received messages
+ */
+class RecordRingTest {
+
+    private static ByteBuffer metadata(String destination) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+        JournalRecord.writeMetadata(buffer, destination.getBytes(), null);
+        return buffer.flip();
+    }
+
+    private static List<Long> sequences(RecordRing ring, long after, int limit) {
+        List<Long> sequences = new ArrayList<>();
+        ring.read(after, limit, record -> sequences.add(record.sequence()));
+        return sequences;
+    }
+
+    @Test
+    void testOldestRecordsAreEvictedToStayWithinCapacityAcrossWraps() throws Exception {
+        // Each record is 40 header + 12 metadata + 30 payload, padded to 88 bytes; five fit in 440
+        RecordRing ring = new RecordRing(440);
+        for (long sequence = 0; sequence < 23; sequence++) {
+            byte[] payload = new byte[30];
+            payload[0] = (byte) sequence;
+            ring.append(sequence, JournalRecord.TYPE_BYTES, sequence * 1000, metadata("acp/test"), payload, 30);
+            assertTrue(ring.getUsedBytes() <= ring.getCapacity());
+        }
+
+        assertEquals(5, ring.getCount());
+        assertEquals(18, ring.getFirstSequence());
+        assertEquals(22, ring.getLastSequence());
+        assertEquals(18, ring.getEvicted());
+        List<JournalRecord> records = new ArrayList<>();
+        ring.read(-1, 100, record -> {
+            assertEquals("acp/test", record.destination());
+            assertEquals((byte) record.sequence(), record.payload()[0]);
+            assertEquals(record.sequence() * 1000, record.timestampNanos());
+            records.add(record);
+        });
+        assertEquals(5, records.size());
+    }
+
+    @Test
+    void testRecordsOfMixedSizesSurviveWrapping() throws Exception {
+        RecordRing ring = new RecordRing(1000);
+        Random random = new Random(42);
+        for (long sequence = 0; sequence < 2000; sequence++) {
+            byte[] payload = new byte[random.nextInt(300)];
+            Arrays.fill(payload, (byte) sequence);
+            ring.append(sequence, JournalRecord.TYPE_BYTES, 0, metadata("acp/" + sequence), payload, payload.length);
+
+            long[] expected = {ring.getFirstSequence()};
+            ring.read(-1, Integer.MAX_VALUE, record -> {
+                assertEquals(expected[0]++, record.sequence());
+                assertEquals("acp/" + record.sequence(), record.destination());
+                for (byte b : record.payload()) {
+                    assertEquals((byte) record.sequence(), b);
+                }
+            });
+            assertEquals(sequence + 1, expected[0]);
+        }
+    }
+
+    @Test
+    void testPagingAfterSequence() throws Exception {
+        RecordRing ring = new RecordRing(64 * 1024);
+        for (long sequence = 100; sequence < 110; sequence++) {
+            ring.append(sequence, JournalRecord.TYPE_TEXT, 0, metadata("acp/text"), "hello".getBytes(), 5);
+        }
+        assertEquals(List.of(100L, 101L, 102L), sequences(ring, -1, 3));
+        assertEquals(List.of(103L, 104L, 105L), sequences(ring, 102, 3));
+        assertEquals(List.of(108L, 109L), sequences(ring, 107, 3));
+        assertEquals(List.of(), sequences(ring, 109, 3));
+    }
+
+    @Test
+    void testCopyMatchesReadAcrossAWrap() throws Exception {
+        RecordRing ring = new RecordRing(440);
+        for (long sequence = 0; sequence < 13; sequence++) {
+            byte[] payload = new byte[30];
+            payload[0] = (byte) sequence;
+            ring.append(sequence, JournalRecord.TYPE_BYTES, sequence, metadata("acp/test"), payload, 30);
+        }
+
+        ByteBuffer copy = ring.copy(9, 10);
+        JournalRecord record = new JournalRecord();
+        List<Long> copied = new ArrayList<>();
+        for (int offset = 0; offset < copy.limit(); offset += record.length()) {
+            record.wrap(copy, offset);
+            assertEquals("acp/test", record.destination());
+            assertEquals((byte) record.sequence(), record.payload()[0]);
+            copied.add(record.sequence());
+        }
+        assertEquals(sequences(ring, 9, 10), copied);
+        assertEquals(List.of(10L, 11L, 12L), copied);
+        assertEquals(5, ring.copy(-1, 100).limit() / 88);
+        assertFalse(ring.copy(12, 10).hasRemaining());
+    }
+
+        @Test
+    void testGapsAndOversizedRecords() throws Exception {
+        RecordRing ring = new RecordRing(128);
+        ring.append(0, JournalRecord.TYPE_BYTES, 0, metadata("a"), new byte[8], 8);
+        ring.append(1, JournalRecord.TYPE_BYTES, 0, metadata("a"), new byte[8], 8);
+        // A jump in sequence (pipeline restarted) starts over rather than mixing two numberings
+        ring.append(7, JournalRecord.TYPE_BYTES, 0, metadata("a"), new byte[8], 8);
+        assertEquals(List.of(7L), sequences(ring, -1, 10));
+
+        // Larger than the whole ring: kept without its payload
+        ring.append(8, JournalRecord.TYPE_BYTES, 0, metadata("a"), new byte[500], 500);
+        assertEquals(1, ring.getTruncated());
+        ring.read(7, 1, record -> {
+            assertEquals(8, record.sequence());
+            assertEquals(0, record.payloadLength());
+        });
+    }
+}
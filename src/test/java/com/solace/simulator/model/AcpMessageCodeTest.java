@@ -0,0 +1,38 @@
+package com.solace.simulator.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the message and reply code lookup tables
+ */
+class AcpMessageCodeTest {
+
+    @Test
+    void testLookupMatchesDeclaredCodes() {
+        for (AcpMessageCode code : AcpMessageCode.values()) {
+            assertEquals(code.getCode(), AcpMessageCode.fromCode(code.getCode()).getCode());
+            assertEquals(code.getDescription().contains("Request"), code.isRequest());
+            assertEquals(code.getDescription().contains("Reply"), code.isReply());
+        }
+        assertEquals(AcpMessageCode.UNKNOWN, AcpMessageCode.fromCode(-1));
+        assertEquals(AcpMessageCode.UNKNOWN, AcpMessageCode.fromCode(4321));
+        assertEquals(AcpMessageCode.UNKNOWN, AcpMessageCode.fromCode(0xFFFF));
+
+        assertEquals(AcpReplyCode.OLD_TRANSACTION, AcpReplyCode.fromCode(3));
+        assertEquals(AcpReplyCode.UNKNOWN_ERROR, AcpReplyCode.fromCode(5));
+        assertEquals(AcpReplyCode.UNKNOWN_ERROR, AcpReplyCode.fromCode(65535));
+    }
+
+    @Test
+    void testRequestReplyPairs() {
+        AcpMessageCode request = AcpMessageCode.fromCode(2604);
+
+        assertEquals(AcpMessageCode.ACCOUNT_OPEN_REPLY, request.getReplyMessageCode());
+        assertEquals(2659, request.getReplyMessageCode().getCode());
+        assertEquals(request, AcpMessageCode.ACCOUNT_OPEN_REPLY.getRequestMessageCode());
+        assertEquals(AcpMessageCode.UNKNOWN, AcpMessageCode.ACCOUNT_OPEN_REPLY.getReplyMessageCode());
+        assertEquals(AcpMessageCode.UNKNOWN, AcpMessageCode.IMPLICIT_REVERSE_ACP.getRequestMessageCode());
+    }
+}
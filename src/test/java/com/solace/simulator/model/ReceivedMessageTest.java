@@ -0,0 +1,80 @@
+package com.solace.simulator.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.jms.Message;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the compact received message and its JSON form
+ */
+class ReceivedMessageTest {
+
+    // Configured like the application's mapper
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void testBytesMessageIsRenderedFromCopiedProperties() throws Exception {
+        Message jmsMessage = mock(Message.class);
+        when(jmsMessage.getPropertyNames()).thenAnswer(invocation -> Collections.enumeration(List.of("terminal")));
+        when(jmsMessage.getStringProperty("terminal")).thenReturn("1201");
+
+        ReceivedMessage message = new ReceivedMessage();
+        message.setDestination("acp/reply");
+        message.setMessageType("BYTE");
+        message.setPayload(new byte[] {0x0B, 0x0A, 'O', 'K', (byte) 0xFF});
+        message.setProperties(ReceivedMessage.properties(jmsMessage));
+        message.setTimestamp(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_000_000));
+        // The message is not referenced after the copy
+        clearInvocations(jmsMessage);
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(message));
+        assertEquals("acp/reply", json.get("destination").asText());
+        assertEquals("BYTE", json.get("messageType").asText());
+        assertEquals("..OK.", json.get("content").asText());
+        assertEquals("0B 0A 4F 4B FF", json.get("hexContent").asText());
+        assertEquals("1201", json.get("headers").get("terminal").asText());
+        assertEquals("2024-01-02T03:04:05.123", json.get("timestamp").asText());
+        assertEquals(Map.of("terminal", "1201"), message.getHeaders());
+        verifyNoInteractions(jmsMessage);
+    }
+
+    @Test
+    void testTextMessageAndTimestampConversion() throws Exception {
+        ReceivedMessage message = new ReceivedMessage();
+        message.setMessageType("TEXT");
+        message.setText("hé");
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(message));
+        assertEquals("hé", json.get("content").asText());
+        assertEquals("68 C3 A9", json.get("hexContent").asText());
+        assertTrue(json.get("headers").isNull());
+
+        long before = System.currentTimeMillis();
+        long nanos = ReceivedMessage.epochNanos(System.nanoTime());
+        // Derived from a clock base at most a second old; only drift since then separates the two
+        assertTrue(Math.abs(nanos / 1_000_000 - before) < 1000);
+    }
+
+    @Test
+    void testStaleClockBaseIsReadAgain() {
+        // A base two seconds old that is an hour off, as after a wall clock step
+        long hour = 3_600_000_000_000L;
+        long stale = System.nanoTime() - 2_000_000_000L;
+        ReflectionTestUtils.setField(ReceivedMessage.class, "clockBase",
+                new ReceivedMessage.ClockBase(stale, System.currentTimeMillis() * 1_000_000 - hour));
+
+        long nanos = ReceivedMessage.epochNanos(System.nanoTime());
+        assertTrue(Math.abs(nanos / 1_000_000 - System.currentTimeMillis()) < 1000);
+    }
+}
@@ -0,0 +1,88 @@
+package com.solace.simulator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.model.AcpMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for decoding batches of ACP messages on the fork-join pool
+ */
+class AcpBatchParserTest {
+
+    private AcpBatchParser batchParser;
+
+    @BeforeEach
+    void setUp() {
+        batchParser = new AcpBatchParser();
+        ReflectionTestUtils.setField(batchParser, "acpMessageParser", new AcpMessageParser());
+        ReflectionTestUtils.setField(batchParser, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(batchParser, "parallelism", 4);
+        batchParser.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchParser.shutdown();
+    }
+
+    @Test
+    void testResultsKeepInputOrderWithPerMessageErrors() {
+        // Enough messages to be split over several fork-join tasks; every 100th is not hex
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i > 0 ? "," : "").append('"')
+                    .append(i % 100 == 99 ? "XYZ" : String.format("%02X%02X", i & 0xFF, i >> 8)).append('"');
+        }
+        byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        AcpBatchParser.InputFormat format = AcpBatchParser.detectFormat("application/json", body);
+        Map<String, Object> response = batchParser.parse(body, format, "basic");
+
+        assertEquals(1000, response.get("count"));
+        assertEquals(10, response.get("failed"));
+        assertEquals(4, response.get("parallelism"));
+        Object[] results = (Object[]) response.get("results");
+        for (int i = 0; i < results.length; i++) {
+            Map<?, ?> result = (Map<?, ?>) results[i];
+            assertEquals(i, result.get("index"));
+            if (i % 100 == 99) {
+                assertNotNull(result.get("error"));
+            } else {
+                assertEquals(i, ((AcpMessage) result.get("result")).getFields().get("Field_0_1"));
+            }
+        }
+    }
+
+    @Test
+    void testNdjsonAndBinaryInput() {
+        byte[] ndjson = "F30A\n\n\"29 14\"\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(AcpBatchParser.InputFormat.NDJSON, AcpBatchParser.detectFormat(null, ndjson));
+        Object[] results = (Object[]) batchParser.parse(ndjson, AcpBatchParser.InputFormat.NDJSON, "basic").get("results");
+        assertEquals(2, results.length);
+        assertEquals(5161, ((AcpMessage) ((Map<?, ?>) results[1]).get("result")).getFields().get("Field_0_1"));
+
+        ByteBuffer binary = ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN);
+        binary.putInt(2).put(new byte[] {(byte) 0xF3, 0x0A}).putInt(4).put(new byte[] {0x29, 0x14, 0, 0});
+        assertEquals(AcpBatchParser.InputFormat.BINARY,
+                AcpBatchParser.detectFormat("application/octet-stream", binary.array()));
+        results = (Object[]) batchParser.parse(binary.array(), AcpBatchParser.InputFormat.BINARY, "basic").get("results");
+        assertEquals(2803, ((AcpMessage) ((Map<?, ?>) results[0]).get("result")).getFields().get("Field_0_1"));
+        assertEquals(5161, ((AcpMessage) ((Map<?, ?>) results[1]).get("result")).getFields().get("Field_0_1"));
+
+        // A length running past the end of the body fails the batch; there is no way to resynchronise
+        byte[] truncated = {10, 0, 0, 0, 1, 2};
+        assertThrows(IllegalArgumentException.class,
+                () -> batchParser.parse(truncated, AcpBatchParser.InputFormat.BINARY, "basic"));
+        assertThrows(IllegalArgumentException.class, () -> batchParser.parse(ndjson, AcpBatchParser.InputFormat.NDJSON, "fancy"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.solace.simulator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the segmented-LRU decode result cache
+ */
+class AcpDecodeCacheTest {
+
+    // Every entry weighs 256 bytes: 8-byte payload, JSON and the fixed overhead
+    private static final int WEIGHT = 256;
+    private static final byte[] JSON = new byte[WEIGHT - 8 - AcpDecodeCache.ENTRY_OVERHEAD];
+
+    private AcpDecodeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AcpDecodeCache();
+        // Room for 10 entries, 8 of them protected
+        ReflectionTestUtils.setField(cache, "maxBytes", 10L * WEIGHT);
+    }
+
+    private static ByteBuffer message(long id) {
+        return ByteBuffer.allocate(8).putLong(0, id);
+    }
+
+    private boolean lookup(long id) {
+        AcpDecodeCache.Key key = cache.key(message(id), "enhanced");
+        if (cache.get(key) != null) {
+            return true;
+        }
+        cache.put(key, JSON);
+        return false;
+    }
+
+    @Test
+    void testHitsAreKeyedByBytesAndView() {
+        byte[] json = "{\"fields\":{}}".getBytes();
+        // Same bytes at a different offset of a larger buffer, as read into a pooled buffer
+        ByteBuffer pooled = ByteBuffer.allocate(64).put(new byte[]{0x62, 0x0A, 0x16, 0x14}).flip();
+        cache.put(cache.key(pooled, "spec"), json);
+        pooled.put(0, (byte) 0x63);
+
+        assertSame(json, cache.get(cache.key(ByteBuffer.wrap(new byte[]{0x62, 0x0A, 0x16, 0x14}), "spec")));
+        assertNull(cache.get(cache.key(ByteBuffer.wrap(new byte[]{0x62, 0x0A, 0x16, 0x14}), "enhanced")));
+        assertNull(cache.get(cache.key(ByteBuffer.wrap(new byte[]{0x62, 0x0A, 0x16}), "spec")));
+        assertNotEquals(AcpDecodeCache.hash(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9})),
+                AcpDecodeCache.hash(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 10})));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1, stats.get("entries"));
+    }
+
+    @Test
+    void testScanDoesNotEvictRepeatedlyUsedEntries() {
+        for (long id = 0; id < 5; id++) {
+            lookup(id);
+            assertTrue(lookup(id));
+        }
+        for (long id = 100; id < 1100; id++) {
+            assertFalse(lookup(id));
+        }
+        for (long id = 0; id < 5; id++) {
+            assertTrue(lookup(id), "protected entry " + id);
+        }
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(10, stats.get("entries"));
+        assertEquals(10L * WEIGHT, stats.get("bytes"));
+        assertEquals(995L, stats.get("evictions"));
+    }
+
+    @Test
+    void testProtectedOverflowIsDemotedAndOversizedResultsRejected() {
+        for (long id = 0; id < 10; id++) {
+            lookup(id);
+            lookup(id);
+        }
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(8, stats.get("protectedEntries"));
+        assertEquals(10, stats.get("entries"));
+        assertTrue(lookup(0) && lookup(1), "demoted entries are still cached");
+
+        cache.put(cache.key(message(42), "enhanced"), new byte[3 * WEIGHT]);
+        assertEquals(1L, cache.getStats().get("rejected"));
+        assertNull(cache.get(cache.key(message(42), "enhanced")));
+
+        cache.clear();
+        assertEquals(0L, cache.getStats().get("bytes"));
+    }
+}
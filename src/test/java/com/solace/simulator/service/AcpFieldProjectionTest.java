@@ -0,0 +1,127 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFrame;
+import com.solace.simulator.model.AcpParsedField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compact view of requested fields
+ */
+class AcpFieldProjectionTest {
+
+    // 2803 reply with the 52-byte standard header
+    private static final String MESSAGE_2803 = "F30A291408000101000000000000000000002A5AB300000000001209E8070C0C375E0700000000314730332020202059B301002204000001EBE50400FEFF7F0000000058";
+
+    // 2658 account open request with the 56-byte BCS header
+    private static final String MESSAGE_2658 = "620A16142400010100000000000000000000BC2E000000000000000000000000004F070000C60041413430303239386CE80E00000000000444440F0033080000014E414D4500000000000000000000000000000000004D454E4100000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000010701030000813F0100010100000000000000000000000000000000000000000002000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000057";
+
+    private final AcpFieldProjection projection = new AcpFieldProjection();
+    private final AcpMessageEnhancedParser enhancedParser = new AcpMessageEnhancedParser();
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws Exception {
+        AcpLayoutRegistry registry = TestLayouts.bundled(tempDir);
+        ReflectionTestUtils.setField(projection, "layoutRegistry", registry);
+        ReflectionTestUtils.setField(enhancedParser, "layoutRegistry", registry);
+    }
+
+    @Test
+    void testEveryFieldMatchesTheEnhancedView() {
+        for (String hex : new String[] {MESSAGE_2803, MESSAGE_2658}) {
+            List<String> names = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (AcpParsedField field : enhancedParser.parseEnhanced(hex).getParsedFields()) {
+                // Fields without a name of their own (uncovered body bytes) and repeated names are not addressable
+                if (!field.getData().equals("Message body") && seen.add(AcpFieldProjection.normalize(field.getData()))) {
+                    names.add(field.getData());
+                    expected.add(field.getMsgDataValue().equals("(empty)") ? "" : field.getMsgDataValue());
+                }
+            }
+
+            Map<String, Object> compact = projection.compile(String.join(",", names)).apply(AcpFrame.fromHex(hex));
+            assertEquals(names, new ArrayList<>(compact.keySet()));
+            for (int i = 0; i < names.size(); i++) {
+                assertEquals(expected.get(i), String.valueOf(compact.get(names.get(i))), names.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testSample2658RendersAsInTheExample() {
+        // message_2658_example.md: bank and branch numbers are numbers, blank names "(empty)"
+        Map<String, Object> fields = enhancedParser.parseEnhanced(MESSAGE_2658).getFields();
+        for (String name : new String[] {"Bank_number_-_1", "Branch_number_-_1", "Bank_number_-_2", "Branch_number_-_2"}) {
+            assertEquals("0", fields.get(name), name);
+        }
+        assertEquals("7", fields.get("Ticket_type"));
+        assertEquals("1", fields.get("Flag"));
+        assertEquals("(empty)", fields.get("Customer_Chinese_surname"));
+        assertEquals("(empty)", fields.get("Online_application_ref_no."));
+    }
+
+    @Test
+    void testReloadedLayoutsReplaceCompiledFields(@TempDir Path tempDir) throws Exception {
+        Path spec = tempDir.resolve("acp_message.htm");
+        Files.writeString(spec, spec2803("Recorder track", "Authority mask", null));
+        AcpLayoutRegistry registry = TestLayouts.registry(spec, tempDir.resolve("layouts.json"));
+        AcpFieldProjection reloading = new AcpFieldProjection();
+        ReflectionTestUtils.setField(reloading, "layoutRegistry", registry);
+        // 2803 with standard header, then 1000, 0x0F and 7, and a checksum
+        AcpFrame frame = AcpFrame.fromHex("F30A2914" + "00".repeat(48) + "E8030000" + "0F000000" + "07" + "00");
+
+        AcpFieldProjection.Projection before = reloading.compile("Recorder track");
+        assertEquals(1000L, before.apply(frame).get("Recorder track"));
+        assertThrows(IllegalArgumentException.class, () -> reloading.compile("Colour"));
+
+        // Fields reordered and one added: compiled projections must not keep the old field indexes
+        Files.writeString(spec, spec2803("Authority mask", "Recorder track", "Colour"));
+        registry.load();
+        assertEquals(15L, before.apply(frame).get("Recorder track"));
+        Map<String, Object> after = reloading.compile("Recorder track,Colour").apply(frame);
+        assertEquals(15L, after.get("Recorder track"));
+        assertEquals(7, after.get("Colour"));
+    }
+
+    private static String spec2803(String first, String second, String third) {
+        return "<html><body><p>Message code = 2803</p><table>"
+                + "<tr><td>Byte Position</td><td>Data Type</td><td>Size(bytes)</td><td>Data</td></tr>"
+                + "<tr><td>53</td><td>Unsigned Integer</td><td>4</td><td>" + first + "</td></tr>"
+                + "<tr><td></td><td>Unsigned Integer</td><td>4</td><td>" + second + "</td></tr>"
+                + (third != null ? "<tr><td></td><td>Unsigned Integer</td><td>1</td><td>" + third + "</td></tr>" : "")
+                + "</table></body></html>";
+    }
+
+    @Test
+    void testRequestedNamesAreKeptAndAbsentFieldsOmitted() {
+        AcpFieldProjection.Projection fields = projection.compile("messageCode, Message_transaction_ID,Packet total,A/c number");
+        Map<String, Object> request = fields.apply(AcpFrame.fromHex(MESSAGE_2658));
+        assertEquals(List.of("messageCode", "Message_transaction_ID", "Packet total", "A/c number"),
+                new ArrayList<>(request.keySet()));
+        assertEquals(2658, request.get("messageCode"));
+        assertEquals(11964L, request.get("Message_transaction_ID"));
+        assertEquals(enhancedParser.parseEnhanced(MESSAGE_2658).getFields().get("A/c_number"),
+                String.valueOf(request.get("A/c number")));
+        // Standard header: no packet fields, and 2803 has no account number
+        assertEquals(Set.of("messageCode", "Message_transaction_ID"),
+                fields.apply(AcpFrame.fromHex(MESSAGE_2803)).keySet());
+        assertSame(fields, projection.compile("messageCode, Message_transaction_ID,Packet total,A/c number"));
+
+        assertThrows(IllegalArgumentException.class, () -> projection.compile("Message code,Colour"));
+        assertThrows(IllegalArgumentException.class, () -> projection.compile(" , "));
+        assertThrows(IndexOutOfBoundsException.class, () -> fields.apply(AcpFrame.fromHex("F30A2914")));
+    }
+}
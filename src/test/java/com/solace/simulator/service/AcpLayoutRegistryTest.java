@@ -0,0 +1,107 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpLayoutCompiler;
+import com.solace.simulator.model.AcpMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compiled layout cache and its use by the parsers
+ */
+class AcpLayoutRegistryTest {
+
+    private static final String SPEC = "<html><body><p>Message code = 2803</p><table>"
+            + "<tr><td>Byte Position</td><td>Data Type</td><td>Size(bytes)</td><td>Data</td></tr>"
+            + "<tr><td>53</td><td>Unsigned Integer</td><td>4</td><td>Recorder track</td></tr>"
+            + "<tr><td></td><td>Bitmap</td><td>4</td><td>Authority mask</td></tr>"
+            + "</table></body></html>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCompileOnceThenLoadFromCache() throws Exception {
+        Path spec = tempDir.resolve("acp_message.htm");
+        Path cache = tempDir.resolve("layouts.json");
+        Files.write(spec, SPEC.getBytes(StandardCharsets.US_ASCII));
+
+        AcpLayoutRegistry first = TestLayouts.registry(spec, cache);
+        assertEquals("compiled", first.getStats().get("source"));
+        assertTrue(Files.exists(cache));
+
+        AcpLayoutRegistry second = TestLayouts.registry(spec, cache);
+        assertEquals("cache", second.getStats().get("source"));
+        assertEquals("Authority mask", second.getLayout(2803).name(1));
+
+        Files.write(spec, SPEC.replace("Authority mask", "Mask").getBytes(StandardCharsets.US_ASCII));
+        AcpLayoutRegistry changed = TestLayouts.registry(spec, cache);
+        assertEquals("compiled", changed.getStats().get("source"));
+        assertEquals("Mask", changed.getLayout(2803).name(1));
+    }
+
+    @Test
+    void testWithoutSpecBundledLayoutsWinOverAnyCache() throws Exception {
+        Path spec = tempDir.resolve("acp_message.htm");
+        Path cache = tempDir.resolve("layouts.json");
+        Files.write(spec, SPEC.getBytes(StandardCharsets.US_ASCII));
+        TestLayouts.registry(spec, cache);
+        Files.delete(spec);
+
+        // A cache written for another spec, one from another compiler version and an unreadable one
+        assertEquals("bundled", TestLayouts.registry(spec, cache).getStats().get("source"));
+        Files.writeString(cache, Files.readString(cache).replace("\"compilerVersion\":" + AcpLayoutCompiler.VERSION,
+                "\"compilerVersion\":0"));
+        assertEquals("bundled", TestLayouts.registry(spec, cache).getStats().get("source"));
+        Files.writeString(cache, "{not json");
+        AcpLayoutRegistry registry = TestLayouts.registry(spec, cache);
+        assertEquals("bundled", registry.getStats().get("source"));
+        assertTrue(registry.getLayouts().size() > 1);
+    }
+
+    @Test
+    void testReloadDropsDecodeResults() throws Exception {
+        Path spec = tempDir.resolve("acp_message.htm");
+        Files.write(spec, SPEC.getBytes(StandardCharsets.US_ASCII));
+        AcpLayoutRegistry registry = TestLayouts.registry(spec, tempDir.resolve("layouts.json"));
+        AcpDecodeCache decodeCache = new AcpDecodeCache();
+        ReflectionTestUtils.setField(registry, "decodeCache", decodeCache);
+        AcpDecodeCache.Key key = decodeCache.key(ByteBuffer.wrap(new byte[] {1, 2, 3}), "spec");
+        decodeCache.put(key, "{}".getBytes(StandardCharsets.UTF_8));
+        assertNotNull(decodeCache.get(key));
+
+        Files.write(spec, SPEC.replace("Authority mask", "Mask").getBytes(StandardCharsets.US_ASCII));
+        registry.load();
+        assertNull(decodeCache.get(key));
+    }
+
+    @Test
+    void testParsersUseLayoutFieldNames() throws Exception {
+        Path spec = tempDir.resolve("acp_message.htm");
+        Files.write(spec, SPEC.getBytes(StandardCharsets.US_ASCII));
+        AcpLayoutRegistry registry = TestLayouts.registry(spec, tempDir.resolve("layouts.json"));
+
+        // 2803 with standard header, recorder track 1000, authority mask 0x0F and a checksum
+        StringBuilder hex = new StringBuilder("F30A2914");
+        hex.append("00".repeat(48)).append("E8030000").append("0F000000").append("00");
+
+        AcpMessageSpecParser specParser = new AcpMessageSpecParser();
+        ReflectionTestUtils.setField(specParser, "layoutRegistry", registry);
+        AcpMessage spec2803 = specParser.parseWithSpec(hex.toString());
+        assertEquals("1000", spec2803.getFields().get("Recorder track"));
+        assertEquals("15", spec2803.getFields().get("Authority mask"));
+
+        AcpMessageEnhancedParser enhancedParser = new AcpMessageEnhancedParser();
+        ReflectionTestUtils.setField(enhancedParser, "layoutRegistry", registry);
+        AcpMessage enhanced = enhancedParser.parseEnhanced(hex.toString());
+        assertEquals("1000", enhanced.getFields().get("Recorder_track"));
+        assertFalse(enhanced.getFields().containsKey("Message_body"));
+    }
+}
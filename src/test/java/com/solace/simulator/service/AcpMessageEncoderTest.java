@@ -0,0 +1,102 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.model.AcpMessage;
+import com.solace.simulator.model.AcpMessageHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ACP Message Encoder
+ */
+class AcpMessageEncoderTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+    private final AcpMessageEnhancedParser parser = new AcpMessageEnhancedParser();
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws Exception {
+        AcpLayoutRegistry registry = TestLayouts.bundled(tempDir);
+        ReflectionTestUtils.setField(parser, "layoutRegistry", registry);
+    }
+
+    @Test
+    void testChecksumMatchesSampleMessage() {
+        // Last byte of the sample message (0x58) is the XOR of all preceding bytes
+        byte[] bytes = hexToBytes("F30A291408000101000000000000000000002A5AB300000000001209E8070C0C375E0700000000314730332020202059B301002204000001EBE50400FEFF7F0000000058");
+
+        assertEquals(bytes[bytes.length - 1], AcpMessageEncoder.checksum(bytes, bytes.length - 1));
+    }
+
+    @Test
+    void testEncodeBcsHeaderRoundTrip() {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(2658);
+        header.setSourceSystemNumber(22);
+        header.setDestinationSystemNumber(20);
+        header.setMessageTransactionId(11964);
+        header.setLocationId(79);
+        header.setPositionNumber(7);
+        header.setPhysicalTerminalId("AA4000");
+        header.setLogicalTerminalId(977004);
+
+        byte[] body = new byte[8];
+        AcpMessageEncoder.writeUInt32LE(body, 0, 4);
+        byte[] bytes = encoder.encode(header, body);
+
+        assertEquals(56 + 8 + 1, bytes.length);
+        AcpMessage parsed = parser.parseEnhanced(bytesToHex(bytes));
+        assertEquals("2658", parsed.getFields().get("Message_code"));
+        assertEquals("1", parsed.getFields().get("Packet_total"));
+        assertEquals("11964", parsed.getFields().get("Message_transaction_ID"));
+        assertEquals("AA4000", parsed.getFields().get("Physical_terminal_ID"));
+        assertEquals("977004", parsed.getFields().get("Logical_terminal_ID"));
+        assertEquals("4", parsed.getFields().get("A/c_number"));
+        assertEquals(bytes[bytes.length - 1], AcpMessageEncoder.checksum(bytes, bytes.length - 1));
+    }
+
+    @Test
+    void testEncodeStandardHeaderUses52Bytes() {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(2610);
+        header.setSourceSystemNumber(20);
+        header.setMessageTransactionId(5);
+
+        byte[] bytes = encoder.encode(header, null);
+
+        assertEquals(53, bytes.length);
+        assertEquals(0x32, bytes[0] & 0xFF);
+        assertEquals(0x0A, bytes[1] & 0xFF);
+        assertEquals(5, bytes[14]);
+    }
+
+    @Test
+    void testPackDateAndTime() {
+        // 2024-12-12 is stored as E8 07 0C 0C
+        assertEquals(0x0C0C07E8L, AcpMessageEncoder.packDate(LocalDate.of(2024, 12, 12)));
+        assertEquals(0x1E0B0A, AcpMessageEncoder.packTime(LocalTime.of(10, 11, 30)));
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+}
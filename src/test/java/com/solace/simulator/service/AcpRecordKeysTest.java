@@ -0,0 +1,66 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFieldSpec;
+import com.solace.simulator.codec.AcpLayout;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.AcpMessageHeader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the capture journal index keys of ACP messages
+ */
+class AcpRecordKeysTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+    private final AcpRecordKeys recordKeys = new AcpRecordKeys(Map.of(2658, new AcpLayout(2658,
+            List.of(new AcpFieldSpec("A/c number", AcpLayout.UNSIGNED_INTEGER, 52, 4)), false)));
+
+    @Test
+    void testHeaderFieldsAndAccountAreExtractedForBothHeaderLayouts() {
+        for (int sourceSystem : new int[] {20, 22}) {
+            byte[] message = message(2658, sourceSystem, new byte[] {0x2A, 0x5A, (byte) 0x98, 0x00});
+            long[] keys = new long[7];
+            int mask = recordKeys.extract(JournalRecord.TYPE_BYTES, message, message.length, keys);
+
+            assertEquals(0b1111111, mask);
+            assertEquals(2658, keys[0]);
+            assertEquals(11964, keys[1]);
+            assertEquals(11963, keys[2]);
+            assertEquals(AcpRecordKeys.packTerminalId("G03"), keys[3]);
+            assertEquals(100007, keys[4]);
+            assertEquals(4711, keys[5]);
+            assertEquals(0x985A2A, keys[6]);
+        }
+    }
+
+    @Test
+    void testAccountOnlyForCodesWithAccountLayoutAndOnlyBytesMessagesIndexed() {
+        byte[] message = message(2803, 20, new byte[] {1, 2, 3, 4});
+        long[] keys = new long[7];
+        assertEquals(0b0111111, recordKeys.extract(JournalRecord.TYPE_BYTES, message, message.length, keys));
+        // Body too short for the account number
+        byte[] shortBody = message(2658, 20, new byte[] {1});
+        assertEquals(0b0111111, recordKeys.extract(JournalRecord.TYPE_BYTES, shortBody, shortBody.length, keys));
+        assertEquals(0, recordKeys.extract(JournalRecord.TYPE_TEXT, message, message.length, keys));
+        assertEquals(0, recordKeys.extract(JournalRecord.TYPE_BYTES, message, 20, keys));
+        assertEquals(AcpRecordKeys.ACCOUNT, recordKeys.fieldNames()[6]);
+    }
+
+    private byte[] message(int code, int sourceSystem, byte[] body) {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(code);
+        header.setSourceSystemNumber(sourceSystem);
+        header.setDestinationSystemNumber(20);
+        header.setMessageTransactionId(11964);
+        header.setLastTransactionId(11963);
+        header.setPhysicalTerminalId("G03");
+        header.setLogicalTerminalId(100007);
+        header.setLocationId(4711);
+        return encoder.encode(header, body);
+    }
+}
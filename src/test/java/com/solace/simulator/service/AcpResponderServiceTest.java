@@ -0,0 +1,125 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.AcpMessage;
+import com.solace.simulator.model.AcpMessageHeader;
+import com.solace.simulator.model.ResponderRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.jms.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the automatic ACP responder
+ */
+class AcpResponderServiceTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+    private final AcpMessageEnhancedParser parser = new AcpMessageEnhancedParser();
+
+    private SolaceJmsService jmsService;
+    private AcpResponderService responder;
+    private Queue replyTo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jmsService = mock(SolaceJmsService.class);
+        responder = new AcpResponderService();
+        ReflectionTestUtils.setField(responder, "solaceJmsService", jmsService);
+        ReflectionTestUtils.setField(responder, "acpMessageEncoder", encoder);
+        responder.init();
+        responder.setEnabled(true);
+
+        replyTo = mock(Queue.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        responder.shutdown();
+    }
+
+    @Test
+    void testRepliesWithPairedCodeSwappedSystemsAndEchoedTransactionId() throws Exception {
+        ResponderRule rule = new ResponderRule(2604);
+        rule.setReplyCode(3);
+        rule.setBodyHex("01 02 03 04");
+        responder.putRule(rule);
+
+        responder.onMessage(event(request(2604, 22, 20, 11964)));
+
+        ArgumentCaptor<byte[]> reply = ArgumentCaptor.forClass(byte[].class);
+        verify(jmsService).sendReply(eq(replyTo), reply.capture(), eq(52 + 4 + 1), eq("ID:1"));
+        AcpMessage parsed = parser.parseEnhanced(bytesToHex(reply.getValue()));
+        assertEquals("2659", parsed.getFields().get("Message_code"));
+        assertEquals("20", parsed.getFields().get("Source_system_number"));
+        assertEquals("22", parsed.getFields().get("Destination_system_number"));
+        assertEquals("3", parsed.getFields().get("Reply_code"));
+        assertEquals("11964", parsed.getFields().get("Message_transaction_ID"));
+    }
+
+    @Test
+    void testDisabledRuleAndRepliesAreIgnored() throws Exception {
+        ResponderRule rule = new ResponderRule(2604);
+        rule.setEnabled(false);
+        responder.putRule(rule);
+
+        responder.onMessage(event(request(2604, 22, 20, 1)));
+        responder.onMessage(event(request(2659, 20, 22, 1)));
+
+        verify(jmsService, never()).sendReply(any(), any(), anyInt(), any());
+        assertEquals(1L, responder.getStats().get("requests"));
+        assertEquals(1L, responder.getStats().get("ignored"));
+    }
+
+    @Test
+    void testLatencyIsInjected() throws Exception {
+        ResponderRule rule = new ResponderRule(2610);
+        rule.setLatencyMs(50);
+        responder.putRule(rule);
+
+        long start = System.nanoTime();
+        responder.onMessage(event(request(2610, 22, 20, 7)));
+
+        verify(jmsService, never()).sendReply(any(), any(), anyInt(), any());
+        verify(jmsService, timeout(2000)).sendReply(eq(replyTo), any(), anyInt(), eq("ID:1"));
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+        assertEquals(1L, responder.getStats().get("delayed"));
+    }
+
+    @Test
+    void testRejectsRuleForReplyCode() {
+        assertThrows(IllegalArgumentException.class, () -> responder.putRule(new ResponderRule(2659)));
+    }
+
+    // A received request with a JMSReplyTo and a message ID but no correlation ID
+    private ReceiveEvent event(byte[] payload) {
+        ReceiveEvent event = new ReceiveEvent();
+        event.set("acp/request", JournalRecord.TYPE_BYTES, null, null, replyTo, null, "ID:1", payload, System.nanoTime());
+        return event;
+    }
+
+    private byte[] request(int code, int source, int destination, long transactionId) {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(code);
+        header.setSourceSystemNumber(source);
+        header.setDestinationSystemNumber(destination);
+        header.setMessageTransactionId(transactionId);
+        header.setPhysicalTerminalId("AA4000");
+        return encoder.encode(header, new byte[8]);
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+}
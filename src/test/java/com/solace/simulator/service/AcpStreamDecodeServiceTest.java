@@ -0,0 +1,117 @@
+package com.solace.simulator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.simulator.codec.CaptureFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for decoding capture files as a stream
+ */
+class AcpStreamDecodeServiceTest {
+
+    // Example 2658 message with the 56-byte BCS header (source system 22)
+    private static final String MESSAGE_2658 = "620A16142400010100000000000000000000BC2E000000000000000000000000004F070000C60041413430303239386CE80E00000000000444440F0033080000014E414D45000000";
+
+    @TempDir
+    Path directory;
+
+    private AcpStreamDecodeService service;
+
+    @BeforeEach
+    void setUp() {
+        AcpBatchParser batchParser = new AcpBatchParser();
+        ReflectionTestUtils.setField(batchParser, "acpMessageParser", new AcpMessageParser());
+        ReflectionTestUtils.setField(batchParser, "objectMapper", new ObjectMapper());
+        service = new AcpStreamDecodeService();
+        ReflectionTestUtils.setField(service, "acpBatchParser", batchParser);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "parallelism", 4);
+        ReflectionTestUtils.setField(service, "maxInFlight", 8);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testCapturePathsStayInsideTheCaptureDirectory() throws Exception {
+        Path captures = Files.createDirectory(directory.resolve("captures"));
+        Path inside = Files.writeString(captures.resolve("capture.txt"), MESSAGE_2658);
+        Path outside = Files.writeString(directory.resolve("secret.txt"), "secret");
+        Files.createSymbolicLink(captures.resolve("link.txt"), outside);
+        ReflectionTestUtils.setField(service, "captureDir", captures.toString());
+
+        assertEquals(inside, service.resolveCapture("capture.txt"));
+        assertEquals(inside, service.resolveCapture("./sub/../capture.txt"));
+        assertThrows(IllegalArgumentException.class, () -> service.resolveCapture("../secret.txt"));
+        assertThrows(IllegalArgumentException.class, () -> service.resolveCapture(outside.toString()));
+        assertThrows(IllegalArgumentException.class, () -> service.resolveCapture("link.txt"));
+        assertThrows(NoSuchFileException.class, () -> service.resolveCapture("missing.txt"));
+    }
+
+    @Test
+    void testNdjsonResultsKeepCaptureOrderWithBoundedInFlight() throws Exception {
+        StringBuilder capture = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            capture.append(i % 500 == 499 ? "NOT HEX" : String.format("%02X%02X", i & 0xFF, i >> 8)).append('\n');
+        }
+        Path file = Files.writeString(directory.resolve("capture.txt"), capture);
+
+        AcpStreamDecodeService.Job job = service.createJob(file.toString(), "basic", AcpStreamDecodeService.Output.NDJSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.decode(CaptureFileReader.open(file, null, 256), job, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3000, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = mapper.readTree(lines[i]);
+            assertEquals(i, line.get("index").asInt());
+            if (i % 500 == 499) {
+                assertTrue(line.has("error"));
+            } else {
+                assertEquals(i, line.get("result").get("fields").get("Field_0_1").asInt());
+            }
+        }
+        assertEquals(AcpStreamDecodeService.State.DONE, job.getState());
+        assertEquals(3000, job.getRecords());
+        assertEquals(6, job.getErrors());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> status = ((List<Map<String, Object>>) service.getJobs().get("jobs")).get(0);
+        assertEquals(100.0, status.get("percent"));
+        assertEquals("HEX", status.get("format"));
+    }
+
+    @Test
+    void testCsvRowsOfHeaderFields() throws Exception {
+        AcpStreamDecodeService.Job job = service.createJob("test", "enhanced", AcpStreamDecodeService.Output.CSV);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Path file = Files.writeString(directory.resolve("capture.txt"), MESSAGE_2658 + "\nZZ\n");
+        service.decode(CaptureFileReader.open(file, CaptureFileReader.Format.HEX, 1024), job, out);
+
+        String[] rows = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(AcpStreamDecodeService.CSV_HEADER.trim(), rows[0]);
+        assertEquals("0,0,72,2658,22,0,11964,0,1871,0,AA400298,", rows[1]);
+        assertTrue(rows[2].startsWith("1," + (MESSAGE_2658.length() + 1) + ",,,,,,,,,,Invalid hexadecimal"));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createJob("test", "fancy", AcpStreamDecodeService.Output.NDJSON));
+    }
+}
@@ -0,0 +1,110 @@
+package com.solace.simulator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for borrowing, returning and closing pooled send sessions
+ */
+class JmsSessionPoolTest {
+
+    private Connection connection;
+    private Session session;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+    }
+
+    @Test
+    void testSessionIsReturnedAfterUse() throws JMSException {
+        JmsSessionPool pool = new JmsSessionPool(connection, 1, 4, false, 100);
+
+        assertSame(session, pool.execute((borrowed, producers) -> {
+            assertEquals(0, pool.getIdleCount());
+            return borrowed;
+        }));
+        assertThrows(JMSException.class, () -> pool.execute((borrowed, producers) -> {
+            throw new JMSException("send failed");
+        }));
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(2, pool.getBorrows());
+        assertEquals(0, pool.getWaits());
+    }
+
+    @Test
+    void testBorrowTimesOutWhileAllSessionsAreInUse() throws Exception {
+        JmsSessionPool pool = new JmsSessionPool(connection, 1, 4, false, 50);
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = hold(pool, borrowed, release);
+
+        assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+        JMSException e = assertThrows(JMSException.class, () -> pool.execute((s, producers) -> null));
+        assertTrue(e.getMessage().contains("50 ms"));
+        assertEquals(1, pool.getWaits());
+        assertEquals(1, pool.getTimeouts());
+
+        release.countDown();
+        holder.join(5000);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void testCloseWaitsForBorrowedSessions() throws Exception {
+        JmsSessionPool pool = new JmsSessionPool(connection, 1, 4, false, 5000);
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = hold(pool, borrowed, release);
+        assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+
+        Thread closer = new Thread(pool::close);
+        closer.start();
+        closer.join(200);
+        assertTrue(closer.isAlive(), "close must wait for the borrowed session");
+        assertTrue(pool.isClosed());
+        verify(session, never()).close();
+        assertThrows(IllegalStateException.class, () -> pool.execute((s, producers) -> null));
+
+        release.countDown();
+        closer.join(5000);
+        holder.join(5000);
+        assertFalse(closer.isAlive());
+        verify(session).close();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    // Borrow the pool's session on another thread and keep it until released
+    private static Thread hold(JmsSessionPool pool, CountDownLatch borrowed, CountDownLatch release) {
+        Thread holder = new Thread(() -> {
+            try {
+                pool.execute((s, producers) -> {
+                    borrowed.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (JMSException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        return holder;
+    }
+}
@@ -0,0 +1,127 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.AcpMessageHeader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.jms.Message;
+import javax.jms.Queue;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the request/reply latency correlator
+ */
+class LatencyCorrelatorServiceTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+
+    private LatencyCorrelatorService correlator;
+    private Message request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        correlator = new LatencyCorrelatorService();
+        ReflectionTestUtils.setField(correlator, "solaceJmsService", mock(SolaceJmsService.class));
+        ReflectionTestUtils.setField(correlator, "messagingTemplate", mock(SimpMessagingTemplate.class));
+        ReflectionTestUtils.setField(correlator, "publishIntervalMillis", 0L);
+        correlator.init();
+
+        request = mock(Message.class);
+        when(request.getJMSReplyTo()).thenReturn(mock(Queue.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        correlator.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMatchesReplyByTransactionId() throws Exception {
+        byte[] sent = message(2604, 22, 20, 11964);
+        correlator.onSend(request, sent, sent.length);
+        correlator.onMessage(reply(null, message(2659, 20, 22, 11964)));
+
+        Map<String, Object> stats = correlator.getStats();
+        assertEquals(1L, stats.get("matched"));
+        assertEquals(0, stats.get("pending"));
+        Map<String, Object> byCode = (Map<String, Object>) stats.get("latencyMicrosByMessageCode");
+        assertEquals(1L, ((Map<String, Object>) byCode.get("2604")).get("count"));
+    }
+
+    @Test
+    void testMatchesTextRequestByGeneratedCorrelationId() throws Exception {
+        correlator.onSend(request, null, 0);
+        verify(request).setJMSCorrelationID("SIM-1");
+
+        correlator.onMessage(reply("SIM-1", null));
+
+        assertEquals(1L, correlator.getStats().get("matched"));
+    }
+
+    @Test
+    void testUnmatchedReplyIsOrphanAndExpiredRequestIsTimeout() throws Exception {
+        ReflectionTestUtils.setField(correlator, "timeoutMillis", 0L);
+        byte[] sent = message(2610, 22, 20, 1);
+        correlator.onSend(request, sent, sent.length);
+        correlator.onMessage(reply(null, message(2611, 20, 22, 2)));
+        correlator.expirePending();
+
+        Map<String, Object> stats = correlator.getStats();
+        assertEquals(1L, stats.get("orphans"));
+        assertEquals(1L, stats.get("timeouts"));
+        assertEquals(0, stats.get("pending"));
+    }
+
+    @Test
+    void testPendingIsBounded() throws Exception {
+        ReflectionTestUtils.setField(correlator, "maxPending", 2);
+        for (int i = 0; i < 5; i++) {
+            byte[] sent = message(2610, 22, 20, i);
+            correlator.onSend(request, sent, sent.length);
+        }
+
+        assertEquals(2, correlator.getStats().get("pending"));
+        assertEquals(3L, correlator.getStats().get("overflow"));
+    }
+
+    @Test
+    void testDuplicateTransactionIdKeepsFirstRequest() throws Exception {
+        ReflectionTestUtils.setField(correlator, "timeoutMillis", 0L);
+        byte[] sent = message(2604, 22, 20, 7);
+        correlator.onSend(request, sent, sent.length);
+        correlator.onSend(request, sent, sent.length);
+
+        Map<String, Object> stats = correlator.getStats();
+        assertEquals(1L, stats.get("tracked"));
+        assertEquals(1L, stats.get("duplicates"));
+        assertEquals(1, stats.get("pending"));
+
+        correlator.expirePending();
+        assertEquals(1L, correlator.getStats().get("timeouts"));
+        assertEquals(0, correlator.getStats().get("pending"));
+    }
+
+    private static ReceiveEvent reply(String correlationId, byte[] payload) {
+        ReceiveEvent event = new ReceiveEvent();
+        event.set("acp/reply", payload != null ? JournalRecord.TYPE_BYTES : JournalRecord.TYPE_TEXT, null, null,
+                null, correlationId, "ID:2", payload, System.nanoTime());
+        return event;
+    }
+
+    private byte[] message(int code, int source, int destination, long transactionId) {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(code);
+        header.setSourceSystemNumber(source);
+        header.setDestinationSystemNumber(destination);
+        header.setMessageTransactionId(transactionId);
+        return encoder.encode(header, new byte[4]);
+    }
+}
@@ -0,0 +1,127 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.LittleEndian;
+import com.solace.simulator.codec.RawFrame;
+import com.solace.simulator.model.ReceivedMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the batched WebSocket push of received messages
+ */
+class MessageBroadcastServiceTest {
+
+    private MessageBroadcastService broadcaster;
+    private SimpMessagingTemplate messagingTemplate;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        broadcaster = new MessageBroadcastService();
+        ReflectionTestUtils.setField(broadcaster, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(broadcaster, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(broadcaster, "maxPending", 5);
+        // Long interval: only full batches and explicit flushes are sent during the test
+        ReflectionTestUtils.setField(broadcaster, "flushIntervalMillis", 60_000L);
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFullBatchIsSentWithoutWaitingForInterval() {
+        for (int i = 0; i < 3; i++) {
+            broadcaster.publish(message("acp/reply/" + i));
+        }
+
+        ArgumentCaptor<List<ReceivedMessage>> batch = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate, timeout(5000)).convertAndSend(eq(MessageBroadcastService.MESSAGES_TOPIC), batch.capture());
+        assertEquals(List.of("acp/reply/0", "acp/reply/1", "acp/reply/2"),
+                batch.getValue().stream().map(ReceivedMessage::getDestination).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushSplitsBatchesAndDropsBeyondMaxPending() {
+        // Batch size above max-pending so nothing is sent until the explicit flush
+        ReflectionTestUtils.setField(broadcaster, "maxBatchSize", 10);
+        for (int i = 0; i < 7; i++) {
+            broadcaster.publish(message("acp/reply"));
+        }
+        ReflectionTestUtils.setField(broadcaster, "maxBatchSize", 4);
+        broadcaster.flush();
+
+        ArgumentCaptor<List<ReceivedMessage>> batches = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(MessageBroadcastService.MESSAGES_TOPIC), batches.capture());
+        assertEquals(List.of(4, 1), batches.getAllValues().stream().map(List::size).toList());
+
+        Map<String, Object> stats = broadcaster.getStats();
+        assertEquals(7L, stats.get("published"));
+        assertEquals(5L, stats.get("sent"));
+        assertEquals(2L, stats.get("dropped"));
+        assertEquals(2L, stats.get("batches"));
+        assertEquals(0, stats.get("pending"));
+        assertEquals(2L, ((Map<String, Object>) stats.get("batchSize")).get("count"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBinaryDestinationGetsRawRecords() {
+        ReflectionTestUtils.setField(broadcaster, "maxBatchSize", 10);
+        String binaryTopic = MessageBroadcastService.MESSAGES_TOPIC + MessageRoutingService.BINARY_SUFFIX;
+        ReceivedMessage first = message("acp/reply");
+        first.setPayload(new byte[] {0x0B, 0x0A, 0x00});
+        ReceivedMessage second = message("acp/request");
+        second.setMessageType("TEXT");
+        second.setText("hi");
+        second.setTimestampNanos(1_704_164_645_123_456_789L);
+        broadcaster.publish(first, List.of(binaryTopic, MessageBroadcastService.MESSAGES_TOPIC));
+        broadcaster.publish(second, List.of(binaryTopic));
+        broadcaster.flush();
+
+        verify(messagingTemplate).convertAndSend(eq(MessageBroadcastService.MESSAGES_TOPIC), any(List.class));
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(binaryTopic), sent.capture());
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM,
+                sent.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE));
+
+        ByteBuffer frame = LittleEndian.order(ByteBuffer.wrap((byte[]) sent.getValue().getPayload()));
+        assertEquals(2 * RawFrame.HEADER_SIZE + 5, frame.limit());
+        assertEquals(RawFrame.TYPE_BYTES, LittleEndian.uint8(frame, RawFrame.TYPE));
+        assertEquals(3, LittleEndian.uint32(frame, RawFrame.LENGTH));
+        assertEquals(0x0B, frame.get(RawFrame.HEADER_SIZE));
+        int secondRecord = RawFrame.HEADER_SIZE + 3;
+        assertEquals(RawFrame.TYPE_TEXT, LittleEndian.uint8(frame, secondRecord + RawFrame.TYPE));
+        assertEquals(1_704_164_645_123L, LittleEndian.uint64(frame, secondRecord + RawFrame.TIMESTAMP));
+        int firstId = LittleEndian.uint16(frame, RawFrame.DESTINATION_ID);
+        int secondId = LittleEndian.uint16(frame, secondRecord + RawFrame.DESTINATION_ID);
+        assertEquals(Map.of(firstId, "acp/reply", secondId, "acp/request"), broadcaster.getDestinationIds());
+        assertEquals(1L, broadcaster.getStats().get("binaryBatches"));
+    }
+
+    private static ReceivedMessage message(String destination) {
+        ReceivedMessage message = new ReceivedMessage();
+        message.setDestination(destination);
+        message.setMessageType("BYTE");
+        return message;
+    }
+}
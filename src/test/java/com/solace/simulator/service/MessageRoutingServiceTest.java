@@ -0,0 +1,104 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpFilter;
+import com.solace.simulator.model.AcpMessageHeader;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for routing received messages to STOMP destinations and filters
+ */
+class MessageRoutingServiceTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+    private final MessageRoutingService routing = new MessageRoutingService();
+
+    @Test
+    void testRoutesByDestinationAndMessageCode() {
+        assertTrue(routing.route("acp/reply", message(2659, 20, 0, 7)).isEmpty());
+
+        routing.addSubscription("s1", "sub-0", "/topic/messages", null);
+        routing.addSubscription("s1", "sub-1", "/topic/messages/acp/reply", null);
+        routing.addSubscription("s2", "sub-0", "/topic/acp/2659", null);
+        assertNull(routing.addSubscription("s2", "sub-1", "/topic/latency", null));
+
+        assertEquals(List.of("/topic/messages", "/topic/messages/acp/reply", "/topic/acp/2659"),
+                sorted(routing.route("acp/reply", message(2659, 20, 0, 7))));
+        assertEquals(List.of("/topic/messages"), routing.route("acp/other", message(2611, 20, 0, 7)));
+        // Text messages have no bytes and only reach unfiltered, non-ACP routes
+        assertEquals(List.of("/topic/messages", "/topic/messages/acp/reply"), sorted(routing.route("acp/reply", null)));
+
+        routing.removeSession("s1");
+        assertEquals(List.of("/topic/acp/2659"), routing.route("acp/reply", message(2659, 20, 0, 7)));
+        routing.removeSubscription("s2", "sub-0");
+        assertTrue(routing.route("acp/reply", message(2659, 20, 0, 7)).isEmpty());
+    }
+
+    @Test
+    void testFilteredSubscriptionGetsItsOwnBrokerDestination() {
+        StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscribe.setSessionId("s1");
+        subscribe.setSubscriptionId("sub-0");
+        subscribe.setDestination("/topic/messages");
+        subscribe.setNativeHeader(MessageRoutingService.FILTER_HEADER, " reply != 0 ; code=2600-2699 ");
+        Message<?> rewritten = routing.preSend(
+                MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()), mock(MessageChannel.class));
+
+        String brokerDestination = "/topic/messages#reply!=0;code=2600-2699";
+        assertEquals(brokerDestination, StompHeaderAccessor.wrap(rewritten).getDestination());
+        // BCS reply (source 22 shifts the reply code) with reply code 3 matches; success replies and other codes do not
+        assertEquals(List.of(brokerDestination), routing.route("acp/reply", message(2659, 22, 3, 1201)));
+        assertTrue(routing.route("acp/reply", message(2659, 22, 0, 1201)).isEmpty());
+        assertTrue(routing.route("acp/reply", message(2801, 20, 3, 1201)).isEmpty());
+        assertTrue(routing.route("acp/reply", new byte[10]).isEmpty());
+
+        // Binary subscribers with the same filter get a destination of their own
+        assertEquals(brokerDestination + MessageRoutingService.BINARY_SUFFIX, routing.addSubscription(
+                "s2", "sub-0", "/topic/messages", "reply!=0;code=2600-2699", MessageRoutingService.isBinaryFormat("binary")));
+        assertEquals(List.of(brokerDestination, brokerDestination + MessageRoutingService.BINARY_SUFFIX),
+                routing.route("acp/reply", message(2659, 22, 3, 1201)).stream().sorted().toList());
+        assertThrows(IllegalArgumentException.class, () -> MessageRoutingService.isBinaryFormat("xml"));
+    }
+
+    @Test
+    void testFilterParsing() {
+        AcpFilter filter = AcpFilter.parse("terminal=1201,1300-1399;source!=22");
+        assertEquals("terminal=1201,1300-1399;source!=22", filter.toString());
+        assertTrue(filter.matches(message(2659, 20, 0, 1350), AcpMessageEncoder.STANDARD_HEADER_SIZE + 4));
+        assertFalse(filter.matches(message(2659, 22, 0, 1350), AcpMessageEncoder.BCS_HEADER_SIZE + 4));
+        assertFalse(filter.matches(message(2659, 20, 0, 1400), AcpMessageEncoder.STANDARD_HEADER_SIZE + 4));
+
+        assertThrows(IllegalArgumentException.class, () -> AcpFilter.parse("colour=red"));
+        assertThrows(IllegalArgumentException.class, () -> AcpFilter.parse("code=abc"));
+        assertThrows(IllegalArgumentException.class, () -> AcpFilter.parse("code=2699-2600"));
+        assertThrows(IllegalArgumentException.class, () -> AcpFilter.parse(" ; "));
+        assertThrows(IllegalArgumentException.class,
+                () -> routing.addSubscription("s1", "sub-0", "/topic/acp", "code>2600"));
+    }
+
+    private byte[] message(int code, int source, int replyCode, long terminal) {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(code);
+        header.setSourceSystemNumber(source);
+        header.setReplyCode(replyCode);
+        header.setLogicalTerminalId(terminal);
+        return encoder.encode(header, new byte[4]);
+    }
+
+    private static List<String> sorted(List<String> destinations) {
+        return destinations.stream().sorted((a, b) -> Integer.compare(order(a), order(b))).toList();
+    }
+
+    private static int order(String destination) {
+        return destination.equals("/topic/messages") ? 0 : destination.startsWith("/topic/messages/") ? 1 : 2;
+    }
+}
@@ -0,0 +1,97 @@
+package com.solace.simulator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.jms.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the LRU producer/destination cache
+ */
+class ProducerCacheTest {
+
+    private Session session;
+    private Message message;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        session = mock(Session.class);
+        message = mock(Message.class);
+        when(session.createTopic(anyString())).thenAnswer(inv -> mock(Topic.class));
+        when(session.createQueue(anyString())).thenAnswer(inv -> mock(Queue.class));
+        when(session.createProducer(any())).thenAnswer(inv -> mock(MessageProducer.class));
+    }
+
+    @Test
+    void testProducerReusedForSameDestination() throws JMSException {
+        ProducerCache cache = new ProducerCache(session, 4, false);
+
+        cache.send("TOPIC", "acp/request", message);
+        cache.send("TOPIC", "acp/request", message);
+        cache.send("topic", "acp/request", message);
+
+        verify(session, times(1)).createTopic("acp/request");
+        verify(session, times(1)).createProducer(any(Topic.class));
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void testTopicAndQueueWithSameNameAreDistinct() throws JMSException {
+        ProducerCache cache = new ProducerCache(session, 4, false);
+
+        cache.send("TOPIC", "same", message);
+        cache.send("QUEUE", "same", message);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedProducerIsEvictedAndClosed() throws JMSException {
+        MessageProducer first = mock(MessageProducer.class);
+        when(session.createProducer(any())).thenReturn(first).thenAnswer(inv -> mock(MessageProducer.class));
+        ProducerCache cache = new ProducerCache(session, 2, false);
+
+        cache.send("TOPIC", "a", message);
+        cache.send("TOPIC", "b", message);
+        cache.send("TOPIC", "c", message);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        verify(first).close();
+    }
+
+    @Test
+    void testAnonymousModeUsesSingleUnboundProducer() throws JMSException {
+        MessageProducer anonymous = mock(MessageProducer.class);
+        when(session.createProducer(null)).thenReturn(anonymous);
+        ProducerCache cache = new ProducerCache(session, 4, true);
+
+        cache.send("TOPIC", "a", message);
+        cache.send("QUEUE", "b", message);
+        cache.send("TOPIC", "a", message);
+
+        verify(session, times(1)).createProducer(null);
+        verify(anonymous, times(3)).send(any(Destination.class), eq(message));
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testCloseReleasesProducers() throws JMSException {
+        MessageProducer producer = mock(MessageProducer.class);
+        when(session.createProducer(any())).thenReturn(producer);
+        ProducerCache cache = new ProducerCache(session, 4, false);
+
+        cache.send("TOPIC", "a", message);
+        cache.close();
+
+        verify(producer).close();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,146 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.pipeline.WaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.TextMessage;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ring buffer between the JMS listener and the receive stages
+ */
+class ReceivePipelineServiceTest {
+
+    private ReceivePipelineService pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new ReceivePipelineService();
+        ReflectionTestUtils.setField(pipeline, "ringSize", 4);
+        ReflectionTestUtils.setField(pipeline, "waitStrategyName", "yield");
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStagesSeeEveryMessageInOrderAndDownstreamStagesWait() throws Exception {
+        pipeline.init();
+        List<String> decoded = new CopyOnWriteArrayList<>();
+        List<String> fannedOut = new CopyOnWriteArrayList<>();
+        pipeline.addStage("decode", (event, sequence, endOfBatch) -> decoded.add(event.getDestination()));
+        // Downstream stage: every message it sees must already have been decoded
+        pipeline.addStage("fan-out", (event, sequence, endOfBatch) -> {
+            assertTrue(decoded.contains(event.getDestination()));
+            fannedOut.add(event.getDestination());
+        }, "decode");
+        assertThrows(IllegalArgumentException.class, () -> pipeline.addStage("journal", (e, s, b) -> { }, "archive"));
+
+        // Ten messages through a ring of four: the listener wraps around, waiting for the stages
+        for (int i = 0; i < 10; i++) {
+            pipeline.publish("acp/" + i, null, new byte[] {(byte) i}, System.nanoTime());
+        }
+        // Counters advance after each batch, so wait for the last stage's, not just its output
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<Map<String, Object>> stages = (List<Map<String, Object>>) pipeline.getStats().get("stages");
+        while (!stages.get(1).get("processed").equals(10L) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            stages = (List<Map<String, Object>>) pipeline.getStats().get("stages");
+        }
+
+        List<String> expected = IntStream.range(0, 10).mapToObj(i -> "acp/" + i).toList();
+        assertEquals(expected, decoded);
+        assertEquals(expected, fannedOut);
+        assertEquals(10L, pipeline.getStats().get("published"));
+        for (Map<String, Object> stage : stages) {
+            assertEquals(10L, stage.get("processed"));
+            assertEquals(0L, stage.get("lag"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFullRingHoldsBackListenerAndLagIsReported() throws Exception {
+        pipeline.init();
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.addStage("slow", (event, sequence, endOfBatch) -> release.await());
+
+        Thread listener = new Thread(() -> {
+            try {
+                for (int i = 0; i < 6; i++) {
+                    pipeline.publish("acp/reply", null, null, System.nanoTime());
+                }
+            } catch (JMSException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        listener.start();
+        // The stage is stuck on the first slot; the listener fills the other three and the fifth claim waits
+        listener.join(200);
+        assertTrue(listener.isAlive());
+        Map<String, Object> stage = ((List<Map<String, Object>>) pipeline.getStats().get("stages")).get(0);
+        assertEquals(4L, stage.get("lag"));
+        assertEquals(1L, pipeline.getStats().get("fullWaits"));
+
+        release.countDown();
+        listener.join(5000);
+        assertFalse(listener.isAlive());
+        assertEquals(WaitStrategy.YIELD.name(), pipeline.getStats().get("waitStrategy"));
+    }
+
+    @Test
+    void testDisabledPipelineRunsStagesOnListenerThread() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.init();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        pipeline.addStage("listeners", (event, sequence, endOfBatch) -> threads.add(Thread.currentThread()));
+        pipeline.publish("acp/reply", null, null, System.nanoTime());
+        assertEquals(List.of(Thread.currentThread()), threads);
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.parse("sleep"));
+    }
+
+    @Test
+    void testSlotHoldsCopiesOfTheMessageFields() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.init();
+        Queue replyTo = mock(Queue.class);
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn("hello");
+        when(message.getPropertyNames()).thenAnswer(invocation -> Collections.enumeration(List.of("terminal")));
+        when(message.getStringProperty("terminal")).thenReturn("1201");
+        when(message.getJMSReplyTo()).thenReturn(replyTo);
+        when(message.getJMSCorrelationID()).thenReturn("SIM-1");
+        List<ReceiveEvent> events = new CopyOnWriteArrayList<>();
+        pipeline.addStage("listeners", (event, sequence, endOfBatch) -> events.add(event));
+
+        pipeline.publish("acp/reply", message, null, 42L);
+        clearInvocations(message);
+
+        ReceiveEvent event = events.get(0);
+        assertEquals(JournalRecord.TYPE_TEXT, event.getType());
+        assertEquals("hello", event.getText());
+        assertArrayEquals(new String[] {"terminal", "1201"}, event.getProperties());
+        assertSame(replyTo, event.getReplyTo());
+        assertEquals("SIM-1", event.getCorrelationId());
+        assertEquals(42L, event.getReceivedNanos());
+        verifyNoInteractions(message);
+    }
+}
@@ -0,0 +1,156 @@
+package com.solace.simulator.service;
+
+import com.solace.simulator.codec.AcpHeader;
+import com.solace.simulator.codec.LittleEndian;
+import com.solace.simulator.journal.CaptureJournal;
+import com.solace.simulator.journal.FlushPolicy;
+import com.solace.simulator.journal.JournalRecord;
+import com.solace.simulator.model.AcpMessageHeader;
+import com.solace.simulator.model.ReplayRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for replaying a capture journal
+ */
+class ReplayServiceTest {
+
+    private final AcpMessageEncoder encoder = new AcpMessageEncoder();
+
+    @TempDir
+    Path directory;
+
+    private SolaceJmsService jmsService;
+    private ReplayService replay;
+    // Sent ACP messages per destination, copied as the replay reuses its buffer
+    private final Map<String, List<byte[]>> sent = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jmsService = mock(SolaceJmsService.class);
+        when(jmsService.isConnected()).thenReturn(true);
+        doAnswer(invocation -> {
+            byte[] payload = invocation.getArgument(2);
+            int length = invocation.getArgument(3);
+            sent.computeIfAbsent(invocation.getArgument(1), d -> new CopyOnWriteArrayList<>())
+                    .add(Arrays.copyOf(payload, length));
+            return null;
+        }).when(jmsService).sendBytes(anyString(), anyString(), any(byte[].class), anyInt(), any(), any());
+
+        replay = new ReplayService();
+        ReflectionTestUtils.setField(replay, "solaceJmsService", jmsService);
+        ReflectionTestUtils.setField(replay, "captureJournalService", new CaptureJournalService());
+
+        // Six requests to two destinations, 10 ms apart; one received reply in between
+        try (CaptureJournal journal = new CaptureJournal(directory, 1024 * 1024, FlushPolicy.OS, 1000, 1,
+                Long.MAX_VALUE, 60_000)) {
+            for (int i = 0; i < 6; i++) {
+                byte[] message = request(1000 + i);
+                journal.append(JournalRecord.SENT, JournalRecord.TYPE_BYTES, i * 10_000_000L,
+                        i % 2 == 0 ? "acp/even" : "acp/odd", null, message, message.length);
+                if (i == 2) {
+                    journal.append(JournalRecord.RECEIVED, JournalRecord.TYPE_BYTES, i * 10_000_000L,
+                            "acp/reply", null, message, message.length);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        replay.shutdown();
+    }
+
+    @Test
+    void testMaxRateReplayOverLanesKeepsDestinationOrderAndRewritesTransactionIds() throws Exception {
+        ReplayRequest request = new ReplayRequest();
+        request.setDirectory(directory.toString());
+        request.setSpeed(0);
+        request.setLanes(2);
+        request.setRewriteTransactionIds(true);
+        request.setStartTransactionId(500);
+        replay.start(request);
+        Map<String, Object> status = awaitCompletion();
+
+        assertEquals(6L, status.get("sent"));
+        assertEquals(3, sent.get("acp/even").size());
+        assertEquals(3, sent.get("acp/odd").size());
+        List<Long> ids = new ArrayList<>();
+        for (List<byte[]> messages : sent.values()) {
+            long previous = -1;
+            for (byte[] message : messages) {
+                long id = AcpHeader.peekMessageTransactionId(LittleEndian.order(ByteBuffer.wrap(message)));
+                assertTrue(id > previous, "Destination order kept");
+                previous = id;
+                ids.add(id);
+                assertEquals(AcpMessageEncoder.checksum(message, message.length - 1), message[message.length - 1]);
+            }
+        }
+        assertEquals(List.of(500L, 501L, 502L, 503L, 504L, 505L), ids.stream().sorted().toList());
+    }
+
+    @Test
+    void testRecordedTimingIsScaledBySpeed() throws Exception {
+        ReplayRequest request = new ReplayRequest();
+        request.setDirectory(directory.toString());
+        // The only received record is sequence 3
+        request.setDirection("received");
+        request.setFromSequence(4);
+        replay.start(request);
+        Map<String, Object> failed = await("FAILED");
+        assertEquals(0L, failed.get("sent"));
+        assertTrue(((String) failed.get("lastError")).startsWith("No received records"));
+
+        // 50 ms of capture at x2 takes at least 25 ms
+        request.setDirection("SENT");
+        request.setFromSequence(0);
+        request.setSpeed(2);
+        long start = System.nanoTime();
+        replay.start(request);
+        Map<String, Object> status = awaitCompletion();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(25));
+        assertEquals(6L, status.get("sent"));
+        assertEquals(0.05, (Double) status.get("capturedSeconds"), 1e-9);
+        verify(jmsService, never()).sendBytes(anyString(), eq("acp/reply"), any(byte[].class), anyInt(), any(), any());
+    }
+
+    private Map<String, Object> awaitCompletion() throws InterruptedException {
+        return await("COMPLETED");
+    }
+
+    private Map<String, Object> await(String state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!state.equals(replay.getStatus().get("state")) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Map<String, Object> status = replay.getStatus();
+        assertEquals(state, status.get("state"));
+        return status;
+    }
+
+    private byte[] request(long transactionId) {
+        AcpMessageHeader header = new AcpMessageHeader();
+        header.setMessageCode(2604);
+        header.setSourceSystemNumber(22);
+        header.setDestinationSystemNumber(20);
+        header.setMessageTransactionId(transactionId);
+        return encoder.encode(header, new byte[] {1, 2, 3, 4});
+    }
+}
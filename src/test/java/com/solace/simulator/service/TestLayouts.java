@@ -0,0 +1,33 @@
+package com.solace.simulator.service;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Layout registries for tests
+ */
+final class TestLayouts {
+
+    private TestLayouts() {
+    }
+
+    /**
+     * Registry loaded from a spec file and a layout cache, either of which may be missing
+     */
+    static AcpLayoutRegistry registry(Path spec, Path cache) throws IOException {
+        AcpLayoutRegistry registry = new AcpLayoutRegistry();
+        ReflectionTestUtils.setField(registry, "specPath", spec.toString());
+        ReflectionTestUtils.setField(registry, "cachePath", cache.toString());
+        registry.load();
+        return registry;
+    }
+
+    /**
+     * Registry with the layouts bundled on the classpath: no spec file or cache in the directory
+     */
+    static AcpLayoutRegistry bundled(Path directory) throws IOException {
+        return registry(directory.resolve("missing.htm"), directory.resolve("missing.json"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.solace.simulator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the bounded per-session WebSocket outbound buffers
+ */
+class WebSocketBackpressureServiceTest {
+
+    private WebSocketBackpressureService backpressure;
+    private MessageChannel channel;
+    private MessageHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        backpressure = new WebSocketBackpressureService();
+        ReflectionTestUtils.setField(backpressure, "bufferSize", 2);
+        channel = mock(MessageChannel.class);
+        handler = mock(MessageHandler.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDropOldestKeepsOneFrameInFlightPerSession() {
+        Message<?> first = frame("s1", "1");
+        assertSame(first, backpressure.preSend(first, channel));
+        for (int i = 2; i <= 5; i++) {
+            assertNull(backpressure.preSend(frame("s1", String.valueOf(i)), channel));
+        }
+        // Other sessions and non-MESSAGE frames are not held back by the slow one
+        Message<?> other = frame("s2", "x");
+        assertSame(other, backpressure.preSend(other, channel));
+        Message<?> heartbeat = MessageBuilder.createMessage(new byte[0],
+                SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT).getMessageHeaders());
+        assertSame(heartbeat, backpressure.preSend(heartbeat, channel));
+
+        // Frames 2 and 3 were dropped; 4 and 5 are released one at a time as each write completes
+        backpressure.afterMessageHandled(first, channel, handler, null);
+        Message<?> fourth = released();
+        assertEquals("4", payload(fourth));
+        assertSame(fourth, backpressure.preSend(fourth, channel));
+        backpressure.afterMessageHandled(fourth, channel, handler, null);
+        assertEquals("5", payload(released()));
+
+        Map<String, Object> stats = backpressure.getStats();
+        assertEquals(2L, stats.get("dropped"));
+        assertEquals(2L, stats.get("delivered"));
+        Map<String, Object> s1 = ((List<Map<String, Object>>) stats.get("sessions")).stream()
+                .filter(session -> "s1".equals(session.get("sessionId"))).findFirst().orElseThrow();
+        assertEquals(1, s1.get("queued"));
+        assertEquals(2L, s1.get("dropped"));
+    }
+
+    @Test
+    void testSummaryOnlyReplacesBacklogWithDropCount() {
+        backpressure.setOverflowPolicy(WebSocketBackpressureService.OverflowPolicy.parse("summary-only"));
+        Message<?> first = frame("s1", "1");
+        backpressure.preSend(first, channel);
+        for (int i = 2; i <= 6; i++) {
+            backpressure.preSend(frame("s1", String.valueOf(i)), channel);
+        }
+
+        // 2, 3 and 4 collapse into a summary; 5 queues behind it and collapses with 6 into a new one
+        backpressure.afterMessageHandled(first, channel, handler, null);
+        Message<?> summary = released();
+        assertEquals("{\"dropped\":5}", payload(summary));
+        assertEquals("s1", SimpMessageHeaderAccessor.getSessionId(summary.getHeaders()));
+        assertEquals("/topic/messages", SimpMessageHeaderAccessor.getDestination(summary.getHeaders()));
+
+        assertThrows(IllegalArgumentException.class, () -> WebSocketBackpressureService.OverflowPolicy.parse("fifo"));
+    }
+
+    private Message<?> released() {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(channel, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Message<byte[]> frame(String sessionId, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/messages");
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private static String payload(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+}